@@ -0,0 +1,64 @@
+package org.esfe.auditoria;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Buffer circular acotado, sin candados, de varios productores y un solo consumidor.
+ * Los hilos de las solicitudes reservan una celda con un CAS sobre la cola y publican el registro con
+ * una escritura volátil; el hilo escritor lo toma, vacía la celda y avanza la cabeza. Una celda
+ * reservada pero aún sin publicar se ve vacía: el consumidor simplemente reintenta más tarde.
+ */
+final class AnilloAuditoria {
+
+    private final AtomicReferenceArray<RegistroAuditoria> celdas;
+    private final int capacidad;
+    private final int mascara;
+    private final AtomicLong cola = new AtomicLong();
+    // Solo la escribe el consumidor; los productores la leen para no pisar celdas sin consumir
+    private volatile long cabeza;
+
+    AnilloAuditoria(int capacidadSolicitada) {
+        this.capacidad = Integer.highestOneBit(Math.max(2, capacidadSolicitada - 1)) << 1;
+        this.mascara = capacidad - 1;
+        this.celdas = new AtomicReferenceArray<>(capacidad);
+    }
+
+    /**
+     * Encola sin bloquear; false si el anillo está lleno.
+     */
+    boolean ofrecer(RegistroAuditoria registro) {
+        long posicion;
+        do {
+            posicion = cola.get();
+            if (posicion - cabeza >= capacidad) {
+                return false;
+            }
+        } while (!cola.compareAndSet(posicion, posicion + 1));
+        celdas.set((int) (posicion & mascara), registro);
+        return true;
+    }
+
+    /**
+     * Solo desde el hilo consumidor. null si no hay nada publicado en la siguiente celda.
+     */
+    RegistroAuditoria sacar() {
+        long actual = cabeza;
+        int indice = (int) (actual & mascara);
+        RegistroAuditoria registro = celdas.get(indice);
+        if (registro == null) {
+            return null;
+        }
+        celdas.set(indice, null);
+        cabeza = actual + 1;
+        return registro;
+    }
+
+    boolean estaVacio() {
+        return cola.get() == cabeza;
+    }
+
+    int capacidad() {
+        return capacidad;
+    }
+}
@@ -0,0 +1,87 @@
+package org.esfe.auditoria;
+
+import org.esfe.dtos.invitacion.InvitacionSalidaDto;
+import org.esfe.dtos.miembro.MiembroSalidaDto;
+import org.esfe.enums.EstadoInvitacion;
+import org.esfe.enums.TipoEventoInvitacion;
+import org.esfe.enums.TipoEventoMiembro;
+import org.esfe.enums.TipoRegistroAuditoria;
+import org.esfe.eventos.InvitacionEvento;
+import org.esfe.eventos.MiembroEvento;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Traduce los eventos de invitaciones y miembros en registros de auditoría: respuestas y cancelaciones
+ * de invitaciones (InvitacionEquipoService.responderInvitacion / eliminarPorId) y cambios de estado de
+ * membresías (MiembroEquipoService.gestionarEstado / editarAtributos).
+ * <p>
+ * El actor es el usuario que informa el cliente en cada operación (usuarioActorId); el servicio no
+ * autentica, así que queda nulo cuando el cliente no lo envía.
+ */
+@Component
+public class AuditoriaDecisiones {
+
+    private final BitacoraAuditoria bitacora;
+
+    public AuditoriaDecisiones(BitacoraAuditoria bitacora) {
+        this.bitacora = bitacora;
+    }
+
+    @EventListener
+    public void alCambiarInvitacion(InvitacionEvento evento) {
+        InvitacionSalidaDto invitacion = evento.getInvitacion();
+        if (evento.getTipo() == TipoEventoInvitacion.CREADA || invitacion == null) {
+            return;
+        }
+        TipoRegistroAuditoria tipo;
+        // Al responder, el actor es quien respondió; al borrar, quien canceló
+        Integer actorId = evento.getActorId() != null ? evento.getActorId() : invitacion.getUsuarioRespondioId();
+        EstadoInvitacion estadoAnterior = EstadoInvitacion.PENDIENTE;
+        EstadoInvitacion estadoNuevo = invitacion.getEstado();
+        if (evento.getTipo() == TipoEventoInvitacion.CANCELADA) {
+            tipo = TipoRegistroAuditoria.INVITACION_CANCELADA;
+            // Cancelada por borrado: el DTO conserva el estado que tenía la invitación
+            if (estadoNuevo != null && estadoNuevo != EstadoInvitacion.CANCELADA) {
+                estadoAnterior = estadoNuevo;
+            }
+            estadoNuevo = EstadoInvitacion.CANCELADA;
+        } else if (estadoNuevo == EstadoInvitacion.ACEPTADA) {
+            tipo = TipoRegistroAuditoria.INVITACION_ACEPTADA;
+        } else if (estadoNuevo == EstadoInvitacion.RECHAZADA) {
+            tipo = TipoRegistroAuditoria.INVITACION_RECHAZADA;
+        } else {
+            return;
+        }
+        bitacora.registrar(new RegistroAuditoria(
+                LocalDateTime.now(),
+                tipo,
+                invitacion.getEquipo() != null ? invitacion.getEquipo().getId() : null,
+                invitacion.getUsuarioInvitadoId(),
+                actorId,
+                invitacion.getId(),
+                estadoAnterior.name(),
+                estadoNuevo.name()));
+    }
+
+    @EventListener
+    public void alCambiarMiembro(MiembroEvento evento) {
+        MiembroSalidaDto miembro = evento.getMiembro();
+        if (evento.getTipo() != TipoEventoMiembro.MODIFICADO || miembro == null
+                || Objects.equals(evento.getEstadoAnterior(), miembro.getEstado())) {
+            return;
+        }
+        bitacora.registrar(new RegistroAuditoria(
+                LocalDateTime.now(),
+                TipoRegistroAuditoria.MIEMBRO_CAMBIO_ESTADO,
+                miembro.getEquipoId(),
+                miembro.getUsuarioId(),
+                evento.getActorId(),
+                miembro.getId(),
+                evento.getEstadoAnterior(),
+                miembro.getEstado()));
+    }
+}
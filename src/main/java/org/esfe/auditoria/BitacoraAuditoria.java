@@ -0,0 +1,264 @@
+package org.esfe.auditoria;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bitácora de auditoría de solo anexado en archivos locales mapeados en memoria.
+ * <p>
+ * Las solicitudes solo encolan el registro en un anillo sin candados ({@link AnilloAuditoria}); un
+ * único hilo escritor lo copia al segmento activo (un MappedByteBuffer de tamaño fijo) y hace
+ * force() cada {@code auditoria.fsync-ms}. Al llenarse un segmento se fuerza, se cierra y se abre el
+ * siguiente; los segmentos más viejos que la retención se borran. Si el anillo se llena el registro se
+ * descarta y se cuenta en la métrica auditoria.registros{resultado=descartado}: la solicitud nunca
+ * espera al disco.
+ */
+@Component
+public class BitacoraAuditoria {
+
+    private static final Logger log = LoggerFactory.getLogger(BitacoraAuditoria.class);
+    // Sin registros ni fsync pendiente, el escritor duerme hasta que registrar() lo despierte (o este plazo)
+    private static final long ESPERA_MAXIMA_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long INTERVALO_RETENCION_NANOS = TimeUnit.HOURS.toNanos(1);
+
+    private final boolean habilitada;
+    private final Path directorio;
+    private final int bytesPorSegmento;
+    private final long intervaloFsyncNanos;
+    private final Duration retencion;
+    private final AnilloAuditoria anillo;
+    private final LectorAuditoria lector;
+    private final Counter encolados;
+    private final Counter descartados;
+
+    // Estado del hilo escritor (solo él lo toca)
+    private MappedByteBuffer segmento;
+    private Path archivoSegmento;
+    private long secuenciaSegmento;
+    private boolean pendienteFsync;
+
+    private volatile boolean activa;
+    private volatile boolean escritorEsperando;
+    private Thread escritor;
+
+    public BitacoraAuditoria(MeterRegistry meterRegistry,
+                             @Value("${auditoria.habilitada:true}") boolean habilitada,
+                             @Value("${auditoria.directorio:./data/auditoria}") String directorio,
+                             @Value("${auditoria.segmento-bytes:67108864}") int bytesPorSegmento,
+                             @Value("${auditoria.capacidad-anillo:65536}") int capacidadAnillo,
+                             @Value("${auditoria.fsync-ms:1000}") long fsyncMillis,
+                             @Value("${auditoria.retencion-dias:365}") int retencionDias) {
+        this.habilitada = habilitada;
+        this.directorio = Paths.get(directorio);
+        // Segmentos de tamaño múltiplo del registro: nunca queda un registro partido entre dos archivos
+        this.bytesPorSegmento = Math.max(RegistroAuditoria.TAMANIO,
+                bytesPorSegmento / RegistroAuditoria.TAMANIO * RegistroAuditoria.TAMANIO);
+        this.intervaloFsyncNanos = TimeUnit.MILLISECONDS.toNanos(fsyncMillis);
+        this.retencion = Duration.ofDays(retencionDias);
+        this.anillo = new AnilloAuditoria(capacidadAnillo);
+        this.lector = new LectorAuditoria(this.directorio);
+        this.encolados = contador(meterRegistry, "encolado");
+        this.descartados = contador(meterRegistry, "descartado");
+    }
+
+    private static Counter contador(MeterRegistry meterRegistry, String resultado) {
+        return Counter.builder("auditoria.registros")
+                .tag("resultado", resultado)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alIniciar() {
+        if (!habilitada) {
+            return;
+        }
+        try {
+            Files.createDirectories(directorio);
+            borrarSegmentosVencidos();
+            abrirUltimoSegmento();
+        } catch (IOException | UncheckedIOException e) {
+            log.error("No se pudo abrir la bitácora de auditoría en {}; los registros se descartarán.", directorio, e);
+            return;
+        }
+        escritor = Thread.ofPlatform()
+                .name("auditoria-escritor")
+                .daemon(true)
+                .unstarted(this::escribirPendientes);
+        activa = true;
+        escritor.start();
+    }
+
+    @PreDestroy
+    public void detener() {
+        if (escritor == null) {
+            return;
+        }
+        // El escritor vacía el anillo y fuerza el segmento antes de terminar
+        activa = false;
+        LockSupport.unpark(escritor);
+        try {
+            escritor.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Encola el registro sin bloquear. Con la bitácora deshabilitada (o sin abrir) no hace nada.
+     */
+    public void registrar(RegistroAuditoria registro) {
+        if (!activa) {
+            return;
+        }
+        if (anillo.ofrecer(registro)) {
+            encolados.increment();
+            if (escritorEsperando) {
+                LockSupport.unpark(escritor);
+            }
+        } else {
+            descartados.increment();
+            if ((long) descartados.count() % 1000 == 1) {
+                log.warn("Anillo de auditoría lleno ({} celdas): registros descartados hasta ahora: {}",
+                        anillo.capacidad(), (long) descartados.count());
+            }
+        }
+    }
+
+    public List<RegistroAuditoria> consultar(Integer equipoId, Integer usuarioId, LocalDateTime desde, int limite) {
+        return lector.consultar(equipoId, usuarioId, desde, limite);
+    }
+
+    // --- Hilo escritor ---
+
+    private void escribirPendientes() {
+        long ultimoFsync = System.nanoTime();
+        long ultimaRetencion = ultimoFsync;
+        while (activa || !anillo.estaVacio()) {
+            try {
+                RegistroAuditoria registro = anillo.sacar();
+                if (registro != null) {
+                    if (!segmento.hasRemaining()) {
+                        rotarSegmento();
+                    }
+                    registro.escribir(segmento);
+                    pendienteFsync = true;
+                    continue;
+                }
+
+                long ahora = System.nanoTime();
+                if (pendienteFsync && ahora - ultimoFsync >= intervaloFsyncNanos) {
+                    segmento.force();
+                    pendienteFsync = false;
+                    ultimoFsync = ahora;
+                }
+                if (ahora - ultimaRetencion >= INTERVALO_RETENCION_NANOS) {
+                    borrarSegmentosVencidos();
+                    ultimaRetencion = ahora;
+                }
+                if (activa) {
+                    esperar(pendienteFsync ? Math.max(1, ultimoFsync + intervaloFsyncNanos - ahora) : ESPERA_MAXIMA_NANOS);
+                }
+            } catch (IOException | UncheckedIOException e) {
+                // El registro en curso se pierde; se reintenta con el siguiente
+                log.error("Falló la escritura de la bitácora de auditoría en {}", archivoSegmento, e);
+                LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(1));
+            } catch (RuntimeException e) {
+                // Un registro que no se puede codificar no debe detener la bitácora: se descarta y se sigue
+                log.error("Se descartó un registro de auditoría por un error inesperado", e);
+            }
+        }
+        if (segmento != null) {
+            segmento.force();
+        }
+    }
+
+    /**
+     * Duerme hasta {@code nanos} o hasta que registrar() despierte al hilo. La marca se publica antes de
+     * volver a mirar el anillo: un registro encolado en medio lo ve este hilo o su productor ve la marca.
+     */
+    private void esperar(long nanos) {
+        escritorEsperando = true;
+        try {
+            if (activa && anillo.estaVacio()) {
+                LockSupport.parkNanos(this, nanos);
+            }
+        } finally {
+            escritorEsperando = false;
+        }
+    }
+
+    private void abrirUltimoSegmento() throws IOException {
+        List<Path> existentes = LectorAuditoria.segmentos(directorio);
+        if (existentes.isEmpty()) {
+            abrirSegmento(1);
+            return;
+        }
+        Path ultimo = existentes.get(existentes.size() - 1);
+        abrirSegmento(LectorAuditoria.secuencia(ultimo));
+        // Continuar después del último registro válido (lo que sigue es espacio libre o una escritura cortada)
+        segmento.position(LectorAuditoria.posicionFinal(segmento));
+        if (!segmento.hasRemaining()) {
+            rotarSegmento();
+        }
+    }
+
+    private void rotarSegmento() throws IOException {
+        segmento.force();
+        pendienteFsync = false;
+        abrirSegmento(secuenciaSegmento + 1);
+    }
+
+    private void abrirSegmento(long secuencia) throws IOException {
+        Path archivo = directorio.resolve(LectorAuditoria.nombreSegmento(secuencia));
+        try (RandomAccessFile acceso = new RandomAccessFile(archivo.toFile(), "rw");
+             FileChannel canal = acceso.getChannel()) {
+            if (canal.size() < bytesPorSegmento) {
+                acceso.setLength(bytesPorSegmento);
+            }
+            // El mapeo sigue siendo válido después de cerrar el canal
+            segmento = canal.map(FileChannel.MapMode.READ_WRITE, 0, bytesPorSegmento);
+        }
+        archivoSegmento = archivo;
+        secuenciaSegmento = secuencia;
+    }
+
+    private void borrarSegmentosVencidos() {
+        FileTime limite = FileTime.from(Instant.now().minus(retencion));
+        for (Path archivo : LectorAuditoria.segmentos(directorio)) {
+            if (archivo.equals(archivoSegmento)) {
+                continue;
+            }
+            try {
+                if (Files.getLastModifiedTime(archivo).compareTo(limite) < 0) {
+                    Files.deleteIfExists(archivo);
+                    log.info("Segmento de auditoría {} borrado por retención ({} días).", archivo.getFileName(), retencion.toDays());
+                }
+            } catch (IOException e) {
+                log.warn("No se pudo borrar el segmento de auditoría {}: {}", archivo, e.getMessage());
+            }
+        }
+    }
+}
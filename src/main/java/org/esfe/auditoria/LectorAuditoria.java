@@ -0,0 +1,133 @@
+package org.esfe.auditoria;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Consulta de los segmentos de auditoría de un directorio, del más reciente al más antiguo.
+ * No depende de Spring: puede usarse sobre una copia de los archivos fuera de la aplicación.
+ * Lee el segmento activo mientras se escribe (mapeo compartido): se detiene en el primer registro
+ * sin escribir o cortado.
+ */
+public class LectorAuditoria {
+
+    static final String PREFIJO = "auditoria-";
+    static final String EXTENSION = ".seg";
+
+    // Los registros se anexan en el orden en que se encolan, que puede diferir levemente del de sus
+    // marcas de tiempo (hilos concurrentes): se sigue leyendo un poco más allá de "desde"
+    private static final Duration MARGEN_DESORDEN = Duration.ofSeconds(1);
+
+    private final Path directorio;
+
+    public LectorAuditoria(Path directorio) {
+        this.directorio = directorio;
+    }
+
+    /**
+     * Registros que coinciden con el equipo y/o el usuario (como afectado o como actor), más recientes
+     * primero. Los filtros nulos no restringen.
+     * <p>
+     * Los segmentos y sus registros se recorren hacia atrás; con {@code desde}, la lectura termina en el
+     * primer registro anterior al corte, así que los segmentos más viejos ni siquiera se abren.
+     */
+    public List<RegistroAuditoria> consultar(Integer equipoId, Integer usuarioId, LocalDateTime desde, int limite) {
+        Predicate<RegistroAuditoria> filtro = registro ->
+                (equipoId == null || equipoId.equals(registro.equipoId()))
+                        && (usuarioId == null || usuarioId.equals(registro.usuarioId()) || usuarioId.equals(registro.actorId()))
+                        && (desde == null || !registro.fecha().isBefore(desde));
+        LocalDateTime corte = desde != null ? desde.minus(MARGEN_DESORDEN) : null;
+
+        List<RegistroAuditoria> resultado = new ArrayList<>();
+        List<Path> segmentos = segmentos(directorio);
+        for (int i = segmentos.size() - 1; i >= 0 && resultado.size() < limite; i--) {
+            if (leerSegmento(segmentos.get(i), filtro, corte, limite, resultado)) {
+                break;
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Agrega al resultado los registros del segmento que pasan el filtro, del último al primero.
+     * Devuelve true si encontró un registro anterior al corte (no hace falta seguir con los más viejos).
+     */
+    private static boolean leerSegmento(Path segmento, Predicate<RegistroAuditoria> filtro, LocalDateTime corte,
+                                        int limite, List<RegistroAuditoria> resultado) {
+        try (FileChannel canal = FileChannel.open(segmento, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            for (int posicion = posicionFinal(buffer) - RegistroAuditoria.TAMANIO;
+                 posicion >= 0 && resultado.size() < limite; posicion -= RegistroAuditoria.TAMANIO) {
+                RegistroAuditoria registro = RegistroAuditoria.leer(buffer.position(posicion));
+                if (registro == null) {
+                    continue;
+                }
+                if (corte != null && registro.fecha().isBefore(corte)) {
+                    return true;
+                }
+                if (filtro.test(registro)) {
+                    resultado.add(registro);
+                }
+            }
+        } catch (NoSuchFileException e) {
+            // Borrado por retención mientras se consultaba
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer el segmento de auditoría " + segmento, e);
+        }
+        return false;
+    }
+
+    /**
+     * Posición del primer espacio libre del segmento (después del último registro válido).
+     */
+    static int posicionFinal(ByteBuffer segmento) {
+        ByteBuffer lectura = segmento.duplicate().position(0);
+        while (RegistroAuditoria.hayRegistro(lectura)) {
+            lectura.position(lectura.position() + RegistroAuditoria.TAMANIO);
+        }
+        return lectura.position();
+    }
+
+    /**
+     * Segmentos del directorio en orden de creación (el número de secuencia va en el nombre).
+     */
+    static List<Path> segmentos(Path directorio) {
+        if (!Files.isDirectory(directorio)) {
+            return List.of();
+        }
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            return archivos
+                    .filter(archivo -> {
+                        String nombre = archivo.getFileName().toString();
+                        return nombre.startsWith(PREFIJO) && nombre.endsWith(EXTENSION);
+                    })
+                    .sorted(Comparator.comparing(archivo -> archivo.getFileName().toString()))
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo listar el directorio de auditoría " + directorio, e);
+        }
+    }
+
+    static long secuencia(Path segmento) {
+        String nombre = segmento.getFileName().toString();
+        return Long.parseLong(nombre.substring(PREFIJO.length(), nombre.length() - EXTENSION.length()));
+    }
+
+    static String nombreSegmento(long secuencia) {
+        return PREFIJO + String.format("%020d", secuencia) + EXTENSION;
+    }
+}
@@ -0,0 +1,136 @@
+package org.esfe.auditoria;
+
+import org.esfe.enums.EstadoInvitacion;
+import org.esfe.enums.EstadoMiembro;
+import org.esfe.enums.TipoRegistroAuditoria;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.zip.CRC32;
+
+/**
+ * Una decisión auditada: quién (actorId) cambió qué (referenciaId, invitación o membresía) de qué
+ * equipo y usuario, y de qué estado a cuál. Los IDs desconocidos son nulos.
+ * <p>
+ * En disco ocupa {@value #TAMANIO} bytes fijos:
+ * <pre>
+ *  0 magia (0xA5)   1 tipo   2 estado anterior   3 estado nuevo   (códigos fijos; estado 0 = sin estado)
+ *  4 marca (epoch ms, long)  12 equipoId  16 usuarioId  20 actorId  24 referenciaId  (int; 0 = nulo)
+ * 28 CRC32 de los bytes 0..27
+ * </pre>
+ * Un registro con la magia en cero es espacio sin escribir del segmento; uno con CRC inválido es una
+ * escritura cortada (caída a mitad de registro). En ambos casos la lectura del segmento termina ahí.
+ * El tipo se guarda con {@link TipoRegistroAuditoria#getCodigo()} y los estados con las tablas de este
+ * registro (de EstadoInvitacion o EstadoMiembro según el tipo), nunca por ordinal. Un registro íntegro
+ * con un código desconocido se omite al leer.
+ */
+public record RegistroAuditoria(LocalDateTime fecha,
+                                TipoRegistroAuditoria tipo,
+                                Integer equipoId,
+                                Integer usuarioId,
+                                Integer actorId,
+                                Integer referenciaId,
+                                String estadoAnterior,
+                                String estadoNuevo) {
+
+    public static final int TAMANIO = 32;
+    private static final byte MAGIA = (byte) 0xA5;
+    private static final ZoneId ZONA = ZoneId.systemDefault();
+
+    // Código de cada estado = su posición en la tabla (0 = sin estado). Agregar estados solo al final y
+    // nunca reordenar: los segmentos ya escritos dependen de estos códigos.
+    private static final String[] ESTADOS_INVITACION = {null,
+            EstadoInvitacion.PENDIENTE.name(), EstadoInvitacion.ACEPTADA.name(),
+            EstadoInvitacion.RECHAZADA.name(), EstadoInvitacion.CANCELADA.name()};
+    private static final String[] ESTADOS_MIEMBRO = {null,
+            EstadoMiembro.ACTIVO.getValor(), EstadoMiembro.INACTIVO.getValor(),
+            EstadoMiembro.SUSPENDIDO.getValor(), EstadoMiembro.RECHAZADO.getValor()};
+
+    // Los estados se codifican antes de tocar el destino: si uno no tiene código, el segmento queda intacto
+    void escribir(ByteBuffer destino) {
+        byte anterior = codificarEstado(tipo, estadoAnterior);
+        byte nuevo = codificarEstado(tipo, estadoNuevo);
+        int inicio = destino.position();
+        destino.put(MAGIA);
+        destino.put(tipo.getCodigo());
+        destino.put(anterior);
+        destino.put(nuevo);
+        destino.putLong(fecha.atZone(ZONA).toInstant().toEpochMilli());
+        destino.putInt(valor(equipoId));
+        destino.putInt(valor(usuarioId));
+        destino.putInt(valor(actorId));
+        destino.putInt(valor(referenciaId));
+        destino.putInt(crc(destino, inicio));
+    }
+
+    /**
+     * true si en la posición actual hay un registro completo e íntegro (magia y CRC válidos).
+     */
+    static boolean hayRegistro(ByteBuffer origen) {
+        int inicio = origen.position();
+        return origen.remaining() >= TAMANIO
+                && origen.get(inicio) == MAGIA
+                && origen.getInt(inicio + 28) == crc(origen, inicio);
+    }
+
+    /**
+     * Lee el registro íntegro de la posición actual (ver {@link #hayRegistro}) y avanza al siguiente.
+     * Devuelve null si el tipo o algún estado tiene un código desconocido: el registro se omite.
+     */
+    static RegistroAuditoria leer(ByteBuffer origen) {
+        int inicio = origen.position();
+        origen.position(inicio + TAMANIO);
+        TipoRegistroAuditoria tipo = TipoRegistroAuditoria.desdeCodigo(origen.get(inicio + 1));
+        if (tipo == null) {
+            return null;
+        }
+        String[] estados = tablaEstados(tipo);
+        byte anterior = origen.get(inicio + 2);
+        byte nuevo = origen.get(inicio + 3);
+        if (anterior < 0 || anterior >= estados.length || nuevo < 0 || nuevo >= estados.length) {
+            return null;
+        }
+        return new RegistroAuditoria(
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(origen.getLong(inicio + 4)), ZONA),
+                tipo,
+                nulo(origen.getInt(inicio + 12)),
+                nulo(origen.getInt(inicio + 16)),
+                nulo(origen.getInt(inicio + 20)),
+                nulo(origen.getInt(inicio + 24)),
+                estados[anterior],
+                estados[nuevo]);
+    }
+
+    private static int crc(ByteBuffer buffer, int inicio) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(inicio, TAMANIO - 4));
+        return (int) crc.getValue();
+    }
+
+    private static String[] tablaEstados(TipoRegistroAuditoria tipo) {
+        return tipo == TipoRegistroAuditoria.MIEMBRO_CAMBIO_ESTADO ? ESTADOS_MIEMBRO : ESTADOS_INVITACION;
+    }
+
+    private static byte codificarEstado(TipoRegistroAuditoria tipo, String estado) {
+        if (estado == null) {
+            return 0;
+        }
+        String[] estados = tablaEstados(tipo);
+        for (int codigo = 1; codigo < estados.length; codigo++) {
+            if (estados[codigo].equals(estado)) {
+                return (byte) codigo;
+            }
+        }
+        throw new IllegalArgumentException("Estado sin código de auditoría para " + tipo + ": " + estado);
+    }
+
+    private static int valor(Integer id) {
+        return id != null ? id : 0;
+    }
+
+    private static Integer nulo(int id) {
+        return id != 0 ? id : null;
+    }
+}
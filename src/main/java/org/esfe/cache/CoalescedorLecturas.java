@@ -0,0 +1,139 @@
+package org.esfe.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.esfe.eventos.EquipoEvento;
+import org.esfe.eventos.MiembroEvento;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Agrupa lecturas idénticas concurrentes ("single-flight"): la primera llamada con una clave ejecuta
+ * la carga y las que llegan mientras está en curso esperan y reciben el mismo resultado (o la misma
+ * excepción). No es una caché: al terminar la carga la clave se libera.
+ * <p>
+ * La espera de las llamadas agrupadas está acotada (coalescencia.espera-maxima-ms); si se agota,
+ * cargan por su cuenta. Cuando un equipo o su plantilla cambian, las cargas en curso de ese equipo
+ * (y los listados generales de equipos) dejan de aceptar nuevas llamadas, para que nadie que llegue
+ * después de una escritura reciba datos anteriores a ella.
+ * <p>
+ * Publica en Micrometer coalescencia.llamadas por operación y resultado
+ * (lider, compartida, espera_agotada).
+ */
+@Component
+public class CoalescedorLecturas {
+
+    private record Clave(String operacion, Integer equipoId, Object parametros) {
+    }
+
+    private record Contadores(Counter lider, Counter compartida, Counter esperaAgotada) {
+    }
+
+    private final Map<Clave, CompletableFuture<Object>> enCurso = new ConcurrentHashMap<>();
+    private final Map<String, Contadores> contadores = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final boolean habilitado;
+    private final long esperaMaximaMillis;
+
+    public CoalescedorLecturas(MeterRegistry meterRegistry,
+                               @Value("${coalescencia.habilitada:true}") boolean habilitado,
+                               @Value("${coalescencia.espera-maxima-ms:2000}") long esperaMaximaMillis) {
+        this.meterRegistry = meterRegistry;
+        this.habilitado = habilitado;
+        this.esperaMaximaMillis = esperaMaximaMillis;
+    }
+
+    /**
+     * Ejecuta la carga o se une a una idéntica en curso.
+     *
+     * @param operacion  nombre estable de la lectura (también es la etiqueta de las métricas)
+     * @param equipoId   equipo al que pertenecen los datos; nulo para listados generales de equipos
+     * @param parametros resto de la clave; debe implementar equals/hashCode (Pageable, List, records...)
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T ejecutar(String operacion, Integer equipoId, Object parametros, Supplier<T> cargador) {
+        if (!habilitado) {
+            return cargador.get();
+        }
+        Clave clave = new Clave(operacion, equipoId, parametros);
+        CompletableFuture<Object> propia = new CompletableFuture<>();
+        CompletableFuture<Object> existente = enCurso.putIfAbsent(clave, propia);
+
+        if (existente == null) {
+            contadores(operacion).lider().increment();
+            try {
+                T resultado = cargador.get();
+                propia.complete(resultado);
+                return resultado;
+            } catch (RuntimeException | Error e) {
+                propia.completeExceptionally(e);
+                throw e;
+            } finally {
+                enCurso.remove(clave, propia);
+            }
+        }
+
+        try {
+            T resultado = (T) existente.get(esperaMaximaMillis, TimeUnit.MILLISECONDS);
+            contadores(operacion).compartida().increment();
+            return resultado;
+        } catch (TimeoutException e) {
+            contadores(operacion).esperaAgotada().increment();
+            return cargador.get();
+        } catch (ExecutionException e) {
+            contadores(operacion).compartida().increment();
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido esperando la lectura " + operacion, e);
+        }
+    }
+
+    @EventListener
+    public void alCambiarEquipo(EquipoEvento evento) {
+        // Un equipo nuevo/modificado/eliminado también cambia los listados generales
+        olvidar(evento.getEquipoId(), true);
+    }
+
+    @EventListener
+    public void alCambiarMiembro(MiembroEvento evento) {
+        if (evento.getMiembro() != null) {
+            olvidar(evento.getMiembro().getEquipoId(), false);
+        }
+    }
+
+    // Solo quita la clave del mapa: la carga en curso termina y entrega su resultado a quienes ya esperaban
+    private void olvidar(Integer equipoId, boolean incluirListados) {
+        enCurso.keySet().removeIf(clave -> Objects.equals(clave.equipoId(), equipoId)
+                || (incluirListados && clave.equipoId() == null));
+    }
+
+    private Contadores contadores(String operacion) {
+        return contadores.computeIfAbsent(operacion, op -> new Contadores(
+                contador(op, "lider"), contador(op, "compartida"), contador(op, "espera_agotada")));
+    }
+
+    private Counter contador(String operacion, String resultado) {
+        return Counter.builder("coalescencia.llamadas")
+                .tag("operacion", operacion)
+                .tag("resultado", resultado)
+                .description("Lecturas ejecutadas (lider), agrupadas con una en curso (compartida) o que cargaron por su cuenta tras esperar (espera_agotada)")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,97 @@
+package org.esfe.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Totales aproximados para los listados tipo Slice, indexados por forma de consulta + parámetros.
+ * <p>
+ * Nunca se ejecuta un COUNT dentro de la solicitud: si el total no está en caché (o ya está viejo)
+ * se agenda su cálculo en segundo plano y se responde con lo que haya (o sin total). Los COUNT corren
+ * en un pool pequeño con cola acotada para no competir con las consultas de las páginas.
+ */
+@Component
+public class ConteoAproximadoCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ConteoAproximadoCache.class);
+
+    private record Clave(String forma, List<?> parametros) {
+    }
+
+    private record Conteo(long valor, long calculadoEnNanos) {
+    }
+
+    private final Cache<Clave, Conteo> cache;
+    private final Set<Clave> pendientes = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor ejecutor;
+    private final long refrescoNanos;
+
+    public ConteoAproximadoCache(@Value("${conteos.aproximados.max-entradas:10000}") long maxEntradas,
+                                 @Value("${conteos.aproximados.refresco-segundos:60}") long refrescoSegundos,
+                                 @Value("${conteos.aproximados.expiracion-minutos:30}") long expiracionMinutos,
+                                 @Value("${conteos.aproximados.hilos:2}") int hilos,
+                                 @Value("${conteos.aproximados.cola:200}") int capacidadCola) {
+        this.refrescoNanos = TimeUnit.SECONDS.toNanos(refrescoSegundos);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .expireAfterAccess(Duration.ofMinutes(expiracionMinutos))
+                .build();
+        this.ejecutor = new ThreadPoolExecutor(hilos, hilos, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(capacidadCola),
+                Thread.ofPlatform().name("conteo-aproximado-", 0).daemon(true).factory());
+        this.ejecutor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Devuelve el último total conocido para la forma y parámetros dados, o null si aún no se ha
+     * calculado. En ambos casos, si falta o está vencido, agenda el COUNT en segundo plano.
+     */
+    public Long obtener(String forma, List<?> parametros, Supplier<Long> contador) {
+        Clave clave = new Clave(forma, parametros);
+        Conteo conteo = cache.getIfPresent(clave);
+        if (conteo == null || System.nanoTime() - conteo.calculadoEnNanos() > refrescoNanos) {
+            agendar(clave, contador);
+        }
+        return conteo != null ? conteo.valor() : null;
+    }
+
+    private void agendar(Clave clave, Supplier<Long> contador) {
+        if (!pendientes.add(clave)) {
+            return; // ya hay un cálculo en curso para esta clave
+        }
+        try {
+            ejecutor.execute(() -> {
+                try {
+                    cache.put(clave, new Conteo(contador.get(), System.nanoTime()));
+                } catch (RuntimeException e) {
+                    log.warn("No se pudo calcular el total aproximado de {}: {}", clave.forma(), e.getMessage());
+                } finally {
+                    pendientes.remove(clave);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Cola llena: se reintentará en la próxima solicitud
+            pendientes.remove(clave);
+        }
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        ejecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,122 @@
+package org.esfe.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.esfe.dtos.equipo.EquipoSalidaDto;
+import org.esfe.enums.TipoEventoEquipo;
+import org.esfe.eventos.EquipoEvento;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Caché en memoria de los DTOs de salida de equipos, indexada por ID.
+ * Se mantiene al día con los eventos que publica EquipoService.
+ * <p>
+ * Los DTOs son mutables: se guarda una copia y cada lectura devuelve otra, así lo que un llamador
+ * modifique no llega a los demás. Las cargas desde la base de datos se guardan solo si el equipo no
+ * cambió mientras tanto (generación por franja de IDs), para que una lectura lenta no reponga un
+ * valor que un evento ya invalidó.
+ */
+@Component
+public class EquipoCache {
+
+    private static final int FRANJAS = 256;
+
+    private final Cache<Integer, EquipoSalidaDto> cache;
+    private final AtomicLongArray generaciones = new AtomicLongArray(FRANJAS);
+
+    public EquipoCache(@Value("${equipos.cache.max-entradas:10000}") long maxEntradas,
+                       @Value("${equipos.cache.ttl-minutos:10}") long ttlMinutos) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutos))
+                .build();
+    }
+
+    public Optional<EquipoSalidaDto> obtener(Integer id) {
+        return Optional.ofNullable(cache.getIfPresent(id)).map(EquipoCache::copiar);
+    }
+
+    public Map<Integer, EquipoSalidaDto> obtenerPresentes(Collection<Integer> ids) {
+        Map<Integer, EquipoSalidaDto> presentes = new HashMap<>();
+        cache.getAllPresent(ids).forEach((id, equipo) -> presentes.put(id, copiar(equipo)));
+        return presentes;
+    }
+
+    /**
+     * Generación actual del equipo; se lee antes de consultar la base de datos y se pasa a
+     * {@link #guardarSiVigente}.
+     */
+    public long generacion(Integer id) {
+        return generaciones.get(franja(id));
+    }
+
+    /**
+     * Guarda un equipo recién leído de la base de datos, salvo que desde {@code generacion} haya
+     * llegado un cambio para su franja. La comparación va dentro de compute(), que se serializa con
+     * invalidate() sobre la misma clave: un cambio posterior a la comparación borra lo guardado.
+     */
+    public void guardarSiVigente(EquipoSalidaDto equipo, long generacion) {
+        EquipoSalidaDto copia = copiar(equipo);
+        cache.asMap().compute(equipo.getId(), (id, actual) ->
+                generaciones.get(franja(id)) == generacion ? copia : actual);
+    }
+
+    public void guardar(EquipoSalidaDto equipo) {
+        generaciones.incrementAndGet(franja(equipo.getId()));
+        cache.put(equipo.getId(), copiar(equipo));
+    }
+
+    public void invalidar(Integer id) {
+        generaciones.incrementAndGet(franja(id));
+        cache.invalidate(id);
+    }
+
+    private static int franja(Integer id) {
+        return Math.floorMod(id, FRANJAS);
+    }
+
+    private static EquipoSalidaDto copiar(EquipoSalidaDto equipo) {
+        EquipoSalidaDto copia = new EquipoSalidaDto();
+        copia.setId(equipo.getId());
+        copia.setNombre(equipo.getNombre());
+        copia.setCreadoPor(equipo.getCreadoPor());
+        copia.setTipoDeporteId(equipo.getTipoDeporteId());
+        copia.setDescripcion(equipo.getDescripcion());
+        copia.setLogo(equipo.getLogo());
+        copia.setColorPrincipal(equipo.getColorPrincipal());
+        copia.setColorSecundario(equipo.getColorSecundario());
+        copia.setCiudad(equipo.getCiudad());
+        copia.setNivel(equipo.getNivel());
+        copia.setMaxMiembros(equipo.getMaxMiembros());
+        copia.setRequiereAprobacion(equipo.getRequiereAprobacion());
+        copia.setCalificacionPromedio(equipo.getCalificacionPromedio());
+        copia.setTotalCalificaciones(equipo.getTotalCalificaciones());
+        copia.setEstaActivo(equipo.getEstaActivo());
+        copia.setFechaCreacion(equipo.getFechaCreacion());
+        copia.setFechaActualizacion(equipo.getFechaActualizacion());
+        return copia;
+    }
+
+    // Antes que los demás oyentes: las cachés que comparan generaciones (EquipoRespuestaCache)
+    // invalidan lo suyo con la generación ya incrementada
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void alCambiarEquipo(EquipoEvento evento) {
+        if (evento.getTipo() == TipoEventoEquipo.ELIMINADO || evento.getEquipo() == null) {
+            invalidar(evento.getEquipoId());
+        } else {
+            guardar(evento.getEquipo());
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package org.esfe.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.esfe.dtos.equipo.EquipoSalidaDto;
+import org.esfe.enums.TipoEventoEquipo;
+import org.esfe.eventos.EquipoEvento;
+import org.esfe.perfilado.PerfilSolicitud;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Caché de respuestas ya serializadas de GET /api/equipos/{id}.
+ * Guarda los bytes JSON (UTF-8) y, si vale la pena, su versión gzip, junto con un ETag derivado de
+ * id + fechaActualizacion. En un acierto los bytes se escriben tal cual al output stream, sin mapeo
+ * ni serialización. Caffeine (W-TinyLFU) se encarga de retener solo los equipos más consultados.
+ * <p>
+ * Las cargas usan la generación de {@link EquipoCache}: una lectura que se cruza con un cambio o una
+ * eliminación no se guarda. El vencimiento por tiempo acota lo que quede si algo se escapa.
+ */
+@Component
+public class EquipoRespuestaCache {
+
+    public record RespuestaSerializada(long version, String etag, byte[] json, byte[] gzip) {
+    }
+
+    private final Cache<Integer, RespuestaSerializada> cache;
+    private final EquipoCache equipoCache;
+    private final ObjectMapper objectMapper;
+    private final int gzipMinBytes;
+
+    public EquipoRespuestaCache(EquipoCache equipoCache,
+                                ObjectMapper objectMapper,
+                                @Value("${equipos.respuestas.max-entradas:5000}") long maxEntradas,
+                                @Value("${equipos.respuestas.ttl-minutos:10}") long ttlMinutos,
+                                @Value("${equipos.respuestas.gzip-min-bytes:512}") int gzipMinBytes) {
+        this.equipoCache = equipoCache;
+        this.objectMapper = objectMapper;
+        this.gzipMinBytes = gzipMinBytes;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutos))
+                .build();
+    }
+
+    /**
+     * Devuelve la respuesta serializada del equipo; si no está en caché la construye a partir del
+     * cargador (que normalmente pasa por EquipoService.obtenerPorId).
+     */
+    public Optional<RespuestaSerializada> obtener(Integer id, Supplier<Optional<EquipoSalidaDto>> cargador) {
+        RespuestaSerializada enCache = cache.getIfPresent(id);
+        if (enCache != null) {
+            return Optional.of(enCache);
+        }
+        long generacion = equipoCache.generacion(id);
+        return cargador.get().map(equipo -> guardarSiVigente(equipo, generacion));
+    }
+
+    /**
+     * Guarda una carga solo si el equipo no cambió desde {@code generacion}; si cambió, la respuesta
+     * se usa para esta solicitud y se descarta. EquipoCache sube la generación antes de que
+     * {@link #alCambiarEquipo} invalide, así que compute() se serializa con esa invalidación.
+     */
+    private RespuestaSerializada guardarSiVigente(EquipoSalidaDto equipo, long generacion) {
+        RespuestaSerializada nueva = serializar(equipo);
+        cache.asMap().compute(equipo.getId(), (id, actual) -> {
+            if (equipoCache.generacion(id) != generacion) {
+                return actual;
+            }
+            return actual == null || nueva.version() >= actual.version() ? nueva : actual;
+        });
+        return nueva;
+    }
+
+    public RespuestaSerializada guardar(EquipoSalidaDto equipo) {
+        RespuestaSerializada nueva = serializar(equipo);
+        // Nunca reemplazar una versión más reciente por una lectura que llegó tarde
+        return cache.asMap().merge(equipo.getId(), nueva,
+                (actual, candidata) -> candidata.version() >= actual.version() ? candidata : actual);
+    }
+
+    public void invalidar(Integer id) {
+        cache.invalidate(id);
+    }
+
+    @EventListener
+    public void alCambiarEquipo(EquipoEvento evento) {
+        if (evento.getTipo() == TipoEventoEquipo.ELIMINADO || evento.getEquipo() == null) {
+            invalidar(evento.getEquipoId());
+        } else if (cache.asMap().containsKey(evento.getEquipoId())) {
+            // Solo se re-serializa lo que ya estaba caliente; lo demás se carga en la próxima lectura
+            guardar(evento.getEquipo());
+        }
+    }
+
+    // --- Escritura directa de la respuesta ---
+
+    /**
+     * Indica si la solicitud prefiere JSON: decide el primer tipo concreto del header Accept, así que
+     * "application/cbor" seguido de un comodín no cuenta como JSON. Las demás representaciones siguen
+     * el camino normal de negociación de contenido de Spring MVC.
+     */
+    public boolean aceptaJson(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null || accept.isBlank()) {
+            return true;
+        }
+        try {
+            List<MediaType> tipos = MediaType.parseMediaTypes(accept);
+            for (MediaType tipo : tipos) {
+                if (!tipo.isWildcardType() && !tipo.isWildcardSubtype()) {
+                    return tipo.isCompatibleWith(MediaType.APPLICATION_JSON);
+                }
+            }
+            return tipos.stream().anyMatch(tipo -> tipo.includes(MediaType.APPLICATION_JSON));
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+    public void escribir(RespuestaSerializada respuesta, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        response.setHeader(HttpHeaders.ETAG, respuesta.etag());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (respuesta.etag().equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        byte[] cuerpo = respuesta.json();
+        if (respuesta.gzip() != null && aceptaGzip(request)) {
+            cuerpo = respuesta.gzip();
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(cuerpo.length);
+        response.getOutputStream().write(cuerpo);
+    }
+
+    private boolean aceptaGzip(HttpServletRequest request) {
+        String encoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (encoding == null) {
+            return false;
+        }
+        for (String token : encoding.split(",")) {
+            String valor = token.trim().toLowerCase();
+            if (valor.startsWith("gzip") && !valor.replace(" ", "").endsWith("q=0")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // --- Serialización ---
+
+    private RespuestaSerializada serializar(EquipoSalidaDto equipo) {
+        try (PerfilSolicitud.Medicion ignored = PerfilSolicitud.medir(PerfilSolicitud.Fase.SERIALIZACION)) {
+            byte[] json = objectMapper.writeValueAsBytes(equipo);
+            long version = version(equipo);
+            String etag = "\"" + equipo.getId() + "-" + version + "\"";
+            byte[] gzip = json.length >= gzipMinBytes ? comprimir(json) : null;
+            return new RespuestaSerializada(version, etag, json, gzip);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el equipo " + equipo.getId(), e);
+        }
+    }
+
+    private static long version(EquipoSalidaDto equipo) {
+        LocalDateTime marca = equipo.getFechaActualizacion() != null
+                ? equipo.getFechaActualizacion()
+                : equipo.getFechaCreacion();
+        if (marca == null) {
+            return 0L;
+        }
+        return marca.toInstant(ZoneOffset.UTC).toEpochMilli() * 1000 + marca.getNano() / 1000 % 1000;
+    }
+
+    private static byte[] comprimir(byte[] datos) {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream(datos.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(salida)) {
+            gzip.write(datos);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return salida.toByteArray();
+    }
+}
@@ -0,0 +1,186 @@
+package org.esfe.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.esfe.dtos.equipo.EquipoPlantillaSalidaDto;
+import org.esfe.dtos.equipo.EquipoSalidaDto;
+import org.esfe.dtos.miembro.MiembroPlantillaDto;
+import org.esfe.dtos.miembro.MiembroSalidaDto;
+import org.esfe.enums.EstadoMiembro;
+import org.esfe.enums.RolMiembro;
+import org.esfe.enums.TipoEventoEquipo;
+import org.esfe.enums.TipoEventoMiembro;
+import org.esfe.eventos.EquipoEvento;
+import org.esfe.eventos.MiembroEvento;
+import org.esfe.repositorios.proyecciones.MiembroPlantillaProyeccion;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Plantillas materializadas de equipo (equipo + miembros agrupados por estado y rol).
+ * Cada entrada es inmutable: los eventos de miembros y de equipo no invalidan, sino que generan una
+ * nueva versión aplicando solo el cambio sobre la plantilla ya cargada. Caffeine serializa por clave
+ * la carga y las actualizaciones, así que un evento no se pierde contra una carga en curso.
+ */
+@Component
+public class PlantillaCache {
+
+    // Grupos en el orden de declaración de los enums (activo primero; capitán, vice, jugador)
+    private static final List<String> ORDEN_ESTADOS =
+            Arrays.stream(EstadoMiembro.values()).map(EstadoMiembro::getValor).toList();
+    private static final List<String> ORDEN_ROLES =
+            Arrays.stream(RolMiembro.values()).map(RolMiembro::getValor).toList();
+
+    private static final Comparator<FilaMiembro> ORDEN_MIEMBROS =
+            Comparator.comparing(FilaMiembro::numeroCamiseta, Comparator.nullsLast(Comparator.naturalOrder()))
+                    .thenComparing(FilaMiembro::id);
+
+    /** Datos necesarios para construir la plantilla desde la base de datos. */
+    public record Datos(EquipoSalidaDto equipo, List<MiembroPlantillaProyeccion> miembros) {
+    }
+
+    private record FilaMiembro(Integer id, Integer usuarioId, String rol, String estado,
+                               Integer numeroCamiseta, String posicion, LocalDateTime fechaUnion) {
+
+        static FilaMiembro de(MiembroPlantillaProyeccion p) {
+            return new FilaMiembro(p.getId(), p.getUsuarioId(),
+                    p.getRol() != null ? p.getRol().getValor() : null,
+                    p.getEstado() != null ? p.getEstado().getValor() : null,
+                    p.getNumeroCamiseta(), p.getPosicion(), p.getFechaUnion());
+        }
+
+        static FilaMiembro de(MiembroSalidaDto dto) {
+            return new FilaMiembro(dto.getId(), dto.getUsuarioId(), dto.getRol(), dto.getEstado(),
+                    dto.getNumeroCamiseta(), dto.getPosicion(), dto.getFechaUnion());
+        }
+
+        MiembroPlantillaDto aDto() {
+            MiembroPlantillaDto dto = new MiembroPlantillaDto();
+            dto.setId(id);
+            dto.setUsuarioId(usuarioId);
+            dto.setNumeroCamiseta(numeroCamiseta);
+            dto.setPosicion(posicion);
+            dto.setFechaUnion(fechaUnion);
+            return dto;
+        }
+    }
+
+    private record Plantilla(EquipoSalidaDto equipo, Map<Integer, FilaMiembro> miembros,
+                             EquipoPlantillaSalidaDto salida) {
+    }
+
+    private final Cache<Integer, Plantilla> cache;
+    // Versión global y monótona: sirve de ETag aunque la entrada se reconstruya tras un desalojo o reinicio
+    private final AtomicLong versiones = new AtomicLong(System.currentTimeMillis() * 1000);
+
+    public PlantillaCache(@Value("${equipos.plantillas.max-entradas:5000}") long maxEntradas) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .build();
+    }
+
+    /**
+     * Devuelve la plantilla del equipo; si no está materializada la construye con el cargador
+     * (vacío si el equipo no existe, en cuyo caso no se guarda nada).
+     */
+    public Optional<EquipoPlantillaSalidaDto> obtener(Integer equipoId, Supplier<Optional<Datos>> cargador) {
+        Plantilla plantilla = cache.get(equipoId, id -> cargador.get()
+                .map(datos -> {
+                    Map<Integer, FilaMiembro> miembros = new HashMap<>();
+                    datos.miembros().forEach(p -> miembros.put(p.getId(), FilaMiembro.de(p)));
+                    return construir(datos.equipo(), miembros);
+                })
+                .orElse(null));
+        return Optional.ofNullable(plantilla).map(Plantilla::salida);
+    }
+
+    public void invalidar(Integer equipoId) {
+        cache.invalidate(equipoId);
+    }
+
+    @EventListener
+    public void alCambiarMiembro(MiembroEvento evento) {
+        MiembroSalidaDto miembro = evento.getMiembro();
+        if (miembro == null || miembro.getEquipoId() == null) {
+            return;
+        }
+        // Solo se actualiza lo que ya está materializado; lo demás se construye en la próxima lectura
+        cache.asMap().computeIfPresent(miembro.getEquipoId(), (id, actual) -> {
+            Map<Integer, FilaMiembro> miembros = new HashMap<>(actual.miembros());
+            if (evento.getTipo() == TipoEventoMiembro.ELIMINADO) {
+                miembros.remove(miembro.getId());
+            } else {
+                miembros.put(miembro.getId(), FilaMiembro.de(miembro));
+            }
+            return construir(actual.equipo(), miembros);
+        });
+    }
+
+    @EventListener
+    public void alCambiarEquipo(EquipoEvento evento) {
+        if (evento.getTipo() == TipoEventoEquipo.ELIMINADO || evento.getEquipo() == null) {
+            invalidar(evento.getEquipoId());
+        } else {
+            cache.asMap().computeIfPresent(evento.getEquipoId(),
+                    (id, actual) -> construir(evento.getEquipo(), actual.miembros()));
+        }
+    }
+
+    // --- Construcción de la versión inmutable ---
+
+    private Plantilla construir(EquipoSalidaDto equipo, Map<Integer, FilaMiembro> miembros) {
+        Map<String, Map<String, List<FilaMiembro>>> agrupados = new HashMap<>();
+        for (FilaMiembro fila : miembros.values()) {
+            agrupados.computeIfAbsent(fila.estado(), e -> new HashMap<>())
+                    .computeIfAbsent(fila.rol(), r -> new ArrayList<>())
+                    .add(fila);
+        }
+
+        Map<String, Map<String, List<MiembroPlantillaDto>>> grupos = new LinkedHashMap<>();
+        for (String estado : ordenar(agrupados.keySet(), ORDEN_ESTADOS)) {
+            Map<String, List<FilaMiembro>> porRol = agrupados.get(estado);
+            Map<String, List<MiembroPlantillaDto>> roles = new LinkedHashMap<>();
+            for (String rol : ordenar(porRol.keySet(), ORDEN_ROLES)) {
+                roles.put(rol, porRol.get(rol).stream()
+                        .sorted(ORDEN_MIEMBROS)
+                        .map(FilaMiembro::aDto)
+                        .toList());
+            }
+            grupos.put(estado, Collections.unmodifiableMap(roles));
+        }
+
+        EquipoPlantillaSalidaDto salida = new EquipoPlantillaSalidaDto();
+        salida.setEquipo(equipo);
+        salida.setVersion(versiones.incrementAndGet());
+        salida.setGeneradaEn(LocalDateTime.now());
+        salida.setTotalMiembros(miembros.size());
+        salida.setMiembros(Collections.unmodifiableMap(grupos));
+        return new Plantilla(equipo, Map.copyOf(miembros), salida);
+    }
+
+    // Primero los valores conocidos en su orden; los desconocidos (o nulos) al final, alfabéticamente
+    private static List<String> ordenar(Iterable<String> claves, List<String> orden) {
+        List<String> resultado = new ArrayList<>();
+        claves.forEach(resultado::add);
+        resultado.sort(Comparator.<String>comparingInt(clave -> {
+                    int posicion = orden.indexOf(clave);
+                    return posicion < 0 ? orden.size() : posicion;
+                })
+                .thenComparing(Comparator.nullsLast(Comparator.naturalOrder())));
+        return resultado;
+    }
+}
@@ -0,0 +1,72 @@
+package org.esfe.clientes;
+
+import java.time.Duration;
+
+/**
+ * Circuit breaker mínimo: tras N fallos consecutivos se abre y rechaza llamadas durante
+ * el tiempo de espera; después deja pasar una sola llamada de prueba (semiabierto).
+ * <p>
+ * Una "llamada" es una solicitud remota (un lote completo): {@link #permiteLlamada()} se consulta una
+ * vez por lote; {@link #rechazaDeInmediato()} solo sirve para no encolar IDs que seguro se rechazan.
+ */
+public class CircuitoReferencias {
+
+    private enum Estado { CERRADO, ABIERTO, SEMIABIERTO }
+
+    private final int fallosParaAbrir;
+    private final long esperaNanos;
+
+    private Estado estado = Estado.CERRADO;
+    private int fallosConsecutivos;
+    private long abiertoHasta;
+
+    public CircuitoReferencias(int fallosParaAbrir, Duration espera) {
+        this.fallosParaAbrir = fallosParaAbrir;
+        this.esperaNanos = espera.toNanos();
+    }
+
+    public synchronized boolean permiteLlamada() {
+        switch (estado) {
+            case CERRADO:
+                return true;
+            case ABIERTO:
+                if (System.nanoTime() - abiertoHasta >= 0) {
+                    estado = Estado.SEMIABIERTO;
+                    return true;
+                }
+                return false;
+            default:
+                // Ya hay una llamada de prueba en curso
+                return false;
+        }
+    }
+
+    /**
+     * Igual que {@link #permiteLlamada()} pero sin cambiar de estado: true mientras el circuito está
+     * abierto y no venció la espera, o hay una llamada de prueba en curso.
+     */
+    public synchronized boolean rechazaDeInmediato() {
+        return switch (estado) {
+            case CERRADO -> false;
+            case ABIERTO -> System.nanoTime() - abiertoHasta < 0;
+            case SEMIABIERTO -> true;
+        };
+    }
+
+    public synchronized void registrarExito() {
+        estado = Estado.CERRADO;
+        fallosConsecutivos = 0;
+    }
+
+    public synchronized void registrarFallo() {
+        fallosConsecutivos++;
+        if (estado == Estado.SEMIABIERTO || fallosConsecutivos >= fallosParaAbrir) {
+            estado = Estado.ABIERTO;
+            abiertoHasta = System.nanoTime() + esperaNanos;
+        }
+    }
+
+    public synchronized boolean estaAbierto() {
+        return estado != Estado.CERRADO;
+    }
+}
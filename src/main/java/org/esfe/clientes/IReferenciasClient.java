@@ -0,0 +1,14 @@
+package org.esfe.clientes;
+
+import java.util.Set;
+
+/**
+ * Acceso masivo a las APIs dueñas de las claves foráneas externas (usuarios y tipos de deporte).
+ * Cada método recibe un lote de IDs y devuelve el subconjunto que existe.
+ */
+public interface IReferenciasClient {
+
+    Set<Integer> usuariosExistentes(Set<Integer> ids);
+
+    Set<Integer> tiposDeporteExistentes(Set<Integer> ids);
+}
@@ -0,0 +1,166 @@
+package org.esfe.clientes;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Agrupa en lotes las verificaciones de existencia concurrentes de un tipo de referencia.
+ * <p>
+ * Las consultas que llegan dentro de la misma ventana (o hasta completar el tamaño máximo)
+ * se resuelven con una sola llamada masiva. Los resultados positivos y negativos se guardan en
+ * caché con TTL distintos y las consultas repetidas en vuelo comparten el mismo resultado.
+ */
+public class LoteadorReferencias implements AutoCloseable {
+
+    private final String nombre;
+    private final Function<Set<Integer>, Set<Integer>> consultaMasiva;
+    private final CircuitoReferencias circuito;
+    private final long ventanaNanos;
+    private final int maxPorLote;
+
+    private final Cache<Integer, Boolean> cache;
+    private final Map<Integer, CompletableFuture<Boolean>> enVuelo = new ConcurrentHashMap<>();
+    private final BlockingQueue<Integer> cola = new LinkedBlockingQueue<>();
+    private final Thread despachador;
+    private volatile boolean cerrado;
+
+    public LoteadorReferencias(String nombre,
+                               Function<Set<Integer>, Set<Integer>> consultaMasiva,
+                               CircuitoReferencias circuito,
+                               Duration ventana,
+                               int maxPorLote,
+                               Duration ttlPositivo,
+                               Duration ttlNegativo,
+                               long maxEntradasCache) {
+        this.nombre = nombre;
+        this.consultaMasiva = consultaMasiva;
+        this.circuito = circuito;
+        this.ventanaNanos = ventana.toNanos();
+        this.maxPorLote = maxPorLote;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntradasCache)
+                .expireAfter(new Expiry<Integer, Boolean>() {
+                    @Override
+                    public long expireAfterCreate(Integer id, Boolean existe, long ahora) {
+                        return existe ? ttlPositivo.toNanos() : ttlNegativo.toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Integer id, Boolean existe, long ahora, long restante) {
+                        return expireAfterCreate(id, existe, ahora);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Integer id, Boolean existe, long ahora, long restante) {
+                        return restante;
+                    }
+                })
+                .build();
+        this.despachador = Thread.ofVirtual().name("referencias-" + nombre).start(this::despachar);
+    }
+
+    /**
+     * Devuelve un futuro con la existencia del ID. Se completa de inmediato si está en caché.
+     * Falla con ReferenciasNoDisponiblesException si el circuito de la API remota está abierto.
+     */
+    public CompletableFuture<Boolean> existe(Integer id) {
+        Boolean enCache = cache.getIfPresent(id);
+        if (enCache != null) {
+            return CompletableFuture.completedFuture(enCache);
+        }
+        CompletableFuture<Boolean> nuevo = new CompletableFuture<>();
+        CompletableFuture<Boolean> existente = enVuelo.putIfAbsent(id, nuevo);
+        if (existente != null) {
+            return existente;
+        }
+        // La decisión de llamar (y la prueba del semiabierto) se toma una vez por lote, en resolver()
+        if (circuito.rechazaDeInmediato()) {
+            enVuelo.remove(id);
+            nuevo.completeExceptionally(circuitoAbierto());
+            return nuevo;
+        }
+        cola.add(id);
+        return nuevo;
+    }
+
+    private ReferenciasNoDisponiblesException circuitoAbierto() {
+        return new ReferenciasNoDisponiblesException("Circuito abierto para la API de " + nombre + ".");
+    }
+
+    private void despachar() {
+        while (!cerrado) {
+            try {
+                Set<Integer> lote = new LinkedHashSet<>();
+                lote.add(cola.take());
+
+                long limite = System.nanoTime() + ventanaNanos;
+                while (lote.size() < maxPorLote) {
+                    Integer siguiente = cola.poll(limite - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (siguiente == null) {
+                        break;
+                    }
+                    lote.add(siguiente);
+                }
+
+                // La llamada remota corre aparte: mientras tanto se sigue armando el siguiente lote
+                Thread.ofVirtual().start(() -> resolver(lote));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void resolver(Set<Integer> lote) {
+        if (!circuito.permiteLlamada()) {
+            fallarLote(lote, circuitoAbierto());
+            return;
+        }
+        try {
+            Set<Integer> existentes = consultaMasiva.apply(lote);
+            circuito.registrarExito();
+            for (Integer id : lote) {
+                boolean existe = existentes.contains(id);
+                cache.put(id, existe);
+                completar(id, existe);
+            }
+        } catch (RuntimeException e) {
+            circuito.registrarFallo();
+            fallarLote(lote, e);
+        }
+    }
+
+    private void fallarLote(Set<Integer> lote, RuntimeException causa) {
+        for (Integer id : lote) {
+            CompletableFuture<Boolean> futuro = enVuelo.remove(id);
+            if (futuro != null) {
+                futuro.completeExceptionally(causa);
+            }
+        }
+    }
+
+    private void completar(Integer id, boolean existe) {
+        CompletableFuture<Boolean> futuro = enVuelo.remove(id);
+        if (futuro != null) {
+            futuro.complete(existe);
+        }
+    }
+
+    @Override
+    public void close() {
+        cerrado = true;
+        despachador.interrupt();
+    }
+}
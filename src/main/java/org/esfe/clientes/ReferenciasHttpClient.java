@@ -0,0 +1,75 @@
+package org.esfe.clientes;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Implementación HTTP: un POST por lote con el arreglo JSON de IDs; la API remota responde
+ * con el arreglo de los IDs que existen.
+ */
+public class ReferenciasHttpClient implements IReferenciasClient {
+
+    private static final TypeReference<List<Integer>> LISTA_IDS = new TypeReference<>() {
+    };
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final URI urlUsuarios;
+    private final URI urlTiposDeporte;
+    private final Duration timeout;
+
+    public ReferenciasHttpClient(ObjectMapper objectMapper, String urlUsuarios, String urlTiposDeporte, Duration timeout) {
+        this.objectMapper = objectMapper;
+        this.urlUsuarios = URI.create(urlUsuarios);
+        this.urlTiposDeporte = URI.create(urlTiposDeporte);
+        this.timeout = timeout;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    @Override
+    public Set<Integer> usuariosExistentes(Set<Integer> ids) {
+        return consultar(urlUsuarios, ids);
+    }
+
+    @Override
+    public Set<Integer> tiposDeporteExistentes(Set<Integer> ids) {
+        return consultar(urlTiposDeporte, ids);
+    }
+
+    private Set<Integer> consultar(URI url, Set<Integer> ids) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(url)
+                    .timeout(timeout)
+                    .header("Content-Type", "application/json")
+                    .header("Accept", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(ids)))
+                    .build();
+
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("La API de referencias respondió " + response.statusCode() + " en " + url);
+            }
+            return new HashSet<>(objectMapper.readValue(response.body(), LISTA_IDS));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Respuesta inválida de la API de referencias: " + url, e);
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo consultar la API de referencias: " + url, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Consulta a la API de referencias interrumpida.", e);
+        }
+    }
+}
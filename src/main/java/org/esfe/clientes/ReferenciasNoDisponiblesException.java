@@ -0,0 +1,16 @@
+package org.esfe.clientes;
+
+/**
+ * La API remota de referencias no está disponible (circuito abierto, tiempo agotado o error) y la
+ * configuración no permite continuar sin validar. Los controladores la traducen a 503.
+ */
+public class ReferenciasNoDisponiblesException extends RuntimeException {
+
+    public ReferenciasNoDisponiblesException(String mensaje) {
+        super(mensaje);
+    }
+
+    public ReferenciasNoDisponiblesException(String mensaje, Throwable causa) {
+        super(mensaje, causa);
+    }
+}
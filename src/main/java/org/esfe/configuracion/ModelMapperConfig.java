@@ -1,18 +1,32 @@
 package org.esfe.configuracion;
 
+import org.esfe.dtos.invitacion.InvitacionSalidaDto;
 import org.esfe.dtos.miembro.MiembroCrearDto;
+import org.esfe.dtos.miembro.MiembroSalidaDto;
+import org.esfe.enums.EstadoMiembro;
+import org.esfe.enums.RolMiembro;
+import org.esfe.modelos.InvitacionEquipo;
 import org.esfe.modelos.MiembroEquipo;
+import org.esfe.perfilado.ModelMapperPerfilado;
 import org.modelmapper.ModelMapper;
 import org.modelmapper.convention.MatchingStrategies;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
 public class ModelMapperConfig {
 
+    /**
+     * Mapas con nombre que no recorren el equipo de la entidad: para entidades cuya sesión ya se cerró,
+     * donde el equipo es un proxy LAZY sin inicializar. El servicio asigna el equipo por su cuenta.
+     */
+    public static final String SIN_EQUIPO = "sinEquipo";
+
     @Bean
-    public ModelMapper modelMapper() {
-        ModelMapper modelMapper = new ModelMapper();
+    public ModelMapper modelMapper(@Value("${perfilador.habilitado:false}") boolean perfilado) {
+        // Con el perfilador activo se mide el tiempo de cada mapeo (fase "mapeo" de Server-Timing)
+        ModelMapper modelMapper = perfilado ? new ModelMapperPerfilado() : new ModelMapper();
         
         // 1. Configuración de estrategia (OK)
         modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.STRICT);
@@ -29,6 +43,25 @@ public class ModelMapperConfig {
                 
             });
 
+        // 3. Rol y estado de miembros: enum en la entidad, valor en minúscula ("vice_capitan") en los DTO
+        modelMapper.addConverter(ctx -> ctx.getSource() == null ? null : ctx.getSource().getValor(),
+                RolMiembro.class, String.class);
+        modelMapper.addConverter(ctx -> ctx.getSource() == null ? null : RolMiembro.desdeValor(ctx.getSource()),
+                String.class, RolMiembro.class);
+        modelMapper.addConverter(ctx -> ctx.getSource() == null ? null : ctx.getSource().getValor(),
+                EstadoMiembro.class, String.class);
+        modelMapper.addConverter(ctx -> ctx.getSource() == null ? null : EstadoMiembro.desdeValor(ctx.getSource()),
+                String.class, EstadoMiembro.class);
+
+        // 4. Salidas sin el equipo anidado; van después de los convertidores de rol y estado, que también aplican
+        // (mapa vacío: el skip se declara antes de que las propiedades implícitas entren a equipo.*)
+        modelMapper.emptyTypeMap(MiembroEquipo.class, MiembroSalidaDto.class, SIN_EQUIPO)
+            .addMappings(mapper -> mapper.skip(MiembroSalidaDto::setEquipo))
+            .implicitMappings();
+        modelMapper.emptyTypeMap(InvitacionEquipo.class, InvitacionSalidaDto.class, SIN_EQUIPO)
+            .addMappings(mapper -> mapper.skip(InvitacionSalidaDto::setEquipo))
+            .implicitMappings();
+
         return modelMapper;
     }
 }
\ No newline at end of file
@@ -0,0 +1,91 @@
+package org.esfe.configuracion;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.esfe.perfilado.PerfilSolicitud;
+import org.esfe.perfilado.SesionPerfiladaListener;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.validation.Errors;
+import org.springframework.validation.Validator;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Instrumentación del perfilador por solicitud (perfilador.habilitado=true). Con el perfilador
+ * apagado nada de esto se registra y la aplicación usa los componentes estándar.
+ * <ul>
+ *   <li>DB: listener de sesión de Hibernate (tiempo de ejecución JDBC y cantidad de sentencias).</li>
+ *   <li>Validación: el validador de Spring MVC (@Valid) envuelto con medición.</li>
+ *   <li>Serialización: el conversor JSON mide lectura y escritura de cuerpos.</li>
+ * </ul>
+ * El mapeo se mide en ModelMapperConfig, que crea un ModelMapperPerfilado.
+ */
+@Configuration
+@ConditionalOnProperty(name = "perfilador.habilitado", havingValue = "true")
+public class PerfiladoConfig implements WebMvcConfigurer {
+
+    private final jakarta.validation.Validator validador;
+
+    public PerfiladoConfig(jakarta.validation.Validator validador) {
+        this.validador = validador;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer perfiladoHibernateCustomizer() {
+        return propiedades -> propiedades.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, SesionPerfiladaListener.class.getName());
+    }
+
+    /**
+     * Reemplaza al conversor JSON de Spring Boot (que se registra solo si no existe otro).
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2HttpMessageConverter(objectMapper) {
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+                    throws IOException, HttpMessageNotWritableException {
+                try (PerfilSolicitud.Medicion ignored = PerfilSolicitud.medir(PerfilSolicitud.Fase.SERIALIZACION)) {
+                    super.writeInternal(object, type, outputMessage);
+                }
+            }
+
+            @Override
+            public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage)
+                    throws IOException, HttpMessageNotReadableException {
+                try (PerfilSolicitud.Medicion ignored = PerfilSolicitud.medir(PerfilSolicitud.Fase.SERIALIZACION)) {
+                    return super.read(type, contextClass, inputMessage);
+                }
+            }
+        };
+    }
+
+    @Override
+    public Validator getValidator() {
+        return new SpringValidatorAdapter(validador) {
+            @Override
+            public void validate(Object target, Errors errors) {
+                try (PerfilSolicitud.Medicion ignored = PerfilSolicitud.medir(PerfilSolicitud.Fase.VALIDACION)) {
+                    super.validate(target, errors);
+                }
+            }
+
+            @Override
+            public void validate(Object target, Errors errors, Object... validationHints) {
+                try (PerfilSolicitud.Medicion ignored = PerfilSolicitud.medir(PerfilSolicitud.Fase.VALIDACION)) {
+                    super.validate(target, errors, validationHints);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,26 @@
+package org.esfe.configuracion;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.esfe.clientes.IReferenciasClient;
+import org.esfe.clientes.ReferenciasHttpClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class ReferenciasConfig {
+
+    // Cliente HTTP por defecto; se reemplaza declarando otro bean IReferenciasClient (ej. en pruebas)
+    @Bean
+    @ConditionalOnMissingBean(IReferenciasClient.class)
+    public IReferenciasClient referenciasClient(
+            ObjectMapper objectMapper,
+            @Value("${referencias.usuarios.url}") String urlUsuarios,
+            @Value("${referencias.tipos-deporte.url}") String urlTiposDeporte,
+            @Value("${referencias.timeout-ms:800}") long timeoutMs) {
+        return new ReferenciasHttpClient(objectMapper, urlUsuarios, urlTiposDeporte, Duration.ofMillis(timeoutMs));
+    }
+}
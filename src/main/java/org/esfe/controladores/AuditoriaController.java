@@ -0,0 +1,51 @@
+package org.esfe.controladores;
+
+import org.esfe.auditoria.BitacoraAuditoria;
+import org.esfe.auditoria.RegistroAuditoria;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/auditoria")
+public class AuditoriaController {
+
+    private static final int MAX_LIMITE = 1000;
+
+    private final BitacoraAuditoria bitacora;
+    private final int diasPorDefecto;
+
+    @Autowired
+    public AuditoriaController(BitacoraAuditoria bitacora,
+                               @Value("${auditoria.consulta.dias-por-defecto:30}") int diasPorDefecto) {
+        this.bitacora = bitacora;
+        this.diasPorDefecto = diasPorDefecto;
+    }
+
+    /**
+     * Decisiones auditadas de un equipo y/o usuario (afectado o actor), más recientes primero.
+     * GET /api/auditoria?equipoId=5&usuarioId=20&desde=2025-01-01T00:00:00&limite=100
+     * Sin {@code desde} se consultan los últimos auditoria.consulta.dias-por-defecto días: un filtro que
+     * no coincide con nada no recorre así toda la retención.
+     */
+    @GetMapping
+    public ResponseEntity<?> consultar(@RequestParam(required = false) Integer equipoId,
+                                       @RequestParam(required = false) Integer usuarioId,
+                                       @RequestParam(required = false)
+                                       @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+                                       @RequestParam(defaultValue = "100") int limite) {
+        if (equipoId == null && usuarioId == null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Indique equipoId, usuarioId o ambos.");
+        }
+        LocalDateTime corte = desde != null ? desde : LocalDateTime.now().minusDays(diasPorDefecto);
+        List<RegistroAuditoria> registros =
+                bitacora.consultar(equipoId, usuarioId, corte, Math.max(1, Math.min(limite, MAX_LIMITE)));
+        return ResponseEntity.ok(registros);
+    }
+}
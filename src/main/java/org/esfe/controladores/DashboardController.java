@@ -0,0 +1,41 @@
+package org.esfe.controladores;
+
+import org.esfe.dtos.dashboard.DashboardUsuarioDto;
+import org.esfe.servicios.DashboardNoDisponibleException;
+import org.esfe.servicios.interfaces.IDashboardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/dashboard")
+public class DashboardController {
+
+    private final IDashboardService dashboardService;
+
+    @Autowired
+    public DashboardController(IDashboardService dashboardService) {
+        this.dashboardService = dashboardService;
+    }
+
+    /**
+     * Pantalla principal del jugador en una sola llamada. Reemplaza a
+     * /api/equipos/mis-equipos/{usuarioId}, /api/miembros/usuario/{usuarioId} y
+     * /api/invitaciones/usuario/{usuarioId}.
+     * Si alguna de las consultas no termina a tiempo se responde 503 para que el cliente reintente.
+     * GET /api/dashboard/usuario/20?limite=10
+     */
+    @GetMapping("/usuario/{usuarioId}")
+    public ResponseEntity<?> obtenerDashboard(
+            @PathVariable Integer usuarioId,
+            @RequestParam(defaultValue = "10") Integer limite) {
+
+        int limiteAcotado = Math.max(1, Math.min(limite, 50));
+        try {
+            return ResponseEntity.ok(dashboardService.obtenerDashboard(usuarioId, limiteAcotado));
+        } catch (DashboardNoDisponibleException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        }
+    }
+}
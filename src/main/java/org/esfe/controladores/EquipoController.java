@@ -1,6 +1,12 @@
 package org.esfe.controladores;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.esfe.cache.EquipoRespuestaCache;
+import org.esfe.clientes.ReferenciasNoDisponiblesException;
 import org.esfe.dtos.equipo.*;
+import org.esfe.dtos.paginacion.SliceSalidaDto;
+import org.esfe.servicios.interfaces.IActividadEquipoService;
 import org.esfe.servicios.interfaces.IEquipoService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -8,8 +14,11 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import jakarta.validation.Valid;
 
+import java.io.IOException;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 
@@ -18,10 +27,15 @@ import java.util.Optional;
 public class EquipoController {
 
     private final IEquipoService equipoService;
+    private final EquipoRespuestaCache respuestaCache;
+    private final IActividadEquipoService actividadService;
 
     @Autowired
-    public EquipoController(IEquipoService equipoService) {
+    public EquipoController(IEquipoService equipoService, EquipoRespuestaCache respuestaCache,
+                            IActividadEquipoService actividadService) {
         this.equipoService = equipoService;
+        this.respuestaCache = respuestaCache;
+        this.actividadService = actividadService;
     }
 
     @GetMapping
@@ -35,6 +49,72 @@ public class EquipoController {
         return ResponseEntity.ok(equiposPage);
     }
 
+    /**
+     * Variantes sin COUNT de los listados (piden tamaño + 1 para saber si hay página siguiente).
+     * Con conTotal=true se incluye un total aproximado si ya está calculado; nunca se cuenta en la solicitud.
+     * GET /api/equipos/slice?busqueda=tig&page=0&size=20&conTotal=true
+     */
+    @GetMapping("/slice")
+    public ResponseEntity<SliceSalidaDto<EquipoSalidaDto>> mostrarTodosSlice(
+            @RequestParam(required = false) Optional<String> busqueda,
+            @RequestParam(defaultValue = "false") boolean conTotal,
+            Pageable pageable) {
+
+        return ResponseEntity.ok(equipoService.obtenerEquiposSlice(busqueda, pageable, conTotal));
+    }
+
+    @GetMapping("/busqueda/slice")
+    public ResponseEntity<?> buscarSlice(@Valid EquipoBusquedaDto criterios,
+                                         @RequestParam(defaultValue = "false") boolean conTotal,
+                                         Pageable pageable) {
+        try {
+            return ResponseEntity.ok(equipoService.buscarEquiposSlice(criterios, pageable, conTotal));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/mis-equipos/{usuarioId}/slice")
+    public ResponseEntity<SliceSalidaDto<EquipoSalidaDto>> mostrarEquiposDelUsuarioSlice(
+            @PathVariable Integer usuarioId,
+            @RequestParam(defaultValue = "false") boolean conTotal,
+            Pageable pageable) {
+
+        return ResponseEntity.ok(equipoService.obtenerEquiposPorUsuarioSlice(usuarioId, pageable, conTotal));
+    }
+
+    @GetMapping("/filtro/deporte/slice")
+    public ResponseEntity<SliceSalidaDto<EquipoSalidaDto>> mostrarPorTipoDeporteSlice(
+            @RequestParam Integer tipoDeporteId,
+            @RequestParam(defaultValue = "false") boolean conTotal,
+            Pageable pageable) {
+
+        return ResponseEntity.ok(equipoService.obtenerEquiposPorTipoDeporteSlice(tipoDeporteId, pageable, conTotal));
+    }
+
+    @GetMapping("/filtro/calificacion/slice")
+    public ResponseEntity<SliceSalidaDto<EquipoSalidaDto>> mostrarPorCalificacionMinimaSlice(
+            @RequestParam Double minima,
+            @RequestParam(defaultValue = "false") boolean conTotal,
+            Pageable pageable) {
+
+        return ResponseEntity.ok(equipoService.obtenerEquiposPorCalificacionMinimaSlice(minima, pageable, conTotal));
+    }
+
+    /**
+     * Búsqueda combinada con criterios opcionales (texto, deporte, nivel, ciudad, calificación mínima,
+     * activo, creador) resuelta en una sola consulta.
+     * GET /api/equipos/busqueda?texto=tig&tipoDeporteId=1&nivel=intermedio&estaActivo=true&page=0&size=20
+     */
+    @GetMapping("/busqueda")
+    public ResponseEntity<?> buscar(@Valid EquipoBusquedaDto criterios, Pageable pageable) {
+        try {
+            return ResponseEntity.ok(equipoService.buscarEquipos(criterios, pageable));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
     @GetMapping("/mis-equipos/{usuarioId}")
     public ResponseEntity<Page<EquipoSalidaDto>> mostrarEquiposDelUsuario(
             @PathVariable Integer usuarioId,
@@ -68,18 +148,124 @@ public class EquipoController {
         return ResponseEntity.ok(equiposPage);
     }
     
+    /**
+     * Busca equipos a los que un jugador se puede unir: activos, de su deporte, en su ciudad,
+     * cercanos a su nivel, con cupo libre y (por defecto) sin aprobación previa.
+     * GET /api/equipos/matchmaking?tipoDeporteId=1&ciudad=San Salvador&nivel=intermedio&limite=10
+     */
+    @GetMapping("/matchmaking")
+    public ResponseEntity<?> buscarParaMatchmaking(@Valid EquipoMatchmakingConsultaDto consulta) {
+        try {
+            return ResponseEntity.ok(equipoService.buscarEquiposDisponibles(consulta));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Conteos de equipos por tipo de deporte, nivel, ciudad y estado para los filtros del listado.
+     * Cada faceta aplica los filtros de las demás dimensiones.
+     * GET /api/equipos/facetas?tipoDeporteId=1&estaActivo=true
+     */
+    @GetMapping("/facetas")
+    public ResponseEntity<?> obtenerFacetas(@Valid EquipoFacetasConsultaDto consulta) {
+        try {
+            return ResponseEntity.ok(equipoService.obtenerFacetas(consulta));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Resuelve varios equipos en una sola llamada (para torneos, partidos, etc.).
+     * GET /api/equipos/lote?ids=3,1,7&compacto=true
+     */
+    @GetMapping("/lote")
+    public ResponseEntity<?> buscarLote(
+            @RequestParam List<Integer> ids,
+            @RequestParam(defaultValue = "false") Boolean compacto) {
+        try {
+            return ResponseEntity.ok(compacto ? equipoService.obtenerLoteCompacto(ids) : equipoService.obtenerLote(ids));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Igual que GET /lote, para listas de IDs que no caben cómodamente en la URL.
+     */
+    @PostMapping("/lote")
+    public ResponseEntity<?> buscarLote(@Valid @RequestBody EquipoLoteConsultaDto consultaDto) {
+        try {
+            return ResponseEntity.ok(Boolean.TRUE.equals(consultaDto.getCompacto())
+                    ? equipoService.obtenerLoteCompacto(consultaDto.getIds())
+                    : equipoService.obtenerLote(consultaDto.getIds()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Para clientes JSON la respuesta sale de la caché de bytes ya serializados (con ETag y gzip);
+     * otros formatos pasan por la negociación de contenido habitual.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<EquipoSalidaDto> buscarPorId(@PathVariable Integer id) {
+    public ResponseEntity<?> buscarPorId(@PathVariable Integer id,
+                                         HttpServletRequest request,
+                                         HttpServletResponse response) throws IOException {
+        if (respuestaCache.aceptaJson(request)) {
+            Optional<EquipoRespuestaCache.RespuestaSerializada> respuesta =
+                    respuestaCache.obtener(id, () -> equipoService.obtenerPorId(id));
+            if (respuesta.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            respuestaCache.escribir(respuesta.get(), request, response);
+            return null;
+        }
         return equipoService.obtenerPorId(id)
                 .map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    /**
+     * Plantilla del equipo para la página de equipo: el equipo y sus miembros agrupados por estado y rol.
+     * El ETag cambia con cada versión de la plantilla; If-None-Match con la versión vigente responde 304.
+     */
+    @GetMapping("/{id}/plantilla")
+    public ResponseEntity<EquipoPlantillaSalidaDto> obtenerPlantilla(@PathVariable Integer id, WebRequest webRequest) {
+        Optional<EquipoPlantillaSalidaDto> plantilla = equipoService.obtenerPlantilla(id);
+        if (plantilla.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = "\"" + id + "-" + plantilla.get().getVersion() + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(plantilla.get());
+    }
+
+    /**
+     * Estadísticas de actividad del equipo (invitaciones, tasa de aceptación, tiempo de respuesta y
+     * rotación de miembros): una fila por clave primaria, sin recorrer invitaciones ni membresías.
+     */
+    @GetMapping("/{id}/estadisticas")
+    public ResponseEntity<EquipoActividadSalidaDto> obtenerEstadisticas(@PathVariable Integer id) {
+        return actividadService.obtenerPorEquipo(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     @PostMapping
     public ResponseEntity<?> crear(@Valid @RequestBody EquipoGuardarDto equipoGuardarDto) {
         try {
             EquipoSalidaDto nuevoEquipo = equipoService.crear(equipoGuardarDto);
             return ResponseEntity.status(HttpStatus.CREATED).body(nuevoEquipo);
+        } catch (ReferenciasNoDisponiblesException e) {
+            // API de usuarios o de tipos de deporte caída: la validación no se pudo hacer
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        } catch (NoSuchElementException e) {
+            // Creador o tipo de deporte inexistente en su API de origen
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
         } catch (IllegalArgumentException e) {
             // Captura error de negocio (ej. nombre duplicado)
             return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
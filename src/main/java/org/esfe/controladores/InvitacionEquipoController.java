@@ -1,15 +1,20 @@
 package org.esfe.controladores;
 
+import org.esfe.clientes.ReferenciasNoDisponiblesException;
 import org.esfe.dtos.invitacion.InvitacionCrearDto;
 import org.esfe.dtos.invitacion.InvitacionResponderDto;
 import org.esfe.dtos.invitacion.InvitacionSalidaDto;
+import org.esfe.dtos.paginacion.SliceSalidaDto;
 import org.esfe.enums.EstadoInvitacion;
 import org.esfe.servicios.interfaces.IInvitacionEquipoService;
+import org.esfe.servicios.interfaces.IInvitacionStreamService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import jakarta.validation.Valid;
 
 import java.util.NoSuchElementException;
@@ -20,9 +25,12 @@ import java.util.Optional;
 public class InvitacionEquipoController {
 
     private final IInvitacionEquipoService invitacionEquipoService;
+    private final IInvitacionStreamService invitacionStreamService;
 
-    public InvitacionEquipoController(IInvitacionEquipoService invitacionEquipoService) {
+    public InvitacionEquipoController(IInvitacionEquipoService invitacionEquipoService,
+                                      IInvitacionStreamService invitacionStreamService) {
         this.invitacionEquipoService = invitacionEquipoService;
+        this.invitacionStreamService = invitacionStreamService;
     }
 
     /**
@@ -33,6 +41,9 @@ public class InvitacionEquipoController {
         try {
             InvitacionSalidaDto nuevaInvitacion = invitacionEquipoService.crear(invitacionCrearDto);
             return ResponseEntity.status(HttpStatus.CREATED).body(nuevaInvitacion);
+        } catch (ReferenciasNoDisponiblesException e) {
+            // API de usuarios o de tipos de deporte caída: la validación no se pudo hacer
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
         } catch (NoSuchElementException e) {
             // Equipo o usuario remitente/invitado no encontrado
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
@@ -44,6 +55,16 @@ public class InvitacionEquipoController {
         }
     }
 
+    /**
+     * Obtiene una invitación por su ID (incluye las ya movidas al archivo de historial).
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<InvitacionSalidaDto> obtenerPorId(@PathVariable Integer id) {
+        return invitacionEquipoService.obtenerPorId(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     /**
      * Permite al usuario invitado aceptar, rechazar o cancelar la invitación.
      */
@@ -56,8 +77,8 @@ public class InvitacionEquipoController {
         } catch (NoSuchElementException e) {
             // Invitación no encontrada
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
-        } catch (IllegalStateException e) {
-            // Error de negocio: Invitación ya respondida o Equipo lleno (si intenta ACEPTAR)
+        } catch (IllegalStateException | IllegalArgumentException e) {
+            // Error de negocio: Invitación ya respondida, Equipo lleno o Usuario ya es miembro (si intenta ACEPTAR)
             return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         } catch (SecurityException e) {
             // Error de seguridad: El usuario que responde no es el invitado
@@ -82,6 +103,34 @@ public class InvitacionEquipoController {
         return ResponseEntity.ok(invitacionesPage);
     }
 
+    /**
+     * Variante sin COUNT de la bandeja de invitaciones. Con conTotal=true se incluye el total
+     * aproximado si ya está calculado.
+     */
+    @GetMapping("/usuario/{usuarioId}/slice")
+    public ResponseEntity<SliceSalidaDto<InvitacionSalidaDto>> obtenerInvitacionesPorUsuarioSlice(
+            @PathVariable Integer usuarioId,
+            @RequestParam(defaultValue = "PENDIENTE") EstadoInvitacion estado,
+            @RequestParam(defaultValue = "false") boolean conTotal,
+            Pageable pageable) {
+
+        return ResponseEntity.ok(invitacionEquipoService.obtenerInvitacionesPorUsuarioYEstadoSlice(usuarioId, estado, pageable, conTotal));
+    }
+
+    /**
+     * Stream SSE de eventos (creada, respondida, cancelada) de las invitaciones dirigidas a un usuario.
+     * Reemplaza el sondeo periódico del dashboard. Al reconectar, el navegador envía Last-Event-ID
+     * y se reenvían los eventos que el cliente no alcanzó a recibir; si ya no se conservan, llega un
+     * evento "reinicio" para que vuelva a consultar la bandeja completa.
+     */
+    @GetMapping(value = "/usuario/{usuarioId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter suscribirInvitacionesPorUsuario(
+            @PathVariable Integer usuarioId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String ultimoEventoId) {
+
+        return invitacionStreamService.suscribir(usuarioId, ultimoEventoId);
+    }
+
     /**
      * Obtiene todas las invitaciones enviadas por un equipo.
      */
@@ -96,13 +145,23 @@ public class InvitacionEquipoController {
         return ResponseEntity.ok(invitacionesPage);
     }
 
+    @GetMapping("/equipo/{equipoId}/slice")
+    public ResponseEntity<SliceSalidaDto<InvitacionSalidaDto>> obtenerInvitacionesPorEquipoSlice(
+            @PathVariable Integer equipoId,
+            @RequestParam(defaultValue = "false") boolean conTotal,
+            Pageable pageable) {
+
+        return ResponseEntity.ok(invitacionEquipoService.obtenerInvitacionesPorEquipoSlice(equipoId, pageable, conTotal));
+    }
+
     /**
      * Elimina o Cancela una invitación.
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<String> eliminarInvitacion(@PathVariable Integer id) {
+    public ResponseEntity<String> eliminarInvitacion(@PathVariable Integer id,
+                                                     @RequestParam(required = false) Integer usuarioActorId) {
         try {
-            invitacionEquipoService.eliminarPorId(id);
+            invitacionEquipoService.eliminarPorId(id, usuarioActorId);
             return ResponseEntity.ok("Invitación con ID " + id + " eliminada correctamente.");
         } catch (NoSuchElementException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
@@ -124,4 +183,13 @@ public class InvitacionEquipoController {
 
         return ResponseEntity.ok(invitacionesPage);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/slice")
+    public ResponseEntity<SliceSalidaDto<InvitacionSalidaDto>> obtenerTodosSlice(
+            @RequestParam Optional<String> busqueda,
+            @RequestParam(defaultValue = "false") boolean conTotal,
+            Pageable pageable) {
+
+        return ResponseEntity.ok(invitacionEquipoService.obtenerPaginadoYFiltradoSlice(busqueda, pageable, conTotal));
+    }
+}
@@ -1,8 +1,10 @@
 package org.esfe.controladores;
 
+import org.esfe.clientes.ReferenciasNoDisponiblesException;
 import org.esfe.dtos.miembro.*;
 import org.esfe.servicios.interfaces.IMiembroEquipoService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.esfe.dtos.paginacion.SliceSalidaDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
@@ -10,6 +12,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
 
+import java.util.List;
 import java.util.NoSuchElementException;
 
 @RestController
@@ -28,6 +31,9 @@ public class MiembroEquipoController {
         try {
             MiembroSalidaDto nuevaMembresia = miembroEquipoService.crearMembresia(miembroCrearDto);
             return ResponseEntity.status(HttpStatus.CREATED).body(nuevaMembresia);
+        } catch (ReferenciasNoDisponiblesException e) {
+            // API de usuarios o de tipos de deporte caída: la validación no se pudo hacer
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
         } catch (NoSuchElementException e) {
             // Error si el Equipo ID no existe
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
@@ -72,6 +78,53 @@ public class MiembroEquipoController {
         return ResponseEntity.ok(membresiasPage);
     }
 
+    /**
+     * Variantes sin COUNT de los listados anteriores. Con conTotal=true se incluye el total
+     * aproximado si ya está calculado.
+     * GET /api/miembros/equipo/5/slice?page=0&size=20&conTotal=true
+     */
+    @GetMapping("/equipo/{equipoId}/slice")
+    public ResponseEntity<SliceSalidaDto<MiembroSalidaDto>> mostrarMiembrosPorEquipoSlice(
+            @PathVariable Integer equipoId,
+            @RequestParam(defaultValue = "false") boolean conTotal,
+            Pageable pageable) {
+
+        return ResponseEntity.ok(miembroEquipoService.obtenerMiembrosPorEquipoSlice(equipoId, pageable, conTotal));
+    }
+
+    @GetMapping("/usuario/{usuarioId}/slice")
+    public ResponseEntity<SliceSalidaDto<MiembroSalidaDto>> mostrarMembresiasPorUsuarioSlice(
+            @PathVariable Integer usuarioId,
+            @RequestParam(defaultValue = "false") boolean conTotal,
+            Pageable pageable) {
+
+        return ResponseEntity.ok(miembroEquipoService.obtenerMembresiasPorUsuarioSlice(usuarioId, pageable, conTotal));
+    }
+
+    /**
+     * Indica si el usuario es miembro activo del equipo (resuelto en memoria).
+     * GET /api/miembros/equipo/5/usuario/20/activo
+     */
+    @GetMapping("/equipo/{equipoId}/usuario/{usuarioId}/activo")
+    public ResponseEntity<Boolean> esMiembroActivo(
+            @PathVariable Integer equipoId,
+            @PathVariable Integer usuarioId) {
+
+        return ResponseEntity.ok(miembroEquipoService.esMiembroActivo(equipoId, usuarioId));
+    }
+
+    /**
+     * IDs de los equipos donde ambos usuarios son miembros activos.
+     * GET /api/miembros/usuario/20/en-comun/31
+     */
+    @GetMapping("/usuario/{usuarioId}/en-comun/{otroUsuarioId}")
+    public ResponseEntity<List<Integer>> mostrarEquiposEnComun(
+            @PathVariable Integer usuarioId,
+            @PathVariable Integer otroUsuarioId) {
+
+        return ResponseEntity.ok(miembroEquipoService.obtenerEquiposEnComun(usuarioId, otroUsuarioId));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<?> editarAtributos(@PathVariable Integer id, @Valid @RequestBody MiembroModificarDto miembroModificarDto) {
         try {
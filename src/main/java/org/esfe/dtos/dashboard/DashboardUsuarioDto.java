@@ -0,0 +1,26 @@
+package org.esfe.dtos.dashboard;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.esfe.dtos.equipo.EquipoSalidaDto;
+import org.esfe.dtos.invitacion.InvitacionSalidaDto;
+import org.esfe.dtos.miembro.MiembroSalidaDto;
+
+import java.io.Serializable;
+import java.util.List;
+
+@Getter
+@Setter
+public class DashboardUsuarioDto implements Serializable {
+
+    private Integer usuarioId;
+
+    // Equipos en los que el usuario es miembro activo
+    private List<EquipoSalidaDto> misEquipos;
+
+    // Membresías del usuario (cualquier estado), las más recientes primero
+    private List<MiembroSalidaDto> membresias;
+
+    // Invitaciones PENDIENTES dirigidas al usuario, las más recientes primero
+    private List<InvitacionSalidaDto> invitacionesPendientes;
+}
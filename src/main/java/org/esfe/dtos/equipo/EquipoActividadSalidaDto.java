@@ -0,0 +1,35 @@
+package org.esfe.dtos.equipo;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Estadísticas de actividad de un equipo: invitaciones y rotación de miembros.
+ * Las tasas y el promedio son nulos mientras no haya datos para calcularlos.
+ */
+@Getter
+@Setter
+public class EquipoActividadSalidaDto implements Serializable {
+    private Integer equipoId;
+
+    private long invitacionesEnviadas;
+    private long invitacionesAceptadas;
+    private long invitacionesRechazadas;
+    private long invitacionesCanceladas;
+
+    // aceptadas / (aceptadas + rechazadas)
+    private Double tasaAceptacion;
+    // Promedio de fechaRespuesta - fechaCreacion de las invitaciones respondidas
+    private Double tiempoPromedioRespuestaSegundos;
+
+    private long miembrosAltas;
+    private long miembrosBajas;
+    // bajas / altas
+    private Double tasaRotacion;
+
+    // Última vez que se volcaron contadores a la base de datos (nulo si todo sigue en memoria)
+    private LocalDateTime fechaActualizacion;
+}
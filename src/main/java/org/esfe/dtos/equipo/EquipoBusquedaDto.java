@@ -0,0 +1,45 @@
+package org.esfe.dtos.equipo;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+/**
+ * Criterios opcionales de la búsqueda combinada de equipos. Solo se aplican los que vienen informados.
+ */
+@Getter
+@Setter
+public class EquipoBusquedaDto implements Serializable {
+
+    // Coincide con el inicio del nombre o de la ciudad (usa los índices)
+    @Size(max = 255, message = "El texto de búsqueda no puede exceder los 255 caracteres.")
+    private String texto;
+
+    // true: el texto puede aparecer en cualquier parte (más lento, no usa índices)
+    private Boolean textoContiene = false;
+
+    @Min(value = 1, message = "El tipo de deporte ID debe ser un valor positivo.")
+    private Integer tipoDeporteId;
+
+    @Pattern(regexp = "(?i)principiante|intermedio|avanzado|profesional", message = "Nivel inválido. Debe ser: principiante, intermedio, avanzado o profesional.")
+    private String nivel;
+
+    // Coincidencia exacta (la colación de MySQL ya ignora mayúsculas)
+    @Size(max = 100, message = "La ciudad no puede exceder los 100 caracteres.")
+    private String ciudad;
+
+    @DecimalMin(value = "0.0", message = "La calificación mínima no puede ser negativa.")
+    @DecimalMax(value = "5.0", message = "La calificación mínima no puede ser mayor a 5.")
+    private Double calificacionMinima;
+
+    private Boolean estaActivo;
+
+    @Min(value = 1, message = "El ID del creador debe ser un valor positivo.")
+    private Integer creadoPor;
+}
@@ -0,0 +1,28 @@
+package org.esfe.dtos.equipo;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+/**
+ * Filtros opcionales de las facetas. Cada faceta se cuenta con los filtros de las demás dimensiones,
+ * no con el suyo (así la UI puede mostrar las otras opciones de la dimensión ya elegida).
+ */
+@Getter
+@Setter
+public class EquipoFacetasConsultaDto implements Serializable {
+
+    @Min(value = 1, message = "El tipo de deporte ID debe ser un valor positivo.")
+    private Integer tipoDeporteId;
+
+    @Pattern(regexp = "(?i)principiante|intermedio|avanzado|profesional", message = "Nivel inválido. Debe ser: principiante, intermedio, avanzado o profesional.")
+    private String nivel;
+
+    // Se compara sin tildes ni mayúsculas
+    private String ciudad;
+
+    private Boolean estaActivo;
+}
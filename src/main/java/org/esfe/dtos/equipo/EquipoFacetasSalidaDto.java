@@ -0,0 +1,24 @@
+package org.esfe.dtos.equipo;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * Conteos de equipos por tipo de deporte, nivel, ciudad y estado, ordenados de mayor a menor.
+ * Los equipos sin nivel o sin ciudad cuentan en el total pero no aparecen en esa faceta.
+ */
+@Getter
+@Setter
+public class EquipoFacetasSalidaDto implements Serializable {
+
+    // Equipos que cumplen todos los filtros
+    private long total;
+
+    private Map<Integer, Long> tiposDeporte;
+    private Map<String, Long> niveles;
+    private Map<String, Long> ciudades;
+    private Map<Boolean, Long> estaActivo;
+}
@@ -0,0 +1,21 @@
+package org.esfe.dtos.equipo;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.List;
+
+@Getter
+@Setter
+public class EquipoLoteConsultaDto implements Serializable {
+
+    @NotEmpty(message = "Debe indicar al menos un ID de equipo.")
+    private List<@NotNull(message = "Los IDs no pueden ser nulos.") @Min(value = 1, message = "Los IDs deben ser valores positivos.") Integer> ids;
+
+    // true para devolver la forma compacta (EquipoReferenciaDto)
+    private Boolean compacto = false;
+}
@@ -0,0 +1,19 @@
+package org.esfe.dtos.equipo;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Resultado de una consulta por lote. Los equipos vienen en el mismo orden de los IDs pedidos
+ * (sin repetidos) y los IDs inexistentes se informan aparte.
+ */
+@Getter
+@Setter
+public class EquipoLoteSalidaDto<T> implements Serializable {
+
+    private List<T> equipos;
+    private List<Integer> idsNoEncontrados;
+}
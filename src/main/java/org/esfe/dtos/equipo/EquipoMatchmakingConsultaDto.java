@@ -0,0 +1,39 @@
+package org.esfe.dtos.equipo;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+@Getter
+@Setter
+public class EquipoMatchmakingConsultaDto implements Serializable {
+
+    @NotNull(message = "El tipo de deporte es obligatorio.")
+    @Min(value = 1, message = "El tipo de deporte ID debe ser un valor positivo.")
+    private Integer tipoDeporteId;
+
+    // Opcional: se compara sin tildes ni mayúsculas
+    private String ciudad;
+
+    // Opcional: el nivel del jugador. Los equipos de ese nivel aparecen primero, luego los de niveles vecinos
+    @Pattern(regexp = "(?i)principiante|intermedio|avanzado|profesional", message = "Nivel inválido. Debe ser: principiante, intermedio, avanzado o profesional.")
+    private String nivel;
+
+    // true: solo niveles idénticos al indicado
+    private Boolean nivelExacto = false;
+
+    // true: solo equipos que no requieren aprobación para unirse
+    private Boolean sinAprobacion = true;
+
+    @Min(value = 1, message = "Se requiere al menos un cupo libre.")
+    private Integer cuposMinimos = 1;
+
+    @Min(value = 1, message = "El límite mínimo es 1.")
+    @Max(value = 100, message = "El límite máximo es 100.")
+    private Integer limite = 20;
+}
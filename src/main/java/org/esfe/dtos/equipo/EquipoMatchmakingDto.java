@@ -0,0 +1,22 @@
+package org.esfe.dtos.equipo;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+@Getter
+@Setter
+public class EquipoMatchmakingDto implements Serializable {
+
+    private Integer id;
+    private String nombre;
+    private String logo;
+    private Integer tipoDeporteId;
+    private String ciudad;
+    private String nivel;
+    private Boolean requiereAprobacion;
+    private Integer maxMiembros;
+    private Integer cuposLibres;
+    private Double calificacionPromedio;
+}
@@ -0,0 +1,25 @@
+package org.esfe.dtos.equipo;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.esfe.dtos.miembro.MiembroPlantillaDto;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Página de equipo en una sola lectura: el equipo una vez y sus miembros agrupados por estado y rol
+ * (miembros.activo.capitan, miembros.activo.jugador, ...).
+ */
+@Getter
+@Setter
+public class EquipoPlantillaSalidaDto implements Serializable {
+
+    private EquipoSalidaDto equipo;
+    private long version;
+    private LocalDateTime generadaEn;
+    private int totalMiembros;
+    private Map<String, Map<String, List<MiembroPlantillaDto>>> miembros;
+}
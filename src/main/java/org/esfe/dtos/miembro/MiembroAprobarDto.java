@@ -23,4 +23,8 @@ public class MiembroAprobarDto implements Serializable {
     @Pattern(regexp = "capitan|vice_capitan|jugador", message = "Rol inválido. Debe ser: capitan, vice_capitan o jugador.")
     private String rolAsignado;
 
+    // Usuario que toma la decisión (se registra en la auditoría); opcional
+    @Min(value = 1, message = "El ID del usuario que realiza el cambio debe ser positivo.")
+    private Integer usuarioActorId;
+
 }
\ No newline at end of file
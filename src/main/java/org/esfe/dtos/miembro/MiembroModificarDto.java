@@ -28,4 +28,8 @@ public class MiembroModificarDto implements Serializable {
 
     @Pattern(regexp = "activo|inactivo|suspendido", message = "Estado inválido. Debe ser: activo, inactivo o suspendido.")
     private String estado;
+
+    // Usuario que toma la decisión (se registra en la auditoría); opcional
+    @Min(value = 1, message = "El ID del usuario que realiza el cambio debe ser positivo.")
+    private Integer usuarioActorId;
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package org.esfe.dtos.miembro;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Miembro dentro de la plantilla del equipo. Rol y estado no se repiten aquí: son las claves del grupo.
+ */
+@Getter
+@Setter
+public class MiembroPlantillaDto implements Serializable {
+
+    private Integer id;
+    private Integer usuarioId;
+    private Integer numeroCamiseta;
+    private String posicion;
+    private LocalDateTime fechaUnion;
+}
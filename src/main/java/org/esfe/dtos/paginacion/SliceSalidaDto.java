@@ -0,0 +1,39 @@
+package org.esfe.dtos.paginacion;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.domain.Slice;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Porción de un listado sin COUNT: se sabe si hay una página siguiente (se pidió tamaño + 1),
+ * pero el total solo se informa si se solicitó y ya estaba calculado, y siempre es aproximado.
+ */
+@Getter
+@Setter
+public class SliceSalidaDto<T> implements Serializable {
+
+    private List<T> contenido;
+    private int pagina;
+    private int tamanio;
+    private int elementos;
+    private boolean tieneSiguiente;
+
+    // null cuando no se pidió o todavía no se ha calculado
+    private Long totalAproximado;
+    private boolean totalEsAproximado = true;
+
+    public static <E, T> SliceSalidaDto<T> de(Slice<E> slice, Function<E, T> mapeo, Long totalAproximado) {
+        SliceSalidaDto<T> dto = new SliceSalidaDto<>();
+        dto.setContenido(slice.getContent().stream().map(mapeo).toList());
+        dto.setPagina(slice.getNumber());
+        dto.setTamanio(slice.getSize());
+        dto.setElementos(slice.getNumberOfElements());
+        dto.setTieneSiguiente(slice.hasNext());
+        dto.setTotalAproximado(totalAproximado);
+        return dto;
+    }
+}
@@ -0,0 +1,28 @@
+package org.esfe.enums;
+
+public enum EstadoMiembro {
+    ACTIVO("activo"),
+    INACTIVO("inactivo"),
+    SUSPENDIDO("suspendido"),
+    RECHAZADO("rechazado");
+
+    private final String valor;
+
+    EstadoMiembro(String valor) {
+        this.valor = valor;
+    }
+
+    public String getValor() {
+        return valor;
+    }
+
+    // Valor de la API ("activo") a constante; los DTO ya lo validan con @Pattern
+    public static EstadoMiembro desdeValor(String valor) {
+        for (EstadoMiembro estado : values()) {
+            if (estado.valor.equals(valor)) {
+                return estado;
+            }
+        }
+        throw new IllegalArgumentException("Estado de miembro inválido: " + valor);
+    }
+}
@@ -0,0 +1,24 @@
+package org.esfe.enums;
+
+/**
+ * Clase de prioridad de una solicitud frente al limitador de concurrencia.
+ * La cuota indica qué fracción del límite puede ocupar cada clase.
+ */
+public enum PrioridadSolicitud {
+    // Escrituras (crear, responder invitación, cambiar estado...)
+    ALTA(1.0),
+    // Lecturas puntuales por ID (y sus subrecursos) y el dashboard
+    NORMAL(0.85),
+    // Listados paginados, búsquedas y consultas por lote (también POST /lote)
+    BAJA(0.6);
+
+    private final double cuota;
+
+    PrioridadSolicitud(double cuota) {
+        this.cuota = cuota;
+    }
+
+    public double getCuota() {
+        return cuota;
+    }
+}
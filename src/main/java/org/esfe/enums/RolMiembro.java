@@ -0,0 +1,27 @@
+package org.esfe.enums;
+
+public enum RolMiembro {
+    CAPITAN("capitan"),
+    VICE_CAPITAN("vice_capitan"),
+    JUGADOR("jugador");
+
+    private final String valor;
+
+    RolMiembro(String valor) {
+        this.valor = valor;
+    }
+
+    public String getValor() {
+        return valor;
+    }
+
+    // Valor de la API ("vice_capitan") a constante; los DTO ya lo validan con @Pattern
+    public static RolMiembro desdeValor(String valor) {
+        for (RolMiembro rol : values()) {
+            if (rol.valor.equals(valor)) {
+                return rol;
+            }
+        }
+        throw new IllegalArgumentException("Rol inválido: " + valor);
+    }
+}
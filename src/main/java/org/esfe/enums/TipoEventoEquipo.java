@@ -0,0 +1,7 @@
+package org.esfe.enums;
+
+public enum TipoEventoEquipo {
+    CREADO,
+    MODIFICADO,
+    ELIMINADO
+}
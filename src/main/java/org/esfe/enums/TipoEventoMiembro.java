@@ -0,0 +1,7 @@
+package org.esfe.enums;
+
+public enum TipoEventoMiembro {
+    CREADO,
+    MODIFICADO,
+    ELIMINADO
+}
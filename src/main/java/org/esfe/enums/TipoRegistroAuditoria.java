@@ -0,0 +1,32 @@
+package org.esfe.enums;
+
+// Cada tipo se guarda con su código en los segmentos de auditoría: nunca cambiar ni reutilizar un código
+public enum TipoRegistroAuditoria {
+    INVITACION_ACEPTADA(0),
+    INVITACION_RECHAZADA(1),
+    INVITACION_CANCELADA(2),
+    MIEMBRO_CAMBIO_ESTADO(3);
+
+    private static final TipoRegistroAuditoria[] POR_CODIGO = new TipoRegistroAuditoria[128];
+
+    static {
+        for (TipoRegistroAuditoria tipo : values()) {
+            POR_CODIGO[tipo.codigo] = tipo;
+        }
+    }
+
+    private final byte codigo;
+
+    TipoRegistroAuditoria(int codigo) {
+        this.codigo = (byte) codigo;
+    }
+
+    public byte getCodigo() {
+        return codigo;
+    }
+
+    // null si el código no corresponde a ningún tipo (segmento de otra versión o dañado)
+    public static TipoRegistroAuditoria desdeCodigo(byte codigo) {
+        return codigo >= 0 ? POR_CODIGO[codigo] : null;
+    }
+}
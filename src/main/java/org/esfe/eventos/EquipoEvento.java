@@ -0,0 +1,19 @@
+package org.esfe.eventos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.esfe.dtos.equipo.EquipoSalidaDto;
+import org.esfe.enums.TipoEventoEquipo;
+
+/**
+ * Evento publicado por el servicio de equipos después de cada escritura.
+ * En los eventos ELIMINADO el DTO es nulo; solo se informa el ID.
+ */
+@Getter
+@AllArgsConstructor
+public class EquipoEvento {
+
+    private final TipoEventoEquipo tipo;
+    private final Integer equipoId;
+    private final EquipoSalidaDto equipo;
+}
@@ -0,0 +1,25 @@
+package org.esfe.eventos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.esfe.dtos.invitacion.InvitacionSalidaDto;
+import org.esfe.enums.TipoEventoInvitacion;
+
+/**
+ * Evento publicado por el servicio de invitaciones después de cada escritura
+ * (creación, respuesta o cancelación). Lleva el DTO de salida ya mapeado para que
+ * los oyentes no vuelvan a consultar la base de datos. En las cancelaciones por borrado lleva además
+ * el usuario que canceló, si el cliente lo informa.
+ */
+@Getter
+@AllArgsConstructor
+public class InvitacionEvento {
+
+    private final TipoEventoInvitacion tipo;
+    private final InvitacionSalidaDto invitacion;
+    private final Integer actorId;
+
+    public InvitacionEvento(TipoEventoInvitacion tipo, InvitacionSalidaDto invitacion) {
+        this(tipo, invitacion, null);
+    }
+}
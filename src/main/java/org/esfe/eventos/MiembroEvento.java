@@ -0,0 +1,25 @@
+package org.esfe.eventos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.esfe.dtos.miembro.MiembroSalidaDto;
+import org.esfe.enums.TipoEventoMiembro;
+
+/**
+ * Evento publicado por el servicio de miembros después de cada escritura sobre una membresía.
+ * Lleva el estado final de la membresía y el estado que tenía antes del cambio
+ * (nulo en las altas), y el usuario que hizo el cambio cuando el cliente lo informa.
+ */
+@Getter
+@AllArgsConstructor
+public class MiembroEvento {
+
+    private final TipoEventoMiembro tipo;
+    private final MiembroSalidaDto miembro;
+    private final String estadoAnterior;
+    private final Integer actorId;
+
+    public MiembroEvento(TipoEventoMiembro tipo, MiembroSalidaDto miembro, String estadoAnterior) {
+        this(tipo, miembro, estadoAnterior, null);
+    }
+}
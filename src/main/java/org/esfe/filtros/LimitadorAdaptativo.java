@@ -0,0 +1,119 @@
+package org.esfe.filtros;
+
+import org.esfe.enums.PrioridadSolicitud;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Límite de concurrencia adaptativo (AIMD guiado por latencia) para un grupo de endpoints.
+ * <p>
+ * Las muestras se agrupan en ventanas de {@value #MUESTRAS_POR_VENTANA} solicitudes. Al cerrar cada
+ * ventana se compara su latencia promedio (corta) con la latencia base del grupo, un promedio móvil
+ * lento de las ventanas anteriores (larga). Comparar promedios, y no cada solicitud contra el mínimo
+ * visto, hace que una mezcla normal de aciertos de caché y lecturas a MySQL no cuente como congestión.
+ * <p>
+ * Si la corta supera a la larga por el factor de tolerancia, o fallan demasiadas solicitudes, el
+ * límite se multiplica por el factor de reducción (una vez por ventana). Si no, y la ventana llegó a
+ * usar al menos la mitad del límite, crece en +1. Así, si MySQL se vuelve lento, el límite baja y las
+ * solicitudes sobrantes se rechazan rápido en lugar de acumularse en los hilos de Tomcat; cuando la
+ * latencia vuelve a la base, el límite se recupera.
+ */
+public class LimitadorAdaptativo {
+
+    static final int MUESTRAS_POR_VENTANA = 50;
+
+    // Peso de cada ventana nueva en la latencia base: unas 20 ventanas (1000 solicitudes) de memoria
+    private static final double PESO_BASE = 0.05;
+
+    // Fracción de fallos (5xx) en una ventana a partir de la cual se reduce el límite
+    private static final double FRACCION_FALLOS = 0.1;
+
+    private final int limiteMinimo;
+    private final int limiteMaximo;
+    private final double tolerancia;
+    private final double factorReduccion;
+
+    private final AtomicInteger enVuelo = new AtomicInteger();
+    private volatile double limite;
+
+    // Estado de la ventana en curso y latencia base; se usan bajo el candado de actualizar()
+    private double latenciaBaseNanos;
+    private long sumaLatenciasNanos;
+    private int muestras;
+    private int fallos;
+    private int maximoEnVuelo;
+
+    public LimitadorAdaptativo(int limiteInicial, int limiteMinimo, int limiteMaximo, double tolerancia, double factorReduccion) {
+        this.limite = limiteInicial;
+        this.limiteMinimo = limiteMinimo;
+        this.limiteMaximo = limiteMaximo;
+        this.tolerancia = tolerancia;
+        this.factorReduccion = factorReduccion;
+    }
+
+    /**
+     * Intenta ocupar un lugar. Las clases de menor prioridad solo pueden usar una fracción del límite,
+     * de modo que bajo carga se rechazan primero los listados y se reserva lugar para las escrituras.
+     */
+    public boolean intentarAdquirir(PrioridadSolicitud prioridad) {
+        int permitido = Math.max(1, (int) (limite * prioridad.getCuota()));
+        while (true) {
+            int actual = enVuelo.get();
+            if (actual >= permitido) {
+                return false;
+            }
+            if (enVuelo.compareAndSet(actual, actual + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void liberar(long latenciaNanos, boolean exito) {
+        int enVueloAntes = enVuelo.getAndDecrement();
+        actualizar(latenciaNanos, exito, enVueloAntes);
+    }
+
+    private synchronized void actualizar(long latenciaNanos, boolean exito, int enVueloAntes) {
+        sumaLatenciasNanos += latenciaNanos;
+        muestras++;
+        if (!exito) {
+            fallos++;
+        }
+        maximoEnVuelo = Math.max(maximoEnVuelo, enVueloAntes);
+        if (muestras < MUESTRAS_POR_VENTANA) {
+            return;
+        }
+
+        double latenciaVentana = (double) sumaLatenciasNanos / muestras;
+        boolean congestion = latenciaBaseNanos > 0 && latenciaVentana > latenciaBaseNanos * tolerancia;
+        boolean demasiadosFallos = fallos > muestras * FRACCION_FALLOS;
+
+        double nuevo = limite;
+        if (congestion || demasiadosFallos) {
+            nuevo = limite * factorReduccion;
+        } else if (maximoEnVuelo >= limite / 2) {
+            // Solo se crece si el límite actual se está aprovechando
+            nuevo = limite + 1;
+        }
+        limite = Math.max(limiteMinimo, Math.min(limiteMaximo, nuevo));
+
+        // La base sigue a la latencia lentamente: absorbe cambios duraderos (más datos, otra máquina)
+        // sin confundir una ventana lenta con la nueva normalidad
+        latenciaBaseNanos = latenciaBaseNanos == 0
+                ? latenciaVentana
+                : latenciaBaseNanos * (1 - PESO_BASE) + latenciaVentana * PESO_BASE;
+
+        sumaLatenciasNanos = 0;
+        muestras = 0;
+        fallos = 0;
+        maximoEnVuelo = 0;
+    }
+
+    public int getEnVuelo() {
+        return enVuelo.get();
+    }
+
+    public double getLimite() {
+        return limite;
+    }
+}
@@ -0,0 +1,145 @@
+package org.esfe.filtros;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.esfe.enums.PrioridadSolicitud;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Aplica un LimitadorAdaptativo por grupo de endpoints (equipos, miembros, invitaciones, dashboard).
+ * Si el grupo está saturado para la prioridad de la solicitud, responde 503 con Retry-After de inmediato.
+ * Publica en Micrometer: limitador.en_vuelo, limitador.limite y limitador.rechazos por grupo.
+ */
+@Component
+@ConditionalOnProperty(name = "limitador.habilitado", havingValue = "true", matchIfMissing = true)
+public class LimitadorConcurrenciaFilter extends OncePerRequestFilter {
+
+    private final Map<String, LimitadorAdaptativo> limitadores = new LinkedHashMap<>();
+    private final Map<String, Map<PrioridadSolicitud, Counter>> rechazos = new LinkedHashMap<>();
+    private final String reintentarDespuesSegundos;
+
+    public LimitadorConcurrenciaFilter(
+            MeterRegistry meterRegistry,
+            @Value("${limitador.limite-inicial:20}") int limiteInicial,
+            @Value("${limitador.limite-minimo:4}") int limiteMinimo,
+            @Value("${limitador.limite-maximo:200}") int limiteMaximo,
+            @Value("${limitador.tolerancia-latencia:2.0}") double tolerancia,
+            @Value("${limitador.factor-reduccion:0.9}") double factorReduccion,
+            @Value("${limitador.reintentar-despues-segundos:1}") int reintentarDespuesSegundos) {
+        this.reintentarDespuesSegundos = String.valueOf(reintentarDespuesSegundos);
+
+        for (String grupo : new String[]{"equipos", "miembros", "invitaciones", "dashboard"}) {
+            LimitadorAdaptativo limitador = new LimitadorAdaptativo(limiteInicial, limiteMinimo, limiteMaximo, tolerancia, factorReduccion);
+            limitadores.put(grupo, limitador);
+
+            Gauge.builder("limitador.en_vuelo", limitador, LimitadorAdaptativo::getEnVuelo)
+                    .tag("grupo", grupo)
+                    .description("Solicitudes en curso en el grupo")
+                    .register(meterRegistry);
+            Gauge.builder("limitador.limite", limitador, LimitadorAdaptativo::getLimite)
+                    .tag("grupo", grupo)
+                    .description("Límite de concurrencia adaptativo actual")
+                    .register(meterRegistry);
+
+            Map<PrioridadSolicitud, Counter> porPrioridad = new EnumMap<>(PrioridadSolicitud.class);
+            for (PrioridadSolicitud prioridad : PrioridadSolicitud.values()) {
+                porPrioridad.put(prioridad, Counter.builder("limitador.rechazos")
+                        .tag("grupo", grupo)
+                        .tag("prioridad", prioridad.name())
+                        .description("Solicitudes rechazadas con 503 por el limitador")
+                        .register(meterRegistry));
+            }
+            rechazos.put(grupo, porPrioridad);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Los streams SSE son conexiones largas e inactivas: no deben ocupar lugares del límite
+        return grupo(request) == null || request.getRequestURI().endsWith("/stream");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String grupo = grupo(request);
+        LimitadorAdaptativo limitador = limitadores.get(grupo);
+        PrioridadSolicitud prioridad = prioridad(request);
+
+        if (!limitador.intentarAdquirir(prioridad)) {
+            rechazos.get(grupo).get(prioridad).increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader("Retry-After", reintentarDespuesSegundos);
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.getOutputStream().write("Servicio saturado, intente nuevamente en unos segundos.".getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+
+        long inicio = System.nanoTime();
+        boolean exito = false;
+        try {
+            filterChain.doFilter(request, response);
+            exito = response.getStatus() < 500;
+        } finally {
+            limitador.liberar(System.nanoTime() - inicio, exito);
+        }
+    }
+
+    private static String grupo(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        if (!uri.startsWith("/api/")) {
+            return null;
+        }
+        int fin = uri.indexOf('/', 5);
+        String grupo = fin < 0 ? uri.substring(5) : uri.substring(5, fin);
+        return switch (grupo) {
+            case "equipos", "miembros", "invitaciones", "dashboard" -> grupo;
+            default -> null;
+        };
+    }
+
+    /**
+     * Prioridad según la ruta: las consultas por lote (GET o POST /lote) y los listados son BAJA aunque
+     * lleguen por POST; las demás escrituras son ALTA; las lecturas de un recurso puntual
+     * (/{id}, /{id}/plantilla, ...) y el dashboard son NORMAL.
+     */
+    static PrioridadSolicitud prioridad(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        // /api/equipos/5/plantilla -> [equipos, 5, plantilla]
+        String[] segmentos = uri.substring(5).split("/");
+        String ultimo = segmentos[segmentos.length - 1];
+
+        if (ultimo.equals("lote")) {
+            return PrioridadSolicitud.BAJA;
+        }
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            return PrioridadSolicitud.ALTA;
+        }
+        boolean recursoPuntual = segmentos.length >= 2 && segmentos.length <= 3 && esId(segmentos[1]);
+        if (recursoPuntual || ultimo.equals("activo") || segmentos[0].equals("dashboard")) {
+            return PrioridadSolicitud.NORMAL;
+        }
+        return PrioridadSolicitud.BAJA;
+    }
+
+    private static boolean esId(String segmento) {
+        return !segmento.isEmpty() && segmento.chars().allMatch(Character::isDigit);
+    }
+}
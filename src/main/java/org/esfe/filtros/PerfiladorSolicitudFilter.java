@@ -0,0 +1,81 @@
+package org.esfe.filtros;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.esfe.perfilado.PerfilSolicitud;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+
+/**
+ * Perfilador por solicitud (opt-in con perfilador.habilitado=true). Agrega el header Server-Timing
+ * con el tiempo en base de datos (y cantidad de sentencias), mapeo, validación y serialización, y
+ * escribe una línea de log clave=valor para las solicitudes que superan perfilador.umbral-ms.
+ * <p>
+ * La serialización ocurre mientras se escribe el cuerpo, así que la respuesta se retiene en memoria
+ * hasta calcular el header. Los streams SSE no se perfilan.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "perfilador.habilitado", havingValue = "true")
+public class PerfiladorSolicitudFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(PerfiladorSolicitudFilter.class);
+
+    private final long umbralNanos;
+
+    public PerfiladorSolicitudFilter(@Value("${perfilador.umbral-ms:500}") long umbralMillis) {
+        this.umbralNanos = umbralMillis * 1_000_000L;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return !uri.startsWith("/api/") || uri.endsWith("/stream");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper respuesta = new ContentCachingResponseWrapper(response);
+        PerfilSolicitud perfil = PerfilSolicitud.iniciar();
+        long inicio = System.nanoTime();
+        try {
+            filterChain.doFilter(request, respuesta);
+        } finally {
+            long total = System.nanoTime() - inicio;
+            PerfilSolicitud.terminar();
+            respuesta.setHeader("Server-Timing", perfil.serverTiming(total));
+            respuesta.copyBodyToResponse();
+            if (total >= umbralNanos) {
+                registrarSolicitudLenta(request, respuesta.getStatus(), perfil, total);
+            }
+        }
+    }
+
+    private static void registrarSolicitudLenta(HttpServletRequest request, int estado, PerfilSolicitud perfil, long totalNanos) {
+        Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        log.warn("solicitud_lenta metodo={} ruta={} uri={} estado={} total_ms={} db_ms={} db_sentencias={} mapeo_ms={} validacion_ms={} serializacion_ms={}",
+                request.getMethod(),
+                patron != null ? patron : request.getRequestURI(),
+                request.getRequestURI(),
+                estado,
+                PerfilSolicitud.formatear(totalNanos / 1_000_000.0),
+                PerfilSolicitud.formatear(perfil.milisegundos(PerfilSolicitud.Fase.DB)),
+                perfil.getSentencias(),
+                PerfilSolicitud.formatear(perfil.milisegundos(PerfilSolicitud.Fase.MAPEO)),
+                PerfilSolicitud.formatear(perfil.milisegundos(PerfilSolicitud.Fase.VALIDACION)),
+                PerfilSolicitud.formatear(perfil.milisegundos(PerfilSolicitud.Fase.SERIALIZACION)));
+    }
+}
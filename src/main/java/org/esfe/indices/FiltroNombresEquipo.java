@@ -0,0 +1,285 @@
+package org.esfe.indices;
+
+import org.esfe.dtos.equipo.EquipoSalidaDto;
+import org.esfe.enums.TipoEventoEquipo;
+import org.esfe.eventos.EquipoEvento;
+import org.esfe.repositorios.IEquipoRepository;
+import org.esfe.repositorios.proyecciones.NombreEquipoProyeccion;
+import org.esfe.utilidades.Textos;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom con los nombres normalizados de todos los equipos (incluidos los de borrado suave,
+ * que conservan su nombre hasta la purga). Si el filtro dice que un nombre no existe, es seguro:
+ * EquipoService.crear se ahorra la consulta de unicidad. Un positivo solo significa "puede existir" y
+ * se confirma en la base de datos; la restricción única sigue siendo la garantía final.
+ * <p>
+ * Se construye al arrancar y se alimenta con los eventos de equipo. Los nombres que dejan de usarse no
+ * se pueden quitar (solo suben la tasa de falsos positivos); al superar la capacidad se reconstruye.
+ */
+@Component
+public class FiltroNombresEquipo {
+
+    private static final Logger log = LoggerFactory.getLogger(FiltroNombresEquipo.class);
+
+    private final IEquipoRepository equipoRepository;
+    private final TransactionTemplate transaccion;
+    private final int tamanioLoteCarga;
+    private final double tasaFalsosPositivos;
+    private final int capacidadMinima;
+
+    private volatile Filtro filtro;
+    private final AtomicBoolean reconstruyendo = new AtomicBoolean();
+
+    // Nombres agregados durante una reconstrucción; se reaplican sobre el filtro nuevo
+    private List<String> pendientes;
+
+    public FiltroNombresEquipo(IEquipoRepository equipoRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${indices.nombres.tamanio-lote-carga:10000}") int tamanioLoteCarga,
+                               @Value("${indices.nombres.tasa-falsos-positivos:0.01}") double tasaFalsosPositivos,
+                               @Value("${indices.nombres.capacidad-minima:10000}") int capacidadMinima) {
+        this.equipoRepository = equipoRepository;
+        this.transaccion = new TransactionTemplate(transactionManager);
+        this.tamanioLoteCarga = tamanioLoteCarga;
+        this.tasaFalsosPositivos = tasaFalsosPositivos;
+        this.capacidadMinima = capacidadMinima;
+    }
+
+    public boolean estaListo() {
+        return filtro != null;
+    }
+
+    // Capacidad del filtro vigente (0 si aún no se construyó)
+    int capacidad() {
+        Filtro actual = filtro;
+        return actual != null ? actual.capacidad : 0;
+    }
+
+    /**
+     * false solo si el nombre (ya normalizado) seguro no está en uso. Mientras el filtro no está listo
+     * siempre devuelve true, y el llamador consulta la base de datos como antes.
+     */
+    public boolean puedeExistir(String nombreNormalizado) {
+        Filtro actual = filtro;
+        return actual == null || actual.contiene(nombreNormalizado);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alIniciar() {
+        reconstruir();
+    }
+
+    public void reconstruir() {
+        if (!reconstruyendo.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            synchronized (this) {
+                pendientes = new ArrayList<>();
+            }
+            Filtro nuevo;
+            try {
+                nuevo = cargar();
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    pendientes = null;
+                }
+                log.error("No se pudo construir el filtro de nombres de equipo; se seguirá consultando la base de datos.", e);
+                return;
+            }
+            synchronized (this) {
+                pendientes.forEach(nuevo::agregar);
+                pendientes = null;
+                filtro = nuevo;
+            }
+            log.info("Filtro de nombres de equipo construido: {} nombres, capacidad {}, {} bits, {} funciones hash.",
+                    nuevo.elementos(), nuevo.capacidad, nuevo.bits, nuevo.funciones);
+        } finally {
+            reconstruyendo.set(false);
+        }
+    }
+
+    @EventListener
+    public void alCambiarEquipo(EquipoEvento evento) {
+        EquipoSalidaDto equipo = evento.getEquipo();
+        if (evento.getTipo() == TipoEventoEquipo.ELIMINADO || equipo == null) {
+            return;
+        }
+        agregar(Textos.normalizar(equipo.getNombre()));
+    }
+
+    private void agregar(String nombreNormalizado) {
+        if (nombreNormalizado == null) {
+            return;
+        }
+        Filtro actual;
+        synchronized (this) {
+            if (pendientes != null) {
+                pendientes.add(nombreNormalizado);
+            }
+            actual = filtro;
+        }
+        if (actual != null) {
+            actual.agregar(nombreNormalizado);
+            if (actual.elementos() > actual.capacidad) {
+                // Saturado: la tasa de falsos positivos ya supera la configurada
+                Thread.ofVirtual().name("filtro-nombres").start(this::reconstruir);
+            }
+        }
+    }
+
+    private Filtro cargar() {
+        long total = equipoRepository.contarIncluyendoEliminados();
+        // Margen para los equipos que se creen antes de la próxima reconstrucción
+        Filtro nuevo = new Filtro((int) Math.max(capacidadMinima, Math.min(Integer.MAX_VALUE / 2, total * 2)),
+                tasaFalsosPositivos);
+
+        int ultimoId = 0;
+        int completados = 0;
+        List<NombreEquipoProyeccion> lote;
+        do {
+            lote = equipoRepository.findNombresDesde(ultimoId, tamanioLoteCarga);
+            List<NombrePendiente> sinNormalizar = new ArrayList<>();
+            for (NombreEquipoProyeccion fila : lote) {
+                String normalizado = fila.getNombreNormalizado();
+                if (normalizado == null) {
+                    normalizado = Textos.normalizar(fila.getNombre());
+                    sinNormalizar.add(new NombrePendiente(fila.getId(), normalizado));
+                }
+                nuevo.agregar(normalizado);
+                ultimoId = fila.getId();
+            }
+            completados += completarNombresNormalizados(sinNormalizar);
+        } while (lote.size() == tamanioLoteCarga);
+
+        if (completados > 0) {
+            log.info("Se completó nombre_normalizado en {} equipos existentes.", completados);
+        }
+        return nuevo;
+    }
+
+    private record NombrePendiente(Integer id, String normalizado) {
+    }
+
+    // Filas anteriores a la columna nombre_normalizado: una transacción por lote de carga
+    private int completarNombresNormalizados(List<NombrePendiente> pendientes) {
+        if (pendientes.isEmpty()) {
+            return 0;
+        }
+        try {
+            Integer filas = transaccion.execute(estado -> pendientes.stream()
+                    .mapToInt(p -> equipoRepository.completarNombreNormalizado(p.id(), p.normalizado()))
+                    .sum());
+            return filas != null ? filas : 0;
+        } catch (DataIntegrityViolationException e) {
+            // Algún nombre del lote choca con otro equipo: se repite fila por fila para completar el resto
+            int completados = 0;
+            for (NombrePendiente pendiente : pendientes) {
+                if (completarNombreNormalizado(pendiente)) {
+                    completados++;
+                }
+            }
+            return completados;
+        }
+    }
+
+    private boolean completarNombreNormalizado(NombrePendiente pendiente) {
+        try {
+            Integer filas = transaccion.execute(estado ->
+                    equipoRepository.completarNombreNormalizado(pendiente.id(), pendiente.normalizado()));
+            return filas != null && filas > 0;
+        } catch (DataIntegrityViolationException e) {
+            log.warn("El equipo {} tiene un nombre que ya usa otro equipo ('{}'); se deja sin normalizar.",
+                    pendiente.id(), pendiente.normalizado());
+            return false;
+        }
+    }
+
+    /**
+     * Arreglo de bits compartido sin candados (AtomicLongArray). Las posiciones salen de dos hashes de
+     * 32 bits combinados (h1 + i·h2), a partir de un FNV-1a de 64 bits (con mezcla final) sobre los bytes UTF-8.
+     */
+    private static final class Filtro {
+
+        private final int capacidad;
+        private final long bits;
+        private final int funciones;
+        private final AtomicLongArray palabras;
+        private final AtomicInteger elementos = new AtomicInteger();
+
+        Filtro(int capacidad, double tasaFalsosPositivos) {
+            this.capacidad = capacidad;
+            double ln2 = Math.log(2);
+            long calculados = (long) Math.ceil(-capacidad * Math.log(tasaFalsosPositivos) / (ln2 * ln2));
+            int numPalabras = (int) Math.min(Integer.MAX_VALUE - 8, (calculados + 63) / 64);
+            this.bits = numPalabras * 64L;
+            this.funciones = Math.max(1, (int) Math.round((double) bits / capacidad * ln2));
+            this.palabras = new AtomicLongArray(numPalabras);
+        }
+
+        int elementos() {
+            return elementos.get();
+        }
+
+        void agregar(String valor) {
+            long hash = hash(valor);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            boolean nuevo = false;
+            for (int i = 0; i < funciones; i++) {
+                long posicion = Math.floorMod(h1 + (long) i * h2, bits);
+                int palabra = (int) (posicion >>> 6);
+                long mascara = 1L << posicion;
+                long anterior = palabras.getAndAccumulate(palabra, mascara, (a, m) -> a | m);
+                nuevo |= (anterior & mascara) == 0;
+            }
+            if (nuevo) {
+                elementos.incrementAndGet();
+            }
+        }
+
+        boolean contiene(String valor) {
+            long hash = hash(valor);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < funciones; i++) {
+                long posicion = Math.floorMod(h1 + (long) i * h2, bits);
+                if ((palabras.get((int) (posicion >>> 6)) & (1L << posicion)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static long hash(String valor) {
+            long hash = 0xcbf29ce484222325L;
+            for (byte b : valor.getBytes(StandardCharsets.UTF_8)) {
+                hash ^= b & 0xff;
+                hash *= 0x100000001b3L;
+            }
+            // Mezcla final (fmix64 de MurmurHash3) para repartir bien las dos mitades
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            hash *= 0xc4ceb9fe1a85ec53L;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
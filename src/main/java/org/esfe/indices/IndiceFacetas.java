@@ -0,0 +1,312 @@
+package org.esfe.indices;
+
+import jakarta.annotation.PreDestroy;
+import org.esfe.dtos.equipo.EquipoFacetasConsultaDto;
+import org.esfe.dtos.equipo.EquipoFacetasSalidaDto;
+import org.esfe.dtos.equipo.EquipoSalidaDto;
+import org.esfe.enums.TipoEventoEquipo;
+import org.esfe.eventos.EquipoEvento;
+import org.esfe.modelos.NivelEquipo;
+import org.esfe.repositorios.IEquipoRepository;
+import org.esfe.repositorios.proyecciones.ConteoFacetaProyeccion;
+import org.esfe.repositorios.proyecciones.EquipoFichaProyeccion;
+import org.esfe.utilidades.Textos;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Conteos globales de equipos por tipo de deporte, nivel, ciudad (normalizada) y estado, para las
+ * facetas del listado.
+ * <p>
+ * Se guarda cuántos equipos hay por cada combinación de las cuatro dimensiones (son pocas) y la
+ * combinación actual de cada equipo, para saber qué restar cuando un evento de EquipoService lo
+ * cambia. Las consultas trabajan sobre una copia inmutable que solo se rehace después de un cambio.
+ * Periódicamente se compara con un GROUP BY; si no coincide (escrituras por fuera de EquipoService)
+ * se reconstruye con un recorrido por lotes.
+ */
+@Component
+public class IndiceFacetas {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceFacetas.class);
+
+    private record Clave(Integer tipoDeporteId, NivelEquipo nivel, String ciudad, boolean estaActivo) {
+    }
+
+    /** Combinación de cada equipo y cantidad por combinación. No es seguro entre hilos: se usa bajo el candado. */
+    private static final class Conteos {
+
+        private final Map<Integer, Clave> claves = new HashMap<>();
+        private final Map<Clave, Long> porClave = new HashMap<>();
+
+        void asignar(Integer equipoId, Clave clave) {
+            Clave anterior = clave == null ? claves.remove(equipoId) : claves.put(equipoId, clave);
+            if (anterior != null) {
+                // Las combinaciones en cero se quitan: el mapa se compara tal cual con el GROUP BY
+                porClave.computeIfPresent(anterior, (k, n) -> n > 1 ? n - 1 : null);
+            }
+            if (clave != null) {
+                porClave.merge(clave, 1L, Long::sum);
+            }
+        }
+    }
+
+    private record Cambio(Integer equipoId, Clave clave) {
+    }
+
+    private record Instantanea(long version, Map<Clave, Long> porClave) {
+    }
+
+    private final IEquipoRepository equipoRepository;
+    private final int tamanioLoteCarga;
+    private final boolean reconciliacionHabilitada;
+    private final long intervaloReconciliacionMinutos;
+
+    private Conteos conteos;
+    private volatile long version;
+    private volatile Instantanea instantanea;
+    // Ciudad normalizada -> cómo se muestra (la primera forma vista)
+    private final Map<String, String> etiquetasCiudad = new ConcurrentHashMap<>();
+
+    // Cambios recibidos durante una reconstrucción; se reaplican sobre los conteos nuevos
+    private List<Cambio> pendientes;
+    private final AtomicBoolean reconstruyendo = new AtomicBoolean();
+    private ScheduledExecutorService reconciliador;
+
+    public IndiceFacetas(IEquipoRepository equipoRepository,
+                         @Value("${indices.facetas.tamanio-lote-carga:20000}") int tamanioLoteCarga,
+                         @Value("${indices.facetas.reconciliacion-habilitada:true}") boolean reconciliacionHabilitada,
+                         @Value("${indices.facetas.reconciliacion-minutos:10}") long intervaloReconciliacionMinutos) {
+        this.equipoRepository = equipoRepository;
+        this.tamanioLoteCarga = tamanioLoteCarga;
+        this.reconciliacionHabilitada = reconciliacionHabilitada;
+        this.intervaloReconciliacionMinutos = intervaloReconciliacionMinutos;
+    }
+
+    public boolean estaListo() {
+        return instantanea != null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alIniciar() {
+        reconstruir();
+        if (!reconciliacionHabilitada) {
+            return;
+        }
+        reconciliador = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("facetas-reconciliacion")
+                .daemon(true)
+                .factory());
+        reconciliador.scheduleWithFixedDelay(this::reconciliar, intervaloReconciliacionMinutos,
+                intervaloReconciliacionMinutos, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void detener() {
+        if (reconciliador != null) {
+            reconciliador.shutdownNow();
+        }
+    }
+
+    public EquipoFacetasSalidaDto contar(EquipoFacetasConsultaDto consulta) {
+        Integer tipoDeporteId = consulta.getTipoDeporteId();
+        NivelEquipo nivel = consulta.getNivel() == null ? null : NivelEquipo.valueOf(consulta.getNivel().toUpperCase());
+        String ciudad = normalizarCiudad(consulta.getCiudad());
+        Boolean estaActivo = consulta.getEstaActivo();
+
+        long total = 0;
+        Map<Integer, Long> tiposDeporte = new HashMap<>();
+        Map<String, Long> niveles = new HashMap<>();
+        Map<String, Long> ciudades = new HashMap<>();
+        Map<Boolean, Long> estados = new HashMap<>();
+
+        // Cada faceta aplica los filtros de las otras tres dimensiones
+        for (Map.Entry<Clave, Long> entrada : instantaneaVigente().porClave().entrySet()) {
+            Clave clave = entrada.getKey();
+            long cantidad = entrada.getValue();
+            boolean deporteOk = tipoDeporteId == null || tipoDeporteId.equals(clave.tipoDeporteId());
+            boolean nivelOk = nivel == null || nivel == clave.nivel();
+            boolean ciudadOk = ciudad == null || ciudad.equals(clave.ciudad());
+            boolean estadoOk = estaActivo == null || estaActivo == clave.estaActivo();
+
+            if (deporteOk && nivelOk && ciudadOk && estadoOk) {
+                total += cantidad;
+            }
+            if (nivelOk && ciudadOk && estadoOk && clave.tipoDeporteId() != null) {
+                tiposDeporte.merge(clave.tipoDeporteId(), cantidad, Long::sum);
+            }
+            if (deporteOk && ciudadOk && estadoOk && clave.nivel() != null) {
+                niveles.merge(clave.nivel().name(), cantidad, Long::sum);
+            }
+            if (deporteOk && nivelOk && estadoOk && clave.ciudad() != null) {
+                ciudades.merge(etiquetasCiudad.getOrDefault(clave.ciudad(), clave.ciudad()), cantidad, Long::sum);
+            }
+            if (deporteOk && nivelOk && ciudadOk) {
+                estados.merge(clave.estaActivo(), cantidad, Long::sum);
+            }
+        }
+
+        EquipoFacetasSalidaDto salida = new EquipoFacetasSalidaDto();
+        salida.setTotal(total);
+        salida.setTiposDeporte(mayorPrimero(tiposDeporte));
+        salida.setNiveles(mayorPrimero(niveles));
+        salida.setCiudades(mayorPrimero(ciudades));
+        salida.setEstaActivo(mayorPrimero(estados));
+        return salida;
+    }
+
+    // --- Mantenimiento ---
+
+    @EventListener
+    public void alCambiarEquipo(EquipoEvento evento) {
+        EquipoSalidaDto equipo = evento.getEquipo();
+        Clave clave = null;
+        if (evento.getTipo() != TipoEventoEquipo.ELIMINADO && equipo != null) {
+            clave = clave(equipo.getTipoDeporteId(),
+                    equipo.getNivel() == null ? null : NivelEquipo.valueOf(equipo.getNivel().toUpperCase()),
+                    equipo.getCiudad(), Boolean.TRUE.equals(equipo.getEstaActivo()));
+        }
+        synchronized (this) {
+            if (pendientes != null) {
+                pendientes.add(new Cambio(evento.getEquipoId(), clave));
+            }
+            if (conteos != null) {
+                conteos.asignar(evento.getEquipoId(), clave);
+                version++;
+            }
+        }
+    }
+
+    public void reconstruir() {
+        if (!reconstruyendo.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            synchronized (this) {
+                pendientes = new ArrayList<>();
+            }
+            Conteos nuevos = new Conteos();
+            try {
+                int ultimoId = 0;
+                List<EquipoFichaProyeccion> lote;
+                do {
+                    lote = equipoRepository.findFichasDesde(ultimoId, PageRequest.of(0, tamanioLoteCarga));
+                    for (EquipoFichaProyeccion fila : lote) {
+                        nuevos.asignar(fila.getId(), clave(fila.getTipoDeporteId(), fila.getNivel(), fila.getCiudad(),
+                                Boolean.TRUE.equals(fila.getEstaActivo())));
+                        ultimoId = fila.getId();
+                    }
+                } while (lote.size() == tamanioLoteCarga);
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    pendientes = null;
+                }
+                log.error("No se pudieron cargar las facetas de equipos.", e);
+                return;
+            }
+            synchronized (this) {
+                // Los eventos llevan el estado final del equipo: reaplicarlos es idempotente
+                pendientes.forEach(cambio -> nuevos.asignar(cambio.equipoId(), cambio.clave()));
+                pendientes = null;
+                conteos = nuevos;
+                version++;
+                instantanea = new Instantanea(version, Map.copyOf(nuevos.porClave));
+            }
+            log.info("Facetas de equipos cargadas: {} equipos en {} combinaciones.",
+                    nuevos.claves.size(), nuevos.porClave.size());
+        } finally {
+            reconstruyendo.set(false);
+        }
+    }
+
+    public void reconciliar() {
+        try {
+            long versionAntes;
+            boolean sinCargar;
+            synchronized (this) {
+                if (pendientes != null) {
+                    return;
+                }
+                sinCargar = conteos == null;
+                versionAntes = version;
+            }
+            if (sinCargar) {
+                // La carga inicial falló: cada vuelta la reintenta hasta que las facetas estén disponibles
+                log.warn("Las facetas de equipos no se han cargado; se reintenta la carga.");
+                reconstruir();
+                return;
+            }
+            Map<Clave, Long> esperados = new HashMap<>();
+            for (ConteoFacetaProyeccion fila : equipoRepository.contarPorFacetas()) {
+                Clave clave = clave(fila.getTipoDeporteId(), fila.getNivel(), fila.getCiudad(),
+                        Boolean.TRUE.equals(fila.getEstaActivo()));
+                esperados.merge(clave, fila.getTotal(), Long::sum);
+            }
+            synchronized (this) {
+                // Hubo escrituras durante el GROUP BY: no se puede comparar, se intenta en la próxima vuelta
+                if (version != versionAntes || esperados.equals(conteos.porClave)) {
+                    return;
+                }
+            }
+            log.warn("Las facetas de equipos no coinciden con la base de datos; se reconstruyen.");
+            reconstruir();
+        } catch (RuntimeException e) {
+            log.warn("Falló la conciliación de facetas de equipos: {}", e.getMessage());
+        }
+    }
+
+    private Clave clave(Integer tipoDeporteId, NivelEquipo nivel, String ciudad, boolean estaActivo) {
+        String normalizada = normalizarCiudad(ciudad);
+        if (normalizada != null) {
+            etiquetasCiudad.putIfAbsent(normalizada, ciudad.trim());
+        }
+        return new Clave(tipoDeporteId, nivel, normalizada, estaActivo);
+    }
+
+    private static String normalizarCiudad(String ciudad) {
+        String normalizada = Textos.normalizar(ciudad);
+        return normalizada == null || normalizada.isEmpty() ? null : normalizada;
+    }
+
+    private Instantanea instantaneaVigente() {
+        Instantanea actual = instantanea;
+        if (actual == null) {
+            throw new IllegalStateException("Las facetas de equipos aún se están cargando. Intente en unos segundos.");
+        }
+        if (actual.version() == version) {
+            return actual;
+        }
+        // Solo la primera consulta después de un cambio copia los conteos
+        synchronized (this) {
+            actual = instantanea;
+            if (actual.version() != version) {
+                actual = new Instantanea(version, Map.copyOf(conteos.porClave));
+                instantanea = actual;
+            }
+        }
+        return actual;
+    }
+
+    private static <K> Map<K, Long> mayorPrimero(Map<K, Long> conteos) {
+        Map<K, Long> ordenados = new LinkedHashMap<>();
+        conteos.entrySet().stream()
+                .sorted(Map.Entry.<K, Long>comparingByValue().reversed())
+                .forEach(entrada -> ordenados.put(entrada.getKey(), entrada.getValue()));
+        return ordenados;
+    }
+}
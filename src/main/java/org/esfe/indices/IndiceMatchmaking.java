@@ -0,0 +1,268 @@
+package org.esfe.indices;
+
+import jakarta.annotation.PreDestroy;
+import org.esfe.dtos.equipo.EquipoMatchmakingConsultaDto;
+import org.esfe.dtos.equipo.EquipoMatchmakingDto;
+import org.esfe.dtos.equipo.EquipoSalidaDto;
+import org.esfe.enums.TipoEventoEquipo;
+import org.esfe.eventos.EquipoEvento;
+import org.esfe.modelos.NivelEquipo;
+import org.esfe.repositorios.IEquipoRepository;
+import org.esfe.repositorios.proyecciones.EquipoFichaProyeccion;
+import org.esfe.utilidades.Textos;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Índice en memoria para el matchmaking de equipos: "equipos activos de mi deporte, en mi ciudad,
+ * de mi nivel, con cupo y sin aprobación".
+ * <p>
+ * Los equipos se agrupan por (tipoDeporteId, ciudad normalizada) y por tipoDeporteId; cada consulta
+ * recorre solo el grupo candidato y elige los mejores con un top-K. Los cupos libres se calculan al
+ * consultar con IndiceMembresias (maxMiembros - miembros activos), que ya se mantiene con las
+ * escrituras de miembros; las fichas de equipo se mantienen con los eventos de EquipoService.
+ * Si la carga inicial falla se reintenta con espera creciente; mientras tanto la búsqueda responde 503.
+ */
+@Component
+public class IndiceMatchmaking {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceMatchmaking.class);
+
+    private final IEquipoRepository equipoRepository;
+    private final IndiceMembresias indiceMembresias;
+    private final int tamanioLoteCarga;
+    private final long reintentoInicialSegundos;
+    private final long reintentoMaximoSegundos;
+
+    private final Map<Integer, Ficha> fichas = new ConcurrentHashMap<>();
+    private final Map<Integer, Set<Integer>> porDeporte = new ConcurrentHashMap<>();
+    private final Map<String, Set<Integer>> porDeporteYCiudad = new ConcurrentHashMap<>();
+
+    // IDs modificados por eventos mientras se carga el índice: la carga no debe pisarlos
+    private volatile Set<Integer> tocadosDuranteCarga;
+    private volatile boolean listo;
+    private ScheduledExecutorService reintentos;
+
+    public IndiceMatchmaking(IEquipoRepository equipoRepository,
+                             IndiceMembresias indiceMembresias,
+                             @Value("${indices.matchmaking.tamanio-lote-carga:20000}") int tamanioLoteCarga,
+                             @Value("${indices.matchmaking.reintento-inicial-segundos:5}") long reintentoInicialSegundos,
+                             @Value("${indices.matchmaking.reintento-maximo-segundos:300}") long reintentoMaximoSegundos) {
+        this.equipoRepository = equipoRepository;
+        this.indiceMembresias = indiceMembresias;
+        this.tamanioLoteCarga = tamanioLoteCarga;
+        this.reintentoInicialSegundos = reintentoInicialSegundos;
+        this.reintentoMaximoSegundos = reintentoMaximoSegundos;
+    }
+
+    public boolean estaListo() {
+        return listo && indiceMembresias.estaListo();
+    }
+
+    public List<EquipoMatchmakingDto> buscar(EquipoMatchmakingConsultaDto consulta) {
+        Collection<Integer> candidatos = consulta.getCiudad() == null || consulta.getCiudad().isBlank()
+                ? porDeporte.getOrDefault(consulta.getTipoDeporteId(), Set.of())
+                : porDeporteYCiudad.getOrDefault(clave(consulta.getTipoDeporteId(), Textos.normalizar(consulta.getCiudad())), Set.of());
+
+        NivelEquipo nivel = consulta.getNivel() == null ? null : NivelEquipo.valueOf(consulta.getNivel().toUpperCase());
+        boolean nivelExacto = Boolean.TRUE.equals(consulta.getNivelExacto());
+        boolean sinAprobacion = Boolean.TRUE.equals(consulta.getSinAprobacion());
+        int cuposMinimos = consulta.getCuposMinimos() == null ? 1 : consulta.getCuposMinimos();
+        int limite = consulta.getLimite();
+
+        // Orden: cercanía de nivel, luego calificación, luego cupos libres, luego el más reciente
+        Comparator<Resultado> mejorPrimero = Comparator
+                .comparingInt(Resultado::distanciaNivel)
+                .thenComparing(Comparator.comparingDouble((Resultado r) -> r.ficha().calificacion()).reversed())
+                .thenComparing(Comparator.comparingInt(Resultado::cuposLibres).reversed())
+                .thenComparing(Comparator.comparingInt((Resultado r) -> r.ficha().id()).reversed());
+
+        // Montículo con el peor resultado en la cima: mantiene solo los "limite" mejores
+        PriorityQueue<Resultado> top = new PriorityQueue<>(limite + 1, mejorPrimero.reversed());
+        for (Integer id : candidatos) {
+            Ficha ficha = fichas.get(id);
+            if (ficha == null || !ficha.estaActivo() || (sinAprobacion && ficha.requiereAprobacion())) {
+                continue;
+            }
+            int distancia = nivel == null ? 0
+                    : ficha.nivel() == null ? NivelEquipo.values().length
+                    : Math.abs(ficha.nivel().ordinal() - nivel.ordinal());
+            if (nivelExacto && distancia != 0) {
+                continue;
+            }
+            int cuposLibres = ficha.maxMiembros() - indiceMembresias.contarMiembrosActivos(id);
+            if (cuposLibres < cuposMinimos) {
+                continue;
+            }
+            top.add(new Resultado(ficha, distancia, cuposLibres));
+            if (top.size() > limite) {
+                top.poll();
+            }
+        }
+
+        List<Resultado> ordenados = new ArrayList<>(top);
+        ordenados.sort(mejorPrimero);
+        List<EquipoMatchmakingDto> salida = new ArrayList<>(ordenados.size());
+        for (Resultado resultado : ordenados) {
+            salida.add(resultado.toDto());
+        }
+        return salida;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alIniciar() {
+        if (reconstruir()) {
+            return;
+        }
+        reintentos = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("matchmaking-carga")
+                .daemon(true)
+                .factory());
+        programarReintento(reintentoInicialSegundos);
+    }
+
+    @PreDestroy
+    public void detener() {
+        if (reintentos != null) {
+            reintentos.shutdownNow();
+        }
+    }
+
+    private void programarReintento(long esperaSegundos) {
+        log.warn("Se reintentará cargar el índice de matchmaking en {} s.", esperaSegundos);
+        reintentos.schedule(() -> {
+            if (!listo && !reconstruir()) {
+                programarReintento(Math.min(esperaSegundos * 2, reintentoMaximoSegundos));
+            }
+        }, esperaSegundos, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Carga todas las fichas desde la base de datos. Devuelve false si la carga falló; el índice
+     * conserva lo que tenía.
+     */
+    public boolean reconstruir() {
+        Set<Integer> tocados = ConcurrentHashMap.newKeySet();
+        tocadosDuranteCarga = tocados;
+        long total = 0;
+        try {
+            int ultimoId = 0;
+            List<EquipoFichaProyeccion> lote;
+            do {
+                lote = equipoRepository.findFichasDesde(ultimoId, PageRequest.of(0, tamanioLoteCarga));
+                for (EquipoFichaProyeccion fila : lote) {
+                    Ficha ficha = new Ficha(fila.getId(), fila.getNombre(), fila.getLogo(), fila.getTipoDeporteId(),
+                            fila.getCiudad(), fila.getNivel(), Boolean.TRUE.equals(fila.getEstaActivo()),
+                            Boolean.TRUE.equals(fila.getRequiereAprobacion()),
+                            fila.getMaxMiembros() == null ? 0 : fila.getMaxMiembros(),
+                            fila.getCalificacionPromedio() == null ? 0 : fila.getCalificacionPromedio().doubleValue());
+                    indexarSiNoTocado(ficha, tocados);
+                    ultimoId = fila.getId();
+                }
+                total += lote.size();
+            } while (lote.size() == tamanioLoteCarga);
+        } catch (RuntimeException e) {
+            log.error("No se pudo cargar el índice de matchmaking.", e);
+            return false;
+        } finally {
+            tocadosDuranteCarga = null;
+        }
+        listo = true;
+        log.info("Índice de matchmaking cargado: {} equipos.", total);
+        return true;
+    }
+
+    // La comprobación y la escritura van bajo el mismo candado que aplica los eventos: una fila leída
+    // antes de un cambio no puede pisarlo
+    private synchronized void indexarSiNoTocado(Ficha ficha, Set<Integer> tocados) {
+        if (!tocados.contains(ficha.id())) {
+            indexar(ficha);
+        }
+    }
+
+    @EventListener
+    public void alCambiarEquipo(EquipoEvento evento) {
+        Set<Integer> tocados = tocadosDuranteCarga;
+        if (tocados != null) {
+            tocados.add(evento.getEquipoId());
+        }
+
+        if (evento.getTipo() == TipoEventoEquipo.ELIMINADO || evento.getEquipo() == null) {
+            desindexar(evento.getEquipoId());
+            return;
+        }
+
+        EquipoSalidaDto dto = evento.getEquipo();
+        indexar(new Ficha(dto.getId(), dto.getNombre(), dto.getLogo(), dto.getTipoDeporteId(), dto.getCiudad(),
+                dto.getNivel() == null ? null : NivelEquipo.valueOf(dto.getNivel().toUpperCase()),
+                Boolean.TRUE.equals(dto.getEstaActivo()), Boolean.TRUE.equals(dto.getRequiereAprobacion()),
+                dto.getMaxMiembros() == null ? 0 : dto.getMaxMiembros(),
+                dto.getCalificacionPromedio() == null ? 0 : dto.getCalificacionPromedio()));
+    }
+
+    private synchronized void indexar(Ficha ficha) {
+        desindexar(ficha.id());
+        fichas.put(ficha.id(), ficha);
+        porDeporte.computeIfAbsent(ficha.tipoDeporteId(), k -> ConcurrentHashMap.newKeySet()).add(ficha.id());
+        porDeporteYCiudad.computeIfAbsent(clave(ficha.tipoDeporteId(), Textos.normalizar(ficha.ciudad())),
+                k -> ConcurrentHashMap.newKeySet()).add(ficha.id());
+    }
+
+    private synchronized void desindexar(Integer equipoId) {
+        Ficha anterior = fichas.remove(equipoId);
+        if (anterior == null) {
+            return;
+        }
+        Set<Integer> deporte = porDeporte.get(anterior.tipoDeporteId());
+        if (deporte != null) {
+            deporte.remove(equipoId);
+        }
+        Set<Integer> deporteYCiudad = porDeporteYCiudad.get(clave(anterior.tipoDeporteId(), Textos.normalizar(anterior.ciudad())));
+        if (deporteYCiudad != null) {
+            deporteYCiudad.remove(equipoId);
+        }
+    }
+
+    private static String clave(Integer tipoDeporteId, String ciudadNormalizada) {
+        return tipoDeporteId + "|" + (ciudadNormalizada == null ? "" : ciudadNormalizada);
+    }
+
+    private record Ficha(int id, String nombre, String logo, Integer tipoDeporteId, String ciudad, NivelEquipo nivel,
+                         boolean estaActivo, boolean requiereAprobacion, int maxMiembros, double calificacion) {
+    }
+
+    private record Resultado(Ficha ficha, int distanciaNivel, int cuposLibres) {
+
+        private EquipoMatchmakingDto toDto() {
+            EquipoMatchmakingDto dto = new EquipoMatchmakingDto();
+            dto.setId(ficha.id());
+            dto.setNombre(ficha.nombre());
+            dto.setLogo(ficha.logo());
+            dto.setTipoDeporteId(ficha.tipoDeporteId());
+            dto.setCiudad(ficha.ciudad());
+            dto.setNivel(ficha.nivel() == null ? null : ficha.nivel().name());
+            dto.setRequiereAprobacion(ficha.requiereAprobacion());
+            dto.setMaxMiembros(ficha.maxMiembros());
+            dto.setCuposLibres(cuposLibres);
+            dto.setCalificacionPromedio(ficha.calificacion());
+            return dto;
+        }
+    }
+}
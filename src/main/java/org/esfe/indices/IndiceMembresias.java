@@ -0,0 +1,224 @@
+package org.esfe.indices;
+
+import org.esfe.dtos.miembro.MiembroSalidaDto;
+import org.esfe.enums.TipoEventoEquipo;
+import org.esfe.enums.TipoEventoMiembro;
+import org.esfe.eventos.EquipoEvento;
+import org.esfe.eventos.MiembroEvento;
+import org.esfe.repositorios.IMiembroEquipoRepository;
+import org.esfe.repositorios.proyecciones.MembresiaActivaProyeccion;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Índice en memoria de las membresías ACTIVAS, guardado como bitmaps comprimidos (Roaring):
+ * por usuario, el conjunto de equipos; por equipo, el conjunto de usuarios.
+ * <p>
+ * Se reconstruye al arrancar y se mantiene con los eventos de MiembroEquipoService y EquipoService.
+ * Mientras no está listo, los llamadores deben usar la consulta a la base de datos.
+ */
+@Component
+public class IndiceMembresias {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceMembresias.class);
+    private static final RoaringBitmap VACIO = new RoaringBitmap();
+
+    private final IMiembroEquipoRepository miembroEquipoRepository;
+    private final int tamanioLoteCarga;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Integer, RoaringBitmap> equiposPorUsuario = new HashMap<>();
+    private Map<Integer, RoaringBitmap> usuariosPorEquipo = new HashMap<>();
+    private volatile boolean listo;
+
+    // Cambios recibidos durante una reconstrucción; se reaplican sobre el índice nuevo
+    private List<Consumer<IndiceMembresias>> pendientes;
+
+    public IndiceMembresias(IMiembroEquipoRepository miembroEquipoRepository,
+                            @Value("${indices.membresias.tamanio-lote-carga:50000}") int tamanioLoteCarga) {
+        this.miembroEquipoRepository = miembroEquipoRepository;
+        this.tamanioLoteCarga = tamanioLoteCarga;
+    }
+
+    public boolean estaListo() {
+        return listo;
+    }
+
+    public boolean esMiembroActivo(Integer equipoId, Integer usuarioId) {
+        lock.readLock().lock();
+        try {
+            return equiposPorUsuario.getOrDefault(usuarioId, VACIO).contains(equipoId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * IDs de los equipos donde el usuario es miembro activo, en orden ascendente.
+     */
+    public int[] equiposDeUsuario(Integer usuarioId) {
+        lock.readLock().lock();
+        try {
+            return equiposPorUsuario.getOrDefault(usuarioId, VACIO).toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * IDs de los equipos donde ambos usuarios son miembros activos, en orden ascendente.
+     */
+    public int[] equiposEnComun(Integer usuarioA, Integer usuarioB) {
+        lock.readLock().lock();
+        try {
+            return RoaringBitmap.and(
+                    equiposPorUsuario.getOrDefault(usuarioA, VACIO),
+                    equiposPorUsuario.getOrDefault(usuarioB, VACIO)).toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int contarMiembrosActivos(Integer equipoId) {
+        lock.readLock().lock();
+        try {
+            return usuariosPorEquipo.getOrDefault(equipoId, VACIO).getCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alIniciar() {
+        reconstruir();
+    }
+
+    public void reconstruir() {
+        lock.writeLock().lock();
+        try {
+            pendientes = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<Integer, RoaringBitmap> nuevosPorUsuario = new HashMap<>();
+        Map<Integer, RoaringBitmap> nuevosPorEquipo = new HashMap<>();
+        long total = 0;
+        try {
+            int ultimoId = 0;
+            List<MembresiaActivaProyeccion> lote;
+            do {
+                lote = miembroEquipoRepository.findMembresiasActivasDesde(ultimoId, PageRequest.of(0, tamanioLoteCarga));
+                for (MembresiaActivaProyeccion fila : lote) {
+                    nuevosPorUsuario.computeIfAbsent(fila.getUsuarioId(), k -> new RoaringBitmap()).add(fila.getEquipoId());
+                    nuevosPorEquipo.computeIfAbsent(fila.getEquipoId(), k -> new RoaringBitmap()).add(fila.getUsuarioId());
+                    ultimoId = fila.getId();
+                }
+                total += lote.size();
+            } while (lote.size() == tamanioLoteCarga);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendientes = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.error("No se pudo reconstruir el índice de membresías; se seguirá consultando la base de datos.", e);
+            return;
+        }
+
+        nuevosPorUsuario.values().forEach(RoaringBitmap::runOptimize);
+        nuevosPorEquipo.values().forEach(RoaringBitmap::runOptimize);
+
+        lock.writeLock().lock();
+        try {
+            equiposPorUsuario = nuevosPorUsuario;
+            usuariosPorEquipo = nuevosPorEquipo;
+            pendientes.forEach(cambio -> cambio.accept(this));
+            pendientes = null;
+            listo = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Índice de membresías reconstruido: {} membresías activas, {} usuarios, {} equipos.",
+                total, nuevosPorUsuario.size(), nuevosPorEquipo.size());
+    }
+
+    @EventListener
+    public void alCambiarMiembro(MiembroEvento evento) {
+        MiembroSalidaDto miembro = evento.getMiembro();
+        boolean activo = evento.getTipo() != TipoEventoMiembro.ELIMINADO && "activo".equals(miembro.getEstado());
+        Integer equipoId = miembro.getEquipoId();
+        Integer usuarioId = miembro.getUsuarioId();
+
+        aplicar(indice -> {
+            if (activo) {
+                indice.agregar(equipoId, usuarioId);
+            } else {
+                indice.quitar(equipoId, usuarioId);
+            }
+        });
+    }
+
+    @EventListener
+    public void alCambiarEquipo(EquipoEvento evento) {
+        if (evento.getTipo() == TipoEventoEquipo.ELIMINADO) {
+            Integer equipoId = evento.getEquipoId();
+            aplicar(indice -> indice.quitarEquipo(equipoId));
+        }
+    }
+
+    private void aplicar(Consumer<IndiceMembresias> cambio) {
+        lock.writeLock().lock();
+        try {
+            cambio.accept(this);
+            if (pendientes != null) {
+                pendientes.add(cambio);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Los siguientes métodos se invocan con el candado de escritura tomado
+
+    private void agregar(Integer equipoId, Integer usuarioId) {
+        equiposPorUsuario.computeIfAbsent(usuarioId, k -> new RoaringBitmap()).add(equipoId);
+        usuariosPorEquipo.computeIfAbsent(equipoId, k -> new RoaringBitmap()).add(usuarioId);
+    }
+
+    private void quitar(Integer equipoId, Integer usuarioId) {
+        quitarDe(equiposPorUsuario, usuarioId, equipoId);
+        quitarDe(usuariosPorEquipo, equipoId, usuarioId);
+    }
+
+    private void quitarEquipo(Integer equipoId) {
+        RoaringBitmap usuarios = usuariosPorEquipo.remove(equipoId);
+        if (usuarios != null) {
+            usuarios.forEach((int usuarioId) -> quitarDe(equiposPorUsuario, usuarioId, equipoId));
+        }
+    }
+
+    private static void quitarDe(Map<Integer, RoaringBitmap> mapa, Integer clave, int valor) {
+        RoaringBitmap bitmap = mapa.get(clave);
+        if (bitmap != null) {
+            bitmap.remove(valor);
+            if (bitmap.isEmpty()) {
+                mapa.remove(clave);
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.esfe.modelos;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Contadores acumulados de invitaciones y membresías de un equipo (una fila por equipo).
+ * No se escribe con JPA: ActividadEquipoService suma los deltas con un upsert nativo; la entidad
+ * solo sirve para leer la fila por clave primaria.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "equipo_actividad")
+public class ActividadEquipo {
+
+    @Id
+    @Column(name = "equipo_id")
+    private Integer equipoId;
+
+    @Column(name = "invitaciones_enviadas", nullable = false)
+    private long invitacionesEnviadas;
+
+    @Column(name = "invitaciones_aceptadas", nullable = false)
+    private long invitacionesAceptadas;
+
+    @Column(name = "invitaciones_rechazadas", nullable = false)
+    private long invitacionesRechazadas;
+
+    @Column(name = "invitaciones_canceladas", nullable = false)
+    private long invitacionesCanceladas;
+
+    // Suma de (fecha_respuesta - fecha_creacion) de las respuestas medidas, en segundos
+    @Column(name = "segundos_respuesta", nullable = false)
+    private long segundosRespuesta;
+
+    @Column(name = "respuestas_medidas", nullable = false)
+    private long respuestasMedidas;
+
+    // Membresías que pasaron a activo (altas) o dejaron de estarlo (bajas, incluido el borrado)
+    @Column(name = "miembros_altas", nullable = false)
+    private long miembrosAltas;
+
+    @Column(name = "miembros_bajas", nullable = false)
+    private long miembrosBajas;
+
+    @Column(name = "fecha_actualizacion", nullable = false)
+    private LocalDateTime fechaActualizacion;
+}
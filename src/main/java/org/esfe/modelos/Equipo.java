@@ -3,6 +3,10 @@ package org.esfe.modelos;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.esfe.utilidades.Textos;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.time.LocalDateTime;
 import java.math.BigDecimal;
@@ -10,7 +14,21 @@ import java.math.BigDecimal;
 @Getter
 @Setter
 @Entity
-@Table(name = "equipos")
+// Caché de segundo nivel: el equipo se lee como padre de cada página de miembros e invitaciones
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "equipos")
+// Los equipos con borrado suave quedan ocultos hasta que se purgan
+@SQLRestriction("fecha_eliminacion IS NULL")
+@Table(name = "equipos", uniqueConstraints = {
+        // Unicidad de nombre sin distinguir mayúsculas ni tildes ("Águilas" = "aguilas")
+        @UniqueConstraint(name = "uk_equipos_nombre_normalizado", columnNames = "nombre_normalizado")
+}, indexes = {
+        // Índices para la búsqueda combinada (prefijos de nombre/ciudad y filtros por igualdad)
+        @Index(name = "idx_equipos_nombre", columnList = "nombre"),
+        @Index(name = "idx_equipos_ciudad", columnList = "ciudad"),
+        @Index(name = "idx_equipos_deporte_activo", columnList = "tipo_deporte_id, esta_activo"),
+        @Index(name = "idx_equipos_creado_por", columnList = "creado_por"),
+        @Index(name = "idx_equipos_calificacion", columnList = "calificacion_promedio")
+})
 public class Equipo {
 
     @Id
@@ -21,6 +39,10 @@ public class Equipo {
     @Column(name = "nombre", nullable = false, length = 255)
     private String nombre;
 
+    // Forma canónica del nombre (Textos.normalizar); se mantiene desde setNombre
+    @Column(name = "nombre_normalizado", length = 255)
+    private String nombreNormalizado;
+
     // FK a la API de Usuarios: el usuario que creó el equipo
     @Column(name = "creado_por", nullable = false)
     private Integer creadoPor;
@@ -68,9 +90,18 @@ public class Equipo {
     @Column(name = "fecha_actualizacion", nullable = false)
     private LocalDateTime fechaActualizacion;
 
+    // Borrado suave: marcado para purga asíncrona (ver EliminacionEquipoService)
+    @Column(name = "fecha_eliminacion")
+    private LocalDateTime fechaEliminacion;
+
     @OneToMany(mappedBy = "equipo", cascade = CascadeType.ALL, orphanRemoval = true)
     private java.util.Set<MiembroEquipo> miembros;
 
+    public void setNombre(String nombre) {
+        this.nombre = nombre;
+        this.nombreNormalizado = Textos.normalizar(nombre);
+    }
+
     @PrePersist
     protected void onCreate() {
         this.fechaCreacion = LocalDateTime.now();
@@ -0,0 +1,75 @@
+package org.esfe.modelos;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Copia de un equipo inactivo movido fuera de la tabla caliente "equipos".
+ * Conserva el ID original y no tiene relaciones: solo se consulta para el historial.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "equipos_archivo")
+public class EquipoArchivado {
+
+    @Id
+    @Column(name = "id")
+    private Integer id;
+
+    @Column(name = "nombre", nullable = false, length = 255)
+    private String nombre;
+
+    @Column(name = "creado_por", nullable = false)
+    private Integer creadoPor;
+
+    @Column(name = "tipo_deporte_id", nullable = false)
+    private Integer tipoDeporteId;
+
+    @Column(name = "descripcion", columnDefinition = "TEXT")
+    private String descripcion;
+
+    @Column(name = "logo", length = 500)
+    private String logo;
+
+    @Column(name = "color_principal", length = 7)
+    private String colorPrincipal;
+
+    @Column(name = "color_secundario", length = 7)
+    private String colorSecundario;
+
+    @Column(name = "ciudad", length = 100)
+    private String ciudad;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "nivel", columnDefinition = "VARCHAR(20)")
+    private NivelEquipo nivel;
+
+    @Column(name = "max_miembros")
+    private Integer maxMiembros;
+
+    @Column(name = "requiere_aprobacion")
+    private Boolean requiereAprobacion;
+
+    @Column(name = "calificacion_promedio", precision = 3, scale = 2)
+    private BigDecimal calificacionPromedio;
+
+    @Column(name = "total_calificaciones")
+    private Integer totalCalificaciones;
+
+    @Column(name = "esta_activo")
+    private Boolean estaActivo;
+
+    @Column(name = "fecha_creacion")
+    private LocalDateTime fechaCreacion;
+
+    @Column(name = "fecha_actualizacion")
+    private LocalDateTime fechaActualizacion;
+
+    @Column(name = "fecha_archivado", nullable = false)
+    private LocalDateTime fechaArchivado;
+}
@@ -11,7 +11,10 @@ import org.esfe.enums.EstadoInvitacion;
 @Getter
 @Setter
 @Entity
-@Table(name = "invitaciones_equipo")
+@Table(name = "invitaciones_equipo", indexes = {
+        // Selección de invitaciones respondidas a archivar
+        @Index(name = "idx_invitaciones_estado_fecha", columnList = "estado, fecha_creacion")
+})
 public class InvitacionEquipo {
 
     @Id
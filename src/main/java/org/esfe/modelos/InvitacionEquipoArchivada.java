@@ -0,0 +1,53 @@
+package org.esfe.modelos;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.esfe.enums.EstadoInvitacion;
+
+import java.time.LocalDateTime;
+
+/**
+ * Invitación ya respondida (o de un equipo archivado) movida fuera de "invitaciones_equipo".
+ * Conserva el ID original y no tiene relaciones: solo se consulta para el historial.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "invitaciones_equipo_archivo", indexes = {
+        @Index(name = "idx_invitaciones_archivo_equipo", columnList = "equipo_id"),
+        @Index(name = "idx_invitaciones_archivo_invitado", columnList = "usuario_invitado_id")
+})
+public class InvitacionEquipoArchivada {
+
+    @Id
+    private Integer id;
+
+    @Column(name = "equipo_id", nullable = false)
+    private Integer equipoId;
+
+    @Column(name = "usuario_invitado_id", nullable = false)
+    private Integer usuarioInvitadoId;
+
+    @Column(name = "usuario_remitente_id", nullable = false)
+    private Integer usuarioRemitenteId;
+
+    @Column(name = "usuario_respondio_id")
+    private Integer usuarioRespondioId;
+
+    @Column(name = "mensaje", columnDefinition = "TEXT")
+    private String mensaje;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", length = 50)
+    private EstadoInvitacion estado;
+
+    @Column(name = "fecha_respuesta")
+    private LocalDateTime fechaRespuesta;
+
+    @Column(name = "fecha_creacion")
+    private LocalDateTime fechaCreacion;
+
+    @Column(name = "fecha_archivado", nullable = false)
+    private LocalDateTime fechaArchivado;
+}
@@ -3,6 +3,9 @@ package org.esfe.modelos;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.esfe.enums.EstadoMiembro;
+import org.esfe.enums.RolMiembro;
+
 import java.time.LocalDateTime;
 
 @Getter
@@ -11,6 +14,10 @@ import java.time.LocalDateTime;
 @Table(name = "equipo_miembros", uniqueConstraints = {
         // Restricción para asegurar que un usuario solo puede ser miembro de un equipo una vez
         @UniqueConstraint(columnNames = {"equipo_id", "usuario_id"}, name = "unique_miembro")
+}, indexes = {
+        // Conteos y filtros por estado o rol dentro de un equipo (igualdad, sin UPPER())
+        @Index(name = "idx_miembros_equipo_estado", columnList = "equipo_id, estado"),
+        @Index(name = "idx_miembros_equipo_rol", columnList = "equipo_id, rol")
 })
 public class MiembroEquipo {
 
@@ -28,8 +35,10 @@ public class MiembroEquipo {
     @Column(name = "usuario_id", nullable = false)
     private Integer usuarioId;
 
-    @Column(name = "rol", length = 50, columnDefinition = "VARCHAR(50) DEFAULT 'jugador'")
-    private String rol = "jugador";
+    // ENUM nativo en MySQL (1 byte); la API sigue usando los valores en minúscula de RolMiembro
+    @Enumerated(EnumType.STRING)
+    @Column(name = "rol", nullable = false)
+    private RolMiembro rol = RolMiembro.JUGADOR;
 
     @Column(name = "numero_camiseta")
     private Integer numeroCamiseta;
@@ -37,9 +46,10 @@ public class MiembroEquipo {
     @Column(name = "posicion", length = 100)
     private String posicion;
 
-    // Estado del miembro: 'activo', 'inactivo', 'suspendido'
-    @Column(name = "estado", length = 50, columnDefinition = "VARCHAR(50) DEFAULT 'activo'")
-    private String estado = "activo";
+    // Estado del miembro: ACTIVO, INACTIVO, SUSPENDIDO o RECHAZADO
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", nullable = false)
+    private EstadoMiembro estado = EstadoMiembro.ACTIVO;
 
     @Column(name = "fecha_union", nullable = false, updatable = false)
     private LocalDateTime fechaUnion;
@@ -0,0 +1,52 @@
+package org.esfe.modelos;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.esfe.enums.EstadoMiembro;
+import org.esfe.enums.RolMiembro;
+
+import java.time.LocalDateTime;
+
+/**
+ * Membresía de un equipo archivado. Conserva el ID original; equipo_id apunta a equipos_archivo.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "equipo_miembros_archivo", indexes = {
+        @Index(name = "idx_miembros_archivo_equipo", columnList = "equipo_id"),
+        @Index(name = "idx_miembros_archivo_usuario", columnList = "usuario_id")
+})
+public class MiembroEquipoArchivado {
+
+    @Id
+    @Column(name = "id")
+    private Integer id;
+
+    @Column(name = "equipo_id", nullable = false)
+    private Integer equipoId;
+
+    @Column(name = "usuario_id", nullable = false)
+    private Integer usuarioId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "rol")
+    private RolMiembro rol;
+
+    @Column(name = "numero_camiseta")
+    private Integer numeroCamiseta;
+
+    @Column(name = "posicion", length = 100)
+    private String posicion;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado")
+    private EstadoMiembro estado;
+
+    @Column(name = "fecha_union")
+    private LocalDateTime fechaUnion;
+
+    @Column(name = "fecha_archivado", nullable = false)
+    private LocalDateTime fechaArchivado;
+}
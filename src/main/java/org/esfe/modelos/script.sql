@@ -13,6 +13,7 @@ CREATE TABLE IF NOT EXISTS tipos_deporte (
 CREATE TABLE IF NOT EXISTS equipos (
     id INT PRIMARY KEY AUTO_INCREMENT,
     nombre VARCHAR(255) NOT NULL,
+    nombre_normalizado VARCHAR(255), -- sin tildes, minúsculas y espacios colapsados (Textos.normalizar)
     creado_por INT NOT NULL, -- FK a usuarios(id)
     tipo_deporte_id INT NOT NULL, -- FK a tipos_deporte(id)
     descripcion TEXT,
@@ -28,8 +29,15 @@ CREATE TABLE IF NOT EXISTS equipos (
     esta_activo BOOLEAN DEFAULT TRUE,
     fecha_creacion DATETIME DEFAULT CURRENT_TIMESTAMP,
     fecha_actualizacion DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    fecha_eliminacion DATETIME NULL, -- borrado suave pendiente de purga
     FOREIGN KEY (creado_por) REFERENCES usuarios(id),
-    FOREIGN KEY (tipo_deporte_id) REFERENCES tipos_deporte(id)
+    FOREIGN KEY (tipo_deporte_id) REFERENCES tipos_deporte(id),
+    UNIQUE KEY uk_equipos_nombre_normalizado (nombre_normalizado),
+    INDEX idx_equipos_nombre (nombre),
+    INDEX idx_equipos_ciudad (ciudad),
+    INDEX idx_equipos_deporte_activo (tipo_deporte_id, esta_activo),
+    INDEX idx_equipos_creado_por (creado_por),
+    INDEX idx_equipos_calificacion (calificacion_promedio)
 ) ENGINE = InnoDB;
 
 -- 3. TABLA DE RELACIÓN: Miembros del Equipo
@@ -37,14 +45,16 @@ CREATE TABLE IF NOT EXISTS equipo_miembros (
     id INT PRIMARY KEY AUTO_INCREMENT,
     equipo_id INT NOT NULL, -- FK a equipos(id)
     usuario_id INT NOT NULL, -- FK a usuarios(id)
-    rol VARCHAR(50) DEFAULT 'jugador', -- ENUM('capitan', 'vice_capitan', 'jugador')
+    rol ENUM('CAPITAN', 'VICE_CAPITAN', 'JUGADOR') NOT NULL DEFAULT 'JUGADOR',
     numero_camiseta INT,
     posicion VARCHAR(100),
-    estado VARCHAR(50) DEFAULT 'activo', -- ENUM('activo', 'inactivo', 'suspendido')
+    estado ENUM('ACTIVO', 'INACTIVO', 'SUSPENDIDO', 'RECHAZADO') NOT NULL DEFAULT 'ACTIVO',
     fecha_union DATETIME DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (equipo_id) REFERENCES equipos(id) ON DELETE CASCADE,
     FOREIGN KEY (usuario_id) REFERENCES usuarios(id) ON DELETE CASCADE,
-    UNIQUE KEY unique_miembro (equipo_id, usuario_id)
+    UNIQUE KEY unique_miembro (equipo_id, usuario_id),
+    INDEX idx_miembros_equipo_estado (equipo_id, estado),
+    INDEX idx_miembros_equipo_rol (equipo_id, rol)
 ) ENGINE = InnoDB;
 
 -- 4. TABLA DE RELACIÓN: Invitaciones a Equipos
@@ -61,7 +71,60 @@ CREATE TABLE IF NOT EXISTS invitaciones_equipo (
     FOREIGN KEY (equipo_id) REFERENCES equipos(id) ON DELETE CASCADE,
     FOREIGN KEY (usuario_invitado_id) REFERENCES usuarios(id) ON DELETE CASCADE,
     FOREIGN KEY (usuario_remitente_id) REFERENCES usuarios(id) ON DELETE CASCADE,
-    FOREIGN KEY (usuario_respondio_id) REFERENCES usuarios(id)
+    FOREIGN KEY (usuario_respondio_id) REFERENCES usuarios(id),
+    INDEX idx_invitaciones_estado_fecha (estado, fecha_creacion)
+) ENGINE = InnoDB;
+
+-- 4.1 TABLAS DE ARCHIVO (historial): mismas columnas que las tablas calientes, sin FK,
+-- conservando el ID original. Las llena ArchivoService por lotes.
+CREATE TABLE IF NOT EXISTS equipos_archivo (
+    id INT PRIMARY KEY,
+    nombre VARCHAR(255) NOT NULL,
+    creado_por INT NOT NULL,
+    tipo_deporte_id INT NOT NULL,
+    descripcion TEXT,
+    logo VARCHAR(500),
+    color_principal VARCHAR(7),
+    color_secundario VARCHAR(7),
+    ciudad VARCHAR(100),
+    nivel VARCHAR(20),
+    max_miembros INT,
+    requiere_aprobacion BOOLEAN,
+    calificacion_promedio DECIMAL(3, 2),
+    total_calificaciones INT,
+    esta_activo BOOLEAN,
+    fecha_creacion DATETIME,
+    fecha_actualizacion DATETIME,
+    fecha_archivado DATETIME NOT NULL
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS equipo_miembros_archivo (
+    id INT PRIMARY KEY,
+    equipo_id INT NOT NULL,
+    usuario_id INT NOT NULL,
+    rol ENUM('CAPITAN', 'VICE_CAPITAN', 'JUGADOR'),
+    numero_camiseta INT,
+    posicion VARCHAR(100),
+    estado ENUM('ACTIVO', 'INACTIVO', 'SUSPENDIDO', 'RECHAZADO'),
+    fecha_union DATETIME,
+    fecha_archivado DATETIME NOT NULL,
+    INDEX idx_miembros_archivo_equipo (equipo_id),
+    INDEX idx_miembros_archivo_usuario (usuario_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS invitaciones_equipo_archivo (
+    id INT PRIMARY KEY,
+    equipo_id INT NOT NULL,
+    usuario_invitado_id INT NOT NULL,
+    usuario_remitente_id INT NOT NULL,
+    usuario_respondio_id INT,
+    mensaje TEXT,
+    estado VARCHAR(50),
+    fecha_respuesta DATETIME NULL,
+    fecha_creacion DATETIME,
+    fecha_archivado DATETIME NOT NULL,
+    INDEX idx_invitaciones_archivo_equipo (equipo_id),
+    INDEX idx_invitaciones_archivo_invitado (usuario_invitado_id)
 ) ENGINE = InnoDB;
 
 -- 5. TABLA DE ESTADÍSTICAS: Estadísticas del Equipo
@@ -85,6 +148,22 @@ CREATE TABLE IF NOT EXISTS estadisticas_equipo (
     FOREIGN KEY (equipo_id) REFERENCES equipos(id) ON DELETE CASCADE
 ) ENGINE = InnoDB;
 
+-- 5.1 TABLA DE ACTIVIDAD: contadores de invitaciones y rotación de miembros por equipo.
+-- La mantiene ActividadEquipoService sumando deltas (INSERT ... ON DUPLICATE KEY UPDATE); sin FK para
+-- que el volcado no falle si el equipo se borra entre el evento y el volcado.
+CREATE TABLE IF NOT EXISTS equipo_actividad (
+    equipo_id INT PRIMARY KEY,
+    invitaciones_enviadas BIGINT NOT NULL DEFAULT 0,
+    invitaciones_aceptadas BIGINT NOT NULL DEFAULT 0,
+    invitaciones_rechazadas BIGINT NOT NULL DEFAULT 0,
+    invitaciones_canceladas BIGINT NOT NULL DEFAULT 0,
+    segundos_respuesta BIGINT NOT NULL DEFAULT 0, -- suma de fecha_respuesta - fecha_creacion
+    respuestas_medidas BIGINT NOT NULL DEFAULT 0,
+    miembros_altas BIGINT NOT NULL DEFAULT 0, -- membresías que pasaron a ACTIVO
+    miembros_bajas BIGINT NOT NULL DEFAULT 0, -- membresías que dejaron ACTIVO (o se borraron activas)
+    fecha_actualizacion DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP
+) ENGINE = InnoDB;
+
 -- 6. TABLA DE CALIFICACIONES: Calificaciones al Equipo
 -- Esta tabla requiere una dependencia a 'partidos' que debe existir en otra API,
 -- pero se puede crear sin esa FK por ahora.
@@ -103,4 +182,116 @@ CREATE TABLE IF NOT EXISTS calificaciones_equipo (
     FOREIGN KEY (equipo_evaluado_id) REFERENCES equipos(id),
     -- UNIQUE KEY unique_calificacion (partido_id, evaluador_id, equipo_evaluado_id)
     -- Se elimina el UNIQUE KEY que usa partido_id, por si la tabla partidos aún no existe
-) ENGINE = InnoDB;
\ No newline at end of file
+) ENGINE = InnoDB;
+
+-- 7. MIGRACIÓN: rol y estado de miembros como ENUM (bases creadas con las columnas VARCHAR(50)).
+-- Normaliza los valores existentes a las constantes de RolMiembro/EstadoMiembro; los valores que no
+-- se reconocen pasan al valor por defecto antes de cambiar el tipo de columna.
+UPDATE equipo_miembros SET rol = REPLACE(UPPER(TRIM(rol)), ' ', '_');
+UPDATE equipo_miembros SET rol = 'JUGADOR'
+    WHERE rol IS NULL OR rol NOT IN ('CAPITAN', 'VICE_CAPITAN', 'JUGADOR');
+UPDATE equipo_miembros SET estado = UPPER(TRIM(estado));
+UPDATE equipo_miembros SET estado = 'ACTIVO'
+    WHERE estado IS NULL OR estado NOT IN ('ACTIVO', 'INACTIVO', 'SUSPENDIDO', 'RECHAZADO');
+
+ALTER TABLE equipo_miembros
+    MODIFY rol ENUM('CAPITAN', 'VICE_CAPITAN', 'JUGADOR') NOT NULL DEFAULT 'JUGADOR',
+    MODIFY estado ENUM('ACTIVO', 'INACTIVO', 'SUSPENDIDO', 'RECHAZADO') NOT NULL DEFAULT 'ACTIVO';
+
+-- Los índices solo se agregan si faltan: una base creada con este mismo script ya los tiene (sección 3)
+SET @sql_idx_estado = IF((SELECT COUNT(*) FROM information_schema.statistics
+                          WHERE table_schema = DATABASE() AND table_name = 'equipo_miembros'
+                            AND index_name = 'idx_miembros_equipo_estado') > 0,
+                         'DO 0',
+                         'ALTER TABLE equipo_miembros ADD INDEX idx_miembros_equipo_estado (equipo_id, estado)');
+PREPARE agregar_idx_estado FROM @sql_idx_estado;
+EXECUTE agregar_idx_estado;
+DEALLOCATE PREPARE agregar_idx_estado;
+
+SET @sql_idx_rol = IF((SELECT COUNT(*) FROM information_schema.statistics
+                       WHERE table_schema = DATABASE() AND table_name = 'equipo_miembros'
+                         AND index_name = 'idx_miembros_equipo_rol') > 0,
+                      'DO 0',
+                      'ALTER TABLE equipo_miembros ADD INDEX idx_miembros_equipo_rol (equipo_id, rol)');
+PREPARE agregar_idx_rol FROM @sql_idx_rol;
+EXECUTE agregar_idx_rol;
+DEALLOCATE PREPARE agregar_idx_rol;
+
+UPDATE equipo_miembros_archivo SET rol = REPLACE(UPPER(TRIM(rol)), ' ', '_'), estado = UPPER(TRIM(estado));
+UPDATE equipo_miembros_archivo SET rol = 'JUGADOR'
+    WHERE rol NOT IN ('CAPITAN', 'VICE_CAPITAN', 'JUGADOR');
+UPDATE equipo_miembros_archivo SET estado = 'INACTIVO'
+    WHERE estado NOT IN ('ACTIVO', 'INACTIVO', 'SUSPENDIDO', 'RECHAZADO');
+
+ALTER TABLE equipo_miembros_archivo
+    MODIFY rol ENUM('CAPITAN', 'VICE_CAPITAN', 'JUGADOR'),
+    MODIFY estado ENUM('ACTIVO', 'INACTIVO', 'SUSPENDIDO', 'RECHAZADO');
+
+-- 8. MIGRACIÓN: nombre normalizado único de equipos.
+-- La columna admite NULL: al arrancar, FiltroNombresEquipo la completa con Textos.normalizar en las filas
+-- existentes (el plegado de tildes no tiene equivalente directo en SQL). Los nombres que ya chocan entre
+-- sí quedan en NULL y se registran en el log para resolverlos a mano.
+-- La columna y la clave solo se agregan si faltan: una base creada con este mismo script ya las tiene (sección 2).
+SET @sql_columna_normalizado = IF((SELECT COUNT(*) FROM information_schema.columns
+                                   WHERE table_schema = DATABASE() AND table_name = 'equipos'
+                                     AND column_name = 'nombre_normalizado') > 0,
+                                  'DO 0',
+                                  'ALTER TABLE equipos ADD COLUMN nombre_normalizado VARCHAR(255) NULL AFTER nombre');
+PREPARE agregar_columna_normalizado FROM @sql_columna_normalizado;
+EXECUTE agregar_columna_normalizado;
+DEALLOCATE PREPARE agregar_columna_normalizado;
+
+SET @sql_uk_normalizado = IF((SELECT COUNT(*) FROM information_schema.statistics
+                              WHERE table_schema = DATABASE() AND table_name = 'equipos'
+                                AND index_name = 'uk_equipos_nombre_normalizado') > 0,
+                             'DO 0',
+                             'ALTER TABLE equipos ADD UNIQUE KEY uk_equipos_nombre_normalizado (nombre_normalizado)');
+PREPARE agregar_uk_normalizado FROM @sql_uk_normalizado;
+EXECUTE agregar_uk_normalizado;
+DEALLOCATE PREPARE agregar_uk_normalizado;
+
+-- La unicidad pasa a nombre_normalizado: se elimina la clave única sobre nombre que creó ddl-auto=update
+-- cuando nombre era @NaturalId (Hibernate le genera el nombre, "UK..."), si existe.
+SET @uk_nombre = (SELECT s.index_name FROM information_schema.statistics s
+                  WHERE s.table_schema = DATABASE() AND s.table_name = 'equipos'
+                    AND s.non_unique = 0 AND s.column_name = 'nombre'
+                    AND NOT EXISTS (SELECT 1 FROM information_schema.statistics o
+                                    WHERE o.table_schema = s.table_schema AND o.table_name = s.table_name
+                                      AND o.index_name = s.index_name AND o.column_name <> 'nombre')
+                  LIMIT 1);
+SET @sql_uk_nombre = IF(@uk_nombre IS NULL, 'DO 0', CONCAT('ALTER TABLE equipos DROP INDEX `', @uk_nombre, '`'));
+PREPARE quitar_uk_nombre FROM @sql_uk_nombre;
+EXECUTE quitar_uk_nombre;
+DEALLOCATE PREPARE quitar_uk_nombre;
+
+-- 9. MIGRACIÓN: carga inicial de equipo_actividad a partir de los datos existentes (una sola vez, con la
+-- aplicación detenida). El historial de altas y bajas no se conserva: cada membresía cuenta como alta y
+-- las que hoy no están activas, también como baja.
+INSERT INTO equipo_actividad (equipo_id, invitaciones_enviadas, invitaciones_aceptadas, invitaciones_rechazadas,
+                              invitaciones_canceladas, segundos_respuesta, respuestas_medidas,
+                              miembros_altas, miembros_bajas, fecha_actualizacion)
+SELECT equipo_id, SUM(enviadas), SUM(aceptadas), SUM(rechazadas), SUM(canceladas), SUM(segundos), SUM(medidas),
+       SUM(altas), SUM(bajas), CURRENT_TIMESTAMP
+FROM (
+    SELECT equipo_id, COUNT(*) AS enviadas,
+           SUM(estado = 'ACEPTADA') AS aceptadas, SUM(estado = 'RECHAZADA') AS rechazadas,
+           SUM(estado = 'CANCELADA') AS canceladas,
+           SUM(CASE WHEN estado IN ('ACEPTADA', 'RECHAZADA') AND fecha_respuesta IS NOT NULL
+                    THEN GREATEST(TIMESTAMPDIFF(SECOND, fecha_creacion, fecha_respuesta), 0) ELSE 0 END) AS segundos,
+           SUM(estado IN ('ACEPTADA', 'RECHAZADA') AND fecha_respuesta IS NOT NULL) AS medidas,
+           0 AS altas, 0 AS bajas
+    FROM invitaciones_equipo GROUP BY equipo_id
+    UNION ALL
+    SELECT equipo_id, COUNT(*),
+           SUM(estado = 'ACEPTADA'), SUM(estado = 'RECHAZADA'),
+           SUM(estado = 'CANCELADA'),
+           SUM(CASE WHEN estado IN ('ACEPTADA', 'RECHAZADA') AND fecha_respuesta IS NOT NULL
+                    THEN GREATEST(TIMESTAMPDIFF(SECOND, fecha_creacion, fecha_respuesta), 0) ELSE 0 END),
+           SUM(estado IN ('ACEPTADA', 'RECHAZADA') AND fecha_respuesta IS NOT NULL),
+           0, 0
+    FROM invitaciones_equipo_archivo GROUP BY equipo_id
+    UNION ALL
+    SELECT equipo_id, 0, 0, 0, 0, 0, 0, COUNT(*), SUM(estado <> 'ACTIVO')
+    FROM equipo_miembros GROUP BY equipo_id
+) AS origen
+GROUP BY equipo_id;
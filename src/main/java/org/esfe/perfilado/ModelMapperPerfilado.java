@@ -0,0 +1,41 @@
+package org.esfe.perfilado;
+
+import org.modelmapper.ModelMapper;
+
+import java.lang.reflect.Type;
+
+/**
+ * ModelMapper que suma el tiempo de cada mapeo a la fase MAPEO del perfil de la solicitud.
+ * Solo se usa con perfilador.habilitado=true (ver ModelMapperConfig). Si el mapeo dispara cargas
+ * perezosas de Hibernate, ese tiempo cuenta también en la fase DB.
+ */
+public class ModelMapperPerfilado extends ModelMapper {
+
+    @Override
+    public <D> D map(Object source, Class<D> destinationType) {
+        try (PerfilSolicitud.Medicion ignored = PerfilSolicitud.medir(PerfilSolicitud.Fase.MAPEO)) {
+            return super.map(source, destinationType);
+        }
+    }
+
+    @Override
+    public <D> D map(Object source, Class<D> destinationType, String typeMapName) {
+        try (PerfilSolicitud.Medicion ignored = PerfilSolicitud.medir(PerfilSolicitud.Fase.MAPEO)) {
+            return super.map(source, destinationType, typeMapName);
+        }
+    }
+
+    @Override
+    public void map(Object source, Object destination) {
+        try (PerfilSolicitud.Medicion ignored = PerfilSolicitud.medir(PerfilSolicitud.Fase.MAPEO)) {
+            super.map(source, destination);
+        }
+    }
+
+    @Override
+    public <D> D map(Object source, Type destinationType) {
+        try (PerfilSolicitud.Medicion ignored = PerfilSolicitud.medir(PerfilSolicitud.Fase.MAPEO)) {
+            return super.map(source, destinationType);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package org.esfe.perfilado;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Acumula el costo de una solicitud HTTP por fase (base de datos, mapeo, validación, serialización).
+ * <p>
+ * Solo existe mientras el PerfiladorSolicitudFilter está activo (perfilador.habilitado=true); si no,
+ * {@link #medir(Fase)} devuelve una medición vacía compartida y el costo es una lectura de ThreadLocal.
+ * El perfil se hereda a los hilos creados durante la solicitud (p. ej. los hilos virtuales del
+ * dashboard), por lo que los tiempos son acumulados y pueden superar el tiempo total de pared.
+ */
+public final class PerfilSolicitud {
+
+    public enum Fase {
+        DB("db"), MAPEO("mapeo"), VALIDACION("validacion"), SERIALIZACION("serializacion");
+
+        private final String metrica;
+
+        Fase(String metrica) {
+            this.metrica = metrica;
+        }
+
+        public String getMetrica() {
+            return metrica;
+        }
+    }
+
+    /** Cierra la medición y suma el tiempo transcurrido a la fase. */
+    public interface Medicion extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static final Medicion SIN_PERFIL = () -> { };
+    private static final InheritableThreadLocal<PerfilSolicitud> ACTUAL = new InheritableThreadLocal<>();
+
+    private final Map<Fase, LongAdder> nanosPorFase = new EnumMap<>(Fase.class);
+    private final LongAdder sentencias = new LongAdder();
+    private volatile boolean activo = true;
+
+    private PerfilSolicitud() {
+        for (Fase fase : Fase.values()) {
+            nanosPorFase.put(fase, new LongAdder());
+        }
+    }
+
+    public static PerfilSolicitud iniciar() {
+        PerfilSolicitud perfil = new PerfilSolicitud();
+        ACTUAL.set(perfil);
+        return perfil;
+    }
+
+    public static void terminar() {
+        PerfilSolicitud perfil = ACTUAL.get();
+        if (perfil != null) {
+            // Los hilos que heredaron el perfil dejan de sumar aunque sigan vivos
+            perfil.activo = false;
+        }
+        ACTUAL.remove();
+    }
+
+    public static Medicion medir(Fase fase) {
+        PerfilSolicitud perfil = ACTUAL.get();
+        if (perfil == null || !perfil.activo) {
+            return SIN_PERFIL;
+        }
+        long inicio = System.nanoTime();
+        return () -> perfil.sumar(fase, System.nanoTime() - inicio);
+    }
+
+    /** Para instrumentación basada en callbacks (inicio y fin llegan por separado). */
+    public static void registrar(Fase fase, long nanos) {
+        PerfilSolicitud perfil = ACTUAL.get();
+        if (perfil != null && perfil.activo) {
+            perfil.sumar(fase, nanos);
+        }
+    }
+
+    public static void contarSentencia() {
+        PerfilSolicitud perfil = ACTUAL.get();
+        if (perfil != null && perfil.activo) {
+            perfil.sentencias.increment();
+        }
+    }
+
+    private void sumar(Fase fase, long nanos) {
+        nanosPorFase.get(fase).add(nanos);
+    }
+
+    public double milisegundos(Fase fase) {
+        return nanosPorFase.get(fase).sum() / 1_000_000.0;
+    }
+
+    public long getSentencias() {
+        return sentencias.sum();
+    }
+
+    /**
+     * Valor del header Server-Timing, p. ej.
+     * {@code db;dur=12.40;desc="5 sentencias", mapeo;dur=0.80, validacion;dur=0.10, serializacion;dur=1.30, total;dur=16.20}
+     */
+    public String serverTiming(long totalNanos) {
+        StringBuilder valor = new StringBuilder();
+        for (Fase fase : Fase.values()) {
+            valor.append(fase.getMetrica()).append(";dur=").append(formatear(milisegundos(fase)));
+            if (fase == Fase.DB) {
+                valor.append(";desc=\"").append(getSentencias()).append(" sentencias\"");
+            }
+            valor.append(", ");
+        }
+        return valor.append("total;dur=").append(formatear(totalNanos / 1_000_000.0)).toString();
+    }
+
+    public static String formatear(double milisegundos) {
+        return String.format(Locale.ROOT, "%.2f", milisegundos);
+    }
+}
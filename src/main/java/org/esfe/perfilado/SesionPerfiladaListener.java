@@ -0,0 +1,36 @@
+package org.esfe.perfilado;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Listener de sesión de Hibernate que suma el tiempo de ejecución JDBC y la cantidad de sentencias
+ * al perfil de la solicitud. Hibernate crea una instancia por sesión (hibernate.session.events.auto),
+ * así que el estado de inicio no se comparte entre hilos.
+ */
+public class SesionPerfiladaListener implements SessionEventListener {
+
+    private long inicioSentencia;
+    private long inicioLote;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        inicioSentencia = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        PerfilSolicitud.registrar(PerfilSolicitud.Fase.DB, System.nanoTime() - inicioSentencia);
+        PerfilSolicitud.contarSentencia();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        inicioLote = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        PerfilSolicitud.registrar(PerfilSolicitud.Fase.DB, System.nanoTime() - inicioLote);
+        PerfilSolicitud.contarSentencia();
+    }
+}
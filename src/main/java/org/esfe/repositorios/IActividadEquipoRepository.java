@@ -0,0 +1,55 @@
+package org.esfe.repositorios;
+
+import org.esfe.modelos.ActividadEquipo;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+public interface IActividadEquipoRepository extends JpaRepository<ActividadEquipo, Integer> {
+
+    // Suma los deltas acumulados en memoria; crea la fila la primera vez (una sentencia, sin leer antes).
+    // Los deltas se vuelven a pasar como parámetros en lugar de VALUES() (obsoleto desde MySQL 8.0.20);
+    // el alias de fila que lo reemplaza no lo acepta H2, que corre las pruebas.
+    @Modifying
+    @Query(value = "INSERT INTO equipo_actividad (equipo_id, invitaciones_enviadas, invitaciones_aceptadas, " +
+                   "invitaciones_rechazadas, invitaciones_canceladas, segundos_respuesta, respuestas_medidas, " +
+                   "miembros_altas, miembros_bajas, fecha_actualizacion) " +
+                   "VALUES (:equipoId, :enviadas, :aceptadas, :rechazadas, :canceladas, :segundosRespuesta, " +
+                   ":respuestasMedidas, :altas, :bajas, CURRENT_TIMESTAMP) " +
+                   "ON DUPLICATE KEY UPDATE " +
+                   "invitaciones_enviadas = invitaciones_enviadas + :enviadas, " +
+                   "invitaciones_aceptadas = invitaciones_aceptadas + :aceptadas, " +
+                   "invitaciones_rechazadas = invitaciones_rechazadas + :rechazadas, " +
+                   "invitaciones_canceladas = invitaciones_canceladas + :canceladas, " +
+                   "segundos_respuesta = segundos_respuesta + :segundosRespuesta, " +
+                   "respuestas_medidas = respuestas_medidas + :respuestasMedidas, " +
+                   "miembros_altas = miembros_altas + :altas, " +
+                   "miembros_bajas = miembros_bajas + :bajas, " +
+                   "fecha_actualizacion = CURRENT_TIMESTAMP", nativeQuery = true)
+    int sumar(@Param("equipoId") Integer equipoId,
+              @Param("enviadas") long enviadas,
+              @Param("aceptadas") long aceptadas,
+              @Param("rechazadas") long rechazadas,
+              @Param("canceladas") long canceladas,
+              @Param("segundosRespuesta") long segundosRespuesta,
+              @Param("respuestasMedidas") long respuestasMedidas,
+              @Param("altas") long altas,
+              @Param("bajas") long bajas);
+
+    @Modifying
+    @Query("DELETE FROM ActividadEquipo a WHERE a.equipoId IN :equipoIds")
+    int eliminarPorEquipoIds(@Param("equipoIds") Collection<Integer> equipoIds);
+
+    // Fila de un equipo que ya no existe ni en la tabla caliente ni en el archivo (un volcado en curso
+    // pudo recrearla después de que se borrara junto con el equipo)
+    @Modifying
+    @Query(value = "DELETE FROM equipo_actividad WHERE equipo_id = :equipoId " +
+                   "AND NOT EXISTS (SELECT 1 FROM equipos WHERE id = :equipoId) " +
+                   "AND NOT EXISTS (SELECT 1 FROM equipos_archivo WHERE id = :equipoId)", nativeQuery = true)
+    int eliminarHuerfana(@Param("equipoId") Integer equipoId);
+}
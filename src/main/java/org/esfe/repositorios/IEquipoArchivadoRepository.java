@@ -0,0 +1,25 @@
+package org.esfe.repositorios;
+
+import org.esfe.modelos.EquipoArchivado;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface IEquipoArchivadoRepository extends JpaRepository<EquipoArchivado, Integer> {
+
+    // Copia (INSERT ... SELECT) los equipos indicados desde la tabla caliente; se borran después en la misma transacción
+    @Modifying
+    @Query(value = "INSERT INTO equipos_archivo (id, nombre, creado_por, tipo_deporte_id, descripcion, logo, " +
+                   "color_principal, color_secundario, ciudad, nivel, max_miembros, requiere_aprobacion, " +
+                   "calificacion_promedio, total_calificaciones, esta_activo, fecha_creacion, fecha_actualizacion, fecha_archivado) " +
+                   "SELECT id, nombre, creado_por, tipo_deporte_id, descripcion, logo, " +
+                   "color_principal, color_secundario, ciudad, nivel, max_miembros, requiere_aprobacion, " +
+                   "calificacion_promedio, total_calificaciones, esta_activo, fecha_creacion, fecha_actualizacion, CURRENT_TIMESTAMP " +
+                   "FROM equipos WHERE id IN (:ids)", nativeQuery = true)
+    int copiarDesdeEquipos(@Param("ids") List<Integer> ids);
+}
@@ -0,0 +1,20 @@
+package org.esfe.repositorios;
+
+import org.esfe.dtos.equipo.EquipoBusquedaDto;
+import org.esfe.modelos.Equipo;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+/**
+ * Fragmento de repositorio para la búsqueda combinada de equipos con JPA Criteria.
+ */
+public interface IEquipoBusquedaRepository {
+
+    Page<Equipo> buscar(EquipoBusquedaDto criterios, Pageable pageable);
+
+    // Igual que buscar, sin COUNT (pide tamaño + 1 para saber si hay siguiente)
+    Slice<Equipo> buscarSlice(EquipoBusquedaDto criterios, Pageable pageable);
+
+    long contar(EquipoBusquedaDto criterios);
+}
@@ -0,0 +1,174 @@
+package org.esfe.repositorios;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.esfe.dtos.equipo.EquipoBusquedaDto;
+import org.esfe.modelos.Equipo;
+import org.esfe.modelos.NivelEquipo;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compila los criterios de EquipoBusquedaDto a una única consulta JPQL.
+ * <p>
+ * Los valores siempre van como parámetros, de modo que la consulta depende solo de la "forma"
+ * (qué criterios vienen y el orden pedido). El texto JPQL de cada forma se arma una vez y se guarda;
+ * al ser siempre la misma cadena, Hibernate reutiliza su plan ya interpretado (caché de planes de
+ * consulta). Se guarda el texto y no un CriteriaQuery porque en Hibernate 6 este es un árbol SQM
+ * mutable que no se puede compartir entre hilos. Los textos se comparan con LIKE directo sobre la
+ * columna, sin LOWER(...): la colación de la tabla ya ignora mayúsculas y así se aprovechan los índices.
+ */
+public class IEquipoBusquedaRepositoryImpl implements IEquipoBusquedaRepository {
+
+    private static final Set<String> ORDENABLES = Set.of("id", "nombre", "ciudad", "calificacionPromedio", "fechaCreacion");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final Map<String, String> consultasPorForma = new ConcurrentHashMap<>();
+    private final Map<String, String> conteosPorForma = new ConcurrentHashMap<>();
+
+    @Override
+    public Page<Equipo> buscar(EquipoBusquedaDto criterios, Pageable pageable) {
+        List<Equipo> contenido = consultar(criterios, pageable, 0);
+
+        // Se evita el COUNT cuando la página ya dice cuántos hay en total
+        if (pageable.isUnpaged() || (pageable.getOffset() == 0 && contenido.size() < pageable.getPageSize())) {
+            return new PageImpl<>(contenido, pageable, contenido.size());
+        }
+        return new PageImpl<>(contenido, pageable, contar(criterios));
+    }
+
+    @Override
+    public Slice<Equipo> buscarSlice(EquipoBusquedaDto criterios, Pageable pageable) {
+        List<Equipo> contenido = consultar(criterios, pageable, 1);
+        boolean haySiguiente = pageable.isPaged() && contenido.size() > pageable.getPageSize();
+        if (haySiguiente) {
+            contenido = contenido.subList(0, pageable.getPageSize());
+        }
+        return new SliceImpl<>(contenido, pageable, haySiguiente);
+    }
+
+    @Override
+    public long contar(EquipoBusquedaDto criterios) {
+        String jpql = conteosPorForma.computeIfAbsent(forma(criterios),
+                k -> "SELECT COUNT(e) FROM Equipo e" + condiciones(criterios));
+        TypedQuery<Long> queryConteo = entityManager.createQuery(jpql, Long.class);
+        asignarParametros(queryConteo, criterios);
+        return queryConteo.getSingleResult();
+    }
+
+    private List<Equipo> consultar(EquipoBusquedaDto criterios, Pageable pageable, int extra) {
+        String formaConOrden = forma(criterios) + "|" + pageable.getSort();
+
+        String jpql = consultasPorForma.computeIfAbsent(formaConOrden,
+                k -> "SELECT e FROM Equipo e" + condiciones(criterios) + orden(pageable.getSort()));
+        TypedQuery<Equipo> query = entityManager.createQuery(jpql, Equipo.class);
+        asignarParametros(query, criterios);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize() + extra);
+        }
+        return query.getResultList();
+    }
+
+    // La forma indica qué criterios están presentes; los valores no forman parte de ella
+    private static String forma(EquipoBusquedaDto c) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(tieneTexto(c) ? (Boolean.TRUE.equals(c.getTextoContiene()) ? 'C' : 'T') : '-');
+        sb.append(c.getTipoDeporteId() != null ? 'D' : '-');
+        sb.append(c.getNivel() != null ? 'N' : '-');
+        sb.append(tieneCiudad(c) ? 'U' : '-');
+        sb.append(c.getCalificacionMinima() != null ? 'R' : '-');
+        sb.append(c.getEstaActivo() != null ? 'A' : '-');
+        sb.append(c.getCreadoPor() != null ? 'P' : '-');
+        return sb.toString();
+    }
+
+    private static String condiciones(EquipoBusquedaDto c) {
+        List<String> condiciones = new ArrayList<>();
+        if (tieneTexto(c)) {
+            condiciones.add("(e.nombre LIKE :patron ESCAPE '\\' OR e.ciudad LIKE :patron ESCAPE '\\')");
+        }
+        if (c.getTipoDeporteId() != null) {
+            condiciones.add("e.tipoDeporteId = :tipoDeporteId");
+        }
+        if (c.getNivel() != null) {
+            condiciones.add("e.nivel = :nivel");
+        }
+        if (tieneCiudad(c)) {
+            condiciones.add("e.ciudad = :ciudad");
+        }
+        if (c.getCalificacionMinima() != null) {
+            condiciones.add("e.calificacionPromedio >= :calificacionMinima");
+        }
+        if (c.getEstaActivo() != null) {
+            condiciones.add("e.estaActivo = :estaActivo");
+        }
+        if (c.getCreadoPor() != null) {
+            condiciones.add("e.creadoPor = :creadoPor");
+        }
+        return condiciones.isEmpty() ? "" : " WHERE " + String.join(" AND ", condiciones);
+    }
+
+    // Solo propiedades de la lista blanca: el nombre de la propiedad se concatena al texto JPQL
+    private static String orden(Sort sort) {
+        List<String> orden = new ArrayList<>();
+        for (Sort.Order o : sort) {
+            if (!ORDENABLES.contains(o.getProperty())) {
+                throw new IllegalArgumentException("No se puede ordenar por: " + o.getProperty());
+            }
+            orden.add("e." + o.getProperty() + (o.isAscending() ? " ASC" : " DESC"));
+        }
+        return orden.isEmpty() ? "" : " ORDER BY " + String.join(", ", orden);
+    }
+
+    private static void asignarParametros(TypedQuery<?> query, EquipoBusquedaDto c) {
+        if (tieneTexto(c)) {
+            String texto = escaparLike(c.getTexto().trim());
+            query.setParameter("patron", Boolean.TRUE.equals(c.getTextoContiene()) ? "%" + texto + "%" : texto + "%");
+        }
+        if (c.getTipoDeporteId() != null) {
+            query.setParameter("tipoDeporteId", c.getTipoDeporteId());
+        }
+        if (c.getNivel() != null) {
+            query.setParameter("nivel", NivelEquipo.valueOf(c.getNivel().toUpperCase()));
+        }
+        if (tieneCiudad(c)) {
+            query.setParameter("ciudad", c.getCiudad().trim());
+        }
+        if (c.getCalificacionMinima() != null) {
+            query.setParameter("calificacionMinima", BigDecimal.valueOf(c.getCalificacionMinima()));
+        }
+        if (c.getEstaActivo() != null) {
+            query.setParameter("estaActivo", c.getEstaActivo());
+        }
+        if (c.getCreadoPor() != null) {
+            query.setParameter("creadoPor", c.getCreadoPor());
+        }
+    }
+
+    private static boolean tieneTexto(EquipoBusquedaDto c) {
+        return c.getTexto() != null && !c.getTexto().isBlank();
+    }
+
+    private static boolean tieneCiudad(EquipoBusquedaDto c) {
+        return c.getCiudad() != null && !c.getCiudad().isBlank();
+    }
+
+    private static String escaparLike(String texto) {
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
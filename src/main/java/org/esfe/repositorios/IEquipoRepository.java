@@ -1,19 +1,31 @@
 package org.esfe.repositorios;
 
 import org.esfe.modelos.Equipo;
+import org.esfe.repositorios.proyecciones.ConteoFacetaProyeccion;
+import org.esfe.repositorios.proyecciones.EquipoFichaProyeccion;
+import org.esfe.repositorios.proyecciones.NombreEquipoProyeccion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface IEquipoRepository extends JpaRepository<Equipo, Integer> {
+public interface IEquipoRepository extends JpaRepository<Equipo, Integer>, IEquipoBusquedaRepository {
 
-    // 1. Buscar por nombre exacto (para validaciones de unicidad)
-    Optional<Equipo> findByNombreIgnoreCase(String nombre);
+    // 1. Buscar por nombre normalizado (validaciones de unicidad; igualdad sobre uk_equipos_nombre_normalizado)
+    Optional<Equipo> findByNombreNormalizado(String nombreNormalizado);
 
     // 2. Búsqueda paginada y filtrada principal (por Nombre O Ciudad)
     Page<Equipo> findByNombreContainingIgnoreCaseOrCiudadContainingIgnoreCase(String nombre, String ciudad, Pageable pageable);
@@ -24,17 +36,27 @@ public interface IEquipoRepository extends JpaRepository<Equipo, Integer> {
     // 4. Buscar equipos por el ID del usuario que lo creó
     List<Equipo> findByCreadoPor(Integer creadoPor);
 
-    // 5. Verificar si existe un equipo con ese nombre
-    boolean existsByNombreIgnoreCase(String nombre);
+    // 5. Verificar si existe un equipo con ese nombre normalizado (ver Textos.normalizar)
+    boolean existsByNombreNormalizado(String nombreNormalizado);
     
     /**
      * Busca equipos por el ID del tipo de deporte (FK a la otra API).
+     * Resultado cacheado en la región de consultas "equipos-filtros".
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "equipos-filtros")
+    })
     Page<Equipo> findByTipoDeporteId(Integer tipoDeporteId, Pageable pageable);
 
     /**
      * Busca equipos con una calificación promedio mayor o igual al valor dado.
+     * Resultado cacheado en la región de consultas "equipos-filtros".
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "equipos-filtros")
+    })
     Page<Equipo> findByCalificacionPromedioGreaterThanEqual(Double calificacionPromedio, Pageable pageable);
 
     /**
@@ -45,4 +67,91 @@ public interface IEquipoRepository extends JpaRepository<Equipo, Integer> {
         Integer tipoDeporteId2, String ciudad,
         Pageable pageable
     );
-}
\ No newline at end of file
+
+    // --- Variantes Slice (sin COUNT: piden tamaño + 1 para saber si hay siguiente) ---
+
+    Slice<Equipo> findSliceBy(Pageable pageable);
+
+    Slice<Equipo> findSliceByNombreContainingIgnoreCaseOrCiudadContainingIgnoreCase(String nombre, String ciudad, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "equipos-filtros")
+    })
+    Slice<Equipo> findSliceByTipoDeporteId(Integer tipoDeporteId, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "equipos-filtros")
+    })
+    Slice<Equipo> findSliceByCalificacionPromedioGreaterThanEqual(Double calificacionPromedio, Pageable pageable);
+
+    // Conteos para los totales aproximados (se calculan fuera de la solicitud)
+    long countByNombreContainingIgnoreCaseOrCiudadContainingIgnoreCase(String nombre, String ciudad);
+
+    long countByTipoDeporteId(Integer tipoDeporteId);
+
+    long countByCalificacionPromedioGreaterThanEqual(Double calificacionPromedio);
+
+    /**
+     * Recorrido por keyset de los atributos de búsqueda de todos los equipos (carga de índices en memoria).
+     */
+    @Query("SELECT e.id AS id, e.nombre AS nombre, e.logo AS logo, e.tipoDeporteId AS tipoDeporteId, e.ciudad AS ciudad, " +
+           "e.nivel AS nivel, e.estaActivo AS estaActivo, e.requiereAprobacion AS requiereAprobacion, " +
+           "e.maxMiembros AS maxMiembros, e.calificacionPromedio AS calificacionPromedio " +
+           "FROM Equipo e WHERE e.id > :ultimoId ORDER BY e.id")
+    List<EquipoFichaProyeccion> findFichasDesde(@Param("ultimoId") Integer ultimoId, Pageable pageable);
+
+    // Calentamiento al arrancar: los equipos mejor calificados son los más consultados
+    @Query("SELECT e.id FROM Equipo e WHERE e.estaActivo = true ORDER BY e.calificacionPromedio DESC, e.id DESC")
+    List<Integer> findIdsMejorCalificados(Pageable pageable);
+
+    // Conciliación de las facetas en memoria (la ciudad se agrupa tal cual; se normaliza en Java)
+    @Query("SELECT e.tipoDeporteId AS tipoDeporteId, e.nivel AS nivel, e.ciudad AS ciudad, " +
+           "e.estaActivo AS estaActivo, COUNT(e) AS total " +
+           "FROM Equipo e GROUP BY e.tipoDeporteId, e.nivel, e.ciudad, e.estaActivo")
+    List<ConteoFacetaProyeccion> contarPorFacetas();
+
+    // --- Archivo (partición caliente/fría) ---
+
+    // Equipos desactivados sin cambios desde antes del corte, por lotes (keyset) en orden de ID
+    @Query("SELECT e.id FROM Equipo e WHERE e.estaActivo = false AND e.fechaActualizacion < :corte " +
+           "AND e.id > :ultimoId ORDER BY e.id")
+    List<Integer> findIdsInactivosDesde(@Param("corte") LocalDateTime corte,
+                                        @Param("ultimoId") Integer ultimoId,
+                                        Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Equipo e WHERE e.id IN :ids")
+    int eliminarPorIds(@Param("ids") Collection<Integer> ids);
+
+    // --- Eliminación por conjuntos y borrado suave ---
+
+    @Modifying
+    @Query("UPDATE Equipo e SET e.fechaEliminacion = :ahora WHERE e.id = :id AND e.fechaEliminacion IS NULL")
+    int marcarEliminado(@Param("id") Integer id, @Param("ahora") LocalDateTime ahora);
+
+    // Nativas: la restricción de borrado suave ocultaría estas filas a JPQL
+    @Query(value = "SELECT id FROM equipos WHERE fecha_eliminacion IS NOT NULL ORDER BY id LIMIT :limite", nativeQuery = true)
+    List<Integer> findIdsPendientesDePurga(@Param("limite") int limite);
+
+    @Modifying
+    @Query(value = "DELETE FROM equipos WHERE id IN (:ids) AND fecha_eliminacion IS NOT NULL", nativeQuery = true)
+    int purgarPorIds(@Param("ids") Collection<Integer> ids);
+
+    // --- Filtro de nombres en memoria ---
+
+    // Nativas: los equipos con borrado suave siguen ocupando su nombre hasta que se purgan
+    @Query(value = "SELECT COUNT(*) FROM equipos", nativeQuery = true)
+    long contarIncluyendoEliminados();
+
+    @Query(value = "SELECT id, nombre, nombre_normalizado AS nombreNormalizado FROM equipos " +
+                   "WHERE id > :ultimoId ORDER BY id LIMIT :limite", nativeQuery = true)
+    List<NombreEquipoProyeccion> findNombresDesde(@Param("ultimoId") Integer ultimoId, @Param("limite") int limite);
+
+    // Completa la columna en filas creadas antes de que existiera
+    @Modifying
+    @Query(value = "UPDATE equipos SET nombre_normalizado = :nombreNormalizado " +
+                   "WHERE id = :id AND nombre_normalizado IS NULL", nativeQuery = true)
+    int completarNombreNormalizado(@Param("id") Integer id, @Param("nombreNormalizado") String nombreNormalizado);
+}
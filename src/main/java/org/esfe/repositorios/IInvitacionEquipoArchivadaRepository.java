@@ -0,0 +1,32 @@
+package org.esfe.repositorios;
+
+import org.esfe.modelos.InvitacionEquipoArchivada;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface IInvitacionEquipoArchivadaRepository extends JpaRepository<InvitacionEquipoArchivada, Integer> {
+
+    // Copia las invitaciones indicadas desde la tabla caliente; se borran después en la misma transacción
+    @Modifying
+    @Query(value = "INSERT INTO invitaciones_equipo_archivo (id, equipo_id, usuario_invitado_id, usuario_remitente_id, " +
+                   "usuario_respondio_id, mensaje, estado, fecha_respuesta, fecha_creacion, fecha_archivado) " +
+                   "SELECT id, equipo_id, usuario_invitado_id, usuario_remitente_id, usuario_respondio_id, mensaje, " +
+                   "estado, fecha_respuesta, fecha_creacion, CURRENT_TIMESTAMP " +
+                   "FROM invitaciones_equipo WHERE id IN (:ids)", nativeQuery = true)
+    int copiarDesdeInvitaciones(@Param("ids") List<Integer> ids);
+
+    // Copia todas las invitaciones (de cualquier estado) de los equipos que se están archivando
+    @Modifying
+    @Query(value = "INSERT INTO invitaciones_equipo_archivo (id, equipo_id, usuario_invitado_id, usuario_remitente_id, " +
+                   "usuario_respondio_id, mensaje, estado, fecha_respuesta, fecha_creacion, fecha_archivado) " +
+                   "SELECT id, equipo_id, usuario_invitado_id, usuario_remitente_id, usuario_respondio_id, mensaje, " +
+                   "estado, fecha_respuesta, fecha_creacion, CURRENT_TIMESTAMP " +
+                   "FROM invitaciones_equipo WHERE equipo_id IN (:equipoIds)", nativeQuery = true)
+    int copiarPorEquipos(@Param("equipoIds") List<Integer> equipoIds);
+}
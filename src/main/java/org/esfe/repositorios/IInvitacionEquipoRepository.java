@@ -4,9 +4,17 @@ import org.esfe.modelos.InvitacionEquipo;
 import org.esfe.enums.EstadoInvitacion;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface IInvitacionEquipoRepository extends JpaRepository<InvitacionEquipo, Integer> {
 
@@ -19,6 +27,14 @@ public interface IInvitacionEquipoRepository extends JpaRepository<InvitacionEqu
             EstadoInvitacion estado,
             Pageable pageable);
 
+    /**
+     * Igual que la anterior pero sin consulta COUNT (usado por el dashboard agregado).
+     */
+    List<InvitacionEquipo> findListaByUsuarioInvitadoIdAndEstadoOrderByFechaCreacionDesc(
+            Integer usuarioInvitadoId,
+            EstadoInvitacion estado,
+            Pageable pageable);
+
     Page<InvitacionEquipo> findByEquipoId(Integer equipoId, Pageable pageable);
 
     Page<InvitacionEquipo> findByEstado(EstadoInvitacion estado, Pageable pageable);
@@ -34,4 +50,42 @@ public interface IInvitacionEquipoRepository extends JpaRepository<InvitacionEqu
     Page<InvitacionEquipo> findByMensajeContainingIgnoreCase(
             String mensaje,
             Pageable pageable);
+
+    // --- Variantes Slice (sin COUNT: piden tamaño + 1 para saber si hay siguiente) ---
+
+    Slice<InvitacionEquipo> findSliceByUsuarioInvitadoIdAndEstadoOrderByFechaCreacionDesc(
+            Integer usuarioInvitadoId,
+            EstadoInvitacion estado,
+            Pageable pageable);
+
+    Slice<InvitacionEquipo> findSliceByEquipoId(Integer equipoId, Pageable pageable);
+
+    Slice<InvitacionEquipo> findSliceByMensajeContainingIgnoreCase(String mensaje, Pageable pageable);
+
+    Slice<InvitacionEquipo> findSliceBy(Pageable pageable);
+
+    // Conteos para los totales aproximados (se calculan fuera de la solicitud)
+    long countByUsuarioInvitadoIdAndEstado(Integer usuarioInvitadoId, EstadoInvitacion estado);
+
+    long countByEquipoId(Integer equipoId);
+
+    long countByMensajeContainingIgnoreCase(String mensaje);
+
+    // --- Archivo (partición caliente/fría) ---
+
+    // Invitaciones respondidas antes del corte, por lotes (keyset) en orden de ID
+    @Query("SELECT i.id FROM InvitacionEquipo i WHERE i.estado IN :estados " +
+           "AND COALESCE(i.fechaRespuesta, i.fechaCreacion) < :corte AND i.id > :ultimoId ORDER BY i.id")
+    List<Integer> findIdsArchivables(@Param("estados") Collection<EstadoInvitacion> estados,
+                                     @Param("corte") LocalDateTime corte,
+                                     @Param("ultimoId") Integer ultimoId,
+                                     Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM InvitacionEquipo i WHERE i.id IN :ids")
+    int eliminarPorIds(@Param("ids") Collection<Integer> ids);
+
+    @Modifying
+    @Query("DELETE FROM InvitacionEquipo i WHERE i.equipo.id IN :equipoIds")
+    int eliminarPorEquipoIds(@Param("equipoIds") Collection<Integer> equipoIds);
 }
\ No newline at end of file
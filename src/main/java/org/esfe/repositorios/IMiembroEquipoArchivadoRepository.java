@@ -0,0 +1,29 @@
+package org.esfe.repositorios;
+
+import org.esfe.modelos.MiembroEquipoArchivado;
+import org.esfe.repositorios.proyecciones.MiembroPlantillaProyeccion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface IMiembroEquipoArchivadoRepository extends JpaRepository<MiembroEquipoArchivado, Integer> {
+
+    // Copia las membresías de los equipos que se están archivando
+    @Modifying
+    @Query(value = "INSERT INTO equipo_miembros_archivo (id, equipo_id, usuario_id, rol, numero_camiseta, posicion, " +
+                   "estado, fecha_union, fecha_archivado) " +
+                   "SELECT id, equipo_id, usuario_id, rol, numero_camiseta, posicion, estado, fecha_union, CURRENT_TIMESTAMP " +
+                   "FROM equipo_miembros WHERE equipo_id IN (:equipoIds)", nativeQuery = true)
+    int copiarPorEquipos(@Param("equipoIds") List<Integer> equipoIds);
+
+    // Plantilla de un equipo archivado
+    @Query("SELECT m.id AS id, m.usuarioId AS usuarioId, m.rol AS rol, m.estado AS estado, " +
+           "m.numeroCamiseta AS numeroCamiseta, m.posicion AS posicion, m.fechaUnion AS fechaUnion " +
+           "FROM MiembroEquipoArchivado m WHERE m.equipoId = :equipoId ORDER BY m.id")
+    List<MiembroPlantillaProyeccion> findPlantillaByEquipoId(@Param("equipoId") Integer equipoId);
+}
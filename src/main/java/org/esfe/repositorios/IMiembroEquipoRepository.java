@@ -1,13 +1,20 @@
 package org.esfe.repositorios;
 
+import org.esfe.enums.EstadoMiembro;
+import org.esfe.enums.RolMiembro;
 import org.esfe.modelos.MiembroEquipo;
+import org.esfe.repositorios.proyecciones.MembresiaActivaProyeccion;
+import org.esfe.repositorios.proyecciones.MiembroPlantillaProyeccion;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,13 +32,54 @@ public interface IMiembroEquipoRepository extends JpaRepository<MiembroEquipo, I
 
     Page<MiembroEquipo> findByUsuarioId(Integer usuarioId, Pageable pageable);
 
-    // 5. Filtrar por estado y rol dentro de un equipo
-    List<MiembroEquipo> findByEquipoIdAndEstadoIgnoreCase(Integer equipoId, String estado);
+    // Variantes Slice (sin COUNT) y conteos para los totales aproximados
+    Slice<MiembroEquipo> findSliceByEquipoId(Integer equipoId, Pageable pageable);
 
-    List<MiembroEquipo> findByEquipoIdAndRolIgnoreCase(Integer equipoId, String rol);
+    Slice<MiembroEquipo> findSliceByUsuarioId(Integer usuarioId, Pageable pageable);
 
-    long countByEquipoIdAndEstado(Integer equipoId, String estado);
+    long countByEquipoId(Integer equipoId);
 
-    @Query("SELECT m.equipo.id FROM MiembroEquipo m WHERE m.usuarioId = :usuarioId AND m.estado = 'activo'")
+    long countByUsuarioId(Integer usuarioId);
+
+    long countByUsuarioIdAndEstado(Integer usuarioId, EstadoMiembro estado);
+
+    // 5. Filtrar por estado y rol dentro de un equipo (igualdad sobre idx_miembros_equipo_estado / _rol)
+    List<MiembroEquipo> findByEquipoIdAndEstado(Integer equipoId, EstadoMiembro estado);
+
+    List<MiembroEquipo> findByEquipoIdAndRol(Integer equipoId, RolMiembro rol);
+
+    long countByEquipoIdAndEstado(Integer equipoId, EstadoMiembro estado);
+
+    @Query("SELECT m.equipo.id FROM MiembroEquipo m WHERE m.usuarioId = :usuarioId AND m.estado = org.esfe.enums.EstadoMiembro.ACTIVO")
     Page<Integer> findEquipoIdsByUsuarioIdAndEstadoActivo(@Param("usuarioId") Integer usuarioId, Pageable pageable);
+
+    @Query("SELECT m.equipo.id FROM MiembroEquipo m WHERE m.usuarioId = :usuarioId AND m.estado = org.esfe.enums.EstadoMiembro.ACTIVO")
+    Slice<Integer> findSliceEquipoIdsByUsuarioIdAndEstadoActivo(@Param("usuarioId") Integer usuarioId, Pageable pageable);
+
+    // Variantes sin COUNT para el dashboard: devuelven solo la porción pedida
+    @Query("SELECT m.equipo.id FROM MiembroEquipo m WHERE m.usuarioId = :usuarioId AND m.estado = org.esfe.enums.EstadoMiembro.ACTIVO ORDER BY m.fechaUnion DESC")
+    List<Integer> findListaEquipoIdsByUsuarioIdAndEstadoActivo(@Param("usuarioId") Integer usuarioId, Pageable pageable);
+
+    List<MiembroEquipo> findListaByUsuarioIdOrderByFechaUnionDesc(Integer usuarioId, Pageable pageable);
+
+    // Recorrido por keyset de las membresías activas (reconstrucción de índices en memoria)
+    @Query("SELECT m.id AS id, m.usuarioId AS usuarioId, m.equipo.id AS equipoId FROM MiembroEquipo m " +
+           "WHERE m.estado = org.esfe.enums.EstadoMiembro.ACTIVO AND m.id > :ultimoId ORDER BY m.id")
+    List<MembresiaActivaProyeccion> findMembresiasActivasDesde(@Param("ultimoId") Integer ultimoId, Pageable pageable);
+
+    // Plantilla del equipo: solo las columnas que se muestran, en una consulta
+    @Query("SELECT m.id AS id, m.usuarioId AS usuarioId, m.rol AS rol, m.estado AS estado, " +
+           "m.numeroCamiseta AS numeroCamiseta, m.posicion AS posicion, m.fechaUnion AS fechaUnion " +
+           "FROM MiembroEquipo m WHERE m.equipo.id = :equipoId ORDER BY m.id")
+    List<MiembroPlantillaProyeccion> findPlantillaByEquipoId(@Param("equipoId") Integer equipoId);
+
+    // Equipos donde ambos usuarios son miembros activos (respaldo cuando el índice no está listo)
+    @Query("SELECT m1.equipo.id FROM MiembroEquipo m1, MiembroEquipo m2 " +
+           "WHERE m1.equipo.id = m2.equipo.id AND m1.usuarioId = :usuarioA AND m2.usuarioId = :usuarioB " +
+           "AND m1.estado = org.esfe.enums.EstadoMiembro.ACTIVO AND m2.estado = org.esfe.enums.EstadoMiembro.ACTIVO ORDER BY m1.equipo.id")
+    List<Integer> findEquipoIdsEnComun(@Param("usuarioA") Integer usuarioA, @Param("usuarioB") Integer usuarioB);
+
+    @Modifying
+    @Query("DELETE FROM MiembroEquipo m WHERE m.equipo.id IN :equipoIds")
+    int eliminarPorEquipoIds(@Param("equipoIds") Collection<Integer> equipoIds);
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package org.esfe.repositorios.proyecciones;
+
+import org.esfe.modelos.NivelEquipo;
+
+/**
+ * Cantidad de equipos por combinación de tipo de deporte, nivel, ciudad y estado.
+ */
+public interface ConteoFacetaProyeccion {
+
+    Integer getTipoDeporteId();
+
+    NivelEquipo getNivel();
+
+    String getCiudad();
+
+    Boolean getEstaActivo();
+
+    Long getTotal();
+}
@@ -0,0 +1,31 @@
+package org.esfe.repositorios.proyecciones;
+
+import org.esfe.modelos.NivelEquipo;
+
+import java.math.BigDecimal;
+
+/**
+ * Atributos de un equipo que usan los índices de búsqueda en memoria.
+ */
+public interface EquipoFichaProyeccion {
+
+    Integer getId();
+
+    String getNombre();
+
+    String getLogo();
+
+    Integer getTipoDeporteId();
+
+    String getCiudad();
+
+    NivelEquipo getNivel();
+
+    Boolean getEstaActivo();
+
+    Boolean getRequiereAprobacion();
+
+    Integer getMaxMiembros();
+
+    BigDecimal getCalificacionPromedio();
+}
@@ -0,0 +1,13 @@
+package org.esfe.repositorios.proyecciones;
+
+/**
+ * Fila mínima de una membresía activa, usada para reconstruir índices en memoria.
+ */
+public interface MembresiaActivaProyeccion {
+
+    Integer getId();
+
+    Integer getUsuarioId();
+
+    Integer getEquipoId();
+}
@@ -0,0 +1,26 @@
+package org.esfe.repositorios.proyecciones;
+
+import org.esfe.enums.EstadoMiembro;
+import org.esfe.enums.RolMiembro;
+
+import java.time.LocalDateTime;
+
+/**
+ * Columnas de una membresía que necesita la plantilla del equipo (sin cargar la entidad ni el equipo).
+ */
+public interface MiembroPlantillaProyeccion {
+
+    Integer getId();
+
+    Integer getUsuarioId();
+
+    RolMiembro getRol();
+
+    EstadoMiembro getEstado();
+
+    Integer getNumeroCamiseta();
+
+    String getPosicion();
+
+    LocalDateTime getFechaUnion();
+}
@@ -0,0 +1,13 @@
+package org.esfe.repositorios.proyecciones;
+
+/**
+ * Nombre de un equipo y su forma normalizada, para cargar el filtro de nombres en memoria.
+ */
+public interface NombreEquipoProyeccion {
+
+    Integer getId();
+
+    String getNombre();
+
+    String getNombreNormalizado();
+}
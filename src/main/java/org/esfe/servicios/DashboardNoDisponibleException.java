@@ -0,0 +1,12 @@
+package org.esfe.servicios;
+
+/**
+ * Las consultas del dashboard no terminaron dentro de dashboard.timeout-ms. El controlador la
+ * traduce a 503 para que el cliente reintente; cualquier otro error sigue siendo un 500.
+ */
+public class DashboardNoDisponibleException extends RuntimeException {
+
+    public DashboardNoDisponibleException(String mensaje, Throwable causa) {
+        super(mensaje, causa);
+    }
+}
@@ -0,0 +1,293 @@
+package org.esfe.servicios.implementaciones;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import org.esfe.dtos.equipo.EquipoActividadSalidaDto;
+import org.esfe.dtos.invitacion.InvitacionSalidaDto;
+import org.esfe.dtos.miembro.MiembroSalidaDto;
+import org.esfe.enums.EstadoInvitacion;
+import org.esfe.enums.EstadoMiembro;
+import org.esfe.enums.TipoEventoEquipo;
+import org.esfe.enums.TipoEventoInvitacion;
+import org.esfe.enums.TipoEventoMiembro;
+import org.esfe.eventos.EquipoEvento;
+import org.esfe.eventos.InvitacionEvento;
+import org.esfe.eventos.MiembroEvento;
+import org.esfe.modelos.ActividadEquipo;
+import org.esfe.repositorios.IActividadEquipoRepository;
+import org.esfe.servicios.interfaces.IActividadEquipoService;
+import org.esfe.servicios.interfaces.IEquipoService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+@Service
+public class ActividadEquipoService implements IActividadEquipoService {
+
+    private static final Logger log = LoggerFactory.getLogger(ActividadEquipoService.class);
+    private static final String ACTIVO = EstadoMiembro.ACTIVO.getValor();
+    // Cuánto se recuerda un equipo eliminado; basta con cubrir los eventos rezagados y un volcado en curso
+    private static final Duration DURACION_LAPIDA = Duration.ofMinutes(10);
+
+    /**
+     * Contadores pendientes de un equipo. Solo se modifican dentro de ConcurrentHashMap.compute, que
+     * serializa por clave: al sacarlos con remove() para volcarlos nadie más los está tocando.
+     */
+    private static final class Delta {
+        long enviadas;
+        long aceptadas;
+        long rechazadas;
+        long canceladas;
+        long segundosRespuesta;
+        long respuestasMedidas;
+        long altas;
+        long bajas;
+
+        Delta sumar(Delta otro) {
+            enviadas += otro.enviadas;
+            aceptadas += otro.aceptadas;
+            rechazadas += otro.rechazadas;
+            canceladas += otro.canceladas;
+            segundosRespuesta += otro.segundosRespuesta;
+            respuestasMedidas += otro.respuestasMedidas;
+            altas += otro.altas;
+            bajas += otro.bajas;
+            return this;
+        }
+    }
+
+    private final IActividadEquipoRepository actividadRepository;
+    private final IEquipoService equipoService;
+    private final TransactionTemplate transaccion;
+    private final boolean habilitado;
+    private final long intervaloVolcadoMillis;
+
+    private final ConcurrentHashMap<Integer, Delta> pendientes = new ConcurrentHashMap<>();
+    // Lápidas de equipos eliminados: sus eventos tardíos ya no acumulan y el volcado los salta
+    private final Cache<Integer, Boolean> eliminados = Caffeine.newBuilder()
+            .expireAfterWrite(DURACION_LAPIDA)
+            .build();
+    // Serializa cada volcado con la limpieza de la fila de un equipo eliminado
+    private final Object candadoVolcado = new Object();
+    private ScheduledExecutorService volcador;
+
+    public ActividadEquipoService(IActividadEquipoRepository actividadRepository,
+                                  IEquipoService equipoService,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${estadisticas.actividad.habilitada:true}") boolean habilitado,
+                                  @Value("${estadisticas.actividad.volcado-ms:5000}") long intervaloVolcadoMillis) {
+        this.actividadRepository = actividadRepository;
+        this.equipoService = equipoService;
+        this.transaccion = new TransactionTemplate(transactionManager);
+        this.habilitado = habilitado;
+        this.intervaloVolcadoMillis = intervaloVolcadoMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alIniciar() {
+        if (!habilitado) {
+            return;
+        }
+        volcador = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("volcado-actividad")
+                .daemon(true)
+                .factory());
+        volcador.scheduleWithFixedDelay(this::volcarPeriodico, intervaloVolcadoMillis, intervaloVolcadoMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void detener() {
+        if (volcador == null) {
+            return;
+        }
+        volcador.shutdownNow();
+        // Último volcado: lo acumulado desde el anterior no se pierde al detener la aplicación
+        volcarPeriodico();
+    }
+
+    @Override
+    public Optional<EquipoActividadSalidaDto> obtenerPorEquipo(Integer equipoId) {
+        if (equipoService.obtenerPorId(equipoId).isEmpty()) {
+            return Optional.empty();
+        }
+        Optional<ActividadEquipo> fila = actividadRepository.findById(equipoId);
+
+        // Lo que todavía no se volcó (copia tomada bajo el candado de la clave)
+        Delta enMemoria = new Delta();
+        pendientes.computeIfPresent(equipoId, (id, delta) -> {
+            enMemoria.sumar(delta);
+            return delta;
+        });
+        Delta total = fila.map(ActividadEquipoService::deltaDe).orElseGet(Delta::new).sumar(enMemoria);
+
+        EquipoActividadSalidaDto dto = new EquipoActividadSalidaDto();
+        dto.setEquipoId(equipoId);
+        dto.setInvitacionesEnviadas(total.enviadas);
+        dto.setInvitacionesAceptadas(total.aceptadas);
+        dto.setInvitacionesRechazadas(total.rechazadas);
+        dto.setInvitacionesCanceladas(total.canceladas);
+        dto.setMiembrosAltas(total.altas);
+        dto.setMiembrosBajas(total.bajas);
+        long respondidas = total.aceptadas + total.rechazadas;
+        dto.setTasaAceptacion(respondidas > 0 ? (double) total.aceptadas / respondidas : null);
+        dto.setTiempoPromedioRespuestaSegundos(total.respuestasMedidas > 0
+                ? (double) total.segundosRespuesta / total.respuestasMedidas : null);
+        dto.setTasaRotacion(total.altas > 0 ? (double) total.bajas / total.altas : null);
+        dto.setFechaActualizacion(fila.map(ActividadEquipo::getFechaActualizacion).orElse(null));
+        return Optional.of(dto);
+    }
+
+    private static Delta deltaDe(ActividadEquipo fila) {
+        Delta delta = new Delta();
+        delta.enviadas = fila.getInvitacionesEnviadas();
+        delta.aceptadas = fila.getInvitacionesAceptadas();
+        delta.rechazadas = fila.getInvitacionesRechazadas();
+        delta.canceladas = fila.getInvitacionesCanceladas();
+        delta.segundosRespuesta = fila.getSegundosRespuesta();
+        delta.respuestasMedidas = fila.getRespuestasMedidas();
+        delta.altas = fila.getMiembrosAltas();
+        delta.bajas = fila.getMiembrosBajas();
+        return delta;
+    }
+
+    @Override
+    public int volcar() {
+        synchronized (candadoVolcado) {
+            // Se sacan uno por uno: lo que llegue mientras tanto abre un delta nuevo para el próximo volcado
+            Map<Integer, Delta> lote = new LinkedHashMap<>();
+            for (Integer equipoId : new ArrayList<>(pendientes.keySet())) {
+                Delta delta = pendientes.remove(equipoId);
+                if (delta != null && eliminados.getIfPresent(equipoId) == null) {
+                    lote.put(equipoId, delta);
+                }
+            }
+            if (lote.isEmpty()) {
+                return 0;
+            }
+            try {
+                transaccion.executeWithoutResult(status -> lote.forEach((equipoId, d) ->
+                        actividadRepository.sumar(equipoId, d.enviadas, d.aceptadas, d.rechazadas, d.canceladas,
+                                d.segundosRespuesta, d.respuestasMedidas, d.altas, d.bajas)));
+            } catch (RuntimeException e) {
+                // Se devuelven al mapa (sumados a lo nuevo) para reintentar en el próximo volcado
+                lote.forEach((equipoId, delta) -> pendientes.merge(equipoId, delta, Delta::sumar));
+                throw e;
+            }
+            return lote.size();
+        }
+    }
+
+    private void volcarPeriodico() {
+        try {
+            int equipos = volcar();
+            if (equipos > 0) {
+                log.debug("Estadísticas de actividad volcadas para {} equipos.", equipos);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Falló el volcado de estadísticas de actividad: {}", e.getMessage());
+        }
+    }
+
+    // --- Deltas a partir de los eventos ---
+
+    @EventListener
+    public void alCambiarInvitacion(InvitacionEvento evento) {
+        InvitacionSalidaDto invitacion = evento.getInvitacion();
+        if (invitacion == null || invitacion.getEquipo() == null) {
+            return;
+        }
+        EstadoInvitacion estado = invitacion.getEstado();
+        if (evento.getTipo() == TipoEventoInvitacion.CREADA) {
+            acumular(invitacion.getEquipo().getId(), d -> d.enviadas++);
+        } else if (evento.getTipo() == TipoEventoInvitacion.CANCELADA) {
+            // Borrar una invitación ya aceptada o rechazada no la convierte en cancelada
+            if (estado == EstadoInvitacion.PENDIENTE || estado == EstadoInvitacion.CANCELADA) {
+                acumular(invitacion.getEquipo().getId(), d -> d.canceladas++);
+            }
+        } else if (estado == EstadoInvitacion.ACEPTADA || estado == EstadoInvitacion.RECHAZADA) {
+            long segundos = invitacion.getFechaCreacion() != null && invitacion.getFechaRespuesta() != null
+                    ? Math.max(0, Duration.between(invitacion.getFechaCreacion(), invitacion.getFechaRespuesta()).toSeconds())
+                    : -1;
+            acumular(invitacion.getEquipo().getId(), d -> {
+                if (estado == EstadoInvitacion.ACEPTADA) {
+                    d.aceptadas++;
+                } else {
+                    d.rechazadas++;
+                }
+                if (segundos >= 0) {
+                    d.segundosRespuesta += segundos;
+                    d.respuestasMedidas++;
+                }
+            });
+        }
+    }
+
+    @EventListener
+    public void alCambiarMiembro(MiembroEvento evento) {
+        MiembroSalidaDto miembro = evento.getMiembro();
+        if (miembro == null || miembro.getEquipoId() == null) {
+            return;
+        }
+        // Rotación: entradas y salidas del estado activo
+        boolean antes = ACTIVO.equals(evento.getEstadoAnterior());
+        boolean despues = evento.getTipo() != TipoEventoMiembro.ELIMINADO && ACTIVO.equals(miembro.getEstado());
+        if (!antes && despues) {
+            acumular(miembro.getEquipoId(), d -> d.altas++);
+        } else if (antes && !despues) {
+            acumular(miembro.getEquipoId(), d -> d.bajas++);
+        }
+    }
+
+    @EventListener
+    public void alCambiarEquipo(EquipoEvento evento) {
+        if (evento.getTipo() != TipoEventoEquipo.ELIMINADO) {
+            return;
+        }
+        // Sin volcar: la fila del equipo se borra junto con él
+        Integer equipoId = evento.getEquipoId();
+        eliminados.put(equipoId, Boolean.TRUE);
+        pendientes.remove(equipoId);
+        if (!habilitado) {
+            return;
+        }
+        // Un volcado que ya había sacado el delta pudo recrear la fila después del borrado. Al tomar el
+        // candado ese volcado terminó, y la lápida impide los siguientes: se quita la fila huérfana (la de
+        // un equipo archivado se conserva).
+        synchronized (candadoVolcado) {
+            try {
+                transaccion.executeWithoutResult(status -> actividadRepository.eliminarHuerfana(equipoId));
+            } catch (RuntimeException e) {
+                log.warn("No se pudo limpiar la actividad del equipo eliminado {}: {}", equipoId, e.getMessage());
+            }
+        }
+    }
+
+    private void acumular(Integer equipoId, Consumer<Delta> cambio) {
+        if (eliminados.getIfPresent(equipoId) != null) {
+            return;
+        }
+        pendientes.compute(equipoId, (id, delta) -> {
+            Delta actual = delta != null ? delta : new Delta();
+            cambio.accept(actual);
+            return actual;
+        });
+    }
+}
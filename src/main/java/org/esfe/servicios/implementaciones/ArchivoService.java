@@ -0,0 +1,246 @@
+package org.esfe.servicios.implementaciones;
+
+import org.esfe.enums.EstadoInvitacion;
+import org.esfe.enums.TipoEventoEquipo;
+import org.esfe.eventos.EquipoEvento;
+import org.esfe.repositorios.IEquipoArchivadoRepository;
+import org.esfe.repositorios.IEquipoRepository;
+import org.esfe.repositorios.IInvitacionEquipoArchivadaRepository;
+import org.esfe.repositorios.IInvitacionEquipoRepository;
+import org.esfe.repositorios.IMiembroEquipoArchivadoRepository;
+import org.esfe.repositorios.IMiembroEquipoRepository;
+import org.esfe.servicios.interfaces.IArchivoService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class ArchivoService implements IArchivoService {
+
+    private static final Logger log = LoggerFactory.getLogger(ArchivoService.class);
+    private static final Set<EstadoInvitacion> ESTADOS_RESPONDIDOS =
+            EnumSet.of(EstadoInvitacion.ACEPTADA, EstadoInvitacion.RECHAZADA, EstadoInvitacion.CANCELADA);
+    // Intentos por equipo antes de dejar de archivarlo (hasta el próximo reinicio)
+    static final int MAX_INTENTOS_EQUIPO = 3;
+
+    private final IInvitacionEquipoRepository invitacionRepository;
+    private final IInvitacionEquipoArchivadaRepository invitacionArchivadaRepository;
+    private final IEquipoRepository equipoRepository;
+    private final IEquipoArchivadoRepository equipoArchivadoRepository;
+    private final IMiembroEquipoRepository miembroEquipoRepository;
+    private final IMiembroEquipoArchivadoRepository miembroArchivadoRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transaccion;
+
+    private final boolean habilitado;
+    private final long intervaloMinutos;
+    private final int diasInvitaciones;
+    private final int diasEquiposInactivos;
+    private final int tamanioLote;
+    private final int maxLotesPorEjecucion;
+    private final long pausaEntreLotesMillis;
+
+    // Equipos cuyo archivo falló (p. ej. siguen referenciados por una FK) y cuántas veces
+    private final Map<Integer, Integer> fallosPorEquipo = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService planificador;
+
+    public ArchivoService(IInvitacionEquipoRepository invitacionRepository,
+                          IInvitacionEquipoArchivadaRepository invitacionArchivadaRepository,
+                          IEquipoRepository equipoRepository,
+                          IEquipoArchivadoRepository equipoArchivadoRepository,
+                          IMiembroEquipoRepository miembroEquipoRepository,
+                          IMiembroEquipoArchivadoRepository miembroArchivadoRepository,
+                          ApplicationEventPublisher eventPublisher,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${archivo.habilitado:true}") boolean habilitado,
+                          @Value("${archivo.intervalo-minutos:60}") long intervaloMinutos,
+                          @Value("${archivo.invitaciones.dias:90}") int diasInvitaciones,
+                          @Value("${archivo.equipos.dias-inactivo:365}") int diasEquiposInactivos,
+                          @Value("${archivo.lote:500}") int tamanioLote,
+                          @Value("${archivo.max-lotes-por-ejecucion:50}") int maxLotesPorEjecucion,
+                          @Value("${archivo.pausa-entre-lotes-ms:200}") long pausaEntreLotesMillis) {
+        this.invitacionRepository = invitacionRepository;
+        this.invitacionArchivadaRepository = invitacionArchivadaRepository;
+        this.equipoRepository = equipoRepository;
+        this.equipoArchivadoRepository = equipoArchivadoRepository;
+        this.miembroEquipoRepository = miembroEquipoRepository;
+        this.miembroArchivadoRepository = miembroArchivadoRepository;
+        this.eventPublisher = eventPublisher;
+        this.transaccion = new TransactionTemplate(transactionManager);
+        this.habilitado = habilitado;
+        this.intervaloMinutos = intervaloMinutos;
+        this.diasInvitaciones = diasInvitaciones;
+        this.diasEquiposInactivos = diasEquiposInactivos;
+        this.tamanioLote = tamanioLote;
+        this.maxLotesPorEjecucion = maxLotesPorEjecucion;
+        this.pausaEntreLotesMillis = pausaEntreLotesMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alIniciar() {
+        if (!habilitado) {
+            return;
+        }
+        planificador = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("archivo-historial")
+                .daemon(true)
+                .factory());
+        planificador.scheduleWithFixedDelay(this::ejecutar, intervaloMinutos, intervaloMinutos, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void detener() {
+        if (planificador != null) {
+            planificador.shutdownNow();
+        }
+    }
+
+    private void ejecutar() {
+        try {
+            int invitaciones = archivarInvitacionesRespondidas();
+            int equipos = archivarEquiposInactivos();
+            if (invitaciones > 0 || equipos > 0) {
+                log.info("Archivo: {} invitaciones y {} equipos movidos a las tablas de historial", invitaciones, equipos);
+            }
+        } catch (RuntimeException e) {
+            // Nunca dejar morir el planificador: se reintenta en la próxima ejecución
+            log.warn("Falló la ejecución del archivo de historial: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public int archivarInvitacionesRespondidas() {
+        LocalDateTime corte = LocalDateTime.now().minusDays(diasInvitaciones);
+        int movidas = 0;
+        int ultimoId = 0;
+
+        for (int lote = 0; lote < maxLotesPorEjecucion; lote++) {
+            List<Integer> ids = invitacionRepository.findIdsArchivables(ESTADOS_RESPONDIDOS, corte, ultimoId,
+                    PageRequest.of(0, tamanioLote));
+            if (ids.isEmpty()) {
+                break;
+            }
+            ultimoId = ids.get(ids.size() - 1);
+
+            // Copiar y borrar en la misma transacción: una fila nunca está en ambas tablas ni en ninguna
+            Integer copiadas = transaccion.execute(status -> {
+                int n = invitacionArchivadaRepository.copiarDesdeInvitaciones(ids);
+                invitacionRepository.eliminarPorIds(ids);
+                return n;
+            });
+            movidas += copiadas != null ? copiadas : 0;
+
+            if (ids.size() < tamanioLote || !pausar()) {
+                break;
+            }
+        }
+        return movidas;
+    }
+
+    @Override
+    public int archivarEquiposInactivos() {
+        LocalDateTime corte = LocalDateTime.now().minusDays(diasEquiposInactivos);
+        List<Integer> archivados = new ArrayList<>();
+        int ultimoId = 0;
+
+        for (int lote = 0; lote < maxLotesPorEjecucion; lote++) {
+            List<Integer> ids = equipoRepository.findIdsInactivosDesde(corte, ultimoId, PageRequest.of(0, tamanioLote));
+            if (ids.isEmpty()) {
+                break;
+            }
+            ultimoId = ids.get(ids.size() - 1);
+
+            // Los que ya fallaron demasiadas veces se saltan: reintentarlos cada hora no los arregla
+            List<Integer> candidatos = ids.stream()
+                    .filter(id -> fallosPorEquipo.getOrDefault(id, 0) < MAX_INTENTOS_EQUIPO)
+                    .toList();
+            if (!candidatos.isEmpty()) {
+                try {
+                    archivarEquipos(candidatos);
+                    archivados.addAll(candidatos);
+                } catch (DataAccessException e) {
+                    // Algún equipo del lote sigue referenciado desde otra tabla: se reintenta uno a uno
+                    // para no bloquear al resto (el que falla queda en la tabla caliente).
+                    for (Integer id : candidatos) {
+                        try {
+                            archivarEquipos(List.of(id));
+                            archivados.add(id);
+                        } catch (DataAccessException ex) {
+                            registrarFallo(id, ex);
+                        }
+                    }
+                }
+            }
+
+            if (ids.size() < tamanioLote || !pausar()) {
+                break;
+            }
+        }
+
+        // Cachés e índices en memoria tratan el equipo archivado como eliminado de la tabla caliente
+        for (Integer id : archivados) {
+            fallosPorEquipo.remove(id);
+            eventPublisher.publishEvent(new EquipoEvento(TipoEventoEquipo.ELIMINADO, id, null));
+        }
+        return archivados.size();
+    }
+
+    private void archivarEquipos(List<Integer> ids) {
+        transaccion.executeWithoutResult(status -> {
+            equipoArchivadoRepository.copiarDesdeEquipos(ids);
+            miembroArchivadoRepository.copiarPorEquipos(ids);
+            invitacionArchivadaRepository.copiarPorEquipos(ids);
+
+            // Hijos primero por las FK
+            invitacionRepository.eliminarPorEquipoIds(ids);
+            miembroEquipoRepository.eliminarPorEquipoIds(ids);
+            equipoRepository.eliminarPorIds(ids);
+        });
+    }
+
+    private void registrarFallo(Integer id, DataAccessException e) {
+        int fallos = fallosPorEquipo.merge(id, 1, Integer::sum);
+        if (fallos < MAX_INTENTOS_EQUIPO) {
+            log.warn("No se pudo archivar el equipo {} (intento {} de {}): {}",
+                    id, fallos, MAX_INTENTOS_EQUIPO, e.getMostSpecificCause().getMessage());
+        } else {
+            log.error("No se pudo archivar el equipo {} tras {} intentos; se omite hasta reiniciar el servicio: {}",
+                    id, fallos, e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    // Pausa entre lotes para repartir la carga; devuelve false si el hilo fue interrumpido
+    private boolean pausar() {
+        if (pausaEntreLotesMillis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pausaEntreLotesMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
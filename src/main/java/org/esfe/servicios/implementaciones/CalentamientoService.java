@@ -0,0 +1,187 @@
+package org.esfe.servicios.implementaciones;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.esfe.cache.EquipoRespuestaCache;
+import org.esfe.dtos.equipo.EquipoSalidaDto;
+import org.esfe.enums.EstadoInvitacion;
+import org.esfe.repositorios.IEquipoRepository;
+import org.esfe.servicios.interfaces.ICalentamientoService;
+import org.esfe.servicios.interfaces.IEquipoService;
+import org.esfe.servicios.interfaces.IInvitacionEquipoService;
+import org.esfe.servicios.interfaces.IMiembroEquipoService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Precarga los equipos mejor calificados (caché de DTOs, respuestas serializadas y plantillas) y repite
+ * las lecturas principales de equipos, miembros e invitaciones, serializando cada resultado.
+ * <p>
+ * Corre dentro de ApplicationReadyEvent, en el hilo de arranque: Spring Boot publica
+ * {@link ReadinessState#ACCEPTING_TRAFFIC} recién cuando terminan todos los oyentes de ese evento, así
+ * que /actuator/health/readiness sigue en REFUSING_TRAFFIC hasta que el calentamiento termina (o se
+ * agota su tiempo máximo).
+ */
+@Service
+public class CalentamientoService implements ICalentamientoService {
+
+    private static final Logger log = LoggerFactory.getLogger(CalentamientoService.class);
+    private static final Pageable PRIMERA_PAGINA = PageRequest.of(0, 20);
+
+    private final IEquipoRepository equipoRepository;
+    private final IEquipoService equipoService;
+    private final IMiembroEquipoService miembroEquipoService;
+    private final IInvitacionEquipoService invitacionEquipoService;
+    private final EquipoRespuestaCache respuestaCache;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate lecturaTemplate;
+
+    private final boolean habilitado;
+    private final int equiposPrecargados;
+    private final int iteraciones;
+    private final long tiempoMaximoNanos;
+    private final int maxIdsPorLote;
+
+    public CalentamientoService(IEquipoRepository equipoRepository,
+                                IEquipoService equipoService,
+                                IMiembroEquipoService miembroEquipoService,
+                                IInvitacionEquipoService invitacionEquipoService,
+                                EquipoRespuestaCache respuestaCache,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${calentamiento.habilitado:true}") boolean habilitado,
+                                @Value("${calentamiento.equipos:500}") int equiposPrecargados,
+                                @Value("${calentamiento.iteraciones:200}") int iteraciones,
+                                @Value("${calentamiento.tiempo-maximo-segundos:60}") long tiempoMaximoSegundos,
+                                @Value("${equipos.lote.max-ids:200}") int maxIdsPorLote) {
+        this.equipoRepository = equipoRepository;
+        this.equipoService = equipoService;
+        this.miembroEquipoService = miembroEquipoService;
+        this.invitacionEquipoService = invitacionEquipoService;
+        this.respuestaCache = respuestaCache;
+        this.objectMapper = objectMapper;
+        // Fuera de una solicitud no hay sesión abierta (open-in-view): cada lectura abre la suya, como lo haría el filtro
+        this.lecturaTemplate = new TransactionTemplate(transactionManager);
+        this.lecturaTemplate.setReadOnly(true);
+        this.habilitado = habilitado;
+        this.equiposPrecargados = equiposPrecargados;
+        this.iteraciones = iteraciones;
+        this.tiempoMaximoNanos = TimeUnit.SECONDS.toNanos(tiempoMaximoSegundos);
+        this.maxIdsPorLote = maxIdsPorLote;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alIniciar() {
+        if (habilitado) {
+            calentar();
+        }
+    }
+
+    @Override
+    public void calentar() {
+        long inicio = System.nanoTime();
+        long limite = inicio + tiempoMaximoNanos;
+
+        List<Integer> calientes;
+        try {
+            calientes = equipoRepository.findIdsMejorCalificados(PageRequest.of(0, Math.max(1, equiposPrecargados)));
+        } catch (RuntimeException e) {
+            log.warn("Calentamiento omitido: no se pudieron leer los equipos más consultados: {}", e.getMessage());
+            return;
+        }
+        int precargados = precargar(calientes, limite);
+
+        // Lecturas sintéticas: repiten los caminos de mapeo, consulta y serialización de cada servicio
+        int realizadas = 0;
+        if (!calientes.isEmpty()) {
+            while (realizadas < iteraciones && System.nanoTime() < limite) {
+                recorrerLecturas(calientes.get(realizadas % calientes.size()));
+                realizadas++;
+            }
+        }
+
+        long milisegundos = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+        if (System.nanoTime() >= limite) {
+            log.warn("Calentamiento cortado por tiempo ({} ms): {} equipos precargados, {} de {} iteraciones.",
+                    milisegundos, precargados, realizadas, iteraciones);
+        } else {
+            log.info("Calentamiento terminado en {} ms: {} equipos precargados, {} iteraciones.",
+                    milisegundos, precargados, realizadas);
+        }
+    }
+
+    // Equipo (caché de DTOs, por lotes), respuesta serializada y plantilla de cada equipo caliente
+    private int precargar(List<Integer> ids, long limite) {
+        int precargados = 0;
+        for (int desde = 0; desde < ids.size() && System.nanoTime() < limite; desde += maxIdsPorLote) {
+            List<Integer> lote = ids.subList(desde, Math.min(ids.size(), desde + maxIdsPorLote));
+            try {
+                lecturaTemplate.executeWithoutResult(estado -> equipoService.obtenerLote(lote));
+                for (Integer id : lote) {
+                    lecturaTemplate.executeWithoutResult(estado -> {
+                        respuestaCache.obtener(id, () -> equipoService.obtenerPorId(id));
+                        equipoService.obtenerPlantilla(id);
+                    });
+                    precargados++;
+                }
+            } catch (RuntimeException e) {
+                log.warn("Falló la precarga de equipos en el calentamiento: {}", e.getMessage());
+            }
+        }
+        return precargados;
+    }
+
+    private void recorrerLecturas(Integer equipoId) {
+        try {
+            lecturaTemplate.executeWithoutResult(estado -> leer(equipoId));
+        } catch (RuntimeException e) {
+            log.debug("Lectura de calentamiento fallida para el equipo {}: {}", equipoId, e.getMessage());
+        }
+    }
+
+    private void leer(Integer equipoId) {
+        Optional<EquipoSalidaDto> equipo = equipoService.obtenerPorId(equipoId);
+        serializar(equipo.orElse(null));
+        serializar(equipoService.obtenerEquiposPaginadosYFiltrados(Optional.empty(), PRIMERA_PAGINA).getContent());
+        serializar(equipoService.obtenerEquiposSlice(Optional.empty(), PRIMERA_PAGINA, false));
+
+        serializar(miembroEquipoService.obtenerMiembrosPorEquipo(equipoId, PRIMERA_PAGINA).getContent());
+        serializar(miembroEquipoService.obtenerMiembrosPorEquipoSlice(equipoId, PRIMERA_PAGINA, false));
+
+        serializar(invitacionEquipoService.obtenerInvitacionesPorEquipo(equipoId, PRIMERA_PAGINA).getContent());
+        serializar(invitacionEquipoService.obtenerInvitacionesPorEquipoSlice(equipoId, PRIMERA_PAGINA, false));
+
+        // Consultas por usuario, con el creador del equipo como usuario de ejemplo
+        Integer usuarioId = equipo.map(EquipoSalidaDto::getCreadoPor).orElse(null);
+        if (usuarioId != null) {
+            serializar(equipoService.obtenerEquiposPorUsuario(usuarioId, PRIMERA_PAGINA).getContent());
+            serializar(miembroEquipoService.obtenerMembresiasPorUsuario(usuarioId, PRIMERA_PAGINA).getContent());
+            serializar(invitacionEquipoService.obtenerInvitacionesPorUsuarioYEstado(
+                    usuarioId, EstadoInvitacion.PENDIENTE, PRIMERA_PAGINA).getContent());
+        }
+    }
+
+    private void serializar(Object valor) {
+        if (valor == null) {
+            return;
+        }
+        try {
+            objectMapper.writeValueAsBytes(valor);
+        } catch (JsonProcessingException e) {
+            log.debug("No se pudo serializar durante el calentamiento: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package org.esfe.servicios.implementaciones;
+
+import org.esfe.configuracion.ModelMapperConfig;
+import org.esfe.dtos.dashboard.DashboardUsuarioDto;
+import org.esfe.dtos.equipo.EquipoReferenciaDto;
+import org.esfe.dtos.equipo.EquipoSalidaDto;
+import org.esfe.dtos.invitacion.InvitacionSalidaDto;
+import org.esfe.dtos.miembro.MiembroSalidaDto;
+import org.esfe.enums.EstadoInvitacion;
+import org.esfe.modelos.Equipo;
+import org.esfe.modelos.InvitacionEquipo;
+import org.esfe.modelos.MiembroEquipo;
+import org.esfe.repositorios.IEquipoRepository;
+import org.esfe.repositorios.IInvitacionEquipoRepository;
+import org.esfe.repositorios.IMiembroEquipoRepository;
+import org.esfe.servicios.DashboardNoDisponibleException;
+import org.esfe.servicios.interfaces.IDashboardService;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+@Service
+public class DashboardService implements IDashboardService {
+
+    private final IEquipoRepository equipoRepository;
+    private final IMiembroEquipoRepository miembroEquipoRepository;
+    private final IInvitacionEquipoRepository invitacionRepository;
+    private final ModelMapper modelMapper;
+    private final TransactionTemplate lecturaTemplate;
+    private final long timeoutMillis;
+
+    @Autowired
+    public DashboardService(IEquipoRepository equipoRepository,
+                            IMiembroEquipoRepository miembroEquipoRepository,
+                            IInvitacionEquipoRepository invitacionRepository,
+                            ModelMapper modelMapper,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${dashboard.timeout-ms:5000}") long timeoutMillis) {
+        this.equipoRepository = equipoRepository;
+        this.miembroEquipoRepository = miembroEquipoRepository;
+        this.invitacionRepository = invitacionRepository;
+        this.modelMapper = modelMapper;
+        this.timeoutMillis = timeoutMillis;
+
+        // Cada tarea corre en su propio hilo, por lo que abre su propia transacción (y conexión) de solo lectura.
+        // El tiempo límite de la transacción se aplica a cada sentencia: una consulta que ya no se espera
+        // la corta el driver en lugar de seguir ocupando la conexión.
+        this.lecturaTemplate = new TransactionTemplate(transactionManager);
+        this.lecturaTemplate.setReadOnly(true);
+        this.lecturaTemplate.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(timeoutMillis + 999)));
+    }
+
+    @Override
+    public DashboardUsuarioDto obtenerDashboard(Integer usuarioId, int limite) {
+        Pageable primeros = PageRequest.of(0, limite);
+
+        List<Integer> misEquipoIds;
+        List<MiembroEquipo> membresias;
+        List<InvitacionEquipo> invitaciones;
+
+        // 1. Las tres consultas en paralelo sobre hilos virtuales. Si una falla, se cancelan las demás.
+        // Sin try-with-resources: close() esperaría a que terminen, y un tiempo agotado debe responder ya.
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            Future<List<Integer>> idsFuture = executor.submit(enLectura(() ->
+                    miembroEquipoRepository.findListaEquipoIdsByUsuarioIdAndEstadoActivo(usuarioId, primeros)));
+            Future<List<MiembroEquipo>> membresiasFuture = executor.submit(enLectura(() ->
+                    miembroEquipoRepository.findListaByUsuarioIdOrderByFechaUnionDesc(usuarioId, primeros)));
+            Future<List<InvitacionEquipo>> invitacionesFuture = executor.submit(enLectura(() ->
+                    invitacionRepository.findListaByUsuarioInvitadoIdAndEstadoOrderByFechaCreacionDesc(
+                            usuarioId, EstadoInvitacion.PENDIENTE, primeros)));
+
+            long limiteEspera = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            try {
+                misEquipoIds = esperar(idsFuture, limiteEspera);
+                membresias = esperar(membresiasFuture, limiteEspera);
+                invitaciones = esperar(invitacionesFuture, limiteEspera);
+            } catch (RuntimeException e) {
+                executor.shutdownNow();
+                throw e;
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // 2. Una sola carga de todos los equipos referenciados por las tres secciones
+        Set<Integer> equipoIds = new LinkedHashSet<>(misEquipoIds);
+        membresias.forEach(m -> equipoIds.add(m.getEquipo().getId()));
+        invitaciones.forEach(i -> equipoIds.add(i.getEquipo().getId()));
+
+        Map<Integer, Equipo> equiposPorId = lecturaTemplate.execute(status ->
+                equipoRepository.findAllById(equipoIds).stream()
+                        .collect(Collectors.toMap(Equipo::getId, e -> e)));
+
+        // 3. Mapeo compartido: cada equipo se mapea una vez por forma de DTO
+        Map<Integer, EquipoSalidaDto> salidaPorId = new HashMap<>();
+        Map<Integer, EquipoReferenciaDto> referenciaPorId = new HashMap<>();
+
+        DashboardUsuarioDto dashboard = new DashboardUsuarioDto();
+        dashboard.setUsuarioId(usuarioId);
+        dashboard.setMisEquipos(misEquipoIds.stream()
+                .map(equiposPorId::get)
+                .filter(Objects::nonNull)
+                .map(e -> salidaPorId.computeIfAbsent(e.getId(), id -> modelMapper.map(e, EquipoSalidaDto.class)))
+                .collect(Collectors.toList()));
+        dashboard.setMembresias(membresias.stream()
+                .map(m -> mapMiembro(m, equiposPorId, referenciaPorId))
+                .collect(Collectors.toList()));
+        dashboard.setInvitacionesPendientes(invitaciones.stream()
+                .map(i -> mapInvitacion(i, equiposPorId, referenciaPorId))
+                .collect(Collectors.toList()));
+        return dashboard;
+    }
+
+    // Las entidades vienen de sesiones ya cerradas y con el equipo como proxy LAZY: el mapa SIN_EQUIPO no lo
+    // recorre y el equipo sale del mapa del paso 2, sin tocar (ni modificar) la entidad.
+    private MiembroSalidaDto mapMiembro(MiembroEquipo miembro, Map<Integer, Equipo> equiposPorId,
+                                        Map<Integer, EquipoReferenciaDto> referenciaPorId) {
+        Integer equipoId = miembro.getEquipo().getId();
+
+        MiembroSalidaDto dto = modelMapper.map(miembro, MiembroSalidaDto.class, ModelMapperConfig.SIN_EQUIPO);
+        dto.setEquipoId(equipoId);
+        dto.setEquipo(referencia(equipoId, equiposPorId, referenciaPorId));
+        return dto;
+    }
+
+    private InvitacionSalidaDto mapInvitacion(InvitacionEquipo invitacion, Map<Integer, Equipo> equiposPorId,
+                                              Map<Integer, EquipoReferenciaDto> referenciaPorId) {
+        InvitacionSalidaDto dto = modelMapper.map(invitacion, InvitacionSalidaDto.class, ModelMapperConfig.SIN_EQUIPO);
+        dto.setEquipo(referencia(invitacion.getEquipo().getId(), equiposPorId, referenciaPorId));
+        return dto;
+    }
+
+    private EquipoReferenciaDto referencia(Integer equipoId, Map<Integer, Equipo> equiposPorId,
+                                           Map<Integer, EquipoReferenciaDto> referenciaPorId) {
+        Equipo equipo = equiposPorId.get(equipoId);
+        if (equipo == null) {
+            return null;
+        }
+        return referenciaPorId.computeIfAbsent(equipoId, id -> modelMapper.map(equipo, EquipoReferenciaDto.class));
+    }
+
+    private <T> Callable<T> enLectura(Callable<T> consulta) {
+        return () -> lecturaTemplate.execute(status -> {
+            try {
+                return consulta.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private <T> T esperar(Future<T> future, long limiteEsperaNanos) {
+        try {
+            return future.get(Math.max(0, limiteEsperaNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Consulta del dashboard interrumpida.", e);
+        } catch (TimeoutException e) {
+            throw new DashboardNoDisponibleException("El dashboard no respondió a tiempo.", e);
+        } catch (ExecutionException e) {
+            // El driver cortó la sentencia por el tiempo límite de la transacción
+            if (e.getCause() instanceof QueryTimeoutException || e.getCause() instanceof TransactionTimedOutException) {
+                throw new DashboardNoDisponibleException("El dashboard no respondió a tiempo.", e.getCause());
+            }
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
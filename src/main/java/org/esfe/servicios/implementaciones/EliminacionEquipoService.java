@@ -0,0 +1,137 @@
+package org.esfe.servicios.implementaciones;
+
+import jakarta.annotation.PreDestroy;
+import org.esfe.enums.TipoEventoEquipo;
+import org.esfe.eventos.EquipoEvento;
+import org.esfe.repositorios.IActividadEquipoRepository;
+import org.esfe.repositorios.IEquipoRepository;
+import org.esfe.repositorios.IInvitacionEquipoRepository;
+import org.esfe.repositorios.IMiembroEquipoRepository;
+import org.esfe.servicios.interfaces.IEliminacionEquipoService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class EliminacionEquipoService implements IEliminacionEquipoService {
+
+    private static final Logger log = LoggerFactory.getLogger(EliminacionEquipoService.class);
+
+    private final IEquipoRepository equipoRepository;
+    private final IMiembroEquipoRepository miembroEquipoRepository;
+    private final IInvitacionEquipoRepository invitacionRepository;
+    private final IActividadEquipoRepository actividadRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transaccion;
+
+    private final boolean borradoSuave;
+    private final long intervaloPurgaSegundos;
+    private final int lotePurga;
+    private ScheduledExecutorService purgador;
+
+    public EliminacionEquipoService(IEquipoRepository equipoRepository,
+                                    IMiembroEquipoRepository miembroEquipoRepository,
+                                    IInvitacionEquipoRepository invitacionRepository,
+                                    IActividadEquipoRepository actividadRepository,
+                                    ApplicationEventPublisher eventPublisher,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${equipos.eliminacion.suave:false}") boolean borradoSuave,
+                                    @Value("${equipos.eliminacion.purga-intervalo-segundos:60}") long intervaloPurgaSegundos,
+                                    @Value("${equipos.eliminacion.purga-lote:100}") int lotePurga) {
+        this.equipoRepository = equipoRepository;
+        this.miembroEquipoRepository = miembroEquipoRepository;
+        this.invitacionRepository = invitacionRepository;
+        this.actividadRepository = actividadRepository;
+        this.eventPublisher = eventPublisher;
+        this.transaccion = new TransactionTemplate(transactionManager);
+        this.borradoSuave = borradoSuave;
+        this.intervaloPurgaSegundos = intervaloPurgaSegundos;
+        this.lotePurga = lotePurga;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alIniciar() {
+        // El barrido periódico también recoge lo que quedó marcado si la aplicación se detuvo antes de purgar
+        if (!borradoSuave) {
+            return;
+        }
+        purgador = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("purga-equipos")
+                .daemon(true)
+                .factory());
+        purgador.scheduleWithFixedDelay(this::purgarPendientes, 0, intervaloPurgaSegundos, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void detener() {
+        if (purgador != null) {
+            purgador.shutdownNow();
+        }
+    }
+
+    @Override
+    public void eliminar(Integer equipoId) {
+        if (borradoSuave) {
+            // Un solo UPDATE: el equipo desaparece de inmediato de todas las consultas JPA
+            Integer marcados = transaccion.execute(status -> equipoRepository.marcarEliminado(equipoId, LocalDateTime.now()));
+            if (marcados == null || marcados == 0) {
+                throw new NoSuchElementException("Equipo no encontrado con ID: " + equipoId);
+            }
+            if (purgador != null) {
+                purgador.execute(() -> purgar(List.of(equipoId)));
+            } else {
+                purgar(List.of(equipoId)); // aún no arrancó el purgador
+            }
+        } else {
+            transaccion.executeWithoutResult(status -> {
+                invitacionRepository.eliminarPorEquipoIds(List.of(equipoId));
+                miembroEquipoRepository.eliminarPorEquipoIds(List.of(equipoId));
+                actividadRepository.eliminarPorEquipoIds(List.of(equipoId));
+                if (equipoRepository.eliminarPorIds(List.of(equipoId)) == 0) {
+                    // Revierte los DELETE anteriores
+                    throw new NoSuchElementException("Equipo no encontrado con ID: " + equipoId);
+                }
+            });
+        }
+
+        // Los DELETE/UPDATE masivos ya invalidan la región de Equipo en la caché de segundo nivel;
+        // el evento limpia las cachés e índices propios.
+        eventPublisher.publishEvent(new EquipoEvento(TipoEventoEquipo.ELIMINADO, equipoId, null));
+    }
+
+    private void purgarPendientes() {
+        try {
+            List<Integer> ids;
+            do {
+                ids = equipoRepository.findIdsPendientesDePurga(lotePurga);
+                if (!ids.isEmpty()) {
+                    purgar(ids);
+                }
+            } while (ids.size() == lotePurga);
+        } catch (RuntimeException e) {
+            log.warn("Falló la purga de equipos eliminados: {}", e.getMessage());
+        }
+    }
+
+    private void purgar(List<Integer> equipoIds) {
+        transaccion.executeWithoutResult(status -> {
+            invitacionRepository.eliminarPorEquipoIds(equipoIds);
+            miembroEquipoRepository.eliminarPorEquipoIds(equipoIds);
+            actividadRepository.eliminarPorEquipoIds(equipoIds);
+            equipoRepository.purgarPorIds(equipoIds);
+        });
+    }
+}
@@ -1,22 +1,55 @@
 package org.esfe.servicios.implementaciones;
 
+import org.esfe.cache.CoalescedorLecturas;
+import org.esfe.cache.ConteoAproximadoCache;
+import org.esfe.cache.EquipoCache;
+import org.esfe.cache.PlantillaCache;
 import org.esfe.dtos.equipo.*;
+import org.esfe.dtos.paginacion.SliceSalidaDto;
+import org.esfe.enums.EstadoMiembro;
+import org.esfe.enums.TipoEventoEquipo;
+import org.esfe.eventos.EquipoEvento;
+import org.esfe.indices.FiltroNombresEquipo;
+import org.esfe.indices.IndiceFacetas;
+import org.esfe.indices.IndiceMatchmaking;
+import org.esfe.indices.IndiceMembresias;
 import org.esfe.modelos.Equipo;
+import org.esfe.repositorios.IEquipoArchivadoRepository;
 import org.esfe.repositorios.IEquipoRepository;
+import org.esfe.repositorios.IMiembroEquipoArchivadoRepository;
 import org.esfe.repositorios.IMiembroEquipoRepository;
+import org.esfe.repositorios.proyecciones.MiembroPlantillaProyeccion;
+import org.esfe.servicios.interfaces.IEliminacionEquipoService;
 import org.esfe.servicios.interfaces.IEquipoService;
+import org.esfe.servicios.interfaces.IValidacionReferenciasService;
+import org.esfe.utilidades.Textos;
+import org.hibernate.exception.ConstraintViolationException;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,12 +58,51 @@ public class EquipoService implements IEquipoService {
     private final IEquipoRepository equipoRepository;
     private final IMiembroEquipoRepository miembroEquipoRepository;
     private final ModelMapper modelMapper;
+    private final EquipoCache equipoCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final IValidacionReferenciasService validacionReferencias;
+    private final IndiceMembresias indiceMembresias;
+    private final IndiceMatchmaking indiceMatchmaking;
+    private final ConteoAproximadoCache conteos;
+    private final IEquipoArchivadoRepository equipoArchivadoRepository;
+    private final IEliminacionEquipoService eliminacionEquipoService;
+    private final CoalescedorLecturas coalescedor;
+    private final PlantillaCache plantillaCache;
+    private final IMiembroEquipoArchivadoRepository miembroArchivadoRepository;
+    private final FiltroNombresEquipo filtroNombres;
+    private final IndiceFacetas indiceFacetas;
+    private final int maxIdsPorLote;
 
     @Autowired
-    public EquipoService(IEquipoRepository equipoRepository, IMiembroEquipoRepository miembroEquipoRepository, ModelMapper modelMapper) {
+    public EquipoService(IEquipoRepository equipoRepository, IMiembroEquipoRepository miembroEquipoRepository, ModelMapper modelMapper,
+                         EquipoCache equipoCache, ApplicationEventPublisher eventPublisher,
+                         IValidacionReferenciasService validacionReferencias, IndiceMembresias indiceMembresias,
+                         IndiceMatchmaking indiceMatchmaking, ConteoAproximadoCache conteos,
+                         IEquipoArchivadoRepository equipoArchivadoRepository,
+                         IEliminacionEquipoService eliminacionEquipoService,
+                         CoalescedorLecturas coalescedor,
+                         PlantillaCache plantillaCache,
+                         IMiembroEquipoArchivadoRepository miembroArchivadoRepository,
+                         FiltroNombresEquipo filtroNombres,
+                         IndiceFacetas indiceFacetas,
+                         @Value("${equipos.lote.max-ids:200}") int maxIdsPorLote) {
         this.equipoRepository = equipoRepository;
         this.miembroEquipoRepository = miembroEquipoRepository;
         this.modelMapper = modelMapper;
+        this.equipoCache = equipoCache;
+        this.eventPublisher = eventPublisher;
+        this.validacionReferencias = validacionReferencias;
+        this.indiceMembresias = indiceMembresias;
+        this.indiceMatchmaking = indiceMatchmaking;
+        this.conteos = conteos;
+        this.equipoArchivadoRepository = equipoArchivadoRepository;
+        this.eliminacionEquipoService = eliminacionEquipoService;
+        this.coalescedor = coalescedor;
+        this.plantillaCache = plantillaCache;
+        this.miembroArchivadoRepository = miembroArchivadoRepository;
+        this.filtroNombres = filtroNombres;
+        this.indiceFacetas = indiceFacetas;
+        this.maxIdsPorLote = maxIdsPorLote;
     }
 
     // --- Métodos de Mapeo Auxiliares ---
@@ -38,11 +110,38 @@ public class EquipoService implements IEquipoService {
         return modelMapper.map(equipo, EquipoSalidaDto.class);
     }
 
+    // Orden por defecto de los listados: los más recientes primero
+    private static Pageable ordenPorDefecto(Pageable pageable) {
+        Sort sort = pageable.getSort().isUnsorted() ? Sort.by("id").descending() : pageable.getSort();
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+    }
+
     private Equipo mapToEntity(Object dto) {
         // Mapea DTOs de entrada (Guardar/Modificar) a la entidad Equipo
         return modelMapper.map(dto, Equipo.class);
     }
 
+    // La restricción uk_equipos_nombre_normalizado resuelve la carrera entre dos altas con el mismo nombre
+    // (y cubre los equipos con borrado suave, que la consulta previa no ve)
+    private Equipo guardarConNombreUnico(Equipo equipo, String mensajeDuplicado) {
+        try {
+            return equipoRepository.save(equipo);
+        } catch (DataIntegrityViolationException e) {
+            if (e.getCause() instanceof ConstraintViolationException violacion && violacion.getConstraintName() != null
+                    && violacion.getConstraintName().toLowerCase(Locale.ROOT).contains("uk_equipos_nombre_normalizado")) {
+                throw new IllegalArgumentException(mensajeDuplicado);
+            }
+            throw e;
+        }
+    }
+
+    // Mapea y notifica el cambio (cachés e índices escuchan estos eventos)
+    private EquipoSalidaDto publicar(TipoEventoEquipo tipo, Equipo equipo) {
+        EquipoSalidaDto dto = mapToDto(equipo);
+        eventPublisher.publishEvent(new EquipoEvento(tipo, dto.getId(), dto));
+        return dto;
+    }
+
 
     @Override
     public List<EquipoSalidaDto> obtenerTodos() {
@@ -53,22 +152,109 @@ public class EquipoService implements IEquipoService {
 
     @Override
     public Optional<EquipoSalidaDto> obtenerPorId(Integer id) {
-        return equipoRepository.findById(id).map(this::mapToDto);
+        Optional<EquipoSalidaDto> enCache = equipoCache.obtener(id);
+        if (enCache.isPresent()) {
+            return enCache;
+        }
+        // Las solicitudes simultáneas por el mismo equipo comparten una sola carga
+        return coalescedor.ejecutar("equipo", id, null, () -> {
+            long generacion = equipoCache.generacion(id);
+            Optional<EquipoSalidaDto> equipo = equipoRepository.findById(id).map(this::mapToDto);
+            if (equipo.isEmpty()) {
+                // Historial: el equipo pudo haberse movido al archivo por inactividad
+                equipo = equipoArchivadoRepository.findById(id).map(a -> modelMapper.map(a, EquipoSalidaDto.class));
+            }
+            equipo.ifPresent(dto -> equipoCache.guardarSiVigente(dto, generacion));
+            return equipo;
+        });
+    }
+
+    @Override
+    public Optional<EquipoPlantillaSalidaDto> obtenerPlantilla(Integer equipoId) {
+        return plantillaCache.obtener(equipoId, () -> obtenerPorId(equipoId).map(equipo -> {
+            List<MiembroPlantillaProyeccion> miembros = miembroEquipoRepository.findPlantillaByEquipoId(equipoId);
+            if (miembros.isEmpty() && equipoArchivadoRepository.existsById(equipoId)) {
+                // Equipo archivado: sus membresías se movieron junto con él. Un equipo vigente sin
+                // miembros devuelve su plantilla vacía sin tocar las tablas de historial.
+                miembros = miembroArchivadoRepository.findPlantillaByEquipoId(equipoId);
+            }
+            return new PlantillaCache.Datos(equipo, miembros);
+        }));
+    }
+
+    @Override
+    public EquipoLoteSalidaDto<EquipoSalidaDto> obtenerLote(List<Integer> ids) {
+        return armarLote(ids, dto -> dto);
+    }
+
+    @Override
+    public EquipoLoteSalidaDto<EquipoReferenciaDto> obtenerLoteCompacto(List<Integer> ids) {
+        return armarLote(ids, dto -> modelMapper.map(dto, EquipoReferenciaDto.class));
+    }
+
+    private <T> EquipoLoteSalidaDto<T> armarLote(List<Integer> ids, Function<EquipoSalidaDto, T> forma) {
+        // 1. Quitar repetidos conservando el orden de la solicitud
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Los IDs no pueden ser nulos.");
+        }
+        LinkedHashSet<Integer> idsUnicos = new LinkedHashSet<>(ids);
+        if (idsUnicos.size() > maxIdsPorLote) {
+            throw new IllegalArgumentException("Se permiten como máximo " + maxIdsPorLote + " IDs por lote.");
+        }
+
+        // 2. Resolver primero desde la caché
+        Map<Integer, EquipoSalidaDto> encontrados = new HashMap<>(equipoCache.obtenerPresentes(idsUnicos));
+
+        // 3. Cargar el resto con una sola consulta (generaciones leídas antes, para no reponer datos viejos)
+        Map<Integer, Long> generaciones = new HashMap<>();
+        for (Integer id : idsUnicos) {
+            if (!encontrados.containsKey(id)) {
+                generaciones.put(id, equipoCache.generacion(id));
+            }
+        }
+        if (!generaciones.isEmpty()) {
+            for (Equipo equipo : equipoRepository.findAllById(generaciones.keySet())) {
+                EquipoSalidaDto dto = mapToDto(equipo);
+                equipoCache.guardarSiVigente(dto, generaciones.get(dto.getId()));
+                encontrados.put(dto.getId(), dto);
+            }
+        }
+
+        // 4. Armar la respuesta en el orden pedido
+        List<T> equipos = new ArrayList<>(idsUnicos.size());
+        List<Integer> idsNoEncontrados = new ArrayList<>();
+        for (Integer id : idsUnicos) {
+            EquipoSalidaDto dto = encontrados.get(id);
+            if (dto == null) {
+                idsNoEncontrados.add(id);
+            } else {
+                equipos.add(forma.apply(dto));
+            }
+        }
+
+        EquipoLoteSalidaDto<T> lote = new EquipoLoteSalidaDto<>();
+        lote.setEquipos(equipos);
+        lote.setIdsNoEncontrados(idsNoEncontrados);
+        return lote;
     }
 
     @Override
     public EquipoSalidaDto crear(EquipoGuardarDto equipoGuardarDto) {
-        // 1. Validación de unicidad
-        if (equipoRepository.existsByNombreIgnoreCase(equipoGuardarDto.getNombre())) {
+        // 1. Validación de unicidad: el filtro de Bloom descarta sin consulta los nombres que no existen
+        String nombreNormalizado = Textos.normalizar(equipoGuardarDto.getNombre());
+        if (filtroNombres.puedeExistir(nombreNormalizado) && equipoRepository.existsByNombreNormalizado(nombreNormalizado)) {
             throw new IllegalArgumentException("Ya existe un equipo con el nombre: " + equipoGuardarDto.getNombre());
         }
 
-        // 2. Mapeo y creación
+        // 2. Validar las claves foráneas externas (creador y tipo de deporte)
+        validacionReferencias.validar(List.of(equipoGuardarDto.getCreadoPor()), equipoGuardarDto.getTipoDeporteId());
+
+        // 3. Mapeo y creación
         Equipo equipo = mapToEntity(equipoGuardarDto);
         equipo.setId(null); // Asegurar que es una nueva entidad
 
-        Equipo guardado = equipoRepository.save(equipo);
-        return mapToDto(guardado);
+        Equipo guardado = guardarConNombreUnico(equipo, "Ya existe un equipo con el nombre: " + equipoGuardarDto.getNombre());
+        return publicar(TipoEventoEquipo.CREADO, guardado);
     }
 
     @Override
@@ -76,25 +262,27 @@ public class EquipoService implements IEquipoService {
         Equipo existente = equipoRepository.findById(equipoModificarDto.getId())
                 .orElseThrow(() -> new NoSuchElementException("Equipo no encontrado con ID: " + equipoModificarDto.getId()));
 
-        // 1. Validación de unicidad al editar
-        Optional<Equipo> equipoMismoNombre = equipoRepository.findByNombreIgnoreCase(equipoModificarDto.getNombre());
-        if (equipoMismoNombre.isPresent() && !equipoMismoNombre.get().getId().equals(equipoModificarDto.getId())) {
-            throw new IllegalArgumentException("Ya existe otro equipo con el nombre: " + equipoModificarDto.getNombre());
+        // 1. Validación de unicidad al editar (solo si el nombre normalizado cambia)
+        String nombreNormalizado = Textos.normalizar(equipoModificarDto.getNombre());
+        if (nombreNormalizado != null && !nombreNormalizado.equals(existente.getNombreNormalizado())
+                && filtroNombres.puedeExistir(nombreNormalizado)) {
+            Optional<Equipo> equipoMismoNombre = equipoRepository.findByNombreNormalizado(nombreNormalizado);
+            if (equipoMismoNombre.isPresent() && !equipoMismoNombre.get().getId().equals(equipoModificarDto.getId())) {
+                throw new IllegalArgumentException("Ya existe otro equipo con el nombre: " + equipoModificarDto.getNombre());
+            }
         }
 
         // 2. Mapear los campos actualizados al existente (ModelMapper se encarga de ignorar nulos y actualizar lo necesario)
         modelMapper.map(equipoModificarDto, existente);
 
-        Equipo actualizado = equipoRepository.save(existente);
-        return mapToDto(actualizado);
+        Equipo actualizado = guardarConNombreUnico(existente, "Ya existe otro equipo con el nombre: " + equipoModificarDto.getNombre());
+        return publicar(TipoEventoEquipo.MODIFICADO, actualizado);
     }
 
     @Override
     public void eliminarPorId(Integer id) {
-        if (!equipoRepository.existsById(id)) {
-            throw new NoSuchElementException("Equipo no encontrado con ID: " + id);
-        }
-        equipoRepository.deleteById(id);
+        // DELETE por conjuntos de invitaciones, membresías y equipo (sin cargar la colección de miembros)
+        eliminacionEquipoService.eliminar(id);
     }
 
     @Override
@@ -104,50 +292,69 @@ public class EquipoService implements IEquipoService {
 
         existente.setEstaActivo(activarEquipoDto.getEstaActivo());
         Equipo actualizado = equipoRepository.save(existente);
-        return mapToDto(actualizado);
+        return publicar(TipoEventoEquipo.MODIFICADO, actualizado);
     }
 
     @Override
     public Page<EquipoSalidaDto> obtenerEquiposPaginadosYFiltrados(Optional<String> busqueda, Pageable pageable) {
         // Establecer el orden descendente por ID si no se especifica
-        Sort sort = pageable.getSort().isUnsorted() ? Sort.by("id").descending() : pageable.getSort();
-        Pageable sortedPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+        Pageable sortedPageable = ordenPorDefecto(pageable);
 
-        Page<Equipo> equipoPage;
         String busquedaTexto = busqueda.orElse("").trim();
 
-        if (busquedaTexto.isEmpty()) {
-            // Sin búsqueda, obtener todos paginados
-            equipoPage = equipoRepository.findAll(sortedPageable);
-        } else {
-            // Con búsqueda (por Nombre o Ciudad)
-            equipoPage = equipoRepository.findByNombreContainingIgnoreCaseOrCiudadContainingIgnoreCase(
-                busquedaTexto, busquedaTexto, sortedPageable
-            );
-        }
-
-        return equipoPage.map(this::mapToDto);
+        return coalescedor.ejecutar("equipos.listado", null, List.of(busquedaTexto, sortedPageable), () -> {
+            Page<Equipo> equipoPage;
+            if (busquedaTexto.isEmpty()) {
+                // Sin búsqueda, obtener todos paginados
+                equipoPage = equipoRepository.findAll(sortedPageable);
+            } else {
+                // Con búsqueda (por Nombre o Ciudad)
+                equipoPage = equipoRepository.findByNombreContainingIgnoreCaseOrCiudadContainingIgnoreCase(
+                    busquedaTexto, busquedaTexto, sortedPageable
+                );
+            }
+            return equipoPage.map(this::mapToDto);
+        });
     }
 
     @Override
     public Page<EquipoSalidaDto> obtenerEquiposPorTipoDeporte(Integer tipoDeporteId, Pageable pageable) {
-        Sort sort = pageable.getSort().isUnsorted() ? Sort.by("id").descending() : pageable.getSort();
-        Pageable sortedPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
-
-        Page<Equipo> equipoPage = equipoRepository.findByTipoDeporteId(tipoDeporteId, sortedPageable);
+        Pageable sortedPageable = ordenPorDefecto(pageable);
 
-        return equipoPage.map(this::mapToDto);
+        return coalescedor.ejecutar("equipos.deporte", null, List.of(tipoDeporteId, sortedPageable),
+                () -> equipoRepository.findByTipoDeporteId(tipoDeporteId, sortedPageable).map(this::mapToDto));
     }
 
     @Override
     public Page<EquipoSalidaDto> obtenerEquiposPorCalificacionMinima(Double calificacionMinima, Pageable pageable) {
-        Sort sort = pageable.getSort().isUnsorted() ? Sort.by("id").descending() : pageable.getSort();
-        Pageable sortedPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+        Pageable sortedPageable = ordenPorDefecto(pageable);
 
-        Page<Equipo> equipoPage = equipoRepository.findByCalificacionPromedioGreaterThanEqual(calificacionMinima, sortedPageable);
+        return coalescedor.ejecutar("equipos.calificacion", null, List.of(calificacionMinima, sortedPageable),
+                () -> equipoRepository.findByCalificacionPromedioGreaterThanEqual(calificacionMinima, sortedPageable).map(this::mapToDto));
+    }
+    @Override
+    public Page<EquipoSalidaDto> buscarEquipos(EquipoBusquedaDto criterios, Pageable pageable) {
+        Pageable sortedPageable = ordenPorDefecto(pageable);
 
-        return equipoPage.map(this::mapToDto);
+        return equipoRepository.buscar(criterios, sortedPageable).map(this::mapToDto);
     }
+
+    @Override
+    public List<EquipoMatchmakingDto> buscarEquiposDisponibles(EquipoMatchmakingConsultaDto consulta) {
+        if (!indiceMatchmaking.estaListo()) {
+            throw new IllegalStateException("El índice de matchmaking aún se está cargando. Intente en unos segundos.");
+        }
+        return indiceMatchmaking.buscar(consulta);
+    }
+
+    @Override
+    public EquipoFacetasSalidaDto obtenerFacetas(EquipoFacetasConsultaDto consulta) {
+        if (!indiceFacetas.estaListo()) {
+            throw new IllegalStateException("Las facetas de equipos aún se están cargando. Intente en unos segundos.");
+        }
+        return indiceFacetas.contar(consulta);
+    }
+
     @Override
     public EquipoSalidaDto cambiarEstadoAprobacion(AprobarEquipoDto aprobarEquipoDto) {
         Equipo existente = equipoRepository.findById(aprobarEquipoDto.getId())
@@ -157,10 +364,14 @@ public class EquipoService implements IEquipoService {
         existente.setRequiereAprobacion(aprobarEquipoDto.getRequiereAprobacion());
 
         Equipo actualizado = equipoRepository.save(existente);
-        return mapToDto(actualizado);
+        return publicar(TipoEventoEquipo.MODIFICADO, actualizado);
     }
     @Override
     public Page<EquipoSalidaDto> obtenerEquiposPorUsuario(Integer usuarioId, Pageable pageable) {
+        if (usarIndiceMembresias(pageable)) {
+            return obtenerEquiposPorUsuarioDesdeIndice(usuarioId, pageable);
+        }
+
         // 1. Obtener la página de IDs de equipos a los que pertenece el usuario.
         // Se usa el repositorio de Miembros para filtrar.
         Page<Integer> equipoIdsPage = miembroEquipoRepository.findEquipoIdsByUsuarioIdAndEstadoActivo(usuarioId, pageable);
@@ -174,10 +385,14 @@ public class EquipoService implements IEquipoService {
         List<Integer> equipoIds = equipoIdsPage.getContent();
 
         // 4. Obtener todos los objetos Equipo completos de la base de datos.
-        List<Equipo> equipos = equipoRepository.findAllById(equipoIds);
-
-        // 5. Mapear las entidades Equipo a DTOs de salida.
-        List<EquipoSalidaDto> dtos = equipos.stream()
+        Map<Integer, Equipo> equiposPorId = equipoRepository.findAllById(equipoIds).stream()
+                .collect(Collectors.toMap(Equipo::getId, e -> e));
+
+        // 5. Mapear las entidades Equipo a DTOs de salida, en el orden de la página de IDs
+        // (findAllById no lo conserva y es el que refleja el sort pedido).
+        List<EquipoSalidaDto> dtos = equipoIds.stream()
+                .map(equiposPorId::get)
+                .filter(Objects::nonNull)
                 .map(this::mapToDto)
                 .collect(Collectors.toList());
 
@@ -185,4 +400,111 @@ public class EquipoService implements IEquipoService {
         // de la consulta original de IDs.
         return new PageImpl<>(dtos, pageable, equipoIdsPage.getTotalElements());
     }
-}
\ No newline at end of file
+
+    /**
+     * El bitmap solo conoce los IDs de equipo (ascendentes): sirve para las solicitudes sin orden. Un
+     * sort pedido se refiere a propiedades de la membresía (fechaUnion, id, ...) y lo resuelve la consulta.
+     */
+    private boolean usarIndiceMembresias(Pageable pageable) {
+        return indiceMembresias.estaListo() && pageable.getSort().isUnsorted();
+    }
+
+    private Page<EquipoSalidaDto> obtenerEquiposPorUsuarioDesdeIndice(Integer usuarioId, Pageable pageable) {
+        // 1. IDs (ascendentes) y total salen del bitmap del usuario: sin consulta de IDs ni COUNT
+        int[] equipoIds = indiceMembresias.equiposDeUsuario(usuarioId);
+        if (pageable.isUnpaged()) {
+            pageable = PageRequest.of(0, Math.max(1, equipoIds.length));
+        }
+        int desde = (int) Math.min(pageable.getOffset(), equipoIds.length);
+        int hasta = Math.min(desde + pageable.getPageSize(), equipoIds.length);
+        if (desde == hasta) {
+            return new PageImpl<>(List.of(), pageable, equipoIds.length);
+        }
+
+        List<Integer> idsPagina = new ArrayList<>(hasta - desde);
+        for (int i = desde; i < hasta; i++) {
+            idsPagina.add(equipoIds[i]);
+        }
+
+        // 2. Una sola consulta para los equipos de la página, devueltos en el orden del índice
+        Map<Integer, Equipo> equiposPorId = equipoRepository.findAllById(idsPagina).stream()
+                .collect(Collectors.toMap(Equipo::getId, e -> e));
+        List<EquipoSalidaDto> dtos = idsPagina.stream()
+                .map(equiposPorId::get)
+                .filter(Objects::nonNull)
+                .map(this::mapToDto)
+                .collect(Collectors.toList());
+
+        return new PageImpl<>(dtos, pageable, equipoIds.length);
+    }
+
+    // --- Listados Slice (sin COUNT) ---
+
+    private SliceSalidaDto<EquipoSalidaDto> aSlice(Slice<Equipo> slice, boolean conTotal,
+                                                  String forma, List<?> parametros, Supplier<Long> contador) {
+        Long total = conTotal ? conteos.obtener(forma, parametros, contador) : null;
+        return SliceSalidaDto.de(slice, this::mapToDto, total);
+    }
+
+    @Override
+    public SliceSalidaDto<EquipoSalidaDto> obtenerEquiposSlice(Optional<String> busqueda, Pageable pageable, boolean conTotal) {
+        Pageable sortedPageable = ordenPorDefecto(pageable);
+        String busquedaTexto = busqueda.orElse("").trim();
+
+        if (busquedaTexto.isEmpty()) {
+            return aSlice(equipoRepository.findSliceBy(sortedPageable), conTotal,
+                    "equipos", List.of(), equipoRepository::count);
+        }
+        return aSlice(equipoRepository.findSliceByNombreContainingIgnoreCaseOrCiudadContainingIgnoreCase(
+                        busquedaTexto, busquedaTexto, sortedPageable), conTotal,
+                "equipos.busqueda", List.of(busquedaTexto),
+                () -> equipoRepository.countByNombreContainingIgnoreCaseOrCiudadContainingIgnoreCase(busquedaTexto, busquedaTexto));
+    }
+
+    @Override
+    public SliceSalidaDto<EquipoSalidaDto> obtenerEquiposPorTipoDeporteSlice(Integer tipoDeporteId, Pageable pageable, boolean conTotal) {
+        return aSlice(equipoRepository.findSliceByTipoDeporteId(tipoDeporteId, ordenPorDefecto(pageable)), conTotal,
+                "equipos.deporte", List.of(tipoDeporteId),
+                () -> equipoRepository.countByTipoDeporteId(tipoDeporteId));
+    }
+
+    @Override
+    public SliceSalidaDto<EquipoSalidaDto> obtenerEquiposPorCalificacionMinimaSlice(Double calificacionMinima, Pageable pageable, boolean conTotal) {
+        return aSlice(equipoRepository.findSliceByCalificacionPromedioGreaterThanEqual(calificacionMinima, ordenPorDefecto(pageable)), conTotal,
+                "equipos.calificacion", List.of(calificacionMinima),
+                () -> equipoRepository.countByCalificacionPromedioGreaterThanEqual(calificacionMinima));
+    }
+
+    @Override
+    public SliceSalidaDto<EquipoSalidaDto> buscarEquiposSlice(EquipoBusquedaDto criterios, Pageable pageable, boolean conTotal) {
+        List<Object> parametros = Arrays.asList(criterios.getTexto(), criterios.getTextoContiene(), criterios.getTipoDeporteId(),
+                criterios.getNivel(), criterios.getCiudad(), criterios.getCalificacionMinima(),
+                criterios.getEstaActivo(), criterios.getCreadoPor());
+        return aSlice(equipoRepository.buscarSlice(criterios, ordenPorDefecto(pageable)), conTotal,
+                "equipos.busqueda-combinada", parametros,
+                () -> equipoRepository.contar(criterios));
+    }
+
+    @Override
+    public SliceSalidaDto<EquipoSalidaDto> obtenerEquiposPorUsuarioSlice(Integer usuarioId, Pageable pageable, boolean conTotal) {
+        if (usarIndiceMembresias(pageable)) {
+            // El índice ya conoce el total exacto sin consultar la base de datos
+            Page<EquipoSalidaDto> pagina = obtenerEquiposPorUsuarioDesdeIndice(usuarioId, pageable);
+            SliceSalidaDto<EquipoSalidaDto> dto = SliceSalidaDto.de(pagina, e -> e, conTotal ? pagina.getTotalElements() : null);
+            dto.setTotalEsAproximado(false);
+            return dto;
+        }
+
+        Slice<Integer> equipoIdsSlice = miembroEquipoRepository.findSliceEquipoIdsByUsuarioIdAndEstadoActivo(usuarioId, pageable);
+        Map<Integer, Equipo> equiposPorId = equipoRepository.findAllById(equipoIdsSlice.getContent()).stream()
+                .collect(Collectors.toMap(Equipo::getId, e -> e));
+        List<Equipo> equipos = equipoIdsSlice.getContent().stream()
+                .map(equiposPorId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        return aSlice(new SliceImpl<>(equipos, pageable, equipoIdsSlice.hasNext()), conTotal,
+                "equipos.usuario", List.of(usuarioId),
+                () -> miembroEquipoRepository.countByUsuarioIdAndEstado(usuarioId, EstadoMiembro.ACTIVO));
+    }
+}
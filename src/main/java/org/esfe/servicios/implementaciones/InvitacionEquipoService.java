@@ -1,19 +1,28 @@
 package org.esfe.servicios.implementaciones;
 
+import org.esfe.cache.ConteoAproximadoCache;
 import org.esfe.dtos.invitacion.InvitacionCrearDto;
 import org.esfe.dtos.invitacion.InvitacionResponderDto;
 import org.esfe.dtos.invitacion.InvitacionSalidaDto;
 import org.esfe.dtos.equipo.EquipoReferenciaDto;
+import org.esfe.dtos.paginacion.SliceSalidaDto;
 import org.esfe.enums.EstadoInvitacion;
+import org.esfe.enums.EstadoMiembro;
+import org.esfe.enums.TipoEventoInvitacion;
+import org.esfe.eventos.InvitacionEvento;
 import org.esfe.modelos.Equipo;
 import org.esfe.modelos.InvitacionEquipo;
+import org.esfe.repositorios.IEquipoArchivadoRepository;
 import org.esfe.repositorios.IEquipoRepository;
+import org.esfe.repositorios.IInvitacionEquipoArchivadaRepository;
 import org.esfe.repositorios.IInvitacionEquipoRepository;
 import org.esfe.repositorios.IMiembroEquipoRepository;
 import org.esfe.servicios.interfaces.IInvitacionEquipoService;
 import org.esfe.servicios.interfaces.IMiembroEquipoService;
+import org.esfe.servicios.interfaces.IValidacionReferenciasService;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -32,6 +41,11 @@ public class InvitacionEquipoService implements IInvitacionEquipoService {
     private final IMiembroEquipoService miembroEquipoService;
     private final IMiembroEquipoRepository miembroEquipoRepository;
     private final ModelMapper modelMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final IValidacionReferenciasService validacionReferencias;
+    private final ConteoAproximadoCache conteos;
+    private final IInvitacionEquipoArchivadaRepository invitacionArchivadaRepository;
+    private final IEquipoArchivadoRepository equipoArchivadoRepository;
 
     @Autowired
     public InvitacionEquipoService(
@@ -39,12 +53,22 @@ public class InvitacionEquipoService implements IInvitacionEquipoService {
             IEquipoRepository equipoRepository,
             IMiembroEquipoService miembroEquipoService,
             IMiembroEquipoRepository miembroEquipoRepository,
-            ModelMapper modelMapper) {
+            ModelMapper modelMapper,
+            ApplicationEventPublisher eventPublisher,
+            IValidacionReferenciasService validacionReferencias,
+            ConteoAproximadoCache conteos,
+            IInvitacionEquipoArchivadaRepository invitacionArchivadaRepository,
+            IEquipoArchivadoRepository equipoArchivadoRepository) {
         this.invitacionRepository = invitacionRepository;
         this.equipoRepository = equipoRepository;
         this.miembroEquipoService = miembroEquipoService;
         this.miembroEquipoRepository = miembroEquipoRepository;
         this.modelMapper = modelMapper;
+        this.eventPublisher = eventPublisher;
+        this.validacionReferencias = validacionReferencias;
+        this.conteos = conteos;
+        this.invitacionArchivadaRepository = invitacionArchivadaRepository;
+        this.equipoArchivadoRepository = equipoArchivadoRepository;
     }
 
     //  Mapeadores 
@@ -69,7 +93,20 @@ public class InvitacionEquipoService implements IInvitacionEquipoService {
 
     @Override
     public Optional<InvitacionSalidaDto> obtenerPorId(Integer id) {
-        return invitacionRepository.findById(id).map(this::mapToDto);
+        Optional<InvitacionSalidaDto> activa = invitacionRepository.findById(id).map(this::mapToDto);
+        if (activa.isPresent()) {
+            return activa;
+        }
+        // Historial: la invitación pudo haberse movido al archivo
+        return invitacionArchivadaRepository.findById(id).map(archivada -> {
+            InvitacionSalidaDto dto = modelMapper.map(archivada, InvitacionSalidaDto.class);
+            dto.setEquipo(equipoRepository.findById(archivada.getEquipoId())
+                    .map(e -> modelMapper.map(e, EquipoReferenciaDto.class))
+                    .or(() -> equipoArchivadoRepository.findById(archivada.getEquipoId())
+                            .map(e -> modelMapper.map(e, EquipoReferenciaDto.class)))
+                    .orElse(null));
+            return dto;
+        });
     }
 
     @Override
@@ -92,28 +129,36 @@ public class InvitacionEquipoService implements IInvitacionEquipoService {
         }
 
         // 4. Validación de Cupo
-        long miembrosActuales = miembroEquipoRepository.countByEquipoIdAndEstado(dto.getEquipoId(), "activo");
+        long miembrosActuales = miembroEquipoRepository.countByEquipoIdAndEstado(dto.getEquipoId(), EstadoMiembro.ACTIVO);
         if (miembrosActuales >= equipo.getMaxMiembros()) {
             throw new IllegalStateException(
                     "El equipo ya alcanzó su límite máximo de miembros. No se puede enviar la invitación.");
         }
 
-        // 5. Mapeo y creación
+        // 5. Validar que invitado y remitente existan en la API de Usuarios
+        validacionReferencias.validar(List.of(dto.getUsuarioInvitadoId(), dto.getUsuarioRemitenteId()), null);
+
+        // 6. Mapeo y creación
         InvitacionEquipo nuevaInvitacion = modelMapper.map(dto, InvitacionEquipo.class);
         nuevaInvitacion.setEquipo(equipo); // Asignar la entidad Equipo
 
         InvitacionEquipo guardada = invitacionRepository.save(nuevaInvitacion);
-        return mapToDto(guardada);
+        InvitacionSalidaDto salida = mapToDto(guardada);
+        eventPublisher.publishEvent(new InvitacionEvento(TipoEventoInvitacion.CREADA, salida));
+        return salida;
     }
 
     @Override
-    public void eliminarPorId(Integer id) {
-        if (!invitacionRepository.existsById(id)) {
-            throw new NoSuchElementException("Invitación no encontrada con ID: " + id);
-        }
+    public void eliminarPorId(Integer id, Integer usuarioActorId) {
+        InvitacionEquipo invitacion = invitacionRepository.findById(id)
+                .orElseThrow(() -> new NoSuchElementException("Invitación no encontrada con ID: " + id));
         // Se puede añadir lógica de negocio aquí (ej. verificar permisos del usuario
         // que elimina)
-        invitacionRepository.deleteById(id);
+        // Mismo DTO que los demás eventos del stream (mensaje y equipo completo); el equipo suele salir
+        // de la caché de segundo nivel
+        InvitacionSalidaDto salida = mapToDto(invitacion);
+        invitacionRepository.delete(invitacion);
+        eventPublisher.publishEvent(new InvitacionEvento(TipoEventoInvitacion.CANCELADA, salida, usuarioActorId));
     }
 
     //  2. Lógica de Negocio Crucial: Responder Invitación 
@@ -166,7 +211,7 @@ public class InvitacionEquipoService implements IInvitacionEquipoService {
 
             // a. VALIDACIÓN CLAVE: Verificar si el equipo está lleno
             Equipo equipo = invitacion.getEquipo();
-            long miembrosActivos = miembroEquipoRepository.countByEquipoIdAndEstado(equipo.getId(), "activo");
+            long miembrosActivos = miembroEquipoRepository.countByEquipoIdAndEstado(equipo.getId(), EstadoMiembro.ACTIVO);
 
             if (miembrosActivos >= equipo.getMaxMiembros()) {
                 // Se lanza una excepción para notificar al usuario (más limpio que marcar como
@@ -196,7 +241,13 @@ public class InvitacionEquipoService implements IInvitacionEquipoService {
         invitacion.setFechaRespuesta(LocalDateTime.now());
 
         InvitacionEquipo actualizada = invitacionRepository.save(invitacion);
-        return mapToDto(actualizada);
+        InvitacionSalidaDto salida = mapToDto(actualizada);
+
+        TipoEventoInvitacion tipoEvento = actualizada.getEstado() == EstadoInvitacion.CANCELADA
+                ? TipoEventoInvitacion.CANCELADA
+                : TipoEventoInvitacion.RESPONDIDA;
+        eventPublisher.publishEvent(new InvitacionEvento(tipoEvento, salida));
+        return salida;
     }
 
     @Override
@@ -230,4 +281,39 @@ public class InvitacionEquipoService implements IInvitacionEquipoService {
 
         return invitacionesPage.map(this::mapToDto);
     }
-}
\ No newline at end of file
+
+    @Override
+    public SliceSalidaDto<InvitacionSalidaDto> obtenerInvitacionesPorUsuarioYEstadoSlice(
+            Integer usuarioInvitadoId,
+            EstadoInvitacion estado,
+            Pageable pageable,
+            boolean conTotal) {
+        Long total = conTotal
+                ? conteos.obtener("invitaciones.usuario", List.of(usuarioInvitadoId, estado),
+                        () -> invitacionRepository.countByUsuarioInvitadoIdAndEstado(usuarioInvitadoId, estado))
+                : null;
+        return SliceSalidaDto.de(invitacionRepository
+                .findSliceByUsuarioInvitadoIdAndEstadoOrderByFechaCreacionDesc(usuarioInvitadoId, estado, pageable), this::mapToDto, total);
+    }
+
+    @Override
+    public SliceSalidaDto<InvitacionSalidaDto> obtenerInvitacionesPorEquipoSlice(Integer equipoId, Pageable pageable, boolean conTotal) {
+        Long total = conTotal
+                ? conteos.obtener("invitaciones.equipo", List.of(equipoId), () -> invitacionRepository.countByEquipoId(equipoId))
+                : null;
+        return SliceSalidaDto.de(invitacionRepository.findSliceByEquipoId(equipoId, pageable), this::mapToDto, total);
+    }
+
+    @Override
+    public SliceSalidaDto<InvitacionSalidaDto> obtenerPaginadoYFiltradoSlice(Optional<String> busquedaMensaje, Pageable pageable, boolean conTotal) {
+        if (busquedaMensaje.isPresent() && !busquedaMensaje.get().isEmpty()) {
+            String mensaje = busquedaMensaje.get();
+            Long total = conTotal
+                    ? conteos.obtener("invitaciones.mensaje", List.of(mensaje), () -> invitacionRepository.countByMensajeContainingIgnoreCase(mensaje))
+                    : null;
+            return SliceSalidaDto.de(invitacionRepository.findSliceByMensajeContainingIgnoreCase(mensaje, pageable), this::mapToDto, total);
+        }
+        Long total = conTotal ? conteos.obtener("invitaciones", List.of(), invitacionRepository::count) : null;
+        return SliceSalidaDto.de(invitacionRepository.findSliceBy(pageable), this::mapToDto, total);
+    }
+}
@@ -0,0 +1,257 @@
+package org.esfe.servicios.implementaciones;
+
+import jakarta.annotation.PreDestroy;
+import org.esfe.eventos.InvitacionEvento;
+import org.esfe.servicios.interfaces.IInvitacionStreamService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class InvitacionStreamService implements IInvitacionStreamService {
+
+    private static final String EVENTO_REINICIO = "reinicio";
+
+    private final int capacidadBuffer;
+    private final int historialPorUsuario;
+    private final long heartbeatMillis;
+    private final long timeoutMillis;
+
+    // Secuencia global: los IDs de evento son crecientes para todos los usuarios. Se reinicia con la
+    // aplicación, por eso cada ID lleva además el prefijo de esta instancia ("<instancia>-<secuencia>").
+    private final AtomicLong secuencia = new AtomicLong();
+    private final String instancia = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<Integer, Buzon> buzones = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService planificador;
+
+    public InvitacionStreamService(
+            @Value("${invitaciones.stream.capacidad-buffer:64}") int capacidadBuffer,
+            @Value("${invitaciones.stream.historial-por-usuario:100}") int historialPorUsuario,
+            @Value("${invitaciones.stream.heartbeat-segundos:25}") long heartbeatSegundos,
+            @Value("${invitaciones.stream.timeout-minutos:30}") long timeoutMinutos) {
+        this.capacidadBuffer = capacidadBuffer;
+        this.historialPorUsuario = historialPorUsuario;
+        this.heartbeatMillis = Duration.ofSeconds(heartbeatSegundos).toMillis();
+        this.timeoutMillis = Duration.ofMinutes(timeoutMinutos).toMillis();
+
+        this.planificador = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("sse-invitaciones-heartbeat")
+                .daemon(true)
+                .factory());
+        this.planificador.scheduleWithFixedDelay(this::enviarHeartbeats,
+                heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public SseEmitter suscribir(Integer usuarioInvitadoId, String ultimoEventoId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Conexion conexion = new Conexion(emitter);
+        Buzon buzon = buzones.computeIfAbsent(usuarioInvitadoId, id -> new Buzon(secuencia.get()));
+
+        emitter.onCompletion(() -> buzon.quitar(conexion));
+        emitter.onTimeout(() -> buzon.quitar(conexion));
+        emitter.onError(e -> buzon.quitar(conexion));
+
+        // Registro y reenvío bajo el mismo candado que la publicación: no se pierden ni se
+        // reordenan eventos entre el historial y los nuevos.
+        synchronized (buzon) {
+            buzon.conexiones.add(conexion);
+            if (ultimoEventoId != null) {
+                long ultimoVisto = secuenciaDe(ultimoEventoId);
+                if (ultimoVisto < buzon.descartadoHasta) {
+                    // Otra instancia (reinicio) o eventos que ya salieron del historial: no se puede
+                    // reanudar sin huecos, el cliente debe volver a consultar sus invitaciones.
+                    conexion.encolar(SseEmitter.event()
+                            .id(idEvento(buzon.ultimoId))
+                            .name(EVENTO_REINICIO)
+                            .data("historial-incompleto")
+                            .build());
+                } else {
+                    for (EventoRegistrado registrado : buzon.historial) {
+                        if (registrado.id() > ultimoVisto) {
+                            conexion.encolar(registrado.datos());
+                        }
+                    }
+                }
+            }
+        }
+
+        conexion.iniciar();
+        return emitter;
+    }
+
+    @EventListener
+    public void alPublicarseInvitacion(InvitacionEvento evento) {
+        Integer usuarioInvitadoId = evento.getInvitacion().getUsuarioInvitadoId();
+        long id = secuencia.incrementAndGet();
+
+        Set<ResponseBodyEmitter.DataWithMediaType> datos = SseEmitter.event()
+                .id(idEvento(id))
+                .name(evento.getTipo().name().toLowerCase())
+                .data(evento.getInvitacion(), MediaType.APPLICATION_JSON)
+                .build();
+
+        Buzon buzon = buzones.computeIfAbsent(usuarioInvitadoId, u -> new Buzon(id - 1));
+        synchronized (buzon) {
+            buzon.historial.addLast(new EventoRegistrado(id, datos));
+            buzon.ultimoId = Math.max(buzon.ultimoId, id);
+            while (buzon.historial.size() > historialPorUsuario) {
+                buzon.descartadoHasta = buzon.historial.removeFirst().id();
+            }
+            buzon.ultimaActividad = System.currentTimeMillis();
+            for (Conexion conexion : buzon.conexiones) {
+                conexion.encolar(datos);
+            }
+        }
+    }
+
+    private void enviarHeartbeats() {
+        long ahora = System.currentTimeMillis();
+        Set<ResponseBodyEmitter.DataWithMediaType> ping = SseEmitter.event().comment("ping").build();
+
+        Iterator<Map.Entry<Integer, Buzon>> it = buzones.entrySet().iterator();
+        while (it.hasNext()) {
+            Buzon buzon = it.next().getValue();
+            synchronized (buzon) {
+                // Se descartan los buzones sin conexiones cuyo historial ya no sirve para reanudar
+                if (buzon.conexiones.isEmpty() && ahora - buzon.ultimaActividad > timeoutMillis) {
+                    it.remove();
+                    continue;
+                }
+                for (Conexion conexion : buzon.conexiones) {
+                    if (ahora - conexion.ultimoEnvio >= heartbeatMillis) {
+                        conexion.encolar(ping);
+                    }
+                }
+            }
+        }
+    }
+
+    private String idEvento(long id) {
+        return instancia + "-" + id;
+    }
+
+    /**
+     * Secuencia de un Last-Event-ID emitido por esta instancia; -1 si es de otra (o no se reconoce),
+     * lo que siempre cae por debajo de lo que el buzón puede garantizar.
+     */
+    private long secuenciaDe(String ultimoEventoId) {
+        String prefijo = instancia + "-";
+        if (!ultimoEventoId.startsWith(prefijo)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(ultimoEventoId.substring(prefijo.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        planificador.shutdownNow();
+        buzones.values().forEach(buzon -> buzon.conexiones.forEach(Conexion::cerrar));
+        buzones.clear();
+    }
+
+    private record EventoRegistrado(long id, Set<ResponseBodyEmitter.DataWithMediaType> datos) {
+    }
+
+    /**
+     * Conexiones abiertas e historial reciente de un usuario.
+     */
+    private static class Buzon {
+        private final CopyOnWriteArrayList<Conexion> conexiones = new CopyOnWriteArrayList<>();
+        private final ArrayDeque<EventoRegistrado> historial = new ArrayDeque<>();
+        private volatile long ultimaActividad = System.currentTimeMillis();
+        // Hasta qué secuencia no se puede garantizar el historial: lo anterior a la creación del buzón
+        // (pudo existir otro ya descartado) y lo que se fue quitando por tamaño. Se usa bajo el candado.
+        private long descartadoHasta;
+        private long ultimoId;
+
+        private Buzon(long descartadoHasta) {
+            this.descartadoHasta = descartadoHasta;
+            this.ultimoId = descartadoHasta;
+        }
+
+        private void quitar(Conexion conexion) {
+            conexiones.remove(conexion);
+            conexion.cerrar();
+        }
+    }
+
+    /**
+     * Una conexión SSE con su buffer acotado. Un hilo virtual por conexión vacía la cola,
+     * de modo que un cliente lento nunca bloquea al publicador ni a otras conexiones.
+     */
+    private class Conexion {
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> cola;
+        private volatile Thread hilo;
+        private volatile boolean cerrada;
+        private volatile long ultimoEnvio = System.currentTimeMillis();
+
+        private Conexion(SseEmitter emitter) {
+            this.emitter = emitter;
+            this.cola = new ArrayBlockingQueue<>(capacidadBuffer);
+        }
+
+        private void iniciar() {
+            hilo = Thread.ofVirtual().name("sse-invitaciones").start(this::despachar);
+        }
+
+        private void encolar(Set<ResponseBodyEmitter.DataWithMediaType> datos) {
+            if (cerrada) {
+                return;
+            }
+            // Buffer lleno: el cliente no consume al ritmo de los eventos. Se cierra la conexión
+            // y el cliente se reconecta con Last-Event-ID para recuperar lo pendiente.
+            if (!cola.offer(datos)) {
+                emitter.complete();
+                cerrar();
+            }
+        }
+
+        private void despachar() {
+            try {
+                while (!cerrada) {
+                    Set<ResponseBodyEmitter.DataWithMediaType> datos = cola.take();
+                    emitter.send(datos);
+                    ultimoEnvio = System.currentTimeMillis();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+            } finally {
+                cerrada = true;
+            }
+        }
+
+        private void cerrar() {
+            cerrada = true;
+            Thread actual = hilo;
+            if (actual != null) {
+                actual.interrupt();
+            }
+        }
+    }
+}
@@ -1,21 +1,36 @@
 package org.esfe.servicios.implementaciones;
 
+import org.esfe.cache.CoalescedorLecturas;
+import org.esfe.cache.ConteoAproximadoCache;
 import org.esfe.dtos.equipo.EquipoReferenciaDto;
 import org.esfe.dtos.miembro.*;
+import org.esfe.dtos.paginacion.SliceSalidaDto;
+import org.esfe.enums.EstadoMiembro;
+import org.esfe.enums.RolMiembro;
+import org.esfe.enums.TipoEventoMiembro;
+import org.esfe.eventos.MiembroEvento;
+import org.esfe.indices.IndiceMembresias;
 import org.esfe.modelos.Equipo;
 import org.esfe.modelos.MiembroEquipo;
+import org.esfe.repositorios.IEquipoArchivadoRepository;
 import org.esfe.repositorios.IEquipoRepository;
+import org.esfe.repositorios.IMiembroEquipoArchivadoRepository;
 import org.esfe.repositorios.IMiembroEquipoRepository;
 import org.esfe.servicios.interfaces.IMiembroEquipoService;
+import org.esfe.servicios.interfaces.IValidacionReferenciasService;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 public class MiembroEquipoService implements IMiembroEquipoService {
@@ -23,12 +38,31 @@ public class MiembroEquipoService implements IMiembroEquipoService {
     private final IMiembroEquipoRepository miembroEquipoRepository;
     private final IEquipoRepository equipoRepository; // Necesario para obtener datos del Equipo en el DTO de salida
     private final ModelMapper modelMapper;
+    private final IValidacionReferenciasService validacionReferencias;
+    private final IndiceMembresias indiceMembresias;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ConteoAproximadoCache conteos;
+    private final IMiembroEquipoArchivadoRepository miembroArchivadoRepository;
+    private final IEquipoArchivadoRepository equipoArchivadoRepository;
+    private final CoalescedorLecturas coalescedor;
 
     @Autowired
-    public MiembroEquipoService(IMiembroEquipoRepository miembroEquipoRepository, IEquipoRepository equipoRepository, ModelMapper modelMapper) {
+    public MiembroEquipoService(IMiembroEquipoRepository miembroEquipoRepository, IEquipoRepository equipoRepository, ModelMapper modelMapper,
+                                IValidacionReferenciasService validacionReferencias, IndiceMembresias indiceMembresias,
+                                ApplicationEventPublisher eventPublisher, ConteoAproximadoCache conteos,
+                                IMiembroEquipoArchivadoRepository miembroArchivadoRepository,
+                                IEquipoArchivadoRepository equipoArchivadoRepository,
+                                CoalescedorLecturas coalescedor) {
         this.miembroEquipoRepository = miembroEquipoRepository;
         this.equipoRepository = equipoRepository;
         this.modelMapper = modelMapper;
+        this.validacionReferencias = validacionReferencias;
+        this.indiceMembresias = indiceMembresias;
+        this.eventPublisher = eventPublisher;
+        this.conteos = conteos;
+        this.miembroArchivadoRepository = miembroArchivadoRepository;
+        this.equipoArchivadoRepository = equipoArchivadoRepository;
+        this.coalescedor = coalescedor;
     }
 
     private MiembroSalidaDto mapToDto(MiembroEquipo miembro) {
@@ -64,6 +98,17 @@ public class MiembroEquipoService implements IMiembroEquipoService {
         return miembro;
     }
 
+    // Mapea y notifica el cambio (índices y cachés escuchan estos eventos)
+    private MiembroSalidaDto publicar(TipoEventoMiembro tipo, MiembroEquipo miembro, String estadoAnterior) {
+        return publicar(tipo, miembro, estadoAnterior, null);
+    }
+
+    private MiembroSalidaDto publicar(TipoEventoMiembro tipo, MiembroEquipo miembro, String estadoAnterior, Integer actorId) {
+        MiembroSalidaDto dto = mapToDto(miembro);
+        eventPublisher.publishEvent(new MiembroEvento(tipo, dto, estadoAnterior, actorId));
+        return dto;
+    }
+
     @Override
     public MiembroSalidaDto crearMembresia(MiembroCrearDto miembroCrearDto) {
         // 1. Validación de unicidad
@@ -71,23 +116,38 @@ public class MiembroEquipoService implements IMiembroEquipoService {
             throw new IllegalArgumentException("El usuario ID " + miembroCrearDto.getUsuarioId() + " ya es miembro del equipo ID " + miembroCrearDto.getEquipoId());
         }
 
-        // 2. Mapeo y creación
+        // 2. Validar que el usuario exista en la API de Usuarios
+        validacionReferencias.validar(List.of(miembroCrearDto.getUsuarioId()), null);
+
+        // 3. Mapeo y creación
         MiembroEquipo nuevoMiembro = mapToEntity(miembroCrearDto);
         nuevoMiembro.setId(null); // Asegurar que es una nueva entidad
 
         MiembroEquipo guardado = miembroEquipoRepository.save(nuevoMiembro);
-        return mapToDto(guardado);
+        return publicar(TipoEventoMiembro.CREADO, guardado, null);
     }
 
     @Override
     public Optional<MiembroSalidaDto> obtenerPorId(Integer id) {
-        return miembroEquipoRepository.findById(id).map(this::mapToDto);
+        Optional<MiembroSalidaDto> activo = miembroEquipoRepository.findById(id).map(this::mapToDto);
+        if (activo.isPresent()) {
+            return activo;
+        }
+        // Historial: la membresía pertenece a un equipo archivado
+        return miembroArchivadoRepository.findById(id).map(archivado -> {
+            MiembroSalidaDto dto = modelMapper.map(archivado, MiembroSalidaDto.class);
+            dto.setEquipo(equipoArchivadoRepository.findById(archivado.getEquipoId())
+                    .map(e -> modelMapper.map(e, EquipoReferenciaDto.class))
+                    .orElse(null));
+            return dto;
+        });
     }
 
     @Override
     public Page<MiembroSalidaDto> obtenerMiembrosPorEquipo(Integer equipoId, Pageable pageable) {
-        Page<MiembroEquipo> miembrosPage = miembroEquipoRepository.findByEquipoId(equipoId, pageable);
-        return miembrosPage.map(this::mapToDto);
+        // Plantilla de un equipo popular: las solicitudes simultáneas comparten una sola carga
+        return coalescedor.ejecutar("miembros.equipo", equipoId, pageable,
+                () -> miembroEquipoRepository.findByEquipoId(equipoId, pageable).map(this::mapToDto));
     }
 
     @Override
@@ -96,16 +156,35 @@ public class MiembroEquipoService implements IMiembroEquipoService {
         return membresiasPage.map(this::mapToDto);
     }
 
+    @Override
+    public SliceSalidaDto<MiembroSalidaDto> obtenerMiembrosPorEquipoSlice(Integer equipoId, Pageable pageable, boolean conTotal) {
+        Long total = conTotal
+                ? conteos.obtener("miembros.equipo", List.of(equipoId), () -> miembroEquipoRepository.countByEquipoId(equipoId))
+                : null;
+        return coalescedor.ejecutar("miembros.equipo.slice", equipoId, List.of(pageable, conTotal),
+                () -> SliceSalidaDto.de(miembroEquipoRepository.findSliceByEquipoId(equipoId, pageable), this::mapToDto, total));
+    }
+
+    @Override
+    public SliceSalidaDto<MiembroSalidaDto> obtenerMembresiasPorUsuarioSlice(Integer usuarioId, Pageable pageable, boolean conTotal) {
+        Long total = conTotal
+                ? conteos.obtener("miembros.usuario", List.of(usuarioId), () -> miembroEquipoRepository.countByUsuarioId(usuarioId))
+                : null;
+        return SliceSalidaDto.de(miembroEquipoRepository.findSliceByUsuarioId(usuarioId, pageable), this::mapToDto, total);
+    }
+
     @Override
     public MiembroSalidaDto editarAtributos(MiembroModificarDto miembroModificarDto) {
         MiembroEquipo existente = miembroEquipoRepository.findById(miembroModificarDto.getId())
                 .orElseThrow(() -> new NoSuchElementException("Membresía no encontrada con ID: " + miembroModificarDto.getId()));
 
+        String estadoAnterior = existente.getEstado().getValor();
+
         // Mapear los campos actualizados al existente (ModelMapper se encarga de ignorar nulos/actualizar lo necesario)
         modelMapper.map(miembroModificarDto, existente);
 
         MiembroEquipo actualizado = miembroEquipoRepository.save(existente);
-        return mapToDto(actualizado);
+        return publicar(TipoEventoMiembro.MODIFICADO, actualizado, estadoAnterior, miembroModificarDto.getUsuarioActorId());
     }
 
     @Override
@@ -113,23 +192,46 @@ public class MiembroEquipoService implements IMiembroEquipoService {
         MiembroEquipo existente = miembroEquipoRepository.findById(miembroAprobarDto.getId())
                 .orElseThrow(() -> new NoSuchElementException("Membresía no encontrada con ID: " + miembroAprobarDto.getId()));
 
+        String estadoAnterior = existente.getEstado().getValor();
+
         // 1. Actualizar el estado
-        existente.setEstado(miembroAprobarDto.getNuevoEstado());
+        existente.setEstado(EstadoMiembro.desdeValor(miembroAprobarDto.getNuevoEstado()));
 
         // 2. Opcional: Actualizar Rol y Camiseta si se proporcionan (típico al aprobar)
         if (miembroAprobarDto.getRolAsignado() != null) {
-            existente.setRol(miembroAprobarDto.getRolAsignado());
+            existente.setRol(RolMiembro.desdeValor(miembroAprobarDto.getRolAsignado()));
         }
 
         MiembroEquipo actualizado = miembroEquipoRepository.save(existente);
-        return mapToDto(actualizado);
+        return publicar(TipoEventoMiembro.MODIFICADO, actualizado, estadoAnterior, miembroAprobarDto.getUsuarioActorId());
     }
     @Override
     public void eliminarMembresia(Integer id) {
-        if (!miembroEquipoRepository.existsById(id)) {
-            throw new NoSuchElementException("Membresía no encontrada con ID: " + id);
+        MiembroEquipo existente = miembroEquipoRepository.findById(id)
+                .orElseThrow(() -> new NoSuchElementException("Membresía no encontrada con ID: " + id));
+        MiembroSalidaDto eliminado = mapToDto(existente);
+        miembroEquipoRepository.delete(existente);
+        eventPublisher.publishEvent(new MiembroEvento(TipoEventoMiembro.ELIMINADO, eliminado, eliminado.getEstado()));
+    }
+
+    @Override
+    public boolean esMiembroActivo(Integer equipoId, Integer usuarioId) {
+        if (indiceMembresias.estaListo()) {
+            return indiceMembresias.esMiembroActivo(equipoId, usuarioId);
+        }
+        return miembroEquipoRepository.findByEquipoIdAndUsuarioId(equipoId, usuarioId)
+                .map(m -> m.getEstado() == EstadoMiembro.ACTIVO)
+                .orElse(false);
+    }
+
+    @Override
+    public List<Integer> obtenerEquiposEnComun(Integer usuarioId, Integer otroUsuarioId) {
+        if (indiceMembresias.estaListo()) {
+            return Arrays.stream(indiceMembresias.equiposEnComun(usuarioId, otroUsuarioId))
+                    .boxed()
+                    .collect(Collectors.toList());
         }
-        miembroEquipoRepository.deleteById(id);
+        return miembroEquipoRepository.findEquipoIdsEnComun(usuarioId, otroUsuarioId);
     }
 
     @Override
@@ -154,13 +256,13 @@ public class MiembroEquipoService implements IMiembroEquipoService {
         nuevoMiembro.setUsuarioId(usuarioId);
         
         // Asignar valores por defecto al unirse por invitación
-        nuevoMiembro.setRol("jugador"); 
-        nuevoMiembro.setEstado("activo"); 
+        nuevoMiembro.setRol(RolMiembro.JUGADOR);
+        nuevoMiembro.setEstado(EstadoMiembro.ACTIVO);
         // La fecha_union se maneja con @PrePersist o se asigna aquí:
         nuevoMiembro.setFechaUnion(LocalDateTime.now()); 
 
         // 4. Guardar y devolver DTO
         MiembroEquipo guardado = miembroEquipoRepository.save(nuevoMiembro);
-        return mapToDto(guardado);
+        return publicar(TipoEventoMiembro.CREADO, guardado, null);
     }
 }
\ No newline at end of file
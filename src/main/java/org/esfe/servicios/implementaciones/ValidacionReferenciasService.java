@@ -0,0 +1,113 @@
+package org.esfe.servicios.implementaciones;
+
+import jakarta.annotation.PreDestroy;
+import org.esfe.clientes.CircuitoReferencias;
+import org.esfe.clientes.IReferenciasClient;
+import org.esfe.clientes.LoteadorReferencias;
+import org.esfe.clientes.ReferenciasNoDisponiblesException;
+import org.esfe.servicios.interfaces.IValidacionReferenciasService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Service
+public class ValidacionReferenciasService implements IValidacionReferenciasService {
+
+    private static final Logger log = LoggerFactory.getLogger(ValidacionReferenciasService.class);
+
+    private final boolean habilitada;
+    private final boolean permitirSiNoDisponible;
+    private final long timeoutMs;
+    private final LoteadorReferencias usuarios;
+    private final LoteadorReferencias tiposDeporte;
+
+    @Autowired
+    public ValidacionReferenciasService(
+            IReferenciasClient referenciasClient,
+            @Value("${referencias.validacion.habilitada:false}") boolean habilitada,
+            @Value("${referencias.validacion.permitir-si-no-disponible:true}") boolean permitirSiNoDisponible,
+            @Value("${referencias.timeout-ms:800}") long timeoutMs,
+            @Value("${referencias.lote.ventana-ms:5}") long ventanaMs,
+            @Value("${referencias.lote.max-ids:100}") int maxPorLote,
+            @Value("${referencias.cache.ttl-positivo-minutos:30}") long ttlPositivoMinutos,
+            @Value("${referencias.cache.ttl-negativo-segundos:30}") long ttlNegativoSegundos,
+            @Value("${referencias.cache.max-entradas:100000}") long maxEntradasCache,
+            @Value("${referencias.circuito.fallos-para-abrir:5}") int fallosParaAbrir,
+            @Value("${referencias.circuito.espera-segundos:30}") long esperaSegundos) {
+        this.habilitada = habilitada;
+        this.permitirSiNoDisponible = permitirSiNoDisponible;
+        this.timeoutMs = timeoutMs;
+
+        Duration ventana = Duration.ofMillis(ventanaMs);
+        Duration ttlPositivo = Duration.ofMinutes(ttlPositivoMinutos);
+        Duration ttlNegativo = Duration.ofSeconds(ttlNegativoSegundos);
+        Duration espera = Duration.ofSeconds(esperaSegundos);
+
+        // Un circuito por API remota: la caída de una no bloquea la otra
+        this.usuarios = new LoteadorReferencias("usuarios", referenciasClient::usuariosExistentes,
+                new CircuitoReferencias(fallosParaAbrir, espera), ventana, maxPorLote, ttlPositivo, ttlNegativo, maxEntradasCache);
+        this.tiposDeporte = new LoteadorReferencias("tipos-deporte", referenciasClient::tiposDeporteExistentes,
+                new CircuitoReferencias(fallosParaAbrir, espera), ventana, maxPorLote, ttlPositivo, ttlNegativo, maxEntradasCache);
+    }
+
+    @Override
+    public void validar(Collection<Integer> usuarioIds, Integer tipoDeporteId) {
+        if (!habilitada) {
+            return;
+        }
+
+        // 1. Lanzar todas las verificaciones antes de esperar ninguna
+        Map<String, CompletableFuture<Boolean>> verificaciones = new LinkedHashMap<>();
+        for (Integer usuarioId : usuarioIds) {
+            if (usuarioId != null) {
+                verificaciones.putIfAbsent("Usuario no encontrado con ID: " + usuarioId, usuarios.existe(usuarioId));
+            }
+        }
+        if (tipoDeporteId != null) {
+            verificaciones.put("Tipo de deporte no encontrado con ID: " + tipoDeporteId, tiposDeporte.existe(tipoDeporteId));
+        }
+
+        // 2. Esperar con un único plazo para el conjunto
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        for (Map.Entry<String, CompletableFuture<Boolean>> verificacion : verificaciones.entrySet()) {
+            Boolean existe = esperar(verificacion.getValue(), limite);
+            if (existe != null && !existe) {
+                throw new NoSuchElementException(verificacion.getKey());
+            }
+        }
+    }
+
+    // Devuelve null si la API remota no respondió y la configuración permite continuar sin validar
+    private Boolean esperar(CompletableFuture<Boolean> futuro, long limiteNanos) {
+        try {
+            return futuro.get(Math.max(0, limiteNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Validación de referencias interrumpida.", e);
+        } catch (TimeoutException | ExecutionException e) {
+            if (permitirSiNoDisponible) {
+                log.warn("Validación de referencias omitida: {}", e.getCause() != null ? e.getCause().getMessage() : "tiempo de espera agotado");
+                return null;
+            }
+            throw new ReferenciasNoDisponiblesException("No se pudieron validar las referencias externas. Intente más tarde.", e);
+        }
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        usuarios.close();
+        tiposDeporte.close();
+    }
+}
@@ -0,0 +1,23 @@
+package org.esfe.servicios.interfaces;
+
+import org.esfe.dtos.equipo.EquipoActividadSalidaDto;
+
+import java.util.Optional;
+
+/**
+ * Estadísticas de actividad por equipo mantenidas de forma incremental: los eventos de invitaciones y
+ * miembros suman deltas en memoria y un hilo los vuelca periódicamente a la tabla equipo_actividad.
+ */
+public interface IActividadEquipoService {
+
+    /**
+     * Fila del equipo (búsqueda por clave primaria) más los deltas que aún no se volcaron.
+     * Vacío si el equipo no existe.
+     */
+    Optional<EquipoActividadSalidaDto> obtenerPorEquipo(Integer equipoId);
+
+    /**
+     * Vuelca los deltas pendientes. Devuelve cuántos equipos se actualizaron.
+     */
+    int volcar();
+}
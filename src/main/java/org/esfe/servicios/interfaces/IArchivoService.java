@@ -0,0 +1,20 @@
+package org.esfe.servicios.interfaces;
+
+/**
+ * Partición caliente/fría: mueve a las tablas *_archivo los datos que ya solo se consultan como historial.
+ * Se ejecuta periódicamente en segundo plano, por lotes pequeños para no bloquear las tablas calientes.
+ */
+public interface IArchivoService {
+
+    /**
+     * Archiva las invitaciones ACEPTADAS, RECHAZADAS o CANCELADAS respondidas hace más de N días.
+     * Devuelve cuántas se movieron.
+     */
+    int archivarInvitacionesRespondidas();
+
+    /**
+     * Archiva los equipos desactivados sin cambios desde hace más de N días, junto con sus
+     * membresías e invitaciones. Devuelve cuántos equipos se movieron.
+     */
+    int archivarEquiposInactivos();
+}
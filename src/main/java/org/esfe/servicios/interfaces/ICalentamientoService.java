@@ -0,0 +1,14 @@
+package org.esfe.servicios.interfaces;
+
+/**
+ * Calentamiento antes de declarar la instancia lista: precarga en las cachés los equipos más
+ * consultados y recorre los caminos de lectura principales para que el JIT los compile antes de
+ * recibir tráfico real.
+ */
+public interface ICalentamientoService {
+
+    /**
+     * Ejecuta el calentamiento completo. Los errores se registran y no interrumpen el arranque.
+     */
+    void calentar();
+}
@@ -0,0 +1,13 @@
+package org.esfe.servicios.interfaces;
+
+import org.esfe.dtos.dashboard.DashboardUsuarioDto;
+
+public interface IDashboardService {
+
+    /**
+     * Arma en una sola respuesta la pantalla principal del jugador: sus equipos activos,
+     * sus membresías y sus invitaciones pendientes. Las tres consultas se ejecutan en paralelo
+     * y los equipos involucrados se cargan una única vez.
+     */
+    DashboardUsuarioDto obtenerDashboard(Integer usuarioId, int limite);
+}
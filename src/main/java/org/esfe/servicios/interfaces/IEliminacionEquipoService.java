@@ -0,0 +1,13 @@
+package org.esfe.servicios.interfaces;
+
+/**
+ * Eliminación de equipos por conjuntos: invitaciones, membresías y equipo se borran con un DELETE
+ * cada uno (WHERE equipo_id = ?), sin cargar entidades. Opcionalmente como borrado suave con purga asíncrona.
+ */
+public interface IEliminacionEquipoService {
+
+    /**
+     * Elimina el equipo y todo lo que lo referencia. Lanza NoSuchElementException si no existe.
+     */
+    void eliminar(Integer equipoId);
+}
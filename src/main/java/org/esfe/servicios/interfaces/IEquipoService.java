@@ -1,6 +1,7 @@
 package org.esfe.servicios.interfaces;
 
 import org.esfe.dtos.equipo.*;
+import org.esfe.dtos.paginacion.SliceSalidaDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -11,6 +12,13 @@ public interface IEquipoService {
 
     List<EquipoSalidaDto> obtenerTodos();
     Optional<EquipoSalidaDto> obtenerPorId(Integer id);
+
+    // Consulta por lote: caché primero, el resto con un solo findAllById. La forma compacta usa EquipoReferenciaDto
+    EquipoLoteSalidaDto<EquipoSalidaDto> obtenerLote(List<Integer> ids);
+    EquipoLoteSalidaDto<EquipoReferenciaDto> obtenerLoteCompacto(List<Integer> ids);
+
+    // Plantilla materializada: el equipo una vez y sus miembros agrupados por estado y rol
+    Optional<EquipoPlantillaSalidaDto> obtenerPlantilla(Integer equipoId);
     EquipoSalidaDto crear(EquipoGuardarDto equipoGuardarDto);
     EquipoSalidaDto editar(EquipoModificarDto equipoModificarDto);
     void eliminarPorId(Integer id);
@@ -24,6 +32,22 @@ public interface IEquipoService {
     Page<EquipoSalidaDto> obtenerEquiposPorTipoDeporte(Integer tipoDeporteId, Pageable pageable);
     Page<EquipoSalidaDto> obtenerEquiposPorCalificacionMinima(Double calificacionMinima, Pageable pageable);
 
+    // Búsqueda combinada: todos los criterios opcionales en una sola consulta
+    Page<EquipoSalidaDto> buscarEquipos(EquipoBusquedaDto criterios, Pageable pageable);
+
+    // Matchmaking: equipos activos con cupo, ordenados por afinidad (resuelto en memoria)
+    List<EquipoMatchmakingDto> buscarEquiposDisponibles(EquipoMatchmakingConsultaDto consulta);
+
+    // Facetas: conteos globales por deporte, nivel, ciudad y estado (en memoria, sin consultar la base)
+    EquipoFacetasSalidaDto obtenerFacetas(EquipoFacetasConsultaDto consulta);
+
     // Obtener equipos por id del usuario.
     Page<EquipoSalidaDto> obtenerEquiposPorUsuario(Integer usuarioId, Pageable pageable);
+
+    // Variantes Slice de los listados: sin COUNT; conTotal agrega el total aproximado si ya está calculado
+    SliceSalidaDto<EquipoSalidaDto> obtenerEquiposSlice(Optional<String> busqueda, Pageable pageable, boolean conTotal);
+    SliceSalidaDto<EquipoSalidaDto> obtenerEquiposPorTipoDeporteSlice(Integer tipoDeporteId, Pageable pageable, boolean conTotal);
+    SliceSalidaDto<EquipoSalidaDto> obtenerEquiposPorCalificacionMinimaSlice(Double calificacionMinima, Pageable pageable, boolean conTotal);
+    SliceSalidaDto<EquipoSalidaDto> buscarEquiposSlice(EquipoBusquedaDto criterios, Pageable pageable, boolean conTotal);
+    SliceSalidaDto<EquipoSalidaDto> obtenerEquiposPorUsuarioSlice(Integer usuarioId, Pageable pageable, boolean conTotal);
 }
\ No newline at end of file
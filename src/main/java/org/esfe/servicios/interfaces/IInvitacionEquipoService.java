@@ -3,6 +3,7 @@ package org.esfe.servicios.interfaces;
 import org.esfe.dtos.invitacion.InvitacionCrearDto;
 import org.esfe.dtos.invitacion.InvitacionResponderDto;
 import org.esfe.dtos.invitacion.InvitacionSalidaDto;
+import org.esfe.dtos.paginacion.SliceSalidaDto;
 import org.esfe.enums.EstadoInvitacion;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -30,9 +31,9 @@ public interface IInvitacionEquipoService {
 
     /**
      * Elimina una invitación por su ID. Usado para cancelaciones por el remitente o
-     * limpieza.
+     * limpieza. {@code usuarioActorId} (opcional) es quien cancela, para la auditoría.
      */
-    void eliminarPorId(Integer id);
+    void eliminarPorId(Integer id, Integer usuarioActorId);
 
     //  2. Lógica de Negocio Crucial: Responder Invitación 
 
@@ -67,4 +68,20 @@ public interface IInvitacionEquipoService {
      * Búsqueda general paginada, útil para filtrado por mensaje.
      */
     Page<InvitacionSalidaDto> obtenerPaginadoYFiltrado(Optional<String> busquedaMensaje, Pageable pageable);
+
+    //  4. Variantes Slice (sin COUNT) 
+
+    /**
+     * Igual que las búsquedas paginadas, pero sin COUNT. Con conTotal se agrega el total aproximado
+     * si ya está calculado (se refresca en segundo plano).
+     */
+    SliceSalidaDto<InvitacionSalidaDto> obtenerInvitacionesPorUsuarioYEstadoSlice(
+            Integer usuarioInvitadoId,
+            EstadoInvitacion estado,
+            Pageable pageable,
+            boolean conTotal);
+
+    SliceSalidaDto<InvitacionSalidaDto> obtenerInvitacionesPorEquipoSlice(Integer equipoId, Pageable pageable, boolean conTotal);
+
+    SliceSalidaDto<InvitacionSalidaDto> obtenerPaginadoYFiltradoSlice(Optional<String> busquedaMensaje, Pageable pageable, boolean conTotal);
 }
\ No newline at end of file
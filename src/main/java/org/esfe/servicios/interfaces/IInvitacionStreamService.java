@@ -0,0 +1,15 @@
+package org.esfe.servicios.interfaces;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface IInvitacionStreamService {
+
+    /**
+     * Abre un stream SSE con los eventos de invitaciones (creada, respondida, cancelada)
+     * dirigidas al usuario. Si se recibe el último ID de evento visto por el cliente
+     * (cabecera Last-Event-ID), se reenvían los eventos posteriores que aún estén en el historial; si
+     * ya no están (historial recortado o reinicio del servidor) se envía un evento "reinicio" y el
+     * cliente debe volver a consultar sus invitaciones.
+     */
+    SseEmitter suscribir(Integer usuarioInvitadoId, String ultimoEventoId);
+}
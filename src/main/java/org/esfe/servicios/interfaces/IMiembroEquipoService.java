@@ -4,9 +4,11 @@ import org.esfe.dtos.miembro.MiembroAprobarDto;
 import org.esfe.dtos.miembro.MiembroCrearDto;
 import org.esfe.dtos.miembro.MiembroModificarDto;
 import org.esfe.dtos.miembro.MiembroSalidaDto;
+import org.esfe.dtos.paginacion.SliceSalidaDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface IMiembroEquipoService {
@@ -20,6 +22,11 @@ public interface IMiembroEquipoService {
 
     Page<MiembroSalidaDto> obtenerMembresiasPorUsuario(Integer usuarioId, Pageable pageable);
 
+    // Variantes Slice (sin COUNT); conTotal agrega el total aproximado si ya está calculado
+    SliceSalidaDto<MiembroSalidaDto> obtenerMiembrosPorEquipoSlice(Integer equipoId, Pageable pageable, boolean conTotal);
+
+    SliceSalidaDto<MiembroSalidaDto> obtenerMembresiasPorUsuarioSlice(Integer usuarioId, Pageable pageable, boolean conTotal);
+
     // 3. MODIFICACIÓN
     MiembroSalidaDto editarAtributos(MiembroModificarDto miembroModificarDto);
 
@@ -31,5 +38,10 @@ public interface IMiembroEquipoService {
     // 5. UTILIDAD
     boolean esMiembroExistente(Integer equipoId, Integer usuarioId);
 
+    // Consultas resueltas por el índice en memoria de membresías activas
+    boolean esMiembroActivo(Integer equipoId, Integer usuarioId);
+
+    List<Integer> obtenerEquiposEnComun(Integer usuarioId, Integer otroUsuarioId);
+
     MiembroSalidaDto crearMembresiaDesdeInvitacion(Integer equipoId, Integer usuarioId);
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package org.esfe.servicios.interfaces;
+
+import java.util.Collection;
+
+public interface IValidacionReferenciasService {
+
+    /**
+     * Verifica que existan en sus APIs de origen los usuarios y el tipo de deporte indicados
+     * (tipoDeporteId puede ser nulo). Lanza NoSuchElementException con el primer ID inexistente y
+     * ReferenciasNoDisponiblesException si las APIs no responden y no se permite continuar sin validar.
+     * Todas las verificaciones se lanzan a la vez y se agrupan con las de otras solicitudes concurrentes.
+     */
+    void validar(Collection<Integer> usuarioIds, Integer tipoDeporteId);
+}
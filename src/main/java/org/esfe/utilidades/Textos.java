@@ -0,0 +1,26 @@
+package org.esfe.utilidades;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+public final class Textos {
+
+    private static final Pattern DIACRITICOS = Pattern.compile("\\p{M}+");
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+
+    private Textos() {
+    }
+
+    /**
+     * Forma canónica para comparar textos: sin tildes, en minúsculas y con los espacios
+     * internos colapsados ("  San  Salvadór " -> "san salvador"). Devuelve null si el texto es nulo.
+     */
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return null;
+        }
+        String sinTildes = DIACRITICOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return ESPACIOS.matcher(sinTildes.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+}
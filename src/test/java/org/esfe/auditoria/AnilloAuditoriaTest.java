@@ -0,0 +1,82 @@
+package org.esfe.auditoria;
+
+import org.esfe.enums.TipoRegistroAuditoria;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnilloAuditoriaTest {
+
+    private static RegistroAuditoria registro(int productor, int secuencia) {
+        return new RegistroAuditoria(LocalDateTime.now(), TipoRegistroAuditoria.INVITACION_ACEPTADA,
+                1, 2, productor, secuencia, null, null);
+    }
+
+    @Test
+    void entregaEnOrdenYRechazaAlLlenarse() {
+        AnilloAuditoria anillo = new AnilloAuditoria(4);
+        assertEquals(4, anillo.capacidad());
+        assertTrue(anillo.estaVacio());
+        assertNull(anillo.sacar());
+
+        // Varias vueltas completas al arreglo
+        int siguiente = 0;
+        for (int vuelta = 0; vuelta < 3; vuelta++) {
+            for (int i = 0; i < 4; i++) {
+                assertTrue(anillo.ofrecer(registro(0, vuelta * 4 + i)));
+            }
+            assertFalse(anillo.ofrecer(registro(0, -1)), "Lleno: no debe pisar celdas sin consumir");
+
+            for (int i = 0; i < 4; i++) {
+                assertEquals(siguiente++, anillo.sacar().referenciaId());
+            }
+            assertTrue(anillo.estaVacio());
+            assertNull(anillo.sacar());
+        }
+    }
+
+    @Test
+    void variosProductoresNoPierdenNiDuplicanRegistros() throws Exception {
+        int productores = 4;
+        int porProductor = 20_000;
+        AnilloAuditoria anillo = new AnilloAuditoria(256);
+
+        List<Thread> hilos = new ArrayList<>();
+        for (int p = 0; p < productores; p++) {
+            int productor = p;
+            hilos.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < porProductor; i++) {
+                    while (!anillo.ofrecer(registro(productor, i))) {
+                        Thread.onSpinWait();
+                    }
+                }
+            }));
+        }
+
+        // Un solo consumidor: cada productor debe verse en su propio orden, sin huecos
+        int[] siguientes = new int[productores];
+        int recibidos = 0;
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (recibidos < productores * porProductor) {
+            assertTrue(System.nanoTime() < limite, "Tiempo agotado con " + recibidos + " registros recibidos");
+            RegistroAuditoria registro = anillo.sacar();
+            if (registro == null) {
+                Thread.onSpinWait();
+                continue;
+            }
+            int productor = registro.actorId();
+            assertEquals(siguientes[productor]++, registro.referenciaId());
+            recibidos++;
+        }
+        for (Thread hilo : hilos) {
+            hilo.join();
+        }
+        assertTrue(anillo.estaVacio());
+        assertNull(anillo.sacar());
+    }
+}
@@ -0,0 +1,81 @@
+package org.esfe.auditoria;
+
+import org.esfe.dtos.equipo.EquipoReferenciaDto;
+import org.esfe.dtos.invitacion.InvitacionSalidaDto;
+import org.esfe.dtos.miembro.MiembroSalidaDto;
+import org.esfe.enums.EstadoInvitacion;
+import org.esfe.enums.TipoEventoInvitacion;
+import org.esfe.enums.TipoEventoMiembro;
+import org.esfe.enums.TipoRegistroAuditoria;
+import org.esfe.eventos.InvitacionEvento;
+import org.esfe.eventos.MiembroEvento;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Prueba la traducción de eventos a registros de auditoría, en particular el actor de cada decisión.
+ */
+class AuditoriaDecisionesTest {
+
+    private final BitacoraAuditoria bitacora = mock(BitacoraAuditoria.class);
+    private final AuditoriaDecisiones decisiones = new AuditoriaDecisiones(bitacora);
+
+    private RegistroAuditoria registrado() {
+        ArgumentCaptor<RegistroAuditoria> registro = ArgumentCaptor.forClass(RegistroAuditoria.class);
+        verify(bitacora).registrar(registro.capture());
+        return registro.getValue();
+    }
+
+    private static InvitacionSalidaDto invitacionPendiente() {
+        EquipoReferenciaDto equipo = new EquipoReferenciaDto();
+        equipo.setId(5);
+        InvitacionSalidaDto invitacion = new InvitacionSalidaDto();
+        invitacion.setId(40);
+        invitacion.setEquipo(equipo);
+        invitacion.setUsuarioInvitadoId(200);
+        invitacion.setUsuarioRemitenteId(101);
+        invitacion.setEstado(EstadoInvitacion.PENDIENTE);
+        return invitacion;
+    }
+
+    @Test
+    void elCambioDeEstadoDeUnMiembroRegistraQuienLoHizo() {
+        MiembroSalidaDto miembro = new MiembroSalidaDto();
+        miembro.setId(7);
+        miembro.setEquipoId(5);
+        miembro.setUsuarioId(200);
+        miembro.setEstado("activo");
+
+        decisiones.alCambiarMiembro(new MiembroEvento(TipoEventoMiembro.MODIFICADO, miembro, "pendiente", 101));
+
+        RegistroAuditoria registro = registrado();
+        assertEquals(TipoRegistroAuditoria.MIEMBRO_CAMBIO_ESTADO, registro.tipo());
+        assertEquals(200, registro.usuarioId());
+        assertEquals(101, registro.actorId());
+    }
+
+    @Test
+    void laCancelacionDeUnaInvitacionPendienteRegistraQuienLaCancelo() {
+        decisiones.alCambiarInvitacion(new InvitacionEvento(TipoEventoInvitacion.CANCELADA, invitacionPendiente(), 101));
+
+        RegistroAuditoria registro = registrado();
+        assertEquals(TipoRegistroAuditoria.INVITACION_CANCELADA, registro.tipo());
+        assertEquals(101, registro.actorId());
+        assertEquals("PENDIENTE", registro.estadoAnterior());
+        assertEquals("CANCELADA", registro.estadoNuevo());
+    }
+
+    @Test
+    void laRespuestaRegistraAlUsuarioQueRespondio() {
+        InvitacionSalidaDto invitacion = invitacionPendiente();
+        invitacion.setEstado(EstadoInvitacion.ACEPTADA);
+        invitacion.setUsuarioRespondioId(200);
+
+        decisiones.alCambiarInvitacion(new InvitacionEvento(TipoEventoInvitacion.RESPONDIDA, invitacion));
+
+        assertEquals(200, registrado().actorId());
+    }
+}
@@ -0,0 +1,135 @@
+package org.esfe.auditoria;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.esfe.enums.TipoRegistroAuditoria;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Escribe y lee segmentos reales en un directorio temporal: la bitácora completa (anillo, hilo
+ * escritor, rotación) y el lector sobre segmentos preparados a mano, incluidos los dañados.
+ */
+class BitacoraAuditoriaTest {
+
+    private static final int TAMANIO = RegistroAuditoria.TAMANIO;
+
+    @TempDir
+    Path directorio;
+
+    private final LocalDateTime ahora = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+
+    private RegistroAuditoria registro(LocalDateTime fecha, int equipoId, int referenciaId) {
+        return new RegistroAuditoria(fecha, TipoRegistroAuditoria.INVITACION_ACEPTADA,
+                equipoId, 300, 100, referenciaId, "PENDIENTE", "ACEPTADA");
+    }
+
+    private BitacoraAuditoria bitacora(int bytesPorSegmento) {
+        return new BitacoraAuditoria(new SimpleMeterRegistry(), true, directorio.toString(),
+                bytesPorSegmento, 1024, 10, 365);
+    }
+
+    private void escribirSegmento(long secuencia, ByteBuffer contenido) throws Exception {
+        Files.write(directorio.resolve(LectorAuditoria.nombreSegmento(secuencia)), contenido.array());
+    }
+
+    private static ByteBuffer segmento(int capacidadRegistros, RegistroAuditoria... registros) {
+        ByteBuffer buffer = ByteBuffer.allocate(capacidadRegistros * TAMANIO);
+        for (RegistroAuditoria registro : registros) {
+            registro.escribir(buffer);
+        }
+        return buffer;
+    }
+
+    private static List<Integer> referencias(List<RegistroAuditoria> registros) {
+        return registros.stream().map(RegistroAuditoria::referenciaId).toList();
+    }
+
+    @Test
+    void escribeRotaSegmentosYConsultaDelMasRecienteAlMasViejo() {
+        // Segmentos de cuatro registros: diez registros ocupan tres archivos
+        BitacoraAuditoria bitacora = bitacora(4 * TAMANIO);
+        bitacora.alIniciar();
+        for (int i = 1; i <= 10; i++) {
+            bitacora.registrar(registro(ahora.plusSeconds(i), i % 2 == 0 ? 1 : 2, i));
+        }
+        bitacora.detener();
+
+        assertEquals(3, LectorAuditoria.segmentos(directorio).size());
+        LectorAuditoria lector = new LectorAuditoria(directorio);
+        assertEquals(List.of(10, 9, 8, 7, 6, 5, 4, 3, 2, 1), referencias(lector.consultar(null, null, null, 100)));
+        assertEquals(List.of(10, 8, 6, 4, 2), referencias(lector.consultar(1, null, null, 100)));
+        assertEquals(List.of(10, 9, 8), referencias(lector.consultar(null, 100, null, 3)));
+        assertEquals(List.of(10, 9, 8, 7), referencias(lector.consultar(null, null, ahora.plusSeconds(7), 100)));
+        assertTrue(lector.consultar(null, 999, null, 100).isEmpty());
+    }
+
+    @Test
+    void elEscritorSigueVivoTrasUnRegistroQueNoSePuedeCodificar() {
+        BitacoraAuditoria bitacora = bitacora(1024 * TAMANIO);
+        bitacora.alIniciar();
+        bitacora.registrar(new RegistroAuditoria(ahora, TipoRegistroAuditoria.MIEMBRO_CAMBIO_ESTADO,
+                1, 300, null, 1, "activo", "expulsado"));
+        bitacora.registrar(registro(ahora, 1, 2));
+        bitacora.detener();
+
+        assertEquals(List.of(2), referencias(bitacora.consultar(null, null, null, 100)));
+    }
+
+    @Test
+    void alReabrirContinuaDespuesDelUltimoRegistroValido() throws Exception {
+        // Dos registros y una escritura cortada (caída a mitad de registro)
+        ByteBuffer contenido = segmento(8, registro(ahora, 1, 1), registro(ahora, 1, 2), registro(ahora, 1, 3));
+        contenido.put(2 * TAMANIO + 20, (byte) 0x7F);
+        escribirSegmento(1, contenido);
+        assertEquals(2 * TAMANIO, LectorAuditoria.posicionFinal(contenido));
+
+        LectorAuditoria lector = new LectorAuditoria(directorio);
+        assertEquals(List.of(2, 1), referencias(lector.consultar(null, null, null, 100)));
+
+        BitacoraAuditoria bitacora = bitacora(8 * TAMANIO);
+        bitacora.alIniciar();
+        bitacora.registrar(registro(ahora, 1, 4));
+        bitacora.detener();
+
+        // El registro nuevo reemplaza al cortado, en el mismo segmento
+        assertEquals(1, LectorAuditoria.segmentos(directorio).size());
+        assertEquals(List.of(4, 2, 1), referencias(lector.consultar(null, null, null, 100)));
+    }
+
+    @Test
+    void saltaRegistrosConCodigosDesconocidosSinPerderLosSiguientes() throws Exception {
+        ByteBuffer contenido = segmento(4, registro(ahora, 1, 1), registro(ahora, 1, 2), registro(ahora, 1, 3));
+        contenido.put(TAMANIO + 1, (byte) 99);
+        CRC32 crc = new CRC32();
+        crc.update(contenido.slice(TAMANIO, TAMANIO - 4));
+        contenido.putInt(2 * TAMANIO - 4, (int) crc.getValue());
+        escribirSegmento(1, contenido);
+
+        assertEquals(3 * TAMANIO, LectorAuditoria.posicionFinal(contenido));
+        assertEquals(List.of(3, 1), referencias(new LectorAuditoria(directorio).consultar(null, null, null, 100)));
+    }
+
+    @Test
+    void conDesdeNoLeeLosSegmentosAnterioresAlCorte() throws Exception {
+        LocalDateTime desde = ahora.minusHours(1);
+        // Segmento viejo con una trampa: un registro con fecha reciente que solo aparecería si se leyera
+        escribirSegmento(1, segmento(4, registro(ahora, 1, 1), registro(desde.minusDays(2), 1, 2)));
+        escribirSegmento(2, segmento(4, registro(desde.minusDays(1), 1, 3), registro(desde.plusMinutes(1), 1, 4),
+                registro(ahora, 1, 5)));
+
+        LectorAuditoria lector = new LectorAuditoria(directorio);
+        assertEquals(List.of(5, 4), referencias(lector.consultar(null, null, desde, 100)));
+        // Sin corte se leen todos los segmentos
+        assertEquals(List.of(5, 4, 3, 2, 1), referencias(lector.consultar(null, null, null, 100)));
+    }
+}
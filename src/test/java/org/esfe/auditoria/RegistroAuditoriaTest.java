@@ -0,0 +1,127 @@
+package org.esfe.auditoria;
+
+import org.esfe.enums.EstadoInvitacion;
+import org.esfe.enums.EstadoMiembro;
+import org.esfe.enums.TipoRegistroAuditoria;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegistroAuditoriaTest {
+
+    // Milisegundos exactos: es la precisión de la marca en disco
+    private static final LocalDateTime FECHA = LocalDateTime.of(2026, 3, 14, 15, 9, 26, 535_000_000);
+
+    private static RegistroAuditoria registro(TipoRegistroAuditoria tipo, String anterior, String nuevo) {
+        return new RegistroAuditoria(FECHA, tipo, 7, 300, 100, 42, anterior, nuevo);
+    }
+
+    private static ByteBuffer escrito(RegistroAuditoria registro) {
+        ByteBuffer buffer = ByteBuffer.allocate(RegistroAuditoria.TAMANIO);
+        registro.escribir(buffer);
+        return buffer.flip();
+    }
+
+    // Reescribe el CRC tras modificar el registro a mano: simula un registro íntegro de otra versión
+    private static void sellar(ByteBuffer buffer) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(0, RegistroAuditoria.TAMANIO - 4));
+        buffer.putInt(RegistroAuditoria.TAMANIO - 4, (int) crc.getValue());
+    }
+
+    @Test
+    void idaYVueltaDeTodosLosTiposYEstados() {
+        List<RegistroAuditoria> registros = new ArrayList<>();
+        List<String> estadosInvitacion = new ArrayList<>(Arrays.stream(EstadoInvitacion.values()).map(Enum::name).toList());
+        List<String> estadosMiembro = new ArrayList<>(Arrays.stream(EstadoMiembro.values()).map(EstadoMiembro::getValor).toList());
+        estadosInvitacion.add(null);
+        estadosMiembro.add(null);
+        for (TipoRegistroAuditoria tipo : TipoRegistroAuditoria.values()) {
+            List<String> estados = tipo == TipoRegistroAuditoria.MIEMBRO_CAMBIO_ESTADO ? estadosMiembro : estadosInvitacion;
+            for (String anterior : estados) {
+                for (String nuevo : estados) {
+                    registros.add(registro(tipo, anterior, nuevo));
+                }
+            }
+        }
+        registros.add(new RegistroAuditoria(FECHA, TipoRegistroAuditoria.INVITACION_ACEPTADA, null, null, null, null, null, null));
+
+        ByteBuffer buffer = ByteBuffer.allocate(registros.size() * RegistroAuditoria.TAMANIO);
+        registros.forEach(r -> r.escribir(buffer));
+        buffer.flip();
+
+        for (RegistroAuditoria esperado : registros) {
+            assertTrue(RegistroAuditoria.hayRegistro(buffer));
+            assertEquals(esperado, RegistroAuditoria.leer(buffer));
+        }
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    void losCodigosEnDiscoSonFijos() {
+        // Cambiar cualquiera de estos valores vuelve ilegibles los segmentos ya escritos
+        assertEquals(0, TipoRegistroAuditoria.INVITACION_ACEPTADA.getCodigo());
+        assertEquals(1, TipoRegistroAuditoria.INVITACION_RECHAZADA.getCodigo());
+        assertEquals(2, TipoRegistroAuditoria.INVITACION_CANCELADA.getCodigo());
+        assertEquals(3, TipoRegistroAuditoria.MIEMBRO_CAMBIO_ESTADO.getCodigo());
+
+        ByteBuffer invitacion = escrito(registro(TipoRegistroAuditoria.INVITACION_CANCELADA, "PENDIENTE", "CANCELADA"));
+        assertArrayEquals(new byte[]{(byte) 0xA5, 2, 1, 4}, Arrays.copyOf(invitacion.array(), 4));
+
+        ByteBuffer miembro = escrito(registro(TipoRegistroAuditoria.MIEMBRO_CAMBIO_ESTADO, "activo", "suspendido"));
+        assertArrayEquals(new byte[]{(byte) 0xA5, 3, 1, 3}, Arrays.copyOf(miembro.array(), 4));
+    }
+
+    @Test
+    void detectaRegistrosCortadosOSinEscribir() {
+        ByteBuffer buffer = escrito(registro(TipoRegistroAuditoria.INVITACION_ACEPTADA, "PENDIENTE", "ACEPTADA"));
+        assertTrue(RegistroAuditoria.hayRegistro(buffer));
+
+        // Un byte cambiado en los datos: el CRC ya no coincide
+        buffer.put(14, (byte) (buffer.get(14) ^ 0x01));
+        assertFalse(RegistroAuditoria.hayRegistro(buffer));
+
+        // Espacio sin escribir y registro incompleto al final del segmento
+        assertFalse(RegistroAuditoria.hayRegistro(ByteBuffer.allocate(RegistroAuditoria.TAMANIO)));
+        ByteBuffer completo = escrito(registro(TipoRegistroAuditoria.INVITACION_ACEPTADA, "PENDIENTE", "ACEPTADA"));
+        assertFalse(RegistroAuditoria.hayRegistro(completo.slice(0, RegistroAuditoria.TAMANIO - 1)));
+    }
+
+    @Test
+    void omiteCodigosDesconocidosAunqueElRegistroEsteIntegro() {
+        ByteBuffer tipoDesconocido = escrito(registro(TipoRegistroAuditoria.INVITACION_ACEPTADA, "PENDIENTE", "ACEPTADA"));
+        tipoDesconocido.put(1, (byte) 99);
+        sellar(tipoDesconocido);
+        assertTrue(RegistroAuditoria.hayRegistro(tipoDesconocido));
+        assertNull(RegistroAuditoria.leer(tipoDesconocido));
+        // El registro se salta entero: la lectura sigue en el próximo
+        assertEquals(RegistroAuditoria.TAMANIO, tipoDesconocido.position());
+
+        ByteBuffer estadoDesconocido = escrito(registro(TipoRegistroAuditoria.MIEMBRO_CAMBIO_ESTADO, "activo", "inactivo"));
+        estadoDesconocido.put(3, (byte) 5);
+        sellar(estadoDesconocido);
+        assertNull(RegistroAuditoria.leer(estadoDesconocido));
+
+        ByteBuffer estadoNegativo = escrito(registro(TipoRegistroAuditoria.INVITACION_RECHAZADA, "PENDIENTE", "RECHAZADA"));
+        estadoNegativo.put(2, (byte) -1);
+        sellar(estadoNegativo);
+        assertNull(RegistroAuditoria.leer(estadoNegativo));
+    }
+
+    @Test
+    void unEstadoSinCodigoNoSeEscribe() {
+        ByteBuffer buffer = ByteBuffer.allocate(RegistroAuditoria.TAMANIO);
+        RegistroAuditoria invalido = registro(TipoRegistroAuditoria.MIEMBRO_CAMBIO_ESTADO, "ACTIVO", "expulsado");
+
+        assertThrows(IllegalArgumentException.class, () -> invalido.escribir(buffer));
+        assertEquals(0, buffer.position());
+        assertFalse(RegistroAuditoria.hayRegistro(buffer));
+    }
+}
@@ -0,0 +1,75 @@
+package org.esfe.cache;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.esfe.dtos.equipo.EquipoSalidaDto;
+import org.esfe.enums.TipoEventoEquipo;
+import org.esfe.eventos.EquipoEvento;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EquipoRespuestaCacheTest {
+
+    private final EquipoCache equipoCache = new EquipoCache(100, 10);
+    private final EquipoRespuestaCache respuestas = new EquipoRespuestaCache(equipoCache,
+            JsonMapper.builder().findAndAddModules().build(), 100, 10, 512);
+
+    private static EquipoSalidaDto equipo(Integer id, String nombre) {
+        EquipoSalidaDto equipo = new EquipoSalidaDto();
+        equipo.setId(id);
+        equipo.setNombre(nombre);
+        equipo.setFechaCreacion(LocalDateTime.of(2026, 1, 1, 10, 0));
+        return equipo;
+    }
+
+    // Publica el evento como lo hace Spring: primero EquipoCache (@Order), luego la caché de respuestas
+    private void publicar(EquipoEvento evento) {
+        equipoCache.alCambiarEquipo(evento);
+        respuestas.alCambiarEquipo(evento);
+    }
+
+    @Test
+    void unaCargaQueSeCruzaConLaEliminacionNoSeGuarda() {
+        AtomicInteger cargas = new AtomicInteger();
+        Optional<EquipoRespuestaCache.RespuestaSerializada> primera = respuestas.obtener(1, () -> {
+            cargas.incrementAndGet();
+            EquipoSalidaDto leido = equipo(1, "Tigres");
+            // El equipo se elimina mientras la lectura estaba en la base de datos
+            publicar(new EquipoEvento(TipoEventoEquipo.ELIMINADO, 1, null));
+            return Optional.of(leido);
+        });
+        // La solicitud en curso recibe lo que leyó, pero no queda en caché
+        assertTrue(primera.isPresent());
+
+        Optional<EquipoRespuestaCache.RespuestaSerializada> segunda = respuestas.obtener(1, () -> {
+            cargas.incrementAndGet();
+            return Optional.empty();
+        });
+        assertTrue(segunda.isEmpty());
+        assertEquals(2, cargas.get());
+    }
+
+    @Test
+    void unaCargaSinCambiosQuedaEnCache() {
+        AtomicInteger cargas = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            respuestas.obtener(2, () -> {
+                cargas.incrementAndGet();
+                return Optional.of(equipo(2, "Leones"));
+            });
+        }
+        assertEquals(1, cargas.get());
+
+        // Tras la eliminación la siguiente lectura vuelve a la base de datos
+        publicar(new EquipoEvento(TipoEventoEquipo.ELIMINADO, 2, null));
+        assertTrue(respuestas.obtener(2, () -> {
+            cargas.incrementAndGet();
+            return Optional.empty();
+        }).isEmpty());
+        assertEquals(2, cargas.get());
+    }
+}
@@ -0,0 +1,211 @@
+package org.esfe.carga;
+
+import org.esfe.indices.FiltroNombresEquipo;
+import org.esfe.indices.IndiceMatchmaking;
+import org.esfe.indices.IndiceMembresias;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de carga sobre H2 embebido con datos sintéticos (ver {@link GeneradorDatosSinteticos}).
+ * No corren con {@code mvn test}; se ejecutan con {@code mvn test -Pcarga}.
+ * <p>
+ * Propiedades de sistema:
+ * <ul>
+ *   <li>{@code carga.escala} (0.05): 1.0 = ~200k equipos, ~3M membresías, ~5M invitaciones.</li>
+ *   <li>{@code carga.semilla} (42): misma semilla, mismos datos y mismas secuencias de solicitudes.</li>
+ *   <li>{@code carga.concurrencia} (64): solicitudes en vuelo a la vez.</li>
+ *   <li>{@code carga.solicitudes} (4000): solicitudes por escenario.</li>
+ * </ul>
+ * Los tiempos solo se reportan; se verifica que no haya errores de servidor.
+ */
+@Tag("carga")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"test", "carga"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EscenariosCargaTest {
+
+    private static final double ESCALA = Double.parseDouble(System.getProperty("carga.escala", "0.05"));
+    private static final long SEMILLA = Long.getLong("carga.semilla", 42L);
+    private static final int CONCURRENCIA = Integer.getInteger("carga.concurrencia", 64);
+    private static final int SOLICITUDES = Integer.getInteger("carga.solicitudes", 4000);
+
+    private static final String[] CIUDADES = {"San Salvador", "Santa Ana", "San Miguel", "Soyapango", "Santa Tecla"};
+    private static final String[] NIVELES = {"principiante", "intermedio", "avanzado", "profesional"};
+
+    @LocalServerPort
+    private int puerto;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private IndiceMembresias indiceMembresias;
+
+    @Autowired
+    private IndiceMatchmaking indiceMatchmaking;
+
+    @Autowired
+    private FiltroNombresEquipo filtroNombres;
+
+    private final HttpClient cliente = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private GeneradorDatosSinteticos.Resumen resumen;
+
+    @BeforeAll
+    void generarDatos() throws Exception {
+        long inicio = System.nanoTime();
+        resumen = new GeneradorDatosSinteticos(dataSource, SEMILLA).generar(ESCALA);
+        // Los índices en memoria se construyen al arrancar, antes de que existieran los datos
+        indiceMembresias.reconstruir();
+        indiceMatchmaking.reconstruir();
+        filtroNombres.reconstruir();
+        System.out.printf("Datos sintéticos (escala %.2f, semilla %d): %d equipos, %d membresías, %d invitaciones en %.1f s%n",
+                ESCALA, SEMILLA, resumen.equipos(), resumen.membresias(), resumen.invitaciones(),
+                (System.nanoTime() - inicio) / 1e9);
+    }
+
+    @Test
+    void busquedaDeEquipos() throws Exception {
+        MedidorLatencias medidor = ejecutar("busqueda", random -> {
+            StringBuilder uri = new StringBuilder("/api/equipos/busqueda?estaActivo=true&size=20");
+            uri.append("&tipoDeporteId=").append(1 + random.nextInt(8));
+            if (random.nextBoolean()) {
+                uri.append("&ciudad=").append(URLEncoder.encode(CIUDADES[random.nextInt(CIUDADES.length)], StandardCharsets.UTF_8));
+            }
+            if (random.nextInt(3) == 0) {
+                uri.append("&nivel=").append(NIVELES[random.nextInt(NIVELES.length)]);
+            }
+            if (random.nextInt(4) == 0) {
+                uri.append("&texto=").append(URLEncoder.encode("Equipo " + (1 + random.nextInt(99)), StandardCharsets.UTF_8));
+            }
+            return HttpRequest.newBuilder(url(uri.toString())).GET().build();
+        });
+
+        assertEquals(0, medidor.contarErroresServidor(), medidor.reporte());
+        assertTrue(medidor.contar(200) > 0);
+    }
+
+    @Test
+    void plantillaDeEquipo() throws Exception {
+        List<Integer> grandes = resumen.equiposMasGrandes();
+        MedidorLatencias medidor = ejecutar("plantilla", random -> {
+            // 80% de las lecturas van a los equipos más grandes (los clubes "calientes")
+            int equipoId = random.nextInt(10) < 8
+                    ? grandes.get(random.nextInt(grandes.size()))
+                    : 1 + random.nextInt(resumen.equipos());
+            return HttpRequest.newBuilder(url("/api/miembros/equipo/" + equipoId + "?size=50")).GET().build();
+        });
+
+        assertEquals(0, medidor.contarErroresServidor(), medidor.reporte());
+        assertTrue(medidor.contar(200) > 0);
+    }
+
+    @Test
+    void rafagaDeAceptaciones() throws Exception {
+        // Invitaciones pendientes de los equipos más grandes: todas compiten por los mismos cupos
+        String ids = String.join(",", resumen.equiposMasGrandes().stream().map(String::valueOf).toList());
+        List<Map<String, Object>> pendientes = jdbcTemplate.queryForList(
+                "SELECT id, usuario_invitado_id FROM invitaciones_equipo WHERE estado = 'PENDIENTE' AND equipo_id IN (" + ids + ") " +
+                "ORDER BY id LIMIT " + SOLICITUDES);
+        assertFalse(pendientes.isEmpty(), "No hay invitaciones pendientes para la ráfaga");
+
+        // Sin calentamiento: aceptar es irrepetible y consumiría las invitaciones de la medición
+        MedidorLatencias medidor = ejecutar("aceptaciones", pendientes.size(), false, (i, random) -> {
+            Map<String, Object> invitacion = pendientes.get(i);
+            String cuerpo = String.format("{\"id\":%s,\"nuevoEstado\":\"ACEPTADA\",\"usuarioRespondioId\":%s}",
+                    invitacion.get("id"), invitacion.get("usuario_invitado_id"));
+            return HttpRequest.newBuilder(url("/api/invitaciones/" + invitacion.get("id") + "/respuesta"))
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(cuerpo))
+                    .build();
+        });
+
+        // 409 es un resultado esperado: equipo lleno o el invitado ya era miembro
+        assertEquals(0, medidor.contarErroresServidor(), medidor.reporte());
+        assertTrue(medidor.contar(200) + medidor.contar(409) > 0);
+    }
+
+    // --- Motor de escenarios ---
+
+    private interface FabricaSolicitudes {
+        HttpRequest crear(int indice, SplittableRandom random);
+    }
+
+    private MedidorLatencias ejecutar(String escenario, Function<SplittableRandom, HttpRequest> fabrica) throws Exception {
+        return ejecutar(escenario, SOLICITUDES, true, (i, random) -> fabrica.apply(random));
+    }
+
+    private MedidorLatencias ejecutar(String escenario, int total, boolean calentar, FabricaSolicitudes fabrica)
+            throws Exception {
+        if (calentar) {
+            // Calentamiento breve (JIT, pool de conexiones, cachés) que no se mide
+            correr(new MedidorLatencias(escenario), Math.min(total, 200), fabrica, new SplittableRandom(SEMILLA + 1));
+        }
+
+        MedidorLatencias medidor = new MedidorLatencias(escenario);
+        medidor.iniciar();
+        correr(medidor, total, fabrica, new SplittableRandom(SEMILLA));
+        medidor.terminar();
+        System.out.println(medidor.reporte());
+        return medidor;
+    }
+
+    private void correr(MedidorLatencias medidor, int total, FabricaSolicitudes fabrica, SplittableRandom random)
+            throws InterruptedException {
+        Semaphore enVuelo = new Semaphore(CONCURRENCIA);
+        try (ExecutorService ejecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < total; i++) {
+                // Las solicitudes se construyen en este hilo para que la secuencia sea reproducible
+                HttpRequest solicitud = fabrica.crear(i, random);
+                enVuelo.acquire();
+                ejecutor.submit(() -> {
+                    long inicio = System.nanoTime();
+                    try {
+                        HttpResponse<String> respuesta = cliente.send(solicitud, HttpResponse.BodyHandlers.ofString());
+                        medidor.registrar(System.nanoTime() - inicio, respuesta.statusCode(), respuesta.body());
+                    } catch (Exception e) {
+                        medidor.registrarFallo();
+                    } finally {
+                        enVuelo.release();
+                    }
+                });
+            }
+        }
+    }
+
+    private URI url(String ruta) {
+        return URI.create("http://localhost:" + puerto + ruta);
+    }
+}
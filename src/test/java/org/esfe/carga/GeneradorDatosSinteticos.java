@@ -0,0 +1,217 @@
+package org.esfe.carga;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Genera equipos, membresías e invitaciones sintéticas con INSERT por lotes JDBC.
+ * <p>
+ * Es determinista para una misma semilla. La distribución imita la de producción:
+ * <ul>
+ *   <li>tamaño de equipo con cola larga (Pareto, media ~15): la mayoría son pequeños y unos pocos
+ *       clubes tienen cientos de miembros;</li>
+ *   <li>las invitaciones de cada equipo son proporcionales a su tamaño;</li>
+ *   <li>deportes y ciudades con popularidad sesgada (Zipf).</li>
+ * </ul>
+ * Con escala 1.0 se generan ~200k equipos, ~3M membresías y ~5M invitaciones.
+ */
+public class GeneradorDatosSinteticos {
+
+    private static final String[] CIUDADES = {
+            "San Salvador", "Santa Ana", "San Miguel", "Soyapango", "Mejicanos", "Santa Tecla", "Apopa",
+            "Delgado", "Ilopango", "Ahuachapán", "Sonsonate", "Usulután", "Cojutepeque", "La Libertad"
+    };
+    private static final String[] NIVELES = {"PRINCIPIANTE", "INTERMEDIO", "AVANZADO", "PROFESIONAL"};
+    private static final int TIPOS_DEPORTE = 8;
+    private static final int TAMANIO_LOTE = 5_000;
+    private static final int TAMANIO_MAXIMO_EQUIPO = 2_000;
+
+    /**
+     * Resumen de lo generado; los equipos más grandes sirven para escenarios con contención.
+     */
+    public record Resumen(int equipos, long membresias, long invitaciones, int usuarios, List<Integer> equiposMasGrandes) {
+    }
+
+    private final DataSource dataSource;
+    private final SplittableRandom random;
+
+    public GeneradorDatosSinteticos(DataSource dataSource, long semilla) {
+        this.dataSource = dataSource;
+        this.random = new SplittableRandom(semilla);
+    }
+
+    public Resumen generar(double escala) throws SQLException {
+        int equipos = Math.max(100, (int) (200_000 * escala));
+        int usuarios = equipos * 5;
+        LocalDateTime base = LocalDateTime.now().minusYears(2);
+
+        int[] tamanios = new int[equipos + 1];
+        int[] creadores = new int[equipos + 1];
+        long membresias = 0;
+        long invitaciones = 0;
+
+        try (Connection conexion = dataSource.getConnection()) {
+            conexion.setAutoCommit(false);
+
+            // 1. Equipos
+            try (PreparedStatement ps = conexion.prepareStatement(
+                    "INSERT INTO equipos (id, nombre, creado_por, tipo_deporte_id, descripcion, ciudad, nivel, max_miembros, " +
+                    "requiere_aprobacion, calificacion_promedio, total_calificaciones, esta_activo, fecha_creacion, fecha_actualizacion, " +
+                    "nombre_normalizado) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+                for (int id = 1; id <= equipos; id++) {
+                    int tamanio = tamanioEquipo();
+                    tamanios[id] = tamanio;
+                    creadores[id] = 1 + random.nextInt(usuarios);
+                    LocalDateTime creado = base.plusMinutes(random.nextInt(60 * 24 * 700));
+
+                    ps.setInt(1, id);
+                    ps.setString(2, "Equipo " + id);
+                    ps.setInt(3, creadores[id]);
+                    ps.setInt(4, 1 + zipf(TIPOS_DEPORTE));
+                    ps.setString(5, "Equipo sintético para pruebas de carga");
+                    ps.setString(6, CIUDADES[zipf(CIUDADES.length)]);
+                    ps.setString(7, NIVELES[random.nextInt(NIVELES.length)]);
+                    ps.setInt(8, Math.max(15, tamanio + random.nextInt(6)));
+                    ps.setBoolean(9, random.nextInt(3) == 0);
+                    ps.setBigDecimal(10, java.math.BigDecimal.valueOf(random.nextInt(501), 2));
+                    ps.setInt(11, random.nextInt(200));
+                    ps.setBoolean(12, random.nextInt(100) < 95);
+                    ps.setTimestamp(13, Timestamp.valueOf(creado));
+                    ps.setTimestamp(14, Timestamp.valueOf(creado.plusDays(random.nextInt(30))));
+                    ps.setString(15, "equipo " + id);
+                    agregarALote(ps, conexion, id);
+                }
+                ejecutarLote(ps, conexion);
+            }
+
+            // 2. Membresías (usuarios distintos dentro de cada equipo; el primero es el capitán)
+            try (PreparedStatement ps = conexion.prepareStatement(
+                    "INSERT INTO equipo_miembros (id, equipo_id, usuario_id, rol, numero_camiseta, posicion, estado, fecha_union) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
+                Set<Integer> usados = new HashSet<>();
+                for (int equipoId = 1; equipoId <= equipos; equipoId++) {
+                    usados.clear();
+                    usados.add(creadores[equipoId]);
+                    for (int j = 0; j < tamanios[equipoId]; j++) {
+                        int usuarioId = j == 0 ? creadores[equipoId] : usuarioDistinto(usados, usuarios);
+                        int estado = random.nextInt(100);
+                        ps.setLong(1, ++membresias);
+                        ps.setInt(2, equipoId);
+                        ps.setInt(3, usuarioId);
+                        ps.setString(4, j == 0 ? "CAPITAN" : "JUGADOR");
+                        ps.setInt(5, j + 1);
+                        ps.setString(6, "posicion " + (j % 5));
+                        ps.setString(7, estado < 90 ? "ACTIVO" : estado < 97 ? "INACTIVO" : "SUSPENDIDO");
+                        ps.setTimestamp(8, Timestamp.valueOf(base.plusMinutes(random.nextInt(60 * 24 * 700))));
+                        agregarALote(ps, conexion, membresias);
+                    }
+                }
+                ejecutarLote(ps, conexion);
+            }
+
+            // 3. Invitaciones (más para los equipos grandes; ~30% siguen pendientes)
+            try (PreparedStatement ps = conexion.prepareStatement(
+                    "INSERT INTO invitaciones_equipo (id, equipo_id, usuario_invitado_id, usuario_remitente_id, usuario_respondio_id, " +
+                    "mensaje, estado, fecha_respuesta, fecha_creacion) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+                for (int equipoId = 1; equipoId <= equipos; equipoId++) {
+                    int cantidad = (int) Math.round(tamanios[equipoId] * (25.0 / 15.0) * (0.5 + random.nextDouble()));
+                    for (int j = 0; j < cantidad; j++) {
+                        int invitado = 1 + random.nextInt(usuarios);
+                        int sorteo = random.nextInt(100);
+                        String estado = sorteo < 30 ? "PENDIENTE" : sorteo < 75 ? "ACEPTADA" : sorteo < 95 ? "RECHAZADA" : "CANCELADA";
+                        LocalDateTime creada = base.plusMinutes(random.nextInt(60 * 24 * 700));
+
+                        ps.setLong(1, ++invitaciones);
+                        ps.setInt(2, equipoId);
+                        ps.setInt(3, invitado);
+                        ps.setInt(4, creadores[equipoId]);
+                        if (estado.equals("PENDIENTE")) {
+                            ps.setNull(5, java.sql.Types.INTEGER);
+                            ps.setNull(8, java.sql.Types.TIMESTAMP);
+                        } else {
+                            ps.setInt(5, invitado);
+                            ps.setTimestamp(8, Timestamp.valueOf(creada.plusHours(1 + random.nextInt(72))));
+                        }
+                        ps.setString(6, "¡Únete al equipo " + equipoId + "!");
+                        ps.setString(7, estado);
+                        ps.setTimestamp(9, Timestamp.valueOf(creada));
+                        agregarALote(ps, conexion, invitaciones);
+                    }
+                }
+                ejecutarLote(ps, conexion);
+            }
+
+            // 4. Las secuencias continúan después de los IDs generados (los escenarios también insertan)
+            try (Statement st = conexion.createStatement()) {
+                st.execute("ALTER TABLE equipos ALTER COLUMN id RESTART WITH " + (equipos + 1));
+                st.execute("ALTER TABLE equipo_miembros ALTER COLUMN id RESTART WITH " + (membresias + 1));
+                st.execute("ALTER TABLE invitaciones_equipo ALTER COLUMN id RESTART WITH " + (invitaciones + 1));
+            }
+            conexion.commit();
+        }
+
+        return new Resumen(equipos, membresias, invitaciones, usuarios, masGrandes(tamanios, 20));
+    }
+
+    // Pareto (alfa 1.5, mínimo 5): media ~15 con cola larga, truncada a TAMANIO_MAXIMO_EQUIPO
+    private int tamanioEquipo() {
+        double u = 1.0 - random.nextDouble();
+        return (int) Math.min(TAMANIO_MAXIMO_EQUIPO, Math.floor(5.0 / Math.pow(u, 1.0 / 1.5)));
+    }
+
+    // Índice en [0, n) con probabilidad ~ 1/(i+1)
+    private int zipf(int n) {
+        double armonico = 0;
+        for (int i = 1; i <= n; i++) {
+            armonico += 1.0 / i;
+        }
+        double objetivo = random.nextDouble() * armonico;
+        double acumulado = 0;
+        for (int i = 0; i < n; i++) {
+            acumulado += 1.0 / (i + 1);
+            if (acumulado >= objetivo) {
+                return i;
+            }
+        }
+        return n - 1;
+    }
+
+    private int usuarioDistinto(Set<Integer> usados, int usuarios) {
+        int usuarioId;
+        do {
+            usuarioId = 1 + random.nextInt(usuarios);
+        } while (!usados.add(usuarioId));
+        return usuarioId;
+    }
+
+    private static List<Integer> masGrandes(int[] tamanios, int cuantos) {
+        List<Integer> ids = new ArrayList<>();
+        for (int id = 1; id < tamanios.length; id++) {
+            ids.add(id);
+        }
+        ids.sort((a, b) -> Integer.compare(tamanios[b], tamanios[a]));
+        return List.copyOf(ids.subList(0, Math.min(cuantos, ids.size())));
+    }
+
+    private static void agregarALote(PreparedStatement ps, Connection conexion, long contador) throws SQLException {
+        ps.addBatch();
+        if (contador % TAMANIO_LOTE == 0) {
+            ejecutarLote(ps, conexion);
+        }
+    }
+
+    private static void ejecutarLote(PreparedStatement ps, Connection conexion) throws SQLException {
+        ps.executeBatch();
+        conexion.commit();
+    }
+}
@@ -0,0 +1,83 @@
+package org.esfe.carga;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registra la latencia y el código HTTP de cada solicitud de un escenario y resume
+ * throughput y percentiles al final.
+ */
+public class MedidorLatencias {
+
+    private final String escenario;
+    private final ConcurrentLinkedQueue<Long> latenciasNanos = new ConcurrentLinkedQueue<>();
+    private final Map<Integer, LongAdder> porCodigo = new ConcurrentHashMap<>();
+    private final LongAdder fallos = new LongAdder();
+    private final ConcurrentLinkedQueue<String> muestrasDeError = new ConcurrentLinkedQueue<>();
+    private long inicioNanos;
+    private long finNanos;
+
+    public MedidorLatencias(String escenario) {
+        this.escenario = escenario;
+    }
+
+    public void iniciar() {
+        inicioNanos = System.nanoTime();
+    }
+
+    public void terminar() {
+        finNanos = System.nanoTime();
+    }
+
+    public void registrar(long nanos, int codigo, String cuerpo) {
+        latenciasNanos.add(nanos);
+        porCodigo.computeIfAbsent(codigo, c -> new LongAdder()).increment();
+        if (codigo >= 500 && codigo != 503 && muestrasDeError.size() < 5) {
+            muestrasDeError.add(codigo + ": " + cuerpo);
+        }
+    }
+
+    // Error de red/cliente (sin respuesta HTTP)
+    public void registrarFallo() {
+        fallos.increment();
+    }
+
+    public long contar(int codigo) {
+        LongAdder contador = porCodigo.get(codigo);
+        return contador == null ? 0 : contador.sum();
+    }
+
+    public long contarErroresServidor() {
+        return porCodigo.entrySet().stream()
+                .filter(e -> e.getKey() >= 500 && e.getKey() != 503) // 503 = descarte del limitador
+                .mapToLong(e -> e.getValue().sum())
+                .sum() + fallos.sum();
+    }
+
+    public String reporte() {
+        long[] ordenadas = latenciasNanos.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(ordenadas);
+        double segundos = (finNanos - inicioNanos) / 1e9;
+        Map<Integer, Long> codigos = new TreeMap<>();
+        porCodigo.forEach((codigo, n) -> codigos.put(codigo, n.sum()));
+
+        String muestras = muestrasDeError.isEmpty() ? "" : "%n  errores: " + String.join("%n  ", muestrasDeError);
+        return String.format("%-22s %7d sol. %8.1f sol/s  p50 %7.2f ms  p90 %7.2f ms  p99 %7.2f ms  max %8.2f ms  códigos %s  fallos %d",
+                escenario, ordenadas.length, ordenadas.length / segundos,
+                percentil(ordenadas, 0.50), percentil(ordenadas, 0.90), percentil(ordenadas, 0.99),
+                ordenadas.length == 0 ? 0 : ordenadas[ordenadas.length - 1] / 1e6,
+                codigos, fallos.sum()) + muestras.replace("%n", System.lineSeparator());
+    }
+
+    private static double percentil(long[] ordenadas, double p) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        int indice = (int) Math.ceil(p * ordenadas.length) - 1;
+        return ordenadas[Math.max(0, Math.min(indice, ordenadas.length - 1))] / 1e6;
+    }
+}
@@ -0,0 +1,129 @@
+package org.esfe.clientes;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba el cliente de referencias contra un servidor HTTP local que simula la API de Usuarios:
+ * responde como existentes solo los IDs pares.
+ */
+class LoteadorReferenciasTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger solicitudes = new AtomicInteger();
+    private volatile int codigoRespuesta = 200;
+
+    private HttpServer servidor;
+    private ReferenciasHttpClient client;
+
+    @BeforeEach
+    void iniciarServidor() throws Exception {
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.createContext("/usuarios/existentes", exchange -> {
+            solicitudes.incrementAndGet();
+            List<Integer> ids = objectMapper.readValue(exchange.getRequestBody(), new TypeReference<List<Integer>>() {
+            });
+            byte[] cuerpo = objectMapper.writeValueAsBytes(ids.stream().filter(id -> id % 2 == 0).toList());
+            exchange.sendResponseHeaders(codigoRespuesta, cuerpo.length);
+            try (OutputStream salida = exchange.getResponseBody()) {
+                salida.write(cuerpo);
+            }
+        });
+        servidor.start();
+
+        String base = "http://127.0.0.1:" + servidor.getAddress().getPort();
+        client = new ReferenciasHttpClient(objectMapper, base + "/usuarios/existentes", base + "/tipos/existentes", Duration.ofSeconds(2));
+    }
+
+    @AfterEach
+    void detenerServidor() {
+        servidor.stop(0);
+    }
+
+    private LoteadorReferencias loteador(CircuitoReferencias circuito) {
+        return new LoteadorReferencias("usuarios", client::usuariosExistentes, circuito,
+                Duration.ofMillis(50), 100, Duration.ofMinutes(1), Duration.ofMinutes(1), 1000);
+    }
+
+    @Test
+    void agrupaConsultasConcurrentesEnUnaSolicitud() throws Exception {
+        try (LoteadorReferencias loteador = loteador(new CircuitoReferencias(5, Duration.ofSeconds(30)))) {
+            List<CompletableFuture<Boolean>> futuros = new ArrayList<>();
+            for (int id = 1; id <= 20; id++) {
+                futuros.add(loteador.existe(id));
+            }
+
+            for (int id = 1; id <= 20; id++) {
+                assertEquals(id % 2 == 0, futuros.get(id - 1).get(2, TimeUnit.SECONDS));
+            }
+            assertEquals(1, solicitudes.get());
+
+            // Positivos y negativos quedan en caché
+            assertTrue(loteador.existe(4).get(2, TimeUnit.SECONDS));
+            assertFalse(loteador.existe(5).get(2, TimeUnit.SECONDS));
+            assertEquals(1, solicitudes.get());
+        }
+    }
+
+    @Test
+    void abreElCircuitoTrasFallosConsecutivos() throws Exception {
+        codigoRespuesta = 500;
+        CircuitoReferencias circuito = new CircuitoReferencias(2, Duration.ofSeconds(30));
+
+        try (LoteadorReferencias loteador = loteador(circuito)) {
+            for (int id = 1; id <= 2; id++) {
+                CompletableFuture<Boolean> futuro = loteador.existe(id);
+                assertThrows(ExecutionException.class, () -> futuro.get(2, TimeUnit.SECONDS));
+            }
+            assertTrue(circuito.estaAbierto());
+
+            // Con el circuito abierto no se llama a la API remota
+            int antes = solicitudes.get();
+            CompletableFuture<Boolean> rechazado = loteador.existe(3);
+            assertThrows(ExecutionException.class, () -> rechazado.get(2, TimeUnit.SECONDS));
+            assertEquals(antes, solicitudes.get());
+        }
+    }
+
+    @Test
+    void semiabiertoPruebaConUnSoloLote() throws Exception {
+        codigoRespuesta = 500;
+        CircuitoReferencias circuito = new CircuitoReferencias(1, Duration.ofMillis(100));
+
+        try (LoteadorReferencias loteador = loteador(circuito)) {
+            CompletableFuture<Boolean> fallido = loteador.existe(1);
+            assertThrows(ExecutionException.class, () -> fallido.get(2, TimeUnit.SECONDS));
+            assertTrue(circuito.estaAbierto());
+
+            // Vencida la espera, las consultas que llegan juntas viajan en un único lote de prueba
+            codigoRespuesta = 200;
+            Thread.sleep(150);
+            int antes = solicitudes.get();
+            List<CompletableFuture<Boolean>> futuros = new ArrayList<>();
+            for (int id = 2; id <= 11; id++) {
+                futuros.add(loteador.existe(id));
+            }
+            for (int id = 2; id <= 11; id++) {
+                assertEquals(id % 2 == 0, futuros.get(id - 2).get(2, TimeUnit.SECONDS));
+            }
+            assertEquals(antes + 1, solicitudes.get());
+            assertFalse(circuito.estaAbierto());
+        }
+    }
+}
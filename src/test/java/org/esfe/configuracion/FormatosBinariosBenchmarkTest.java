@@ -0,0 +1,174 @@
+package org.esfe.configuracion;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.esfe.dtos.equipo.EquipoReferenciaDto;
+import org.esfe.dtos.equipo.EquipoSalidaDto;
+import org.esfe.dtos.invitacion.InvitacionSalidaDto;
+import org.esfe.dtos.miembro.MiembroSalidaDto;
+import org.esfe.enums.EstadoInvitacion;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compara tamaño de payload y tiempo de codificación/decodificación de páginas de DTOs en JSON,
+ * CBOR y Smile. Los tiempos solo se registran en el log (dependen de la máquina); el tamaño y la ida
+ * y vuelta sí se verifican. Como las pruebas de carga, solo corre con el perfil -Pcarga.
+ */
+@Tag("carga")
+class FormatosBinariosBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(FormatosBinariosBenchmarkTest.class);
+
+    private static final int TAMANIO_PAGINA = 500;
+    private static final int ITERACIONES = 200;
+
+    private final Map<String, ObjectMapper> mappers = new LinkedHashMap<>();
+
+    FormatosBinariosBenchmarkTest() {
+        mappers.put("json", Jackson2ObjectMapperBuilder.json().build());
+        mappers.put("cbor", FormatosBinariosConfig.cborMapper(Jackson2ObjectMapperBuilder.json()));
+        mappers.put("smile", FormatosBinariosConfig.smileMapper(Jackson2ObjectMapperBuilder.json()));
+    }
+
+    @Test
+    void paginaDeEquipos() throws Exception {
+        comparar("EquipoSalidaDto", pagina(this::equipo), new TypeReference<List<EquipoSalidaDto>>() {
+        });
+    }
+
+    @Test
+    void paginaDeMiembros() throws Exception {
+        comparar("MiembroSalidaDto", pagina(this::miembro), new TypeReference<List<MiembroSalidaDto>>() {
+        });
+    }
+
+    @Test
+    void paginaDeInvitaciones() throws Exception {
+        comparar("InvitacionSalidaDto", pagina(this::invitacion), new TypeReference<List<InvitacionSalidaDto>>() {
+        });
+    }
+
+    private <T> void comparar(String nombre, Page<T> pagina, TypeReference<List<T>> tipoContenido) throws Exception {
+        Map<String, Integer> tamanios = new LinkedHashMap<>();
+
+        for (Map.Entry<String, ObjectMapper> entrada : mappers.entrySet()) {
+            ObjectMapper mapper = entrada.getValue();
+            byte[] bytes = mapper.writeValueAsBytes(pagina);
+            tamanios.put(entrada.getKey(), bytes.length);
+
+            // Ida y vuelta: el contenido decodificado debe coincidir con el original
+            JsonNode arbol = mapper.readTree(bytes);
+            List<T> contenido = mapper.convertValue(arbol.get("content"), tipoContenido);
+            assertEquals(pagina.getContent().size(), contenido.size());
+            assertEquals(mappers.get("json").writeValueAsString(pagina.getContent()),
+                    mappers.get("json").writeValueAsString(contenido));
+            assertEquals(pagina.getTotalElements(), arbol.get("totalElements").asLong());
+
+            for (int i = 0; i < ITERACIONES; i++) {
+                mapper.readTree(mapper.writeValueAsBytes(pagina));
+            }
+            long inicio = System.nanoTime();
+            for (int i = 0; i < ITERACIONES; i++) {
+                mapper.writeValueAsBytes(pagina);
+            }
+            long codificacion = System.nanoTime() - inicio;
+            inicio = System.nanoTime();
+            for (int i = 0; i < ITERACIONES; i++) {
+                mapper.readTree(bytes);
+            }
+            long decodificacion = System.nanoTime() - inicio;
+
+            log.info("{} {}: {} bytes, codificar {} us, decodificar {} us",
+                    nombre, entrada.getKey(), bytes.length,
+                    String.format("%.1f", codificacion / 1000.0 / ITERACIONES),
+                    String.format("%.1f", decodificacion / 1000.0 / ITERACIONES));
+        }
+
+        assertTrue(tamanios.get("cbor") < tamanios.get("json"), "CBOR debería ser más compacto que JSON");
+        assertTrue(tamanios.get("smile") < tamanios.get("json"), "Smile debería ser más compacto que JSON");
+    }
+
+    // --- Datos de ejemplo ---
+
+    private <T> Page<T> pagina(IntFunction<T> fabrica) {
+        List<T> contenido = new ArrayList<>(TAMANIO_PAGINA);
+        for (int i = 1; i <= TAMANIO_PAGINA; i++) {
+            contenido.add(fabrica.apply(i));
+        }
+        return new PageImpl<>(contenido, PageRequest.of(0, TAMANIO_PAGINA), TAMANIO_PAGINA * 20L);
+    }
+
+    private EquipoReferenciaDto referencia(int i) {
+        EquipoReferenciaDto equipo = new EquipoReferenciaDto();
+        equipo.setId(i % 50 + 1);
+        equipo.setNombre("Equipo " + (i % 50 + 1));
+        equipo.setLogo("https://cdn.example.com/logos/" + (i % 50 + 1) + ".png");
+        equipo.setCiudad(i % 2 == 0 ? "San Salvador" : "Santa Ana");
+        return equipo;
+    }
+
+    private EquipoSalidaDto equipo(int i) {
+        EquipoSalidaDto equipo = new EquipoSalidaDto();
+        equipo.setId(i);
+        equipo.setNombre("Equipo " + i);
+        equipo.setCreadoPor(1000 + i);
+        equipo.setTipoDeporteId(i % 5 + 1);
+        equipo.setDescripcion("Equipo amateur que entrena los fines de semana");
+        equipo.setLogo("https://cdn.example.com/logos/" + i + ".png");
+        equipo.setColorPrincipal("#1E88E5");
+        equipo.setColorSecundario("#FFFFFF");
+        equipo.setCiudad(i % 2 == 0 ? "San Salvador" : "Santa Ana");
+        equipo.setNivel("intermedio");
+        equipo.setMaxMiembros(20);
+        equipo.setRequiereAprobacion(i % 3 == 0);
+        equipo.setCalificacionPromedio(3.5 + (i % 10) / 10.0);
+        equipo.setTotalCalificaciones(i * 3);
+        equipo.setEstaActivo(true);
+        equipo.setFechaCreacion(LocalDateTime.of(2025, 1, 1, 10, 0).plusMinutes(i));
+        equipo.setFechaActualizacion(LocalDateTime.of(2025, 6, 1, 10, 0).plusMinutes(i));
+        return equipo;
+    }
+
+    private MiembroSalidaDto miembro(int i) {
+        MiembroSalidaDto miembro = new MiembroSalidaDto();
+        miembro.setId(i);
+        miembro.setEquipoId(i % 50 + 1);
+        miembro.setUsuarioId(2000 + i);
+        miembro.setRol(i % 20 == 0 ? "capitan" : "jugador");
+        miembro.setNumeroCamiseta(i % 99 + 1);
+        miembro.setPosicion("delantero");
+        miembro.setEstado("activo");
+        miembro.setFechaUnion(LocalDateTime.of(2025, 2, 1, 18, 30).plusHours(i));
+        miembro.setEquipo(referencia(i));
+        return miembro;
+    }
+
+    private InvitacionSalidaDto invitacion(int i) {
+        InvitacionSalidaDto invitacion = new InvitacionSalidaDto();
+        invitacion.setId(i);
+        invitacion.setUsuarioInvitadoId(3000 + i);
+        invitacion.setUsuarioRemitenteId(1000 + i % 50);
+        invitacion.setMensaje("¡Te invitamos a unirte al equipo!");
+        invitacion.setEstado(EstadoInvitacion.values()[i % EstadoInvitacion.values().length]);
+        invitacion.setFechaCreacion(LocalDateTime.of(2025, 3, 1, 9, 0).plusMinutes(i));
+        invitacion.setEquipo(referencia(i));
+        return invitacion;
+    }
+}
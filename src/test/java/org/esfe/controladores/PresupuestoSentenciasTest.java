@@ -0,0 +1,272 @@
+package org.esfe.controladores;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.esfe.cache.EquipoCache;
+import org.esfe.cache.EquipoRespuestaCache;
+import org.esfe.cache.PlantillaCache;
+import org.esfe.indices.FiltroNombresEquipo;
+import org.esfe.indices.IndiceFacetas;
+import org.esfe.indices.IndiceMatchmaking;
+import org.esfe.indices.IndiceMembresias;
+import org.esfe.sql.ContadorSentencias;
+import org.esfe.sql.ContadorSentencias.TipoSentencia;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.request;
+
+/**
+ * Fija el máximo de sentencias SQL (por tipo) que puede ejecutar cada endpoint.
+ * <p>
+ * Cada caso parte de los mismos datos y con las cachés frías (segundo nivel de Hibernate, cachés
+ * de equipos y respuestas), así que el presupuesto corresponde al peor caso de la solicitud.
+ * Si un cambio agrega consultas (un {@code getEquipo()} perezoso en un mapeo, un {@code existsById}
+ * antes de un {@code deleteById}, ...) la prueba falla mostrando las sentencias ejecutadas. Si un
+ * cambio las reduce, basta con bajar el presupuesto del caso.
+ */
+@SpringBootTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=org.esfe.sql.ContadorSentencias")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PresupuestoSentenciasTest {
+
+    /** Máximo de sentencias permitidas por tipo. */
+    record Presupuesto(int select, int insert, int update, int delete) {
+        int de(TipoSentencia tipo) {
+            return switch (tipo) {
+                case SELECT -> select;
+                case INSERT -> insert;
+                case UPDATE -> update;
+                case DELETE -> delete;
+                case OTRA -> 0;
+            };
+        }
+    }
+
+    record Caso(String nombre, HttpMethod metodo, String uri, String cuerpo, int estado, Presupuesto presupuesto) {
+        @Override
+        public String toString() {
+            return nombre;
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EquipoCache equipoCache;
+
+    @Autowired
+    private EquipoRespuestaCache respuestaCache;
+
+    @Autowired
+    private PlantillaCache plantillaCache;
+
+    @Autowired
+    private IndiceMembresias indiceMembresias;
+
+    @Autowired
+    private FiltroNombresEquipo filtroNombres;
+
+    @Autowired
+    private IndiceMatchmaking indiceMatchmaking;
+
+    @Autowired
+    private IndiceFacetas indiceFacetas;
+
+    static Stream<Caso> casos() {
+        return Stream.of(
+                // --- /api/equipos ---
+                get("equipos: listado", "/api/equipos?size=2", 200, 2),
+                get("equipos: listado con búsqueda", "/api/equipos?busqueda=tig&size=2", 200, 1),
+                get("equipos: slice", "/api/equipos/slice?size=2", 200, 1),
+                get("equipos: búsqueda", "/api/equipos/busqueda?tipoDeporteId=1&estaActivo=true&size=2", 200, 2),
+                get("equipos: búsqueda por texto", "/api/equipos/busqueda?texto=Tig&nivel=intermedio&sort=nombre,asc&size=2", 200, 1),
+                get("equipos: búsqueda slice", "/api/equipos/busqueda/slice?tipoDeporteId=1&size=2", 200, 1),
+                get("equipos: mis equipos", "/api/equipos/mis-equipos/200?size=2", 200, 1),
+                get("equipos: mis equipos ordenados", "/api/equipos/mis-equipos/200?size=2&sort=fechaUnion,desc", 200, 3),
+                get("equipos: mis equipos slice", "/api/equipos/mis-equipos/200/slice?size=2", 200, 1),
+                get("equipos: por deporte", "/api/equipos/filtro/deporte?tipoDeporteId=1&size=2", 200, 2),
+                get("equipos: por deporte slice", "/api/equipos/filtro/deporte/slice?tipoDeporteId=1&size=2", 200, 1),
+                get("equipos: por calificación", "/api/equipos/filtro/calificacion?minima=4&size=2", 200, 2),
+                get("equipos: por calificación slice", "/api/equipos/filtro/calificacion/slice?minima=4&size=2", 200, 1),
+                get("equipos: facetas", "/api/equipos/facetas?tipoDeporteId=1&estaActivo=true", 200, 0),
+                get("equipos: matchmaking", "/api/equipos/matchmaking?tipoDeporteId=1&ciudad=San Salvador&nivel=intermedio", 200, 0),
+                get("equipos: lote", "/api/equipos/lote?ids=1,2,3", 200, 1),
+                get("equipos: lote con ID nulo", "/api/equipos/lote?ids=1,,3", 400, 0),
+                caso("equipos: lote (POST)", HttpMethod.POST, "/api/equipos/lote", "{\"ids\":[1,2,3]}", 200, 1, 0, 0, 0),
+                get("equipos: por id", "/api/equipos/1", 200, 1),
+                get("equipos: por id inexistente", "/api/equipos/999", 404, 2),
+                get("equipos: plantilla", "/api/equipos/1/plantilla", 200, 2),
+                get("equipos: estadísticas", "/api/equipos/1/estadisticas", 200, 2),
+                caso("equipos: crear", HttpMethod.POST, "/api/equipos",
+                        "{\"nombre\":\"Pumas\",\"creadoPor\":150,\"tipoDeporteId\":1,\"ciudad\":\"San Miguel\",\"nivel\":\"intermedio\"," +
+                        "\"maxMiembros\":15,\"requiereAprobacion\":false,\"estaActivo\":true}", 201, 0, 1, 0, 0),
+                // "aguilas" choca con "Águilas": la unicidad no distingue tildes ni mayúsculas
+                caso("equipos: crear con nombre repetido", HttpMethod.POST, "/api/equipos",
+                        "{\"nombre\":\"aguilas\",\"creadoPor\":150,\"tipoDeporteId\":1,\"ciudad\":\"San Miguel\",\"nivel\":\"intermedio\"," +
+                        "\"maxMiembros\":15,\"requiereAprobacion\":false,\"estaActivo\":true}", 409, 1, 0, 0, 0),
+                caso("equipos: renombrar a nombre repetido", HttpMethod.PUT, "/api/equipos/1",
+                        "{\"id\":1,\"nombre\":\"  AGUILAS \",\"creadoPor\":100,\"tipoDeporteId\":1,\"ciudad\":\"San Salvador\",\"nivel\":\"avanzado\"," +
+                        "\"maxMiembros\":20,\"requiereAprobacion\":false,\"estaActivo\":true}", 409, 2, 0, 0, 0),
+                caso("equipos: editar", HttpMethod.PUT, "/api/equipos/1",
+                        "{\"id\":1,\"nombre\":\"Tigres FC\",\"creadoPor\":100,\"tipoDeporteId\":1,\"ciudad\":\"San Salvador\",\"nivel\":\"avanzado\"," +
+                        "\"maxMiembros\":20,\"requiereAprobacion\":false,\"estaActivo\":true}", 200, 2, 0, 1, 0),
+                caso("equipos: cambiar estado", HttpMethod.PUT, "/api/equipos/estado/1", "{\"id\":1,\"estaActivo\":false}", 200, 1, 0, 1, 0),
+                caso("equipos: cambiar aprobación", HttpMethod.PUT, "/api/equipos/aprobacion/1", "{\"id\":1,\"requiereAprobacion\":true}", 200, 1, 0, 1, 0),
+                caso("equipos: eliminar", HttpMethod.DELETE, "/api/equipos/3", null, 200, 0, 0, 0, 4),
+
+                // --- /api/miembros ---
+                get("miembros: por id", "/api/miembros/1", 200, 2),
+                get("miembros: por equipo", "/api/miembros/equipo/1?size=2", 200, 3),
+                get("miembros: por equipo slice", "/api/miembros/equipo/1/slice?size=2", 200, 2),
+                get("miembros: por usuario", "/api/miembros/usuario/200?size=2", 200, 4),
+                get("miembros: por usuario slice", "/api/miembros/usuario/200/slice?size=2", 200, 3),
+                get("miembros: es miembro activo", "/api/miembros/equipo/1/usuario/200/activo", 200, 0),
+                get("miembros: equipos en común", "/api/miembros/usuario/200/en-comun/100", 200, 0),
+                caso("miembros: crear", HttpMethod.POST, "/api/miembros",
+                        "{\"equipoId\":2,\"usuarioId\":250,\"rol\":\"jugador\",\"numeroCamiseta\":9}", 201, 2, 1, 0, 0),
+                caso("miembros: editar", HttpMethod.PUT, "/api/miembros/2",
+                        "{\"id\":2,\"rol\":\"vice_capitan\",\"numeroCamiseta\":10,\"posicion\":\"defensa\"}", 200, 2, 0, 1, 0),
+                caso("miembros: gestionar estado", HttpMethod.PUT, "/api/miembros/estado/2",
+                        "{\"id\":2,\"nuevoEstado\":\"suspendido\"}", 200, 2, 0, 1, 0),
+                caso("miembros: eliminar", HttpMethod.DELETE, "/api/miembros/2", null, 200, 2, 0, 0, 1),
+
+                // --- /api/invitaciones ---
+                get("invitaciones: por id", "/api/invitaciones/1", 200, 2),
+                get("invitaciones: listado", "/api/invitaciones?size=2", 200, 4),
+                get("invitaciones: slice", "/api/invitaciones/slice?size=2", 200, 3),
+                get("invitaciones: por usuario", "/api/invitaciones/usuario/300?size=2", 200, 4),
+                get("invitaciones: por usuario slice", "/api/invitaciones/usuario/300/slice?size=2", 200, 3),
+                get("invitaciones: por equipo", "/api/invitaciones/equipo/1?size=2", 200, 3),
+                get("invitaciones: por equipo slice", "/api/invitaciones/equipo/1/slice?size=2", 200, 2),
+                caso("invitaciones: crear", HttpMethod.POST, "/api/invitaciones",
+                        "{\"equipoId\":2,\"usuarioInvitadoId\":350,\"usuarioRemitenteId\":101,\"mensaje\":\"¡Únete!\"}", 201, 4, 1, 0, 0),
+                caso("invitaciones: aceptar", HttpMethod.PUT, "/api/invitaciones/1/respuesta",
+                        "{\"id\":1,\"nuevoEstado\":\"ACEPTADA\",\"usuarioRespondioId\":300}", 200, 4, 1, 1, 0),
+                caso("invitaciones: rechazar", HttpMethod.PUT, "/api/invitaciones/2/respuesta",
+                        "{\"id\":2,\"nuevoEstado\":\"RECHAZADA\",\"usuarioRespondioId\":300}", 200, 2, 0, 1, 0),
+                caso("invitaciones: eliminar", HttpMethod.DELETE, "/api/invitaciones/5", null, 200, 2, 0, 0, 1),
+
+                // --- /api/dashboard ---
+                get("dashboard: usuario", "/api/dashboard/usuario/200", 200, 4),
+
+                // --- /api/auditoria (segmentos locales, nunca la base de datos) ---
+                get("auditoria: por equipo", "/api/auditoria?equipoId=1", 200, 0)
+        );
+    }
+
+    private static Caso get(String nombre, String uri, int estado, int selects) {
+        return new Caso(nombre, HttpMethod.GET, uri, null, estado, new Presupuesto(selects, 0, 0, 0));
+    }
+
+    private static Caso caso(String nombre, HttpMethod metodo, String uri, String cuerpo, int estado,
+                             int select, int insert, int update, int delete) {
+        return new Caso(nombre, metodo, uri, cuerpo, estado, new Presupuesto(select, insert, update, delete));
+    }
+
+    @BeforeEach
+    void prepararDatos() {
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        for (String tabla : new String[]{"invitaciones_equipo", "equipo_miembros", "equipos", "equipo_actividad"}) {
+            jdbcTemplate.execute("TRUNCATE TABLE " + tabla + " RESTART IDENTITY");
+        }
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+
+        jdbcTemplate.update("""
+                INSERT INTO equipos (id, nombre, nombre_normalizado, creado_por, tipo_deporte_id, ciudad, nivel, max_miembros, requiere_aprobacion,
+                                     calificacion_promedio, total_calificaciones, esta_activo, fecha_creacion, fecha_actualizacion)
+                VALUES (1, 'Tigres', 'tigres', 100, 1, 'San Salvador', 'INTERMEDIO', 15, FALSE, 4.50, 10, TRUE, NOW(), NOW()),
+                       (2, 'Leones', 'leones', 101, 1, 'Santa Ana', 'AVANZADO', 15, TRUE, 4.20, 8, TRUE, NOW(), NOW()),
+                       (3, 'Águilas', 'aguilas', 100, 2, 'San Salvador', 'PRINCIPIANTE', 15, FALSE, 3.90, 5, TRUE, NOW(), NOW())
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO equipo_miembros (id, equipo_id, usuario_id, rol, numero_camiseta, posicion, estado, fecha_union)
+                VALUES (1, 1, 100, 'CAPITAN', 1, 'portero', 'ACTIVO', NOW()),
+                       (2, 1, 200, 'JUGADOR', 7, 'delantero', 'ACTIVO', NOW()),
+                       (3, 1, 201, 'JUGADOR', 8, 'defensa', 'ACTIVO', NOW()),
+                       (4, 2, 101, 'CAPITAN', 1, 'portero', 'ACTIVO', NOW()),
+                       (5, 2, 200, 'JUGADOR', 9, 'delantero', 'ACTIVO', NOW()),
+                       (6, 3, 100, 'CAPITAN', 1, 'portero', 'ACTIVO', NOW()),
+                       (7, 3, 200, 'JUGADOR', 10, 'medio', 'ACTIVO', NOW())
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO invitaciones_equipo (id, equipo_id, usuario_invitado_id, usuario_remitente_id, mensaje, estado, fecha_creacion)
+                VALUES (1, 1, 300, 100, 'Hola', 'PENDIENTE', NOW()),
+                       (2, 2, 300, 101, 'Hola', 'PENDIENTE', NOW()),
+                       (3, 3, 300, 100, 'Hola', 'PENDIENTE', NOW()),
+                       (4, 1, 301, 100, 'Hola', 'ACEPTADA', NOW()),
+                       (5, 1, 302, 100, 'Hola', 'PENDIENTE', NOW())
+                """);
+        jdbcTemplate.execute("ALTER TABLE equipos ALTER COLUMN id RESTART WITH 4");
+        jdbcTemplate.execute("ALTER TABLE equipo_miembros ALTER COLUMN id RESTART WITH 8");
+        jdbcTemplate.execute("ALTER TABLE invitaciones_equipo ALTER COLUMN id RESTART WITH 6");
+
+        // Cachés frías: el presupuesto es el de una solicitud que llega a la base de datos
+        entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class).evictAllRegions();
+        for (int id = 1; id <= 10; id++) {
+            equipoCache.invalidar(id);
+            respuestaCache.invalidar(id);
+            plantillaCache.invalidar(id);
+        }
+        indiceMembresias.reconstruir();
+        indiceMatchmaking.reconstruir();
+        indiceFacetas.reconstruir();
+        filtroNombres.reconstruir();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("casos")
+    void respetaPresupuesto(Caso caso) throws Exception {
+        MockHttpServletRequestBuilder solicitud = request(caso.metodo(), caso.uri()).accept(MediaType.APPLICATION_JSON);
+        if (caso.cuerpo() != null) {
+            solicitud.contentType(MediaType.APPLICATION_JSON).content(caso.cuerpo());
+        }
+
+        ContadorSentencias.iniciar();
+        MvcResult resultado;
+        ContadorSentencias.Conteo conteo;
+        try {
+            resultado = mockMvc.perform(solicitud).andReturn();
+        } finally {
+            conteo = ContadorSentencias.detener();
+        }
+
+        String cuerpo = resultado.getResponse().getContentAsString();
+        assertEquals(caso.estado(), resultado.getResponse().getStatus(), () -> caso + ": " + cuerpo);
+
+        String detalle = caso + " ejecutó " + conteo + System.lineSeparator()
+                + String.join(System.lineSeparator(), conteo.sentencias());
+        for (TipoSentencia tipo : TipoSentencia.values()) {
+            assertTrue(conteo.de(tipo) <= caso.presupuesto().de(tipo),
+                    () -> "Se excedió el presupuesto de " + tipo + " (" + caso.presupuesto().de(tipo) + ") en " + detalle);
+        }
+        if (conteo.total() < total(caso.presupuesto())) {
+            System.out.println("Presupuesto holgado, se puede ajustar: " + caso + " ejecutó " + conteo);
+        }
+    }
+
+    private static int total(Presupuesto presupuesto) {
+        return presupuesto.select() + presupuesto.insert() + presupuesto.update() + presupuesto.delete();
+    }
+}
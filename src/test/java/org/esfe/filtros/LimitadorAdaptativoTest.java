@@ -0,0 +1,118 @@
+package org.esfe.filtros;
+
+import org.esfe.enums.PrioridadSolicitud;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Simula tráfico contra el limitador: cada paso ocupa lugares hasta la concurrencia pedida y libera
+ * uno con la latencia indicada.
+ */
+class LimitadorAdaptativoTest {
+
+    private static final long MICROS = TimeUnit.MICROSECONDS.toNanos(1);
+
+    private final Random random = new Random(42);
+
+    private LimitadorAdaptativo limitador() {
+        return new LimitadorAdaptativo(20, 4, 200, 2.0, 0.9);
+    }
+
+    // Mezcla habitual de un grupo: aciertos de caché (~0.2 ms) y lecturas a MySQL (~15 ms)
+    private long latenciaMixta() {
+        return random.nextInt(10) < 7 ? 200 * MICROS : 15_000 * MICROS;
+    }
+
+    private int ocupados;
+
+    private void ejecutar(LimitadorAdaptativo limitador, int solicitudes, int concurrencia,
+                          LongSupplier latencia, boolean exito) {
+        for (int i = 0; i < solicitudes; i++) {
+            while (ocupados < concurrencia && limitador.intentarAdquirir(PrioridadSolicitud.ALTA)) {
+                ocupados++;
+            }
+            if (ocupados > 0) {
+                limitador.liberar(latencia.getAsLong(), exito);
+                ocupados--;
+            }
+        }
+    }
+
+    @Test
+    void mezclaNormalDeLatenciasNoReduceElLimite() {
+        LimitadorAdaptativo limitador = limitador();
+
+        ejecutar(limitador, 5_000, 15, this::latenciaMixta, true);
+
+        assertTrue(limitador.getLimite() >= 20, () -> "El límite cayó a " + limitador.getLimite());
+    }
+
+    @Test
+    void crecePocoAPocoSoloSiSeUsaElLimite() {
+        LimitadorAdaptativo ocioso = limitador();
+        ejecutar(ocioso, 2_000, 2, this::latenciaMixta, true);
+        assertEquals(20, ocioso.getLimite());
+
+        LimitadorAdaptativo usado = limitador();
+        ejecutar(usado, 2_000, 200, this::latenciaMixta, true);
+        double limite = usado.getLimite();
+        assertTrue(limite > 20 && limite <= 20 + 2_000 / LimitadorAdaptativo.MUESTRAS_POR_VENTANA,
+                () -> "Límite inesperado: " + limite);
+    }
+
+    @Test
+    void congestionReduceElLimiteYLuegoSeRecupera() {
+        LimitadorAdaptativo limitador = limitador();
+        ejecutar(limitador, 1_000, 15, this::latenciaMixta, true);
+        double antes = limitador.getLimite();
+
+        // MySQL se vuelve lento: todo tarda diez veces más durante unas ventanas
+        ejecutar(limitador, 5 * LimitadorAdaptativo.MUESTRAS_POR_VENTANA, 200, () -> latenciaMixta() * 10, true);
+        double congestionado = limitador.getLimite();
+        assertTrue(congestionado < antes, () -> "No se redujo: " + antes + " -> " + congestionado);
+        assertTrue(congestionado >= 4);
+
+        // La latencia vuelve a la normalidad con demanda alta: el límite sube de nuevo
+        ejecutar(limitador, 2_000, 200, this::latenciaMixta, true);
+        assertTrue(limitador.getLimite() > congestionado,
+                () -> "No se recuperó: " + congestionado + " -> " + limitador.getLimite());
+    }
+
+    @Test
+    void fallosFrecuentesReducenElLimite() {
+        LimitadorAdaptativo limitador = limitador();
+        ejecutar(limitador, 3 * LimitadorAdaptativo.MUESTRAS_POR_VENTANA, 15, this::latenciaMixta, false);
+
+        assertEquals(20 * 0.9 * 0.9 * 0.9, limitador.getLimite(), 1e-9);
+    }
+
+    @Test
+    void prioridadPorRuta() {
+        assertEquals(PrioridadSolicitud.BAJA, prioridad("POST", "/api/equipos/lote"));
+        assertEquals(PrioridadSolicitud.BAJA, prioridad("GET", "/api/equipos/lote"));
+        assertEquals(PrioridadSolicitud.BAJA, prioridad("GET", "/api/equipos"));
+        assertEquals(PrioridadSolicitud.BAJA, prioridad("GET", "/api/equipos/busqueda/slice"));
+        assertEquals(PrioridadSolicitud.BAJA, prioridad("GET", "/api/equipos/mis-equipos/20"));
+        assertEquals(PrioridadSolicitud.BAJA, prioridad("GET", "/api/miembros/equipo/1"));
+        assertEquals(PrioridadSolicitud.BAJA, prioridad("GET", "/api/invitaciones/usuario/300"));
+
+        assertEquals(PrioridadSolicitud.NORMAL, prioridad("GET", "/api/equipos/5"));
+        assertEquals(PrioridadSolicitud.NORMAL, prioridad("GET", "/api/equipos/5/plantilla"));
+        assertEquals(PrioridadSolicitud.NORMAL, prioridad("GET", "/api/miembros/equipo/1/usuario/200/activo"));
+        assertEquals(PrioridadSolicitud.NORMAL, prioridad("GET", "/api/dashboard/usuario/20"));
+
+        assertEquals(PrioridadSolicitud.ALTA, prioridad("POST", "/api/equipos"));
+        assertEquals(PrioridadSolicitud.ALTA, prioridad("PUT", "/api/invitaciones/1/respuesta"));
+        assertEquals(PrioridadSolicitud.ALTA, prioridad("DELETE", "/api/miembros/2"));
+    }
+
+    private static PrioridadSolicitud prioridad(String metodo, String uri) {
+        return LimitadorConcurrenciaFilter.prioridad(new MockHttpServletRequest(metodo, uri));
+    }
+}
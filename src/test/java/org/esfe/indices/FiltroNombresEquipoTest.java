@@ -0,0 +1,184 @@
+package org.esfe.indices;
+
+import org.esfe.dtos.equipo.EquipoSalidaDto;
+import org.esfe.enums.TipoEventoEquipo;
+import org.esfe.eventos.EquipoEvento;
+import org.esfe.repositorios.IEquipoRepository;
+import org.esfe.repositorios.proyecciones.NombreEquipoProyeccion;
+import org.esfe.utilidades.Textos;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Prueba el filtro de nombres sin base de datos: el repositorio devuelve los nombres de una lista en
+ * memoria, por lotes, como findNombresDesde.
+ */
+class FiltroNombresEquipoTest {
+
+    private static final int LOTE = 100;
+
+    private record Fila(Integer id, String nombre, String nombreNormalizado) implements NombreEquipoProyeccion {
+        @Override
+        public Integer getId() {
+            return id;
+        }
+
+        @Override
+        public String getNombre() {
+            return nombre;
+        }
+
+        @Override
+        public String getNombreNormalizado() {
+            return nombreNormalizado;
+        }
+    }
+
+    private final List<Fila> filas = new CopyOnWriteArrayList<>();
+    private IEquipoRepository equipoRepository;
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void prepararRepositorio() {
+        equipoRepository = mock(IEquipoRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(equipoRepository.contarIncluyendoEliminados()).thenAnswer(invocacion -> (long) filas.size());
+        when(equipoRepository.findNombresDesde(anyInt(), anyInt())).thenAnswer(invocacion -> {
+            int ultimoId = invocacion.getArgument(0);
+            int limite = invocacion.getArgument(1);
+            return filas.stream().filter(f -> f.id() > ultimoId).limit(limite).map(f -> (NombreEquipoProyeccion) f).toList();
+        });
+        when(equipoRepository.completarNombreNormalizado(anyInt(), any())).thenReturn(1);
+    }
+
+    private FiltroNombresEquipo filtro(int capacidadMinima) {
+        return new FiltroNombresEquipo(equipoRepository, transactionManager, LOTE, 0.01, capacidadMinima);
+    }
+
+    private static String nombre(int i) {
+        return "Equipo Número " + i;
+    }
+
+    private static EquipoEvento creado(int id, String nombre) {
+        EquipoSalidaDto equipo = new EquipoSalidaDto();
+        equipo.setId(id);
+        equipo.setNombre(nombre);
+        return new EquipoEvento(TipoEventoEquipo.CREADO, id, equipo);
+    }
+
+    @Test
+    void noTieneFalsosNegativosNiDeLaCargaNiDeLosEventos() {
+        for (int i = 1; i <= 1_000; i++) {
+            filas.add(new Fila(i, nombre(i), Textos.normalizar(nombre(i))));
+        }
+        FiltroNombresEquipo filtro = filtro(10_000);
+        assertFalse(filtro.estaListo());
+        assertTrue(filtro.puedeExistir("cualquiera"), "Sin construir, todo nombre puede existir");
+
+        filtro.reconstruir();
+        assertTrue(filtro.estaListo());
+        for (int i = 1_001; i <= 2_000; i++) {
+            filtro.alCambiarEquipo(creado(i, nombre(i)));
+        }
+
+        for (int i = 1; i <= 2_000; i++) {
+            assertTrue(filtro.puedeExistir(Textos.normalizar(nombre(i))), nombre(i));
+        }
+        // Con 2.000 nombres en un filtro de 10.000 al 1 %, casi todos los ausentes se descartan
+        int falsosPositivos = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filtro.puedeExistir(Textos.normalizar("Ausente " + i))) {
+                falsosPositivos++;
+            }
+        }
+        assertTrue(falsosPositivos < 200, "Falsos positivos: " + falsosPositivos);
+    }
+
+    @Test
+    void normalizaLosNombresDeLosEventos() {
+        FiltroNombresEquipo filtro = filtro(1_000);
+        filtro.reconstruir();
+
+        filtro.alCambiarEquipo(creado(1, "Águilas"));
+
+        assertTrue(filtro.puedeExistir("aguilas"));
+        assertTrue(filtro.puedeExistir(Textos.normalizar("  AGUILAS ")));
+    }
+
+    @Test
+    void seReconstruyeConMasCapacidadAlSaturarse() throws Exception {
+        FiltroNombresEquipo filtro = filtro(100);
+        filtro.reconstruir();
+        assertEquals(100, filtro.capacidad());
+
+        // Los equipos se crean en la base de datos y llegan por eventos hasta superar la capacidad
+        for (int i = 1; i <= 150; i++) {
+            filas.add(new Fila(i, nombre(i), Textos.normalizar(nombre(i))));
+            filtro.alCambiarEquipo(creado(i, nombre(i)));
+        }
+
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (filtro.capacidad() == 100 && System.nanoTime() < limite) {
+            Thread.sleep(10);
+        }
+        // Nueva capacidad: el doble de los equipos que había al reconstruir (más de 100)
+        assertTrue(filtro.capacidad() > 100, () -> "Capacidad: " + filtro.capacidad());
+        for (int i = 1; i <= 150; i++) {
+            assertTrue(filtro.puedeExistir(Textos.normalizar(nombre(i))), nombre(i));
+        }
+    }
+
+    @Test
+    void completaLosNombresSinNormalizarEnUnaTransaccionPorLote() {
+        List<Integer> sinNormalizar = new ArrayList<>();
+        for (int i = 1; i <= 250; i++) {
+            boolean antiguo = i % 2 == 0;
+            filas.add(new Fila(i, nombre(i), antiguo ? null : Textos.normalizar(nombre(i))));
+            if (antiguo) {
+                sinNormalizar.add(i);
+            }
+        }
+
+        FiltroNombresEquipo filtro = filtro(1_000);
+        filtro.reconstruir();
+
+        // 250 filas en lotes de 100: tres transacciones, no una por fila
+        verify(transactionManager, times(3)).getTransaction(any(TransactionDefinition.class));
+        for (Integer id : sinNormalizar) {
+            verify(equipoRepository).completarNombreNormalizado(id, Textos.normalizar(nombre(id)));
+        }
+        assertTrue(filtro.puedeExistir(Textos.normalizar(nombre(2))));
+    }
+
+    @Test
+    void unNombreRepetidoNoImpideCompletarElRestoDelLote() {
+        filas.add(new Fila(1, "Águilas", "aguilas"));
+        filas.add(new Fila(2, "Leones", null));
+        filas.add(new Fila(3, "aguilas", null));
+        when(equipoRepository.completarNombreNormalizado(3, "aguilas"))
+                .thenThrow(new DataIntegrityViolationException("uk_equipos_nombre_normalizado"));
+
+        FiltroNombresEquipo filtro = filtro(1_000);
+        filtro.reconstruir();
+
+        // El lote falla entero y se repite fila por fila: 1 + 2 transacciones
+        verify(transactionManager, times(3)).getTransaction(any(TransactionDefinition.class));
+        verify(equipoRepository, times(2)).completarNombreNormalizado(eq(2), eq("leones"));
+        assertTrue(filtro.puedeExistir("leones"));
+        assertTrue(filtro.puedeExistir("aguilas"));
+    }
+}
@@ -0,0 +1,51 @@
+package org.esfe.indices;
+
+import org.esfe.modelos.NivelEquipo;
+import org.esfe.repositorios.IEquipoRepository;
+import org.esfe.repositorios.proyecciones.ConteoFacetaProyeccion;
+import org.esfe.repositorios.proyecciones.EquipoFichaProyeccion;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class IndiceFacetasTest {
+
+    private record Fila(Integer getId, String getNombre, String getLogo, Integer getTipoDeporteId, String getCiudad,
+                        NivelEquipo getNivel, Boolean getEstaActivo, Boolean getRequiereAprobacion,
+                        Integer getMaxMiembros, BigDecimal getCalificacionPromedio) implements EquipoFichaProyeccion {
+    }
+
+    private record Conteo(Integer getTipoDeporteId, NivelEquipo getNivel, String getCiudad, Boolean getEstaActivo,
+                          Long getTotal) implements ConteoFacetaProyeccion {
+    }
+
+    @Test
+    void laConciliacionReintentaUnaCargaInicialFallida() {
+        IEquipoRepository equipoRepository = mock(IEquipoRepository.class);
+        when(equipoRepository.findFichasDesde(anyInt(), any(Pageable.class)))
+                .thenThrow(new DataAccessResourceFailureException("Base de datos no disponible"))
+                .thenReturn(List.of(new Fila(1, "Tigres", null, 1, "San Salvador", NivelEquipo.INTERMEDIO,
+                        true, false, 15, BigDecimal.ONE)));
+        when(equipoRepository.contarPorFacetas())
+                .thenReturn(List.of(new Conteo(1, NivelEquipo.INTERMEDIO, "San Salvador", true, 1L)));
+        IndiceFacetas indice = new IndiceFacetas(equipoRepository, 100, false, 10);
+
+        indice.reconstruir();
+        assertFalse(indice.estaListo());
+
+        indice.reconciliar();
+        assertTrue(indice.estaListo());
+        // Con las facetas ya cargadas la conciliación compara contra el GROUP BY en lugar de recargar
+        indice.reconciliar();
+        verify(equipoRepository, times(2)).findFichasDesde(anyInt(), any(Pageable.class));
+        verify(equipoRepository).contarPorFacetas();
+    }
+}
@@ -0,0 +1,107 @@
+package org.esfe.indices;
+
+import org.esfe.dtos.equipo.EquipoMatchmakingConsultaDto;
+import org.esfe.dtos.equipo.EquipoMatchmakingDto;
+import org.esfe.dtos.equipo.EquipoSalidaDto;
+import org.esfe.enums.TipoEventoEquipo;
+import org.esfe.eventos.EquipoEvento;
+import org.esfe.modelos.NivelEquipo;
+import org.esfe.repositorios.IEquipoRepository;
+import org.esfe.repositorios.proyecciones.EquipoFichaProyeccion;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * Prueba la carga del índice de matchmaking sin base de datos: el repositorio devuelve fichas en
+ * memoria y puede fallar o publicar eventos a mitad de la carga.
+ */
+class IndiceMatchmakingTest {
+
+    private record Fila(Integer getId, String getNombre, String getLogo, Integer getTipoDeporteId, String getCiudad,
+                        NivelEquipo getNivel, Boolean getEstaActivo, Boolean getRequiereAprobacion,
+                        Integer getMaxMiembros, BigDecimal getCalificacionPromedio) implements EquipoFichaProyeccion {
+    }
+
+    private static Fila fila(int id, String nombre) {
+        return new Fila(id, nombre, null, 1, "San Salvador", NivelEquipo.INTERMEDIO, true, false, 15, BigDecimal.ONE);
+    }
+
+    private IEquipoRepository equipoRepository;
+    private IndiceMembresias indiceMembresias;
+    private IndiceMatchmaking indice;
+
+    @BeforeEach
+    void preparar() {
+        equipoRepository = mock(IEquipoRepository.class);
+        indiceMembresias = mock(IndiceMembresias.class);
+        when(indiceMembresias.estaListo()).thenReturn(true);
+        indice = new IndiceMatchmaking(equipoRepository, indiceMembresias, 100, 0, 0);
+    }
+
+    @AfterEach
+    void detener() {
+        indice.detener();
+    }
+
+    private List<String> nombres() {
+        EquipoMatchmakingConsultaDto consulta = new EquipoMatchmakingConsultaDto();
+        consulta.setTipoDeporteId(1);
+        return indice.buscar(consulta).stream().map(EquipoMatchmakingDto::getNombre).sorted().toList();
+    }
+
+    @Test
+    void unEventoDuranteLaCargaNoSePisaConLaFilaVieja() {
+        EquipoSalidaDto renombrado = new EquipoSalidaDto();
+        renombrado.setId(1);
+        renombrado.setNombre("Tigres FC");
+        renombrado.setTipoDeporteId(1);
+        renombrado.setCiudad("San Salvador");
+        renombrado.setNivel("INTERMEDIO");
+        renombrado.setEstaActivo(true);
+        renombrado.setRequiereAprobacion(false);
+        renombrado.setMaxMiembros(15);
+
+        // La consulta leyó la fila antes del cambio; el evento llega antes de que se indexe
+        when(equipoRepository.findFichasDesde(anyInt(), any(Pageable.class))).thenAnswer(invocacion -> {
+            List<EquipoFichaProyeccion> lote = List.of(fila(1, "Tigres"), fila(2, "Leones"));
+            indice.alCambiarEquipo(new EquipoEvento(TipoEventoEquipo.MODIFICADO, 1, renombrado));
+            return lote;
+        });
+
+        assertTrue(indice.reconstruir());
+        assertEquals(List.of("Leones", "Tigres FC"), nombres());
+    }
+
+    @Test
+    void reintentaLaCargaInicialHastaQueFunciona() throws Exception {
+        AtomicInteger intentos = new AtomicInteger();
+        when(equipoRepository.findFichasDesde(anyInt(), any(Pageable.class))).thenAnswer(invocacion -> {
+            if (intentos.incrementAndGet() <= 2) {
+                throw new DataAccessResourceFailureException("Base de datos no disponible");
+            }
+            return List.of(fila(1, "Tigres"));
+        });
+
+        indice.alIniciar();
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!indice.estaListo()) {
+            assertTrue(System.nanoTime() < limite, "El índice no se cargó tras " + intentos.get() + " intentos");
+            Thread.sleep(10);
+        }
+        assertEquals(3, intentos.get());
+        assertEquals(List.of("Tigres"), nombres());
+    }
+}
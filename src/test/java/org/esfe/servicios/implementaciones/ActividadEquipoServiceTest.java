@@ -0,0 +1,189 @@
+package org.esfe.servicios.implementaciones;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.esfe.cache.EquipoCache;
+import org.esfe.dtos.equipo.EquipoActividadSalidaDto;
+import org.esfe.dtos.equipo.EquipoReferenciaDto;
+import org.esfe.dtos.invitacion.InvitacionSalidaDto;
+import org.esfe.enums.EstadoInvitacion;
+import org.esfe.enums.TipoEventoEquipo;
+import org.esfe.enums.TipoEventoInvitacion;
+import org.esfe.eventos.EquipoEvento;
+import org.esfe.eventos.InvitacionEvento;
+import org.esfe.repositorios.IActividadEquipoRepository;
+import org.esfe.servicios.interfaces.IEquipoService;
+import org.esfe.sql.ContadorSentencias;
+import org.esfe.sql.ContadorSentencias.TipoSentencia;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba el volcado de las estadísticas de actividad contra H2: el upsert nativo que suma los deltas
+ * y la limpieza de la fila que un volcado en curso recrea para un equipo recién eliminado.
+ */
+@SpringBootTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=org.esfe.sql.ContadorSentencias")
+@ActiveProfiles("test")
+class ActividadEquipoServiceTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EquipoCache equipoCache;
+
+    @Autowired
+    private IEquipoService equipoService;
+
+    @Autowired
+    private IActividadEquipoRepository actividadRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ActividadEquipoService actividad;
+
+    @BeforeEach
+    void prepararDatos() {
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        for (String tabla : new String[]{"invitaciones_equipo", "equipo_miembros", "equipos", "equipo_actividad",
+                "equipos_archivo"}) {
+            jdbcTemplate.execute("TRUNCATE TABLE " + tabla + " RESTART IDENTITY");
+        }
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+
+        // 1 y 2: vigentes; 3: ya archivado (sus estadísticas se conservan)
+        jdbcTemplate.update("""
+                INSERT INTO equipos (id, nombre, nombre_normalizado, creado_por, tipo_deporte_id, ciudad, nivel, max_miembros, requiere_aprobacion,
+                                     calificacion_promedio, total_calificaciones, esta_activo, fecha_creacion, fecha_actualizacion)
+                VALUES (1, 'Tigres', 'tigres', 100, 1, 'San Salvador', 'INTERMEDIO', 15, FALSE, 4.50, 10, TRUE, NOW(), NOW()),
+                       (2, 'Leones', 'leones', 101, 1, 'Santa Ana', 'AVANZADO', 15, FALSE, 4.00, 3, TRUE, NOW(), NOW())
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO equipos_archivo (id, nombre, creado_por, tipo_deporte_id, esta_activo, fecha_creacion,
+                                             fecha_actualizacion, fecha_archivado)
+                VALUES (3, 'Pumas', 102, 1, FALSE, DATEADD('YEAR', -3, NOW()), DATEADD('YEAR', -2, NOW()), NOW())
+                """);
+
+        entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class).evictAllRegions();
+        for (int id = 1; id <= 3; id++) {
+            equipoCache.invalidar(id);
+        }
+
+        // Habilitado pero sin alIniciar: sin hilo de fondo, cada volcado lo dispara la prueba
+        actividad = new ActividadEquipoService(actividadRepository, equipoService, transactionManager, true, 60_000);
+    }
+
+    private static InvitacionEvento invitacion(TipoEventoInvitacion tipo, Integer equipoId, EstadoInvitacion estado,
+                                               long segundosRespuesta) {
+        EquipoReferenciaDto equipo = new EquipoReferenciaDto();
+        equipo.setId(equipoId);
+        InvitacionSalidaDto dto = new InvitacionSalidaDto();
+        dto.setEquipo(equipo);
+        dto.setEstado(estado);
+        LocalDateTime creada = LocalDateTime.now().minusHours(1);
+        dto.setFechaCreacion(creada);
+        if (estado != EstadoInvitacion.PENDIENTE) {
+            dto.setFechaRespuesta(creada.plusSeconds(segundosRespuesta));
+        }
+        return new InvitacionEvento(tipo, dto);
+    }
+
+    private long enviadas(Integer equipoId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT invitaciones_enviadas FROM equipo_actividad WHERE equipo_id = ?", Long.class, equipoId);
+    }
+
+    private int filas(Integer equipoId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM equipo_actividad WHERE equipo_id = ?", Integer.class, equipoId);
+    }
+
+    @Test
+    void elVolcadoCreaLaFilaYLuegoSumaSobreElla() {
+        for (int i = 0; i < 3; i++) {
+            actividad.alCambiarInvitacion(invitacion(TipoEventoInvitacion.CREADA, 1, EstadoInvitacion.PENDIENTE, 0));
+        }
+        actividad.alCambiarInvitacion(invitacion(TipoEventoInvitacion.RESPONDIDA, 1, EstadoInvitacion.ACEPTADA, 60));
+        actividad.alCambiarInvitacion(invitacion(TipoEventoInvitacion.CREADA, 2, EstadoInvitacion.PENDIENTE, 0));
+
+        ContadorSentencias.iniciar();
+        int volcados;
+        ContadorSentencias.Conteo conteo;
+        try {
+            volcados = actividad.volcar();
+        } finally {
+            conteo = ContadorSentencias.detener();
+        }
+        // Un upsert por equipo, sin leer antes
+        assertEquals(2, volcados);
+        assertEquals(2, conteo.de(TipoSentencia.INSERT), conteo::toString);
+        assertEquals(0, conteo.de(TipoSentencia.SELECT), conteo::toString);
+        assertEquals(3, enviadas(1));
+        assertEquals(1, enviadas(2));
+
+        // El segundo volcado suma sobre la fila existente; lo pendiente se ve antes de volcarse
+        actividad.alCambiarInvitacion(invitacion(TipoEventoInvitacion.CREADA, 1, EstadoInvitacion.PENDIENTE, 0));
+        actividad.alCambiarInvitacion(invitacion(TipoEventoInvitacion.RESPONDIDA, 1, EstadoInvitacion.RECHAZADA, 120));
+        EquipoActividadSalidaDto antes = actividad.obtenerPorEquipo(1).orElseThrow();
+        assertEquals(4, antes.getInvitacionesEnviadas());
+        assertEquals(1, antes.getInvitacionesRechazadas());
+
+        assertEquals(1, actividad.volcar());
+        assertEquals(0, actividad.volcar(), "Sin eventos nuevos no hay nada que volcar");
+
+        EquipoActividadSalidaDto despues = actividad.obtenerPorEquipo(1).orElseThrow();
+        assertEquals(4, despues.getInvitacionesEnviadas());
+        assertEquals(1, despues.getInvitacionesAceptadas());
+        assertEquals(1, despues.getInvitacionesRechazadas());
+        assertEquals(0.5, despues.getTasaAceptacion());
+        assertEquals(90.0, despues.getTiempoPromedioRespuestaSegundos());
+        assertEquals(1, enviadas(2));
+    }
+
+    @Test
+    void laEliminacionQuitaLaFilaQueRecreoUnVolcadoEnCurso() {
+        actividad.alCambiarInvitacion(invitacion(TipoEventoInvitacion.CREADA, 2, EstadoInvitacion.PENDIENTE, 0));
+
+        // El volcado sacó el delta antes de que se borrara el equipo: la fila se recrea sin equipo
+        jdbcTemplate.update("DELETE FROM equipos WHERE id = 2");
+        assertEquals(1, actividad.volcar());
+        assertEquals(1, filas(2));
+
+        actividad.alCambiarEquipo(new EquipoEvento(TipoEventoEquipo.ELIMINADO, 2, null));
+        assertEquals(0, filas(2));
+
+        // Eventos rezagados del equipo eliminado no vuelven a crearla
+        actividad.alCambiarInvitacion(invitacion(TipoEventoInvitacion.CREADA, 2, EstadoInvitacion.PENDIENTE, 0));
+        assertEquals(0, actividad.volcar());
+        assertEquals(0, filas(2));
+    }
+
+    @Test
+    void laEliminacionConservaLaFilaDeUnEquipoArchivado() {
+        actividad.alCambiarInvitacion(invitacion(TipoEventoInvitacion.CREADA, 3, EstadoInvitacion.PENDIENTE, 0));
+        actividad.alCambiarInvitacion(invitacion(TipoEventoInvitacion.CREADA, 1, EstadoInvitacion.PENDIENTE, 0));
+        assertEquals(2, actividad.volcar());
+
+        actividad.alCambiarEquipo(new EquipoEvento(TipoEventoEquipo.ELIMINADO, 3, null));
+        assertEquals(1, filas(3));
+        assertEquals(1, enviadas(3));
+
+        // Los demás equipos siguen acumulando con normalidad
+        actividad.alCambiarInvitacion(invitacion(TipoEventoInvitacion.CREADA, 1, EstadoInvitacion.PENDIENTE, 0));
+        assertEquals(1, actividad.volcar());
+        assertEquals(2, enviadas(1));
+    }
+}
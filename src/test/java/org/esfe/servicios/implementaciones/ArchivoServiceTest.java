@@ -0,0 +1,230 @@
+package org.esfe.servicios.implementaciones;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.esfe.cache.EquipoCache;
+import org.esfe.cache.PlantillaCache;
+import org.esfe.dtos.equipo.EquipoSalidaDto;
+import org.esfe.repositorios.IEquipoArchivadoRepository;
+import org.esfe.repositorios.IEquipoRepository;
+import org.esfe.repositorios.IInvitacionEquipoArchivadaRepository;
+import org.esfe.repositorios.IInvitacionEquipoRepository;
+import org.esfe.repositorios.IMiembroEquipoArchivadoRepository;
+import org.esfe.repositorios.IMiembroEquipoRepository;
+import org.esfe.servicios.interfaces.IEquipoService;
+import org.esfe.sql.ContadorSentencias;
+import org.esfe.sql.ContadorSentencias.TipoSentencia;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba el archivo de historial contra H2: copia con INSERT ... SELECT nativo, borrado por lotes,
+ * equipos que no se pueden archivar y lectura de un equipo archivado por ID.
+ */
+@SpringBootTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=org.esfe.sql.ContadorSentencias")
+@ActiveProfiles("test")
+class ArchivoServiceTest {
+
+    private static final int LOTE = 2;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EquipoCache equipoCache;
+
+    @Autowired
+    private PlantillaCache plantillaCache;
+
+    @Autowired
+    private IEquipoService equipoService;
+
+    @Autowired
+    private IInvitacionEquipoRepository invitacionRepository;
+
+    @Autowired
+    private IInvitacionEquipoArchivadaRepository invitacionArchivadaRepository;
+
+    @Autowired
+    private IEquipoRepository equipoRepository;
+
+    @Autowired
+    private IEquipoArchivadoRepository equipoArchivadoRepository;
+
+    @Autowired
+    private IMiembroEquipoRepository miembroEquipoRepository;
+
+    @Autowired
+    private IMiembroEquipoArchivadoRepository miembroArchivadoRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ArchivoService archivo;
+
+    @BeforeEach
+    void prepararDatos() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS referencias_prueba");
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        for (String tabla : new String[]{"invitaciones_equipo", "equipo_miembros", "equipos", "equipo_actividad",
+                "invitaciones_equipo_archivo", "equipo_miembros_archivo", "equipos_archivo"}) {
+            jdbcTemplate.execute("TRUNCATE TABLE " + tabla + " RESTART IDENTITY");
+        }
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+
+        // 1: activo; 4, 5 y 6: desactivados hace dos años (archivables)
+        jdbcTemplate.update("""
+                INSERT INTO equipos (id, nombre, nombre_normalizado, creado_por, tipo_deporte_id, ciudad, nivel, max_miembros, requiere_aprobacion,
+                                     calificacion_promedio, total_calificaciones, esta_activo, fecha_creacion, fecha_actualizacion)
+                VALUES (1, 'Tigres', 'tigres', 100, 1, 'San Salvador', 'INTERMEDIO', 15, FALSE, 4.50, 10, TRUE, NOW(), NOW()),
+                       (4, 'Pumas', 'pumas', 100, 1, 'San Miguel', 'AVANZADO', 15, FALSE, 4.00, 3, FALSE,
+                        DATEADD('YEAR', -3, NOW()), DATEADD('YEAR', -2, NOW())),
+                       (5, 'Halcones', 'halcones', 101, 2, 'Santa Ana', 'PRINCIPIANTE', 15, FALSE, 3.00, 1, FALSE,
+                        DATEADD('YEAR', -3, NOW()), DATEADD('YEAR', -2, NOW())),
+                       (6, 'Toros', 'toros', 102, 1, 'Sonsonate', 'INTERMEDIO', 15, FALSE, 3.50, 2, FALSE,
+                        DATEADD('YEAR', -3, NOW()), DATEADD('YEAR', -2, NOW()))
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO equipo_miembros (id, equipo_id, usuario_id, rol, numero_camiseta, posicion, estado, fecha_union)
+                VALUES (1, 1, 100, 'CAPITAN', 1, 'portero', 'ACTIVO', NOW()),
+                       (2, 4, 100, 'CAPITAN', 1, 'portero', 'ACTIVO', NOW()),
+                       (3, 4, 200, 'JUGADOR', 7, 'delantero', 'ACTIVO', NOW())
+                """);
+        // 1 a 5: respondidas hace un año; 6: pendiente antigua; 7: respondida ayer; 8: de un equipo archivable
+        jdbcTemplate.update("""
+                INSERT INTO invitaciones_equipo (id, equipo_id, usuario_invitado_id, usuario_remitente_id, usuario_respondio_id,
+                                                 mensaje, estado, fecha_respuesta, fecha_creacion)
+                VALUES (1, 1, 301, 100, 301, 'Hola', 'ACEPTADA', DATEADD('YEAR', -1, NOW()), DATEADD('YEAR', -1, NOW())),
+                       (2, 1, 302, 100, 302, 'Hola', 'RECHAZADA', DATEADD('YEAR', -1, NOW()), DATEADD('YEAR', -1, NOW())),
+                       (3, 1, 303, 100, 100, 'Hola', 'CANCELADA', DATEADD('YEAR', -1, NOW()), DATEADD('YEAR', -1, NOW())),
+                       (4, 1, 304, 100, 304, 'Hola', 'ACEPTADA', DATEADD('YEAR', -1, NOW()), DATEADD('YEAR', -1, NOW())),
+                       (5, 1, 305, 100, 305, 'Hola', 'RECHAZADA', DATEADD('YEAR', -1, NOW()), DATEADD('YEAR', -1, NOW())),
+                       (6, 1, 306, 100, NULL, 'Hola', 'PENDIENTE', NULL, DATEADD('YEAR', -1, NOW())),
+                       (7, 1, 307, 100, 307, 'Hola', 'ACEPTADA', DATEADD('DAY', -1, NOW()), DATEADD('DAY', -2, NOW())),
+                       (8, 4, 308, 100, NULL, 'Hola', 'PENDIENTE', NULL, DATEADD('YEAR', -2, NOW()))
+                """);
+
+        // El equipo 6 sigue referenciado desde otra tabla: borrarlo viola la FK
+        jdbcTemplate.execute("CREATE TABLE referencias_prueba (equipo_id INT NOT NULL, FOREIGN KEY (equipo_id) REFERENCES equipos(id))");
+        jdbcTemplate.update("INSERT INTO referencias_prueba (equipo_id) VALUES (6)");
+
+        entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class).evictAllRegions();
+        for (int id = 1; id <= 6; id++) {
+            equipoCache.invalidar(id);
+            plantillaCache.invalidar(id);
+        }
+
+        archivo = new ArchivoService(invitacionRepository, invitacionArchivadaRepository, equipoRepository,
+                equipoArchivadoRepository, miembroEquipoRepository, miembroArchivadoRepository, eventPublisher,
+                transactionManager, false, 60, 90, 365, LOTE, 50, 0);
+    }
+
+    @AfterEach
+    void limpiar() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS referencias_prueba");
+    }
+
+    private int contar(String sql) {
+        return jdbcTemplate.queryForObject(sql, Integer.class);
+    }
+
+    @Test
+    void mueveLasInvitacionesRespondidasPorLotes() {
+        ContadorSentencias.iniciar();
+        int movidas;
+        ContadorSentencias.Conteo conteo;
+        try {
+            movidas = archivo.archivarInvitacionesRespondidas();
+        } finally {
+            conteo = ContadorSentencias.detener();
+        }
+
+        assertEquals(5, movidas);
+        // Cinco filas en lotes de dos: tres INSERT ... SELECT y tres DELETE por IDs
+        assertEquals(3, conteo.de(TipoSentencia.INSERT), conteo::toString);
+        assertEquals(3, conteo.de(TipoSentencia.DELETE), conteo::toString);
+        assertTrue(conteo.sentencias().stream()
+                .anyMatch(sql -> sql.toLowerCase().startsWith("insert into invitaciones_equipo_archivo")));
+
+        assertEquals(5, contar("SELECT COUNT(*) FROM invitaciones_equipo_archivo WHERE id BETWEEN 1 AND 5 AND fecha_archivado IS NOT NULL"));
+        assertEquals(3, contar("SELECT COUNT(*) FROM invitaciones_equipo"));
+        assertEquals(0, contar("SELECT COUNT(*) FROM invitaciones_equipo WHERE id BETWEEN 1 AND 5"));
+        assertEquals("RECHAZADA", jdbcTemplate.queryForObject(
+                "SELECT estado FROM invitaciones_equipo_archivo WHERE id = 2", String.class));
+
+        // Una segunda ejecución no encuentra nada más que mover
+        assertEquals(0, archivo.archivarInvitacionesRespondidas());
+    }
+
+    @Test
+    void archivaEquiposInactivosConSusHijosYLosSigueSirviendoPorId() {
+        assertEquals(2, archivo.archivarEquiposInactivos());
+
+        // 4 y 5 se movieron con sus membresías e invitaciones; 6 queda en la tabla caliente por la FK
+        assertEquals(2, contar("SELECT COUNT(*) FROM equipos"));
+        assertEquals(2, contar("SELECT COUNT(*) FROM equipos_archivo WHERE id IN (4, 5)"));
+        assertEquals(0, contar("SELECT COUNT(*) FROM equipo_miembros WHERE equipo_id = 4"));
+        assertEquals(2, contar("SELECT COUNT(*) FROM equipo_miembros_archivo WHERE equipo_id = 4"));
+        assertEquals(0, contar("SELECT COUNT(*) FROM invitaciones_equipo WHERE equipo_id = 4"));
+        assertEquals(1, contar("SELECT COUNT(*) FROM invitaciones_equipo_archivo WHERE id = 8"));
+        assertEquals(1, contar("SELECT COUNT(*) FROM equipos WHERE id = 6"));
+        assertEquals(0, contar("SELECT COUNT(*) FROM equipos_archivo WHERE id = 6"));
+
+        // La lectura por ID cae al archivo cuando el equipo ya no está en la tabla caliente
+        Optional<EquipoSalidaDto> archivado = equipoService.obtenerPorId(4);
+        assertTrue(archivado.isPresent());
+        assertEquals("Pumas", archivado.get().getNombre());
+        assertFalse(archivado.get().getEstaActivo());
+        assertTrue(equipoService.obtenerPorId(99).isEmpty());
+        assertEquals(2, equipoService.obtenerPlantilla(4).orElseThrow().getTotalMiembros());
+    }
+
+    @Test
+    void plantillaVaciaDeUnEquipoVigenteNoConsultaElArchivo() {
+        ContadorSentencias.iniciar();
+        ContadorSentencias.Conteo conteo;
+        try {
+            assertEquals(0, equipoService.obtenerPlantilla(6).orElseThrow().getTotalMiembros());
+        } finally {
+            conteo = ContadorSentencias.detener();
+        }
+        assertTrue(conteo.sentencias().stream().noneMatch(sql -> sql.contains("equipo_miembros_archivo")),
+                () -> String.join(System.lineSeparator(), conteo.sentencias()));
+    }
+
+    @Test
+    void dejaDeReintentarUnEquipoQueFallaRepetidamente() {
+        for (int i = 0; i < ArchivoService.MAX_INTENTOS_EQUIPO; i++) {
+            archivo.archivarEquiposInactivos();
+        }
+
+        // Agotados los intentos, el equipo 6 ya no se vuelve a copiar ni borrar
+        ContadorSentencias.iniciar();
+        ContadorSentencias.Conteo conteo;
+        try {
+            assertEquals(0, archivo.archivarEquiposInactivos());
+        } finally {
+            conteo = ContadorSentencias.detener();
+        }
+        assertEquals(0, conteo.de(TipoSentencia.INSERT), conteo::toString);
+        assertEquals(0, conteo.de(TipoSentencia.DELETE), conteo::toString);
+        assertEquals(1, contar("SELECT COUNT(*) FROM equipos WHERE id = 6"));
+    }
+}
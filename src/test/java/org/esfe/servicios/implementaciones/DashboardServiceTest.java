@@ -0,0 +1,146 @@
+package org.esfe.servicios.implementaciones;
+
+import org.esfe.configuracion.ModelMapperConfig;
+import org.esfe.dtos.dashboard.DashboardUsuarioDto;
+import org.esfe.dtos.invitacion.InvitacionSalidaDto;
+import org.esfe.dtos.miembro.MiembroSalidaDto;
+import org.esfe.enums.EstadoInvitacion;
+import org.esfe.enums.EstadoMiembro;
+import org.esfe.enums.RolMiembro;
+import org.esfe.modelos.Equipo;
+import org.esfe.modelos.InvitacionEquipo;
+import org.esfe.modelos.MiembroEquipo;
+import org.esfe.repositorios.IEquipoRepository;
+import org.esfe.repositorios.IInvitacionEquipoRepository;
+import org.esfe.repositorios.IMiembroEquipoRepository;
+import org.esfe.servicios.DashboardNoDisponibleException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Prueba el armado del dashboard sin base de datos: mapeo de entidades con el equipo como proxy sin
+ * inicializar y el tiempo límite cuando una consulta no termina.
+ */
+class DashboardServiceTest {
+
+    private IEquipoRepository equipoRepository;
+    private IMiembroEquipoRepository miembroEquipoRepository;
+    private IInvitacionEquipoRepository invitacionRepository;
+
+    @BeforeEach
+    void preparar() {
+        equipoRepository = mock(IEquipoRepository.class);
+        miembroEquipoRepository = mock(IMiembroEquipoRepository.class);
+        invitacionRepository = mock(IInvitacionEquipoRepository.class);
+    }
+
+    private DashboardService dashboard(long timeoutMillis) {
+        return new DashboardService(equipoRepository, miembroEquipoRepository, invitacionRepository,
+                new ModelMapperConfig().modelMapper(false), mock(PlatformTransactionManager.class), timeoutMillis);
+    }
+
+    private static Equipo equipo(Integer id, String nombre) {
+        Equipo equipo = new Equipo();
+        equipo.setId(id);
+        equipo.setNombre(nombre);
+        equipo.setCiudad("San Salvador");
+        return equipo;
+    }
+
+    // Como el proxy de una sesión ya cerrada: solo el ID se puede leer
+    private static Equipo proxySinInicializar(Integer id) {
+        Equipo proxy = mock(Equipo.class, invocacion -> {
+            throw new IllegalStateException("Proxy sin inicializar: " + invocacion.getMethod().getName());
+        });
+        doReturn(id).when(proxy).getId();
+        return proxy;
+    }
+
+    @Test
+    void mapeaSinRecorrerElEquipoDeLasEntidades() {
+        MiembroEquipo miembro = new MiembroEquipo();
+        miembro.setId(7);
+        miembro.setEquipo(proxySinInicializar(1));
+        miembro.setUsuarioId(200);
+        miembro.setRol(RolMiembro.VICE_CAPITAN);
+        miembro.setEstado(EstadoMiembro.ACTIVO);
+        miembro.setNumeroCamiseta(10);
+
+        InvitacionEquipo invitacion = new InvitacionEquipo();
+        invitacion.setId(3);
+        invitacion.setEquipo(proxySinInicializar(2));
+        invitacion.setUsuarioInvitadoId(200);
+        invitacion.setUsuarioRemitenteId(101);
+        invitacion.setMensaje("Hola");
+        invitacion.setEstado(EstadoInvitacion.PENDIENTE);
+        invitacion.setFechaCreacion(LocalDateTime.of(2026, 1, 1, 10, 0));
+
+        when(miembroEquipoRepository.findListaEquipoIdsByUsuarioIdAndEstadoActivo(eq(200), any(Pageable.class)))
+                .thenReturn(List.of(1));
+        when(miembroEquipoRepository.findListaByUsuarioIdOrderByFechaUnionDesc(eq(200), any(Pageable.class)))
+                .thenReturn(List.of(miembro));
+        when(invitacionRepository.findListaByUsuarioInvitadoIdAndEstadoOrderByFechaCreacionDesc(
+                eq(200), eq(EstadoInvitacion.PENDIENTE), any(Pageable.class))).thenReturn(List.of(invitacion));
+        when(equipoRepository.findAllById(anyIterable())).thenReturn(List.of(equipo(1, "Tigres"), equipo(2, "Leones")));
+
+        DashboardUsuarioDto resultado = dashboard(5000).obtenerDashboard(200, 10);
+
+        assertEquals(List.of("Tigres"), resultado.getMisEquipos().stream().map(e -> e.getNombre()).toList());
+        MiembroSalidaDto membresia = resultado.getMembresias().get(0);
+        assertEquals(7, membresia.getId());
+        assertEquals(1, membresia.getEquipoId());
+        assertEquals("vice_capitan", membresia.getRol());
+        assertEquals("activo", membresia.getEstado());
+        assertEquals(10, membresia.getNumeroCamiseta());
+        assertEquals("Tigres", membresia.getEquipo().getNombre());
+
+        InvitacionSalidaDto pendiente = resultado.getInvitacionesPendientes().get(0);
+        assertEquals(3, pendiente.getId());
+        assertEquals("Hola", pendiente.getMensaje());
+        assertEquals(101, pendiente.getUsuarioRemitenteId());
+        assertEquals("Leones", pendiente.getEquipo().getNombre());
+        assertEquals("San Salvador", pendiente.getEquipo().getCiudad());
+    }
+
+    @Test
+    void responde503SinEsperarALaConsultaQueNoTermina() {
+        // Una consulta que ignora la interrupción, como una llamada JDBC bloqueada
+        when(miembroEquipoRepository.findListaEquipoIdsByUsuarioIdAndEstadoActivo(anyInt(), any(Pageable.class)))
+                .thenAnswer(invocacion -> {
+                    long hasta = System.nanoTime() + TimeUnit.SECONDS.toNanos(3);
+                    while (System.nanoTime() < hasta) {
+                        Thread.onSpinWait();
+                    }
+                    return List.of();
+                });
+
+        DashboardService servicio = dashboard(200);
+        long inicio = System.nanoTime();
+        assertThrows(DashboardNoDisponibleException.class, () -> servicio.obtenerDashboard(200, 10));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio) < 2000,
+                "La respuesta esperó a la consulta abandonada");
+    }
+
+    @Test
+    void unErrorDeLaConsultaNoSeConvierteEn503() {
+        when(miembroEquipoRepository.findListaEquipoIdsByUsuarioIdAndEstadoActivo(anyInt(), any(Pageable.class)))
+                .thenThrow(new IllegalStateException("Fallo de la base de datos"));
+
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> dashboard(5000).obtenerDashboard(200, 10));
+        assertEquals("Fallo de la base de datos", error.getMessage());
+    }
+}
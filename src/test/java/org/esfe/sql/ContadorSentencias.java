@@ -0,0 +1,102 @@
+package org.esfe.sql;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * StatementInspector de Hibernate que cuenta y clasifica las sentencias SQL ejecutadas entre
+ * {@link #iniciar()} y {@link #detener()}.
+ * <p>
+ * Se registra con {@code spring.jpa.properties.hibernate.session_factory.statement_inspector}.
+ * El conteo activo se hereda a los hilos creados durante la medición (p. ej. los hilos virtuales
+ * del dashboard), así que cubre todo lo que dispara una solicitud; una vez detenido, los hilos que
+ * lo hayan heredado dejan de sumar.
+ */
+public class ContadorSentencias implements StatementInspector {
+
+    public enum TipoSentencia {
+        SELECT, INSERT, UPDATE, DELETE, OTRA
+    }
+
+    public static final class Conteo {
+        private final Map<TipoSentencia, Integer> porTipo = new EnumMap<>(TipoSentencia.class);
+        private final List<String> sentencias = new ArrayList<>();
+        private volatile boolean activo = true;
+
+        private synchronized void registrar(String sql) {
+            if (!activo) {
+                return;
+            }
+            porTipo.merge(clasificar(sql), 1, Integer::sum);
+            sentencias.add(sql);
+        }
+
+        public synchronized int de(TipoSentencia tipo) {
+            return porTipo.getOrDefault(tipo, 0);
+        }
+
+        public synchronized int total() {
+            return sentencias.size();
+        }
+
+        public synchronized List<String> sentencias() {
+            return Collections.unmodifiableList(new ArrayList<>(sentencias));
+        }
+
+        @Override
+        public synchronized String toString() {
+            return "SELECT " + de(TipoSentencia.SELECT) + ", INSERT " + de(TipoSentencia.INSERT)
+                    + ", UPDATE " + de(TipoSentencia.UPDATE) + ", DELETE " + de(TipoSentencia.DELETE)
+                    + ", OTRA " + de(TipoSentencia.OTRA);
+        }
+    }
+
+    private static final InheritableThreadLocal<Conteo> ACTUAL = new InheritableThreadLocal<>();
+
+    public static void iniciar() {
+        ACTUAL.set(new Conteo());
+    }
+
+    public static Conteo detener() {
+        Conteo conteo = ACTUAL.get();
+        ACTUAL.remove();
+        if (conteo == null) {
+            throw new IllegalStateException("No hay un conteo de sentencias en curso");
+        }
+        conteo.activo = false;
+        return conteo;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Conteo conteo = ACTUAL.get();
+        if (conteo != null) {
+            conteo.registrar(sql);
+        }
+        return sql;
+    }
+
+    static TipoSentencia clasificar(String sql) {
+        String inicio = sql.stripLeading().toLowerCase(Locale.ROOT);
+        // Las CTE (with ...) de este proyecto son siempre lecturas
+        if (inicio.startsWith("select") || inicio.startsWith("with") || inicio.startsWith("(select")) {
+            return TipoSentencia.SELECT;
+        }
+        if (inicio.startsWith("insert")) {
+            return TipoSentencia.INSERT;
+        }
+        if (inicio.startsWith("update")) {
+            return TipoSentencia.UPDATE;
+        }
+        if (inicio.startsWith("delete")) {
+            return TipoSentencia.DELETE;
+        }
+        return TipoSentencia.OTRA;
+    }
+}